@@ -0,0 +1,124 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.ExecutionStrategy;
+import com.thebuzzmedia.exiftool.ExifTool;
+import com.thebuzzmedia.exiftool.ExifToolBuilder;
+import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.core.schedulers.NoOpScheduler;
+import com.thebuzzmedia.exiftool.core.strategies.StayOpenStrategy;
+import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.List;
+
+import static com.thebuzzmedia.exiftool.tests.TestConstants.EXIF_TOOL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Record the output fixtures used by benchmarks (see {@link Fixtures}), with the bundled {@code exiftool}.
+ *
+ * <br>
+ *
+ * Usage: {@code FixtureRecorder [output directory]}, the default output directory being
+ * {@code src/jmh/resources/fixtures}.
+ */
+public final class FixtureRecorder {
+
+	// Ensure non instantiation.
+	private FixtureRecorder() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		File directory = new File(args.length > 0 ? args[0] : "src/jmh/resources/fixtures");
+		Files.createDirectories(directory.toPath());
+
+		RecordingStrategy strategy = new RecordingStrategy(new StayOpenStrategy(new NoOpScheduler()));
+		try (ExifTool exifTool = new ExifToolBuilder().withPath(EXIF_TOOL.getAbsolutePath()).withStrategy(strategy).build()) {
+			for (File image : Fixtures.images()) {
+				File fixture = new File(directory, image.getName() + ".txt");
+				try (OutputStream os = Files.newOutputStream(fixture.toPath()); Writer writer = new OutputStreamWriter(os, UTF_8)) {
+					strategy.writer = writer;
+					exifTool.getImageMeta(image, Fixtures.TAGS);
+				}
+
+				System.out.println("Recorded " + fixture);
+			}
+		}
+	}
+
+	/**
+	 * Strategy writing output lines, as they are read by the handler.
+	 */
+	private static final class RecordingStrategy implements ExecutionStrategy {
+		private final ExecutionStrategy delegate;
+		private Writer writer;
+
+		private RecordingStrategy(ExecutionStrategy delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void execute(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+			delegate.execute(executor, exifTool, arguments, line -> {
+				if (line != null) {
+					write(line);
+				}
+
+				return handler.readLine(line);
+			});
+		}
+
+		private void write(String line) {
+			try {
+				writer.write(line);
+				writer.write('\n');
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		@Override
+		public boolean isRunning() {
+			return delegate.isRunning();
+		}
+
+		@Override
+		public boolean isSupported(Version version) {
+			return delegate.isSupported(version);
+		}
+
+		@Override
+		public void close() throws Exception {
+			delegate.close();
+		}
+
+		@Override
+		public void shutdown() throws Exception {
+			delegate.shutdown();
+		}
+	}
+}
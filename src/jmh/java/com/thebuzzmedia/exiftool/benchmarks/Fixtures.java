@@ -0,0 +1,134 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Recorded {@code exiftool} output of test images, used to benchmark output parsing
+ * without running {@code exiftool}.
+ *
+ * <br>
+ *
+ * Each fixture is the output of {@code getImageMeta} (with all {@link StandardTag}) for an image
+ * of {@code src/test/resources/images}, as read from a {@code stay_open} process: see {@link FixtureRecorder}.
+ */
+public final class Fixtures {
+
+	/**
+	 * Tags queried by fixtures.
+	 */
+	public static final List<Tag> TAGS = unmodifiableList(asList(StandardTag.values()));
+
+	/**
+	 * Classpath directory of fixtures.
+	 */
+	static final String DIRECTORY = "/fixtures/";
+
+	// Ensure non instantiation.
+	private Fixtures() {
+	}
+
+	/**
+	 * Get the test images.
+	 *
+	 * @return Images, sorted by name.
+	 */
+	public static List<File> images() {
+		URL url = Fixtures.class.getResource("/images");
+		if (url == null) {
+			throw new IllegalStateException("Cannot find test images on classpath");
+		}
+
+		try {
+			File[] files = new File(url.toURI()).listFiles(File::isFile);
+			Arrays.sort(files);
+			return unmodifiableList(asList(files));
+		}
+		catch (URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Get the recorded output of each test image.
+	 *
+	 * @return Output lines, by image.
+	 */
+	public static Map<File, List<String>> lines() {
+		Map<File, List<String>> lines = new LinkedHashMap<>();
+		for (Map.Entry<File, byte[]> entry : bytes().entrySet()) {
+			String output = new String(entry.getValue(), UTF_8);
+			lines.put(entry.getKey(), unmodifiableList(new ArrayList<>(asList(output.split("\n")))));
+		}
+
+		return unmodifiableMap(lines);
+	}
+
+	/**
+	 * Get the recorded output of each test image, as read from the process output.
+	 *
+	 * @return Output, by image.
+	 */
+	public static Map<File, byte[]> bytes() {
+		Map<File, byte[]> fixtures = new LinkedHashMap<>();
+		for (File image : images()) {
+			try (InputStream is = Fixtures.class.getResourceAsStream(DIRECTORY + image.getName() + ".txt")) {
+				if (is == null) {
+					throw new IllegalStateException("Missing fixture for image " + image.getName() + ", record it with FixtureRecorder");
+				}
+
+				fixtures.put(image, read(is));
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		return Collections.unmodifiableMap(fixtures);
+	}
+
+	private static byte[] read(InputStream is) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = is.read(buffer)) != -1) {
+			os.write(buffer, 0, n);
+		}
+
+		return os.toByteArray();
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.ExecutionStrategy;
+import com.thebuzzmedia.exiftool.ExifTool;
+import com.thebuzzmedia.exiftool.ExifToolBuilder;
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.process.Command;
+import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.CommandProcess;
+import com.thebuzzmedia.exiftool.process.CommandResult;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the Java side of {@link ExifTool#getImageMeta(File, java.util.Collection)}: building
+ * command arguments (options serialization, tags and image arguments) and reading the output. The
+ * execution strategy replays the recorded output of the image, so {@code exiftool} is never run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetImageMetaReplayBenchmark {
+
+	private ExifTool exifTool;
+
+	private List<File> images;
+
+	@Setup
+	public void setUp() {
+		Map<String, List<String>> outputs = new HashMap<>();
+		for (Map.Entry<File, List<String>> entry : Fixtures.lines().entrySet()) {
+			outputs.put(entry.getKey().getAbsolutePath(), entry.getValue());
+		}
+
+		images = Fixtures.images();
+		exifTool = new ExifToolBuilder()
+				.withPath("exiftool-replay")
+				.withExecutor(new VersionExecutor())
+				.withStrategy(new ReplayStrategy(outputs))
+				.build();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		exifTool.close();
+	}
+
+	@Benchmark
+	public int getImageMeta() throws IOException {
+		int size = 0;
+		for (File image : images) {
+			Map<Tag, String> tags = exifTool.getImageMeta(image, Fixtures.TAGS);
+			size += tags.size();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Strategy replaying the recorded output of the image given as argument.
+	 */
+	private static final class ReplayStrategy implements ExecutionStrategy {
+		private final Map<String, List<String>> outputs;
+
+		private ReplayStrategy(Map<String, List<String>> outputs) {
+			this.outputs = outputs;
+		}
+
+		@Override
+		public void execute(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) {
+			// Arguments end with the image path, followed by "-execute".
+			List<String> lines = outputs.get(arguments.get(arguments.size() - 2));
+			for (String line : lines) {
+				if (!handler.readLine(line)) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean isRunning() {
+			return false;
+		}
+
+		@Override
+		public boolean isSupported(Version version) {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void shutdown() {
+		}
+	}
+
+	/**
+	 * Executor only answering the version command, run once when {@link ExifTool} is created.
+	 */
+	private static final class VersionExecutor implements CommandExecutor {
+		@Override
+		public CommandResult execute(Command command) {
+			return new CommandResult() {
+				@Override
+				public int getExitStatus() {
+					return 0;
+				}
+
+				@Override
+				public boolean isSuccess() {
+					return true;
+				}
+
+				@Override
+				public boolean isFailure() {
+					return false;
+				}
+
+				@Override
+				public String getOutput() {
+					return "10.16";
+				}
+			};
+		}
+
+		@Override
+		public CommandResult execute(Command command, OutputHandler handler) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public CommandProcess start(Command command) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
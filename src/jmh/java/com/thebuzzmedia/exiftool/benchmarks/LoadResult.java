@@ -0,0 +1,110 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Result of a {@link LoadScenario}: throughput and latency percentiles of the operations
+ * completed during the measurement.
+ */
+final class LoadResult {
+
+	/**
+	 * Header of the CSV output, matching {@link #toCsv()}.
+	 */
+	static final String CSV_HEADER = "strategy,size,concurrency,tagSet,tagCount,writeRatio,operations,reads,writes,errors,seconds,filesPerSecond,p50Millis,p99Millis,maxMillis";
+
+	private final LoadScenario scenario;
+
+	private final int reads;
+
+	private final int writes;
+
+	private final int errors;
+
+	private final double seconds;
+
+	/**
+	 * Sorted latencies of completed operations, in nanoseconds.
+	 */
+	private final long[] latencies;
+
+	LoadResult(LoadScenario scenario, int reads, int writes, int errors, double seconds, long[] latencies) {
+		this.scenario = scenario;
+		this.reads = reads;
+		this.writes = writes;
+		this.errors = errors;
+		this.seconds = seconds;
+		this.latencies = latencies.clone();
+		Arrays.sort(this.latencies);
+	}
+
+	int getOperations() {
+		return reads + writes;
+	}
+
+	double getFilesPerSecond() {
+		return seconds > 0 ? getOperations() / seconds : 0;
+	}
+
+	/**
+	 * Get a latency percentile (nearest-rank method).
+	 *
+	 * @param percentile Percentile, between 0 and 100.
+	 * @return Latency, in milliseconds, {@code 0} if no operation has completed.
+	 */
+	double getLatency(double percentile) {
+		if (latencies.length == 0) {
+			return 0;
+		}
+
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return toMillis(latencies[Math.max(0, Math.min(latencies.length, rank) - 1)]);
+	}
+
+	double getMaxLatency() {
+		return latencies.length == 0 ? 0 : toMillis(latencies[latencies.length - 1]);
+	}
+
+	String toCsv() {
+		return String.format(Locale.ROOT, "%s,%d,%d,%s,%d,%.2f,%d,%d,%d,%d,%.3f,%.2f,%.3f,%.3f,%.3f",
+				scenario.getStrategy(), scenario.getSize(), scenario.getConcurrency(), scenario.getTagSet(), scenario.getTags().size(),
+				scenario.getWriteRatio(), getOperations(), reads, writes, errors, seconds, getFilesPerSecond(),
+				getLatency(50), getLatency(99), getMaxLatency());
+	}
+
+	String toJson() {
+		return String.format(Locale.ROOT, "{\"strategy\":\"%s\",\"size\":%d,\"concurrency\":%d,\"tagSet\":\"%s\",\"tagCount\":%d,\"writeRatio\":%.2f," +
+						"\"operations\":%d,\"reads\":%d,\"writes\":%d,\"errors\":%d,\"seconds\":%.3f,\"filesPerSecond\":%.2f," +
+						"\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"maxMillis\":%.3f}",
+				scenario.getStrategy(), scenario.getSize(), scenario.getConcurrency(), scenario.getTagSet(), scenario.getTags().size(),
+				scenario.getWriteRatio(), getOperations(), reads, writes, errors, seconds, getFilesPerSecond(),
+				getLatency(50), getLatency(99), getMaxLatency());
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%-60s %8.2f files/s  p50=%8.3f ms  p99=%8.3f ms  errors=%d",
+				scenario, getFilesPerSecond(), getLatency(50), getLatency(99), errors);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.ExifToolBuilder;
+import com.thebuzzmedia.exiftool.Tag;
+
+import java.util.List;
+
+/**
+ * A load test scenario: an execution strategy, with its settings, run with a given
+ * concurrency, tag set and mix of read and write operations.
+ */
+final class LoadScenario {
+
+	/**
+	 * Execution strategies that can be tested.
+	 */
+	enum Strategy {
+		DEFAULT,
+		STAY_OPEN,
+		POOL,
+		PIPELINED
+	}
+
+	private final Strategy strategy;
+
+	/**
+	 * Pool size with {@link Strategy#POOL}, maximum number of commands in flight
+	 * with {@link Strategy#PIPELINED}, ignored otherwise.
+	 */
+	private final int size;
+
+	private final int concurrency;
+
+	private final String tagSet;
+
+	private final List<Tag> tags;
+
+	private final double writeRatio;
+
+	LoadScenario(Strategy strategy, int size, int concurrency, String tagSet, List<Tag> tags, double writeRatio) {
+		this.strategy = strategy;
+		this.size = size;
+		this.concurrency = concurrency;
+		this.tagSet = tagSet;
+		this.tags = tags;
+		this.writeRatio = writeRatio;
+	}
+
+	/**
+	 * Configure the strategy of the scenario.
+	 *
+	 * @param builder The builder.
+	 * @return The builder.
+	 */
+	ExifToolBuilder configure(ExifToolBuilder builder) {
+		switch (strategy) {
+			case STAY_OPEN:
+				return builder.enableStayOpen();
+			case POOL:
+				return builder.withPoolSize(size);
+			case PIPELINED:
+				return builder.enablePipelining(size);
+			default:
+				return builder;
+		}
+	}
+
+	Strategy getStrategy() {
+		return strategy;
+	}
+
+	int getSize() {
+		return size;
+	}
+
+	int getConcurrency() {
+		return concurrency;
+	}
+
+	String getTagSet() {
+		return tagSet;
+	}
+
+	List<Tag> getTags() {
+		return tags;
+	}
+
+	double getWriteRatio() {
+		return writeRatio;
+	}
+
+	@Override
+	public String toString() {
+		String settings = strategy == Strategy.POOL || strategy == Strategy.PIPELINED ? "(" + size + ")" : "";
+		return strategy + settings + " concurrency=" + concurrency + " tags=" + tagSet + " writeRatio=" + writeRatio;
+	}
+}
@@ -0,0 +1,407 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.ExifTool;
+import com.thebuzzmedia.exiftool.ExifToolBuilder;
+import com.thebuzzmedia.exiftool.ExifToolOptions;
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardOptions;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.WriteResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.thebuzzmedia.exiftool.tests.TestConstants.EXIF_TOOL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Load test harness, used to size pools: each {@link LoadScenario} (execution strategy, pool size,
+ * concurrency, tag set and read/write mix) is run with the bundled {@code exiftool} against copies of the
+ * test images, then throughput (files per second) and latency percentiles are reported.
+ *
+ * <br>
+ *
+ * Results are printed, and written as CSV ({@code <output>.csv}) and JSON ({@code <output>.json}) to be
+ * tracked across releases. Run with:
+ *
+ * <pre><code>
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.thebuzzmedia.exiftool.benchmarks.LoadTest -Djmh.args="--duration=5"
+ * </code></pre>
+ *
+ * Options (lists are comma separated):
+ * <ul>
+ *   <li>{@code --strategies}: strategies, among {@code DEFAULT}, {@code STAY_OPEN}, {@code POOL}, {@code PIPELINED} (default: all).</li>
+ *   <li>{@code --poolSizes}: pool sizes, used by {@code POOL} (default: {@code 1,2,4,8}).</li>
+ *   <li>{@code --inFlight}: maximum number of commands in flight, used by {@code PIPELINED} (default: {@code 8}).</li>
+ *   <li>{@code --concurrency}: number of threads running operations (default: {@code 1,4,8}).</li>
+ *   <li>{@code --tags}: tag sets, the first {@code N} standard tags or {@code all} (default: {@code 5,all}).</li>
+ *   <li>{@code --writeRatios}: ratio of write operations, between 0 and 1 (default: {@code 0,0.2}).</li>
+ *   <li>{@code --warmup}: warmup duration of each scenario, in seconds (default: {@code 2}).</li>
+ *   <li>{@code --duration}: measurement duration of each scenario, in seconds (default: {@code 10}).</li>
+ *   <li>{@code --output}: path of result files, without extension (default: {@code target/load-test/results}).</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+	private static final Map<String, String> DEFAULTS;
+
+	static {
+		Map<String, String> defaults = new LinkedHashMap<>();
+		defaults.put("strategies", "DEFAULT,STAY_OPEN,POOL,PIPELINED");
+		defaults.put("poolSizes", "1,2,4,8");
+		defaults.put("inFlight", "8");
+		defaults.put("concurrency", "1,4,8");
+		defaults.put("tags", "5,all");
+		defaults.put("writeRatios", "0,0.2");
+		defaults.put("warmup", "2");
+		defaults.put("duration", "10");
+		defaults.put("output", "target/load-test/results");
+		DEFAULTS = defaults;
+	}
+
+	/**
+	 * Options of write operations: do not keep a copy of the original image, and ignore minor errors
+	 * (some test images have minor errors once rewritten, that would fail next writes).
+	 */
+	private static final ExifToolOptions WRITE_OPTIONS = StandardOptions.builder().withOverwriteOriginal().withIgnoreMinorErrors(true).build();
+
+	/**
+	 * Tag updated by write operations.
+	 */
+	private static final Map<Tag, String> WRITE_TAGS = singletonMap(StandardTag.COMMENT, "exiftool load test");
+
+	// Ensure non instantiation.
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parseOptions(args);
+		List<LoadScenario> scenarios = scenarios(options);
+		long warmup = Long.parseLong(options.get("warmup"));
+		long duration = Long.parseLong(options.get("duration"));
+		int maxConcurrency = scenarios.stream().mapToInt(LoadScenario::getConcurrency).max().orElse(1);
+
+		String version;
+		try (ExifTool exifTool = new ExifToolBuilder().withPath(EXIF_TOOL.getAbsolutePath()).build()) {
+			version = exifTool.getVersion().toString();
+		}
+
+		System.out.println("Load test [exiftool=" + version + ", scenarios=" + scenarios.size() + ", warmup=" + warmup + "s, duration=" + duration + "s]");
+
+		// Each thread works on its own copy of the images: writes replace files.
+		Path workDirectory = Files.createTempDirectory("exiftool-load-test");
+		List<File> outputs = new ArrayList<>();
+		try {
+			List<List<File>> images = copyImages(workDirectory, maxConcurrency);
+			List<LoadResult> results = new ArrayList<>(scenarios.size());
+			for (LoadScenario scenario : scenarios) {
+				LoadResult result = run(scenario, images, warmup, duration);
+				System.out.println(result);
+				results.add(result);
+			}
+
+			outputs.add(writeCsv(new File(options.get("output") + ".csv"), results));
+			outputs.add(writeJson(new File(options.get("output") + ".json"), version, results));
+		}
+		finally {
+			deleteRecursively(workDirectory);
+		}
+
+		for (File output : outputs) {
+			System.out.println("Results written to " + output);
+		}
+	}
+
+	private static LoadResult run(LoadScenario scenario, List<List<File>> images, long warmup, long duration) throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(scenario.getConcurrency());
+		try (ExifTool exifTool = scenario.configure(new ExifToolBuilder().withPath(EXIF_TOOL.getAbsolutePath())).build()) {
+			runPhase(exifTool, scenario, images, threads, warmup);
+			return runPhase(exifTool, scenario, images, threads, duration);
+		}
+		finally {
+			threads.shutdownNow();
+		}
+	}
+
+	private static LoadResult runPhase(ExifTool exifTool, LoadScenario scenario, List<List<File>> images, ExecutorService threads, long seconds) throws Exception {
+		long start = System.nanoTime();
+		long deadline = start + seconds * 1_000_000_000L;
+
+		List<Future<Worker>> futures = new ArrayList<>(scenario.getConcurrency());
+		for (int i = 0; i < scenario.getConcurrency(); i++) {
+			futures.add(threads.submit(new Worker(exifTool, scenario, images.get(i), new Random(i), deadline)));
+		}
+
+		int reads = 0;
+		int writes = 0;
+		int errors = 0;
+		String firstError = null;
+		long[] latencies = new long[0];
+		for (Future<Worker> future : futures) {
+			Worker worker = future.get();
+			reads += worker.reads;
+			writes += worker.writes;
+			errors += worker.errors;
+			firstError = firstError == null ? worker.firstError : firstError;
+
+			int offset = latencies.length;
+			latencies = Arrays.copyOf(latencies, offset + worker.count);
+			System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+		}
+
+		double elapsed = (System.nanoTime() - start) / 1_000_000_000.0;
+		if (firstError != null) {
+			System.err.println("[" + scenario + "] " + errors + " operations failed, first error: " + firstError);
+		}
+
+		return new LoadResult(scenario, reads, writes, errors, elapsed, latencies);
+	}
+
+	private static List<LoadScenario> scenarios(Map<String, String> options) {
+		List<LoadScenario> scenarios = new ArrayList<>();
+		for (String name : split(options.get("strategies"))) {
+			LoadScenario.Strategy strategy = LoadScenario.Strategy.valueOf(name);
+			List<String> sizes = sizes(strategy, options);
+
+			for (String size : sizes) {
+				for (String concurrency : split(options.get("concurrency"))) {
+					for (String tagSet : split(options.get("tags"))) {
+						for (String writeRatio : split(options.get("writeRatios"))) {
+							scenarios.add(new LoadScenario(strategy, Integer.parseInt(size), Integer.parseInt(concurrency), tagSet, tags(tagSet), Double.parseDouble(writeRatio)));
+						}
+					}
+				}
+			}
+		}
+
+		return scenarios;
+	}
+
+	private static List<String> sizes(LoadScenario.Strategy strategy, Map<String, String> options) {
+		switch (strategy) {
+			case POOL:
+				return split(options.get("poolSizes"));
+			case PIPELINED:
+				return split(options.get("inFlight"));
+			default:
+				return split("0");
+		}
+	}
+
+	private static List<Tag> tags(String tagSet) {
+		StandardTag[] tags = StandardTag.values();
+		int count = "all".equals(tagSet) ? tags.length : Math.min(tags.length, Integer.parseInt(tagSet));
+		return unmodifiableList(Arrays.asList(Arrays.copyOf(tags, count, Tag[].class)));
+	}
+
+	private static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			String name = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : null;
+			if (name == null || !DEFAULTS.containsKey(name)) {
+				throw new IllegalArgumentException("Unknown option '" + arg + "', available options are: " + DEFAULTS.keySet());
+			}
+
+			options.put(name, arg.substring(separator + 1));
+		}
+
+		return options;
+	}
+
+	private static List<String> split(String value) {
+		List<String> values = new ArrayList<>();
+		for (String part : value.split(",")) {
+			if (!part.trim().isEmpty()) {
+				values.add(part.trim());
+			}
+		}
+
+		return values;
+	}
+
+	private static List<List<File>> copyImages(Path directory, int count) throws IOException {
+		List<File> images = Fixtures.images();
+		List<List<File>> copies = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Path target = Files.createDirectory(directory.resolve("worker-" + i));
+			List<File> files = new ArrayList<>(images.size());
+			for (File image : images) {
+				files.add(Files.copy(image.toPath(), target.resolve(image.getName())).toFile());
+			}
+
+			copies.add(files);
+		}
+
+		return copies;
+	}
+
+	private static File writeCsv(File file, List<LoadResult> results) throws IOException {
+		try (Writer writer = newWriter(file)) {
+			writer.write(LoadResult.CSV_HEADER);
+			writer.write('\n');
+			for (LoadResult result : results) {
+				writer.write(result.toCsv());
+				writer.write('\n');
+			}
+		}
+
+		return file;
+	}
+
+	private static File writeJson(File file, String version, List<LoadResult> results) throws IOException {
+		try (Writer writer = newWriter(file)) {
+			writer.write("{\n");
+			writer.write("  \"exiftoolVersion\": \"" + version + "\",\n");
+			writer.write("  \"javaVersion\": \"" + System.getProperty("java.version") + "\",\n");
+			writer.write("  \"availableProcessors\": " + Runtime.getRuntime().availableProcessors() + ",\n");
+			writer.write("  \"timestamp\": \"" + Instant.now() + "\",\n");
+			writer.write("  \"results\": [");
+			for (int i = 0; i < results.size(); i++) {
+				writer.write(i == 0 ? "\n    " : ",\n    ");
+				writer.write(results.get(i).toJson());
+			}
+
+			writer.write("\n  ]\n}\n");
+		}
+
+		return file;
+	}
+
+	private static Writer newWriter(File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		Files.createDirectories(parent.toPath());
+		return Files.newBufferedWriter(file.toPath(), UTF_8);
+	}
+
+	private static void deleteRecursively(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	/**
+	 * Run operations of a scenario on its own images, until the deadline.
+	 */
+	private static final class Worker implements Callable<Worker> {
+		private final ExifTool exifTool;
+		private final LoadScenario scenario;
+		private final List<File> images;
+		private final Random random;
+		private final long deadline;
+
+		private int reads;
+		private int writes;
+		private int errors;
+		private String firstError;
+
+		/**
+		 * Latencies of successful operations, in nanoseconds: only the first {@link #count} are set.
+		 */
+		private long[] latencies = new long[1024];
+		private int count;
+
+		private Worker(ExifTool exifTool, LoadScenario scenario, List<File> images, Random random, long deadline) {
+			this.exifTool = exifTool;
+			this.scenario = scenario;
+			this.images = images;
+			this.random = random;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public Worker call() {
+			int next = 0;
+			while (System.nanoTime() < deadline) {
+				File image = images.get(next++ % images.size());
+				boolean write = random.nextDouble() < scenario.getWriteRatio();
+
+				long start = System.nanoTime();
+				boolean success = write ? write(image) : read(image);
+				long latency = System.nanoTime() - start;
+
+				if (!success) {
+					errors++;
+				}
+				else {
+					if (write) {
+						writes++;
+					}
+					else {
+						reads++;
+					}
+
+					if (count == latencies.length) {
+						latencies = Arrays.copyOf(latencies, count * 2);
+					}
+
+					latencies[count++] = latency;
+				}
+			}
+
+			return this;
+		}
+
+		private boolean read(File image) {
+			try {
+				exifTool.getImageMeta(image, scenario.getTags());
+				return true;
+			}
+			catch (IOException | RuntimeException ex) {
+				return error(image, ex.toString());
+			}
+		}
+
+		private boolean write(File image) {
+			try {
+				WriteResult result = exifTool.writeImageMeta(image, WRITE_OPTIONS, WRITE_TAGS);
+				return result.isSuccess() || error(image, result.toString());
+			}
+			catch (IOException | RuntimeException ex) {
+				return error(image, ex.toString());
+			}
+		}
+
+		private boolean error(File image, String message) {
+			if (firstError == null) {
+				firstError = image.getName() + ": " + message;
+			}
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.core.StandardFormat;
+import com.thebuzzmedia.exiftool.core.StandardOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark {@link StandardOptions#serialize()}, with default options and with most options set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptionsSerializeBenchmark {
+
+	private StandardOptions defaultOptions;
+
+	private StandardOptions fullOptions;
+
+	@Setup
+	public void setUp() {
+		defaultOptions = StandardOptions.builder().build();
+		fullOptions = StandardOptions.builder()
+				.withFormat(StandardFormat.HUMAN_READABLE)
+				.withIgnoreMinorErrors(true)
+				.withCoordFormat("%+.6f")
+				.withDateFormat("%Y-%m-%dT%H:%M:%S")
+				.withCharset("UTF8")
+				.withLang("fr")
+				.withDuplicates(true)
+				.withExtractEmbedded(true)
+				.withExtractUnknown(true)
+				.withGroupNames(true)
+				.withExtensions("jpg", "png")
+				.build();
+	}
+
+	@Benchmark
+	public Iterable<String> serializeDefault() {
+		return defaultOptions.serialize();
+	}
+
+	@Benchmark
+	public Iterable<String> serializeFull() {
+		return fullOptions.serialize();
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.commons.io.IOs;
+import com.thebuzzmedia.exiftool.core.handlers.BaseTagHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark {@link IOs#readInputStream}: recorded output of all test images is read from
+ * a byte stream, either by a no-op visitor (line splitting only) or by a tag handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadInputStreamBenchmark {
+
+	private List<byte[]> outputs;
+
+	@Setup
+	public void setUp() {
+		outputs = new ArrayList<>(Fixtures.bytes().values());
+	}
+
+	@Benchmark
+	public int readLines() throws IOException {
+		int[] count = new int[1];
+		for (byte[] output : outputs) {
+			IOs.readInputStream(new ByteArrayInputStream(output), line -> {
+				count[0]++;
+				return line != null;
+			});
+		}
+
+		return count[0];
+	}
+
+	@Benchmark
+	public int readTags() throws IOException {
+		int size = 0;
+		for (byte[] output : outputs) {
+			BaseTagHandler handler = BaseTagHandler.of(Fixtures.TAGS);
+			IOs.readInputStream(new ByteArrayInputStream(output), handler);
+			size += handler.size();
+		}
+
+		return size;
+	}
+}
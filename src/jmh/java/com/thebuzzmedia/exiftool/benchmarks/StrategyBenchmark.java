@@ -0,0 +1,117 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.ExifTool;
+import com.thebuzzmedia.exiftool.ExifToolBuilder;
+import com.thebuzzmedia.exiftool.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.thebuzzmedia.exiftool.tests.TestConstants.EXIF_TOOL;
+
+/**
+ * End-to-end benchmark of {@link ExifTool#getImageMeta(File, java.util.Collection)} with the bundled
+ * {@code exiftool}, comparing execution strategies at various thread counts: each operation reads
+ * all standard tags of a test image (test images are read in turn).
+ *
+ * <br>
+ *
+ * The bundled {@code exiftool} is a perl script on unix platforms: perl must be installed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class StrategyBenchmark {
+
+	/**
+	 * Size of the pool, with the {@code POOL} strategy.
+	 */
+	private static final int POOL_SIZE = 4;
+
+	@Param({"DEFAULT", "STAY_OPEN", "POOL"})
+	public String strategy;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	private ExifTool exifTool;
+
+	private List<File> images;
+
+	@Setup
+	public void setUp() {
+		ExifToolBuilder builder = new ExifToolBuilder().withPath(EXIF_TOOL.getAbsolutePath());
+		if ("STAY_OPEN".equals(strategy)) {
+			builder.enableStayOpen();
+		}
+		else if ("POOL".equals(strategy)) {
+			builder.withPoolSize(POOL_SIZE);
+		}
+
+		images = Fixtures.images();
+		exifTool = builder.build();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		exifTool.close();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Map<Tag, String> oneThread() throws IOException {
+		return getImageMeta();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Map<Tag, String> fourThreads() throws IOException {
+		return getImageMeta();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Map<Tag, String> eightThreads() throws IOException {
+		return getImageMeta();
+	}
+
+	private Map<Tag, String> getImageMeta() throws IOException {
+		File image = images.get(Math.floorMod(next.getAndIncrement(), images.size()));
+		return exifTool.getImageMeta(image, Fixtures.TAGS);
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import com.thebuzzmedia.exiftool.core.handlers.BaseTagHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark {@link BaseTagHandler#readLine(String)}: recorded output of all test images is read
+ * by a new handler, as {@code getImageMeta} does.
+ *
+ * <br>
+ *
+ * The enum handler is used when only standard tags are queried, the standard handler
+ * is used as soon as a custom tag is queried.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagHandlerBenchmark {
+
+	private List<List<String>> outputs;
+
+	private List<Tag> mixedTags;
+
+	@Setup
+	public void setUp() {
+		outputs = new ArrayList<>(Fixtures.lines().values());
+
+		mixedTags = new ArrayList<>(Fixtures.TAGS);
+		mixedTags.add(new UnspecifiedTag("XMP-dc:Subject"));
+	}
+
+	@Benchmark
+	public int enumTagHandler() {
+		return read(Fixtures.TAGS);
+	}
+
+	@Benchmark
+	public int standardTagHandler() {
+		return read(mixedTags);
+	}
+
+	private int read(Collection<? extends Tag> tags) {
+		int size = 0;
+		for (List<String> lines : outputs) {
+			BaseTagHandler handler = BaseTagHandler.of(tags);
+			for (String line : lines) {
+				handler.readLine(line);
+			}
+
+			Map<Tag, String> result = handler.getTags();
+			size += result.size();
+		}
+
+		return size;
+	}
+}
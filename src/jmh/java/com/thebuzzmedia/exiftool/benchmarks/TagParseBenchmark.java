@@ -0,0 +1,95 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.benchmarks;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.handlers.BaseTagHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark {@link StandardTag#parse(String)}: each value of the recorded output of all test
+ * images is parsed to the type of its tag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagParseBenchmark {
+
+	private Tag[] tags;
+
+	private String[] values;
+
+	@Setup
+	public void setUp() {
+		List<Tag> tags = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+
+		for (List<String> lines : Fixtures.lines().values()) {
+			BaseTagHandler handler = BaseTagHandler.of(Fixtures.TAGS);
+			for (String line : lines) {
+				handler.readLine(line);
+			}
+
+			for (Map.Entry<Tag, String> entry : handler.getTags().entrySet()) {
+				// Only keep values that can be parsed: a failure would measure exception handling.
+				if (canParse(entry.getKey(), entry.getValue())) {
+					tags.add(entry.getKey());
+					values.add(entry.getValue());
+				}
+			}
+		}
+
+		this.tags = tags.toArray(new Tag[0]);
+		this.values = values.toArray(new String[0]);
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		for (int i = 0; i < tags.length; i++) {
+			blackhole.consume((Object) tags[i].parse(values[i]));
+		}
+	}
+
+	private static boolean canParse(Tag tag, String value) {
+		try {
+			tag.parse(value);
+			return true;
+		}
+		catch (RuntimeException ex) {
+			return false;
+		}
+	}
+}
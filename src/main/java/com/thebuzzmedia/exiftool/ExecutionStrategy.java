@@ -22,6 +22,9 @@ import com.thebuzzmedia.exiftool.process.OutputHandler;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * ExifTool execution strategy.
@@ -60,6 +63,101 @@ public interface ExecutionStrategy extends AutoCloseable {
 	 */
 	void execute(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException;
 
+	/**
+	 * Execute exiftool command asynchronously.
+	 *
+	 * <br>
+	 *
+	 * Default implementation runs {@link #execute} with the given {@code async} executor: the executor
+	 * thread is blocked until the end of the execution. Implementations able to wait for
+	 * the command output without blocking a thread should override this method.
+	 *
+	 * @param executor ExifTool withExecutor.
+	 * @param exifTool ExifTool withPath.
+	 * @param arguments Command line arguments.
+	 * @param handler Handler to read command output.
+	 * @param async Executor used to run blocking operations.
+	 * @return The future result, completed when the whole output has been read.
+	 */
+	default CompletableFuture<Void> executeAsync(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler, Executor async) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				execute(executor, exifTool, arguments, handler);
+			}
+			catch (IOException ex) {
+				throw new CompletionException(ex);
+			}
+		}, async);
+	}
+
+	/**
+	 * Execute several exiftool commands: output of each command is given to the handler at the
+	 * same index.
+	 *
+	 * <br>
+	 *
+	 * Default implementation runs each command with {@link #execute}, one after the other.
+	 * Implementations able to send several commands before reading their output should override
+	 * this method, so that commands are not serialized behind round trips with {@code exiftool}.
+	 *
+	 * <br>
+	 *
+	 * <strong>Note:</strong> Commands may be sent before the output of previous ones is read: this is
+	 * meant for commands with a small output, such as write operations.
+	 *
+	 * @param executor ExifTool withExecutor.
+	 * @param exifTool ExifTool withPath.
+	 * @param commands Arguments of each command.
+	 * @param handlers Handler to read output of each command.
+	 * @throws IOException If an error occurred during execution.
+	 * @throws IllegalArgumentException If there is not one handler per command.
+	 */
+	default void executeAll(CommandExecutor executor, String exifTool, List<? extends List<String>> commands, List<? extends OutputHandler> handlers) throws IOException {
+		if (commands.size() != handlers.size()) {
+			throw new IllegalArgumentException("Each command must have its own handler");
+		}
+
+		for (int i = 0; i < commands.size(); i++) {
+			execute(executor, exifTool, commands.get(i), handlers.get(i));
+		}
+	}
+
+	/**
+	 * Start {@code exiftool} process(es) used by this strategy, and run the given warm-up
+	 * command, so that next executions do not pay the start-up cost.
+	 *
+	 * <br>
+	 *
+	 * Default implementation does nothing, since a process is started on each execution.
+	 *
+	 * @param executor ExifTool withExecutor.
+	 * @param exifTool ExifTool withPath.
+	 * @param arguments Warm-up command line arguments.
+	 * @param handler Handler to read command output.
+	 * @throws IOException If an error occurred during execution.
+	 */
+	default void prewarm(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+	}
+
+	/**
+	 * Check that this strategy is able to run commands: broken resources (such as an {@code exiftool}
+	 * process that has crashed, or that does not respond anymore) are released and replaced, so that
+	 * next executions do not fail.
+	 *
+	 * <br>
+	 *
+	 * This method is meant to be called periodically while the strategy is idle. Default implementation
+	 * does nothing and returns {@code true}.
+	 *
+	 * @param executor Executor used to check (and restart) resources.
+	 * @param exifTool ExifTool path.
+	 * @return {@code true} if strategy is healthy, {@code false} if broken resources have been replaced.
+	 * @throws IOException If broken resources cannot be replaced.
+	 */
+	default boolean checkHealth(CommandExecutor executor, String exifTool) throws IOException {
+		return true;
+	}
+
 	/**
 	 * Check if exiftool process is currently running.
 	 * This method is important especially if {@code stay_open} flag has been enabled.
@@ -19,27 +19,49 @@ package com.thebuzzmedia.exiftool;
 
 import com.thebuzzmedia.exiftool.commons.gc.Cleaner;
 import com.thebuzzmedia.exiftool.commons.gc.CleanerFactory;
+import com.thebuzzmedia.exiftool.core.Metadata;
 import com.thebuzzmedia.exiftool.core.StandardFormat;
 import com.thebuzzmedia.exiftool.core.StandardOptions;
 import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import com.thebuzzmedia.exiftool.core.WriteMode;
+import com.thebuzzmedia.exiftool.core.WriteResult;
 import com.thebuzzmedia.exiftool.core.cache.VersionCacheFactory;
 import com.thebuzzmedia.exiftool.core.handlers.AllTagHandler;
+import com.thebuzzmedia.exiftool.core.handlers.BaseTagHandler;
+import com.thebuzzmedia.exiftool.core.handlers.BatchTagHandler;
+import com.thebuzzmedia.exiftool.core.handlers.JsonTagHandler;
 import com.thebuzzmedia.exiftool.core.handlers.RawOutputHandler;
-import com.thebuzzmedia.exiftool.core.handlers.StandardTagHandler;
+import com.thebuzzmedia.exiftool.core.handlers.StreamingTagHandler;
 import com.thebuzzmedia.exiftool.core.handlers.TagHandler;
+import com.thebuzzmedia.exiftool.core.handlers.WriteResultHandler;
 import com.thebuzzmedia.exiftool.exceptions.UnsupportedFeatureException;
+import com.thebuzzmedia.exiftool.exceptions.UnwritableFileException;
+import com.thebuzzmedia.exiftool.exceptions.WriteFailedException;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
 import static com.thebuzzmedia.exiftool.commons.iterables.Collections.addAll;
@@ -48,8 +70,8 @@ import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.isReadable;
 import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.isWritable;
 import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notBlank;
 import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
-import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
 import static java.util.Collections.singleton;
+import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -141,7 +163,8 @@ import static java.util.Objects.requireNonNull;
  * {@link ExifToolBuilder#enableStayOpen()} method.
  * Calling this method will create an instance of {@link ExifTool} with {@link com.thebuzzmedia.exiftool.core.strategies.StayOpenStrategy} execution strategy.
  *
- * Because this feature requires ExifTool 8.36 or later, this class will
+ * Because this feature requires ExifTool 9.15 or later (the {@code -echo4} option
+ * is used to read errors of each command), this class will
  * actually verify support for the feature in the version of ExifTool
  * before successfully instantiating the class and will notify you via
  * an {@link com.thebuzzmedia.exiftool.exceptions.UnsupportedFeatureException} if the native
@@ -297,6 +320,16 @@ public class ExifTool implements AutoCloseable {
 	 */
 	private static final VersionCache cache = VersionCacheFactory.newCache();
 
+	/**
+	 * Option enabling the JSON output of {@code exiftool}.
+	 */
+	private static final String JSON_OPTION = "-j";
+
+	/**
+	 * Option enabling the recursive scan of directories.
+	 */
+	private static final String RECURSIVE_OPTION = "-r";
+
 	/**
 	 * Command Executor.
 	 * This withExecutor will be used to execute exiftool process and commands.
@@ -323,6 +356,11 @@ public class ExifTool implements AutoCloseable {
 	 */
 	private final ExecutionStrategy strategy;
 
+	/**
+	 * Cache of image metadata, {@code null} if metadata should not be cached.
+	 */
+	private final MetadataCache metadataCache;
+
 	/**
 	 * Create new ExifTool instance.
 	 * When exiftool is created, it will try to activate some features.
@@ -334,6 +372,20 @@ public class ExifTool implements AutoCloseable {
 	 * @param strategy Execution strategy.
 	 */
 	ExifTool(String path, CommandExecutor executor, ExecutionStrategy strategy) {
+		this(path, executor, strategy, null);
+	}
+
+	/**
+	 * Create new ExifTool instance, caching metadata of images.
+	 *
+	 * @param path ExifTool withPath.
+	 * @param executor Executor used to handle command line.
+	 * @param strategy Execution strategy.
+	 * @param metadataCache Cache of image metadata, may be {@code null} to disable caching.
+	 * @see #ExifTool(String, CommandExecutor, ExecutionStrategy)
+	 */
+	ExifTool(String path, CommandExecutor executor, ExecutionStrategy strategy, MetadataCache metadataCache) {
+		this.metadataCache = metadataCache;
 		this.executor = requireNonNull(executor, "Executor should not be null");
 		this.path = notBlank(path, "ExifTool path should not be null");
 		this.strategy = requireNonNull(strategy, "Execution strategy should not be null");
@@ -347,6 +399,17 @@ public class ExifTool implements AutoCloseable {
 		cleaner.register(this, new FinalizerTask(strategy));
 	}
 
+	/**
+	 * Get version of {@code exiftool} executable, from the version cache.
+	 *
+	 * @param path ExifTool path.
+	 * @param executor Executor used to run {@code exiftool} if version is not in the cache.
+	 * @return The version.
+	 */
+	static Version loadVersion(String path, CommandExecutor executor) {
+		return cache.load(path, executor);
+	}
+
 	/**
 	 * This method should be used to clean previous execution.
 	 *
@@ -444,10 +507,20 @@ public class ExifTool implements AutoCloseable {
 	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If image cannot be read.
 	 */
 	public Map<Tag, String> getImageMeta(File image, ExifToolOptions options) throws IOException {
+		requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+		requireNonNull(options, "Options cannot be null.");
+
 		log.debug("Querying all tags from image: {}", image);
 		UnspecifiedTag all = new UnspecifiedTag("All");
 		Set<UnspecifiedTag> tags = singleton(all);
-		return getImageMeta(image, tags, options, new AllTagHandler());
+
+		return withMetadataCache(image, options, tags, () -> {
+			if (isJson(options)) {
+				return getJsonImageMeta(singleton(image), tags, options, null).getTags().get(image);
+			}
+
+			return getImageMeta(image, tags, options, new AllTagHandler());
+		});
 	}
 
 	/**
@@ -500,13 +573,317 @@ public class ExifTool implements AutoCloseable {
 		requireNonNull(options, "Options cannot be null.");
 		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
 
+		requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+
 		log.debug("Querying {} tags from image: {}", tags.size(), image);
 
-		// Create a result map big enough to hold results for each of the tags
-		// and avoid collisions while inserting.
-		StandardTagHandler tagHandler = new StandardTagHandler(tags);
+		return withMetadataCache(image, options, tags, () -> {
+			if (isJson(options)) {
+				return getJsonImageMeta(singleton(image), tags, options, tags).getTags().get(image);
+			}
+
+			// Create a result map big enough to hold results for each of the tags
+			// and avoid collisions while inserting.
+			TagHandler tagHandler = BaseTagHandler.of(tags);
+
+			return getImageMeta(image, tags, options, tagHandler);
+		});
+	}
+
+	/**
+	 * Parse image metadata, with typed access to values of {@link com.thebuzzmedia.exiftool.core.StandardTag}.
+	 * Output format is numeric.
+	 *
+	 * @param image Image.
+	 * @param tags List of tags to extract.
+	 * @return Image metadata.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If image cannot be read.
+	 * @see #getMetadata(File, ExifToolOptions, Collection)
+	 */
+	public Metadata getMetadata(File image, Collection<? extends Tag> tags) throws IOException {
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		return getMetadata(image, options, tags);
+	}
+
+	/**
+	 * Parse image metadata, with typed access to values of {@link com.thebuzzmedia.exiftool.core.StandardTag}.
+	 *
+	 * <br>
+	 *
+	 * Numeric values are parsed once, on first access, and stored as primitive values (see {@link Metadata}):
+	 * this should be preferred to {@link Tag#parse(String)} when the same values are read many times.
+	 * Note that numeric values can only be parsed with the {@link StandardFormat#NUMERIC} format.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @return Image metadata.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If image cannot be read.
+	 */
+	public Metadata getMetadata(File image, ExifToolOptions options, Collection<? extends Tag> tags) throws IOException {
+		return Metadata.of(getImageMeta(image, options, tags));
+	}
+
+	/**
+	 * Prepare a query, to be executed for many images with {@link #getImageMeta(File, PreparedQuery)}.
+	 *
+	 * <br>
+	 *
+	 * Arguments and tag lookup are computed once, when the query is prepared, instead of
+	 * once per image.
+	 *
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @return The prepared query.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of tag is empty.
+	 */
+	public PreparedQuery prepare(ExifToolOptions options, Collection<? extends Tag> tags) {
+		requireNonNull(options, "Options cannot be null.");
+		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+
+		List<String> tagArgs = new ArrayList<>(tags.size());
+		for (Tag tag : tags) {
+			tagArgs.add("-" + tag.getName());
+		}
+
+		EncodedArguments arguments = EncodedArguments.of(toQueryArguments(options, tagArgs, 0));
+		BaseTagHandler handler = isJson(options) ? null : BaseTagHandler.of(tags);
+		return new PreparedQuery(options, tags, arguments, handler);
+	}
+
+	/**
+	 * Parse image metadata with a prepared query.
+	 *
+	 * @param image Image.
+	 * @param query The query.
+	 * @return Pair of tag associated with the value.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If image cannot be read.
+	 * @see #prepare(ExifToolOptions, Collection)
+	 */
+	public Map<Tag, String> getImageMeta(File image, PreparedQuery query) throws IOException {
+		requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+		requireNonNull(query, "Query cannot be null.");
+		isReadable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+
+		return withMetadataCache(image, query.getOptions(), query.getTags(), () -> {
+			if (query.isJson()) {
+				JsonTagHandler jsonHandler = new JsonTagHandler(singleton(image), query.getTags());
+				strategy.execute(executor, path, query.arguments(image), jsonHandler);
+				return jsonHandler.getTags().get(image);
+			}
+
+			TagHandler tagHandler = query.newHandler();
+			strategy.execute(executor, path, query.arguments(image), tagHandler);
+
+			log.debug("Image Meta Processed [queried {}, found {} values]", image, tagHandler.size());
+
+			return tagHandler.getTags();
+		});
+	}
+
+	/**
+	 * Read image metadata with given loader, through the metadata cache if it is enabled.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @param loader Function reading metadata with {@code exiftool}.
+	 * @return Pair of tag associated with the value.
+	 * @throws IOException If something bad happen during I/O operations.
+	 */
+	private Map<Tag, String> withMetadataCache(File image, ExifToolOptions options, Collection<? extends Tag> tags, MetadataCache.Loader loader) throws IOException {
+		if (metadataCache == null) {
+			return loader.load();
+		}
+
+		Map<Tag, String> metadata = metadataCache.load(image, options, tags, loader);
+
+		// Cached metadata are shared: return a copy that may be updated by the caller.
+		return metadata == null ? null : new HashMap<>(metadata);
+	}
+
+	/**
+	 * Read image metadata asynchronously with given loader, through the metadata cache if it is enabled.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @param loader Function reading metadata asynchronously with {@code exiftool}.
+	 * @return Pair of tag associated with the value.
+	 */
+	private CompletableFuture<Map<Tag, String>> withMetadataCacheAsync(File image, ExifToolOptions options, Collection<? extends Tag> tags, MetadataCache.AsyncLoader loader) {
+		if (metadataCache == null) {
+			return loader.load();
+		}
+
+		// Cached metadata are shared: return a copy that may be updated by the caller.
+		return metadataCache.loadAsync(image, options, tags, loader).thenApply(metadata -> metadata == null ? null : new HashMap<>(metadata));
+	}
+
+	/**
+	 * Invalidate cached metadata of given image, if the metadata cache is enabled.
+	 *
+	 * @param image Image.
+	 */
+	private void invalidateMetadataCache(File image) {
+		if (metadataCache != null) {
+			metadataCache.invalidate(image);
+		}
+	}
 
-		return getImageMeta(image, tags, options, tagHandler);
+	/**
+	 * Parse metadata of several images in a single {@code exiftool} execution.
+	 * Output format is numeric.
+	 *
+	 * @param images Images.
+	 * @param tags List of tags to extract.
+	 * @return Tags of each image, in the same order as {@code images}.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of images or list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If one image cannot be read.
+	 * @see #getImageMeta(Collection, ExifToolOptions, Collection)
+	 */
+	public Map<File, Map<Tag, String>> getImageMeta(Collection<File> images, Collection<? extends Tag> tags) throws IOException {
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		return getImageMeta(images, options, tags);
+	}
+
+	/**
+	 * Parse metadata of several images in a single {@code exiftool} execution.
+	 *
+	 * <br>
+	 *
+	 * All images are sent in the same {@code -execute} block, so that a single round trip with
+	 * the {@code exiftool} process is needed, instead of one round trip per image. This is especially useful
+	 * with the {@code stay_open} feature (or with a pool of processes).
+	 *
+	 * <br>
+	 *
+	 * <strong>Note:</strong> Without the {@code stay_open} feature, images are given on the command line: prefer
+	 * reasonably sized batches to stay under the command line length limit of your system.
+	 *
+	 * @param images Images.
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @return Tags of each image, in the same order as {@code images}.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of images or list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If one image cannot be read.
+	 */
+	public Map<File, Map<Tag, String>> getImageMeta(Collection<File> images, ExifToolOptions options, Collection<? extends Tag> tags) throws IOException {
+		notEmpty(images, "Images cannot be null and must contain 1 or more image to query.");
+		requireNonNull(options, "Options cannot be null.");
+		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+
+		for (File image : images) {
+			requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+			isReadable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+		}
+
+		log.debug("Querying {} tags from {} images", tags.size(), images.size());
+
+		if (isJson(options)) {
+			return getJsonImageMeta(images, tags, options, tags).getTags();
+		}
+
+		BatchTagHandler batchHandler = new BatchTagHandler(images, tags);
+
+		// Build list of exiftool arguments.
+		List<String> args = toArguments(batchHandler.getFiles(), tags, options);
+
+		// Execute ExifTool command
+		strategy.execute(executor, path, args, batchHandler);
+
+		log.debug("Image Meta Processed [queried {} images]", batchHandler.size());
+
+		return batchHandler.getTags();
+	}
+
+	/**
+	 * Parse metadata of several images in a single {@code exiftool} execution, using the JSON
+	 * output of {@code exiftool} (the {@code -j} option is added if {@code options} does not enable it).
+	 *
+	 * <br>
+	 *
+	 * Unlike {@link #getImageMeta(Collection, ExifToolOptions, Collection)}, values are typed:
+	 *
+	 * <ul>
+	 *   <li>{@link String} for text values.</li>
+	 *   <li>{@link Integer}, {@link Long} or {@link Double} for numeric values (use {@link StandardFormat#NUMERIC} to get numeric values instead of human readable ones).</li>
+	 *   <li>{@link Boolean} for boolean values.</li>
+	 *   <li>{@link List} for lists of values.</li>
+	 *   <li>{@link Map} for structures (with the {@code -struct} option).</li>
+	 * </ul>
+	 *
+	 * @param images Images.
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @return Typed tags of each image, in the same order as {@code images}.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of images or list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If one image cannot be read.
+	 */
+	public Map<File, Map<Tag, Object>> getImageMetaValues(Collection<File> images, ExifToolOptions options, Collection<? extends Tag> tags) throws IOException {
+		notEmpty(images, "Images cannot be null and must contain 1 or more image to query.");
+		requireNonNull(options, "Options cannot be null.");
+		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+
+		log.debug("Querying {} typed tags from {} images", tags.size(), images.size());
+
+		ExifToolOptions jsonOptions = options;
+		if (!isJson(options)) {
+			List<String> jsonArgs = new ArrayList<>(toCollection(options.serialize()));
+			jsonArgs.add(JSON_OPTION);
+			jsonOptions = () -> jsonArgs;
+		}
+
+		return getJsonImageMeta(images, tags, jsonOptions, tags).getValues();
+	}
+
+	private JsonTagHandler getJsonImageMeta(Collection<File> images, Collection<? extends Tag> tags, ExifToolOptions options, Collection<? extends Tag> expectedTags) throws IOException {
+		for (File image : images) {
+			requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+			isReadable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+		}
+
+		// Expected tags are null when all tags are queried.
+		JsonTagHandler jsonHandler = new JsonTagHandler(images, expectedTags);
+
+		// Build list of exiftool arguments.
+		List<String> args = toArguments(jsonHandler.getFiles(), tags, options);
+
+		// Execute ExifTool command
+		strategy.execute(executor, path, args, jsonHandler);
+
+		log.debug("Image Meta Processed [queried {} images, json output]", jsonHandler.size());
+
+		return jsonHandler;
+	}
+
+	private static boolean isJson(ExifToolOptions options) {
+		return isJson(options.serialize());
+	}
+
+	private static boolean isJson(Iterable<String> optionArgs) {
+		for (String option : optionArgs) {
+			if (JSON_OPTION.equals(option) || "-json".equals(option)) {
+				return true;
+			}
+		}
+
+		return false;
 	}
 
 	private Map<Tag, String> getImageMeta(File image, Collection<? extends Tag> tags, ExifToolOptions options, TagHandler tagHandler) throws IOException {
@@ -515,7 +892,7 @@ public class ExifTool implements AutoCloseable {
 		isReadable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
 
 		// Build list of exiftool arguments.
-		List<String> args = toArguments(image, tags, options);
+		List<String> args = toArguments(singleton(image), tags, options);
 
 		// Execute ExifTool command
 		strategy.execute(executor, path, args, tagHandler);
@@ -526,6 +903,198 @@ public class ExifTool implements AutoCloseable {
 		return tagHandler.getTags();
 	}
 
+	/**
+	 * Parse image metadata asynchronously.
+	 * Output format is numeric.
+	 *
+	 * @param image Image.
+	 * @param tags List of tags to extract.
+	 * @return Pair of tag associated with the value, completed once {@code exiftool} output has been read.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If image cannot be read.
+	 * @see #getImageMetaAsync(File, ExifToolOptions, Collection, Executor)
+	 */
+	public CompletableFuture<Map<Tag, String>> getImageMetaAsync(File image, Collection<? extends Tag> tags) {
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		return getImageMetaAsync(image, options, tags, AsyncExecutor.INSTANCE);
+	}
+
+	/**
+	 * Parse image metadata asynchronously.
+	 *
+	 * <br>
+	 *
+	 * Parameters are checked immediately, I/O failures complete the returned future exceptionally. Blocking
+	 * operations (i.e reading the output of an {@code exiftool} process) are run with the given {@code executor}.
+	 * A pool of processes (see {@link com.thebuzzmedia.exiftool.core.strategies.PoolStrategy}) does not block a
+	 * thread while waiting for an available process, and strategies able to wait for {@code exiftool} output
+	 * without blocking a thread (such as {@link com.thebuzzmedia.exiftool.core.strategies.PipelinedStayOpenStrategy})
+	 * do not use it at all.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags List of tags to extract.
+	 * @param executor Executor used to run blocking operations.
+	 * @return Pair of tag associated with the value, completed once {@code exiftool} output has been read.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If image cannot be read.
+	 */
+	public CompletableFuture<Map<Tag, String>> getImageMetaAsync(File image, ExifToolOptions options, Collection<? extends Tag> tags, Executor executor) {
+		requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+		requireNonNull(options, "Options cannot be null.");
+		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+		requireNonNull(executor, "Executor cannot be null.");
+		isReadable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+
+		log.debug("Querying {} tags from image asynchronously: {}", tags.size(), image);
+
+		return withMetadataCacheAsync(image, options, tags, () -> {
+			if (isJson(options)) {
+				JsonTagHandler jsonHandler = new JsonTagHandler(singleton(image), tags);
+				List<String> args = toArguments(jsonHandler.getFiles(), tags, options);
+				return strategy.executeAsync(this.executor, path, args, jsonHandler, executor).thenApply(result -> jsonHandler.getTags().get(image));
+			}
+
+			TagHandler tagHandler = BaseTagHandler.of(tags);
+			List<String> args = toArguments(singleton(image), tags, options);
+
+			return strategy.executeAsync(this.executor, path, args, tagHandler, executor).thenApply(result -> tagHandler.getTags());
+		});
+	}
+
+	/**
+	 * Read metadata of every file found in given directories, and give tags of each file to {@code consumer}
+	 * as soon as they have been read.
+	 *
+	 * @param directories Directories.
+	 * @param options ExifTool options (see {@link StandardOptions.Builder#withRecursive(boolean)} and {@link StandardOptions.Builder#withExtensions(Collection)}).
+	 * @param tags List of tags to extract.
+	 * @param consumer Consumer of the tags of each file.
+	 * @return Number of files read.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of directories or list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If one directory cannot be read.
+	 * @see #scanDirectories(Collection, ExifToolOptions, Collection, BiConsumer, Executor)
+	 */
+	public int scanDirectories(Collection<File> directories, ExifToolOptions options, Collection<? extends Tag> tags, BiConsumer<File, Map<Tag, String>> consumer) throws IOException {
+		return scanDirectories(directories, options, tags, consumer, AsyncExecutor.INSTANCE);
+	}
+
+	/**
+	 * Read metadata of every file found in given directories, and give tags of each file to {@code consumer}
+	 * as soon as they have been read.
+	 *
+	 * <br>
+	 *
+	 * With the recursive option ({@code -r}), each sub-directory of the given directories is scanned by a dedicated
+	 * {@code exiftool} command, run with {@code executor}: with a pool of processes (see {@link com.thebuzzmedia.exiftool.core.strategies.PoolStrategy}),
+	 * sub-trees are read in parallel by several processes. Output is read line by line, and the tags of a file are
+	 * dropped as soon as they have been given to {@code consumer}, so the memory used does not depend on the number of files.
+	 *
+	 * <br>
+	 *
+	 * Calls to {@code consumer} are serialized (the consumer is never called concurrently), but may happen from different threads.
+	 *
+	 * @param directories Directories.
+	 * @param options ExifTool options (see {@link StandardOptions.Builder#withRecursive(boolean)} and {@link StandardOptions.Builder#withExtensions(Collection)}).
+	 * @param tags List of tags to extract.
+	 * @param consumer Consumer of the tags of each file.
+	 * @param executor Executor used to run commands.
+	 * @return Number of files read.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If list of directories or list of tag is empty.
+	 * @throws com.thebuzzmedia.exiftool.exceptions.UnreadableFileException If one directory cannot be read.
+	 */
+	public int scanDirectories(Collection<File> directories, ExifToolOptions options, Collection<? extends Tag> tags, BiConsumer<File, Map<Tag, String>> consumer, Executor executor) throws IOException {
+		notEmpty(directories, "Directories cannot be null and must contain 1 or more directory to scan.");
+		requireNonNull(options, "Options cannot be null.");
+		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+		requireNonNull(consumer, "Consumer cannot be null.");
+		requireNonNull(executor, "Executor cannot be null.");
+
+		for (File directory : directories) {
+			requireNonNull(directory, "Directory cannot be null.");
+			isReadable(directory, String.format("Unable to read the given directory [%s], ensure that the directory exists at the given withPath and that the executing Java process has permissions to read it.", directory));
+		}
+
+		// Files of each directory are read by a non recursive command, each sub-directory
+		// is read by a recursive command (if needed).
+		List<String> optionArgs = new ArrayList<>(toCollection(options.serialize()));
+		boolean recursive = optionArgs.remove(RECURSIVE_OPTION);
+		ExifToolOptions flatOptions = () -> optionArgs;
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		List<StreamingTagHandler> handlers = new ArrayList<>();
+		BiConsumer<File, Map<Tag, String>> syncConsumer = (file, fileTags) -> {
+			synchronized (consumer) {
+				consumer.accept(file, fileTags);
+			}
+		};
+
+		for (File directory : directories) {
+			List<String> flatArgs = toArguments(singleton(directory), tags, flatOptions);
+			scanAsync(flatArgs, tags, syncConsumer, executor, futures, handlers);
+
+			File[] subDirectories = recursive ? directory.listFiles(ExifTool::isScannedDirectory) : null;
+			if (subDirectories != null) {
+				for (File subDirectory : subDirectories) {
+					List<String> args = toArguments(singleton(subDirectory), tags, options);
+					scanAsync(args, tags, syncConsumer, executor, futures, handlers);
+				}
+			}
+		}
+
+		log.debug("Scanning {} directories with {} commands", directories.size(), futures.size());
+
+		await(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])));
+
+		int size = 0;
+		for (StreamingTagHandler handler : handlers) {
+			size += handler.size();
+		}
+
+		log.debug("Directories scanned [read {} files]", size);
+
+		return size;
+	}
+
+	private void scanAsync(List<String> args, Collection<? extends Tag> tags, BiConsumer<File, Map<Tag, String>> consumer, Executor executor, List<CompletableFuture<Void>> futures, List<StreamingTagHandler> handlers) {
+		StreamingTagHandler handler = new StreamingTagHandler(tags, consumer);
+		handlers.add(handler);
+		futures.add(strategy.executeAsync(this.executor, path, args, handler, executor));
+	}
+
+	private static boolean isScannedDirectory(File file) {
+		// Like exiftool, hidden directories are not scanned recursively.
+		return file.isDirectory() && !file.getName().startsWith(".");
+	}
+
+	private static void await(CompletableFuture<Void> future) throws IOException {
+		try {
+			future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for exiftool output");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			throw new IOException(cause);
+		}
+	}
+
 	/**
 	 * Run user's custom Exiftool command and returns raw output from Exiftool as string
 	 * This just passes the arguments to Exiftool and does not do any checking on the validity of
@@ -539,9 +1108,25 @@ public class ExifTool implements AutoCloseable {
 	 * @throws NullPointerException If parameter is null.
 	 */
 	public String getRawExifToolOutput(List<String> arguments) throws IOException {
+		return getRawExifToolOutput(arguments, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Run user's custom Exiftool command and returns raw output from Exiftool as string,
+	 * keeping at most {@code maxLength} characters: lines beyond this limit are read
+	 * but dropped, so that huge outputs do not exhaust memory.
+	 *
+	 * @param arguments List of strings containing the commands to pass to exiftool
+	 * @param maxLength Maximum number of characters kept in returned output.
+	 * @return String with whatever exiftool outputs, truncated to complete lines.
+	 * @throws IOException If something bad happen during I/O operations.
+	 * @throws NullPointerException If parameter is null.
+	 * @throws IllegalArgumentException If {@code maxLength} is negative.
+	 */
+	public String getRawExifToolOutput(List<String> arguments, int maxLength) throws IOException {
 		requireNonNull(arguments, "Arguments cannot be null.");
 
-		RawOutputHandler resultHandler = new RawOutputHandler();
+		RawOutputHandler resultHandler = new RawOutputHandler(maxLength);
 		strategy.execute(executor, path, arguments, resultHandler);
 
 		return resultHandler.getOutput();
@@ -554,9 +1139,10 @@ public class ExifTool implements AutoCloseable {
 	 * @param image Image.
 	 * @param tags Tags to write.
 	 * @throws IOException If an error occurs during write operation.
+	 * @see #writeImageMeta(File, Map)
 	 */
 	public void setImageMeta(File image, Map<? extends Tag, String> tags) throws IOException {
-		setImageMeta(image, StandardFormat.NUMERIC, tags);
+		writeImageMeta(image, tags);
 	}
 
 	/**
@@ -566,11 +1152,10 @@ public class ExifTool implements AutoCloseable {
 	 * @param format Specified format.
 	 * @param tags Tags to write.
 	 * @throws IOException If an error occurs during write operation.
+	 * @see #writeImageMeta(File, Format, Map)
 	 */
 	public void setImageMeta(File image, Format format, Map<? extends Tag, String> tags) throws IOException {
-		requireNonNull(format, "Format cannot be null.");
-		ExifToolOptions options = StandardOptions.builder().withFormat(format).build();
-		setImageMeta(image, options, tags);
+		writeImageMeta(image, format, tags);
 	}
 
 	/**
@@ -580,8 +1165,55 @@ public class ExifTool implements AutoCloseable {
 	 * @param options ExifTool options.
 	 * @param tags Tags to write.
 	 * @throws IOException If an error occurs during write operation.
+	 * @see #writeImageMeta(File, ExifToolOptions, Map)
 	 */
 	public void setImageMeta(File image, ExifToolOptions options, Map<? extends Tag, String> tags) throws IOException {
+		writeImageMeta(image, options, tags);
+	}
+
+	/**
+	 * Write image metadata, and get the result of the write operation.
+	 * Default format is numeric.
+	 *
+	 * @param image Image.
+	 * @param tags Tags to write.
+	 * @return Result of the write operation.
+	 * @throws IOException If an error occurs during write operation.
+	 */
+	public WriteResult writeImageMeta(File image, Map<? extends Tag, String> tags) throws IOException {
+		return writeImageMeta(image, StandardFormat.NUMERIC, tags);
+	}
+
+	/**
+	 * Write image metadata in a specific format, and get the result of the write operation.
+	 *
+	 * @param image Image.
+	 * @param format Specified format.
+	 * @param tags Tags to write.
+	 * @return Result of the write operation.
+	 * @throws IOException If an error occurs during write operation.
+	 */
+	public WriteResult writeImageMeta(File image, Format format, Map<? extends Tag, String> tags) throws IOException {
+		requireNonNull(format, "Format cannot be null.");
+		ExifToolOptions options = StandardOptions.builder().withFormat(format).build();
+		return writeImageMeta(image, options, tags);
+	}
+
+	/**
+	 * Write image metadata in a specific format, and get the result of the write operation.
+	 *
+	 * <br>
+	 *
+	 * The output of {@code exiftool} is parsed while it is read: counts, warnings and errors are
+	 * reported in the returned result (a failed write does not throw an exception).
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags Tags to write.
+	 * @return Result of the write operation.
+	 * @throws IOException If an error occurs during write operation.
+	 */
+	public WriteResult writeImageMeta(File image, ExifToolOptions options, Map<? extends Tag, String> tags) throws IOException {
 		requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
 		requireNonNull(options, "Options cannot be null.");
 		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
@@ -592,54 +1224,357 @@ public class ExifTool implements AutoCloseable {
 		long startTime = System.currentTimeMillis();
 
 		// Get arguments
-		List<String> args = toArguments(image, tags, options);
+		List<String> args = toArguments(singleton(image), tags, options);
 
 		// Execute ExifTool command
-		strategy.execute(executor, path, args, stopHandler());
+		WriteResultHandler handler = new WriteResultHandler();
+		try {
+			strategy.execute(executor, path, args, handler);
+		}
+		finally {
+			invalidateMetadataCache(image);
+		}
+
+		WriteResult result = handler.getResult();
+		if (!result.isSuccess()) {
+			log.warn("Unable to write image {}: {}", image, result);
+		}
 
 		log.debug("Image Meta Processed in {} ms [write {} tags]", System.currentTimeMillis() - startTime, tags.size());
+
+		return result;
+	}
+
+	/**
+	 * Write metadata of several images.
+	 * Default format is numeric.
+	 *
+	 * @param images Tags to write, for each image.
+	 * @return Result of the write operation of each image, in the same order as {@code images}.
+	 * @throws IOException If an error occurs during write operation.
+	 * @see #setImageMeta(Map, ExifToolOptions)
+	 */
+	public Map<File, WriteResult> setImageMeta(Map<File, ? extends Map<? extends Tag, String>> images) throws IOException {
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		return setImageMeta(images, options);
+	}
+
+	/**
+	 * Write metadata of several images.
+	 *
+	 * <br>
+	 *
+	 * Each image is written with its own {@code -execute} command, but commands are sent to {@code exiftool}
+	 * without waiting for the output of previous ones when the strategy supports it (with the {@code stay_open}
+	 * feature, see {@link ExecutionStrategy#executeAll}): the batch is not serialized behind round trips.
+	 *
+	 * <br>
+	 *
+	 * A failure of an image does not prevent other images from being written: images that are not writable are
+	 * not sent to {@code exiftool} and are reported as failed.
+	 *
+	 * @param images Tags to write, for each image.
+	 * @param options ExifTool options.
+	 * @return Result of the write operation of each image, in the same order as {@code images}.
+	 * @throws IOException If an error occurs while running {@code exiftool}.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If map of images, or map of tags of an image, is empty.
+	 */
+	public Map<File, WriteResult> setImageMeta(Map<File, ? extends Map<? extends Tag, String>> images, ExifToolOptions options) throws IOException {
+		return setImageMeta(images, options, WriteMode.CONTINUE_ON_ERROR);
+	}
+
+	/**
+	 * Write metadata of several images, with a given behavior on failure:
+	 *
+	 * <ul>
+	 *   <li>{@link WriteMode#CONTINUE_ON_ERROR}: see {@link #setImageMeta(Map, ExifToolOptions)}.</li>
+	 *   <li>
+	 *     {@link WriteMode#FAIL_FAST}: images are written one after the other, the first failure (including
+	 *     an image that is not writable) stops the batch and remaining images are not sent to {@code exiftool}.
+	 *   </li>
+	 * </ul>
+	 *
+	 * @param images Tags to write, for each image.
+	 * @param options ExifTool options.
+	 * @param mode Behavior on failure.
+	 * @return Result of the write operation of each image, in the same order as {@code images}.
+	 * @throws IOException If an error occurs while running {@code exiftool}.
+	 * @throws WriteFailedException If an image cannot be written with {@link WriteMode#FAIL_FAST} mode.
+	 * @throws UnwritableFileException If an image is not writable with {@link WriteMode#FAIL_FAST} mode.
+	 * @throws NullPointerException If one parameter is null.
+	 * @throws IllegalArgumentException If map of images, or map of tags of an image, is empty.
+	 */
+	public Map<File, WriteResult> setImageMeta(Map<File, ? extends Map<? extends Tag, String>> images, ExifToolOptions options, WriteMode mode) throws IOException {
+		notEmpty(images, "Images cannot be null and must contain 1 or more image to write.");
+		requireNonNull(options, "Options cannot be null.");
+		requireNonNull(mode, "Write mode cannot be null.");
+
+		if (mode == WriteMode.FAIL_FAST) {
+			return setImageMetaFailFast(images, options);
+		}
+
+		log.debug("Writing tags to {} images", images.size());
+
+		long startTime = System.currentTimeMillis();
+
+		Map<File, WriteResult> results = new LinkedHashMap<>();
+		Map<File, WriteResultHandler> handlers = new LinkedHashMap<>();
+		List<List<String>> commands = new ArrayList<>(images.size());
+
+		for (Map.Entry<File, ? extends Map<? extends Tag, String>> entry : images.entrySet()) {
+			File image = requireNonNull(entry.getKey(), "Image cannot be null and must be a valid stream of image data.");
+			Map<? extends Tag, String> tags = notEmpty(entry.getValue(), "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+
+			try {
+				isWritable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+			}
+			catch (UnwritableFileException ex) {
+				results.put(image, WriteResult.failure(ex.getMessage()));
+				continue;
+			}
+
+			WriteResultHandler handler = new WriteResultHandler();
+			handlers.put(image, handler);
+			results.put(image, null);
+			commands.add(toArguments(singleton(image), tags, options));
+		}
+
+		try {
+			if (!commands.isEmpty()) {
+				strategy.executeAll(executor, path, commands, new ArrayList<>(handlers.values()));
+			}
+		}
+		finally {
+			for (File image : handlers.keySet()) {
+				invalidateMetadataCache(image);
+			}
+		}
+
+		for (Map.Entry<File, WriteResultHandler> entry : handlers.entrySet()) {
+			results.put(entry.getKey(), entry.getValue().getResult());
+		}
+
+		log.debug("Image Meta Processed in {} ms [write {} images]", System.currentTimeMillis() - startTime, handlers.size());
+
+		return unmodifiableMap(results);
+	}
+
+	private Map<File, WriteResult> setImageMetaFailFast(Map<File, ? extends Map<? extends Tag, String>> images, ExifToolOptions options) throws IOException {
+		log.debug("Writing tags to {} images, stop at first failure", images.size());
+
+		long startTime = System.currentTimeMillis();
+
+		// Check all images before writing the first one.
+		for (Map.Entry<File, ? extends Map<? extends Tag, String>> entry : images.entrySet()) {
+			File image = requireNonNull(entry.getKey(), "Image cannot be null and must be a valid stream of image data.");
+			notEmpty(entry.getValue(), "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+			isWritable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+		}
+
+		Map<File, WriteResult> results = new LinkedHashMap<>();
+		for (Map.Entry<File, ? extends Map<? extends Tag, String>> entry : images.entrySet()) {
+			File image = entry.getKey();
+			WriteResultHandler handler = new WriteResultHandler();
+			try {
+				strategy.execute(executor, path, toArguments(singleton(image), entry.getValue(), options), handler);
+			}
+			finally {
+				invalidateMetadataCache(image);
+			}
+
+			WriteResult result = handler.getResult();
+			if (!result.isSuccess()) {
+				throw new WriteFailedException(image, result);
+			}
+
+			results.put(image, result);
+		}
+
+		log.debug("Image Meta Processed in {} ms [write {} images]", System.currentTimeMillis() - startTime, results.size());
+
+		return unmodifiableMap(results);
+	}
+
+	/**
+	 * Write image metadata asynchronously.
+	 * Default format is numeric.
+	 *
+	 * @param image Image.
+	 * @param tags Tags to write.
+	 * @return Future completed once tags have been written.
+	 * @see #writeImageMetaAsync(File, ExifToolOptions, Map, Executor)
+	 */
+	public CompletableFuture<Void> setImageMetaAsync(File image, Map<? extends Tag, String> tags) {
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		return setImageMetaAsync(image, options, tags, AsyncExecutor.INSTANCE);
+	}
+
+	/**
+	 * Write image metadata asynchronously.
+	 *
+	 * <br>
+	 *
+	 * Parameters are checked immediately, I/O failures complete the returned future exceptionally
+	 * (see {@link #getImageMetaAsync(File, ExifToolOptions, Collection, Executor)}).
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags Tags to write.
+	 * @param executor Executor used to run blocking operations.
+	 * @return Future completed once tags have been written.
+	 * @see #writeImageMetaAsync(File, ExifToolOptions, Map, Executor)
+	 */
+	public CompletableFuture<Void> setImageMetaAsync(File image, ExifToolOptions options, Map<? extends Tag, String> tags, Executor executor) {
+		return writeImageMetaAsync(image, options, tags, executor).thenApply(result -> null);
 	}
 
-	private List<String> toArguments(File image, Collection<? extends Tag> tags, ExifToolOptions options) {
+	/**
+	 * Write image metadata asynchronously, and get the result of the write operation.
+	 * Default format is numeric.
+	 *
+	 * @param image Image.
+	 * @param tags Tags to write.
+	 * @return Future completed with the result of the write operation.
+	 * @see #writeImageMetaAsync(File, ExifToolOptions, Map, Executor)
+	 */
+	public CompletableFuture<WriteResult> writeImageMetaAsync(File image, Map<? extends Tag, String> tags) {
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		return writeImageMetaAsync(image, options, tags, AsyncExecutor.INSTANCE);
+	}
+
+	/**
+	 * Write image metadata asynchronously, and get the result of the write operation
+	 * (see {@link #writeImageMeta(File, ExifToolOptions, Map)}).
+	 *
+	 * <br>
+	 *
+	 * Parameters are checked immediately, I/O failures complete the returned future exceptionally
+	 * (see {@link #getImageMetaAsync(File, ExifToolOptions, Collection, Executor)}).
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags Tags to write.
+	 * @param executor Executor used to run blocking operations.
+	 * @return Future completed with the result of the write operation.
+	 */
+	public CompletableFuture<WriteResult> writeImageMetaAsync(File image, ExifToolOptions options, Map<? extends Tag, String> tags, Executor executor) {
+		requireNonNull(image, "Image cannot be null and must be a valid stream of image data.");
+		requireNonNull(options, "Options cannot be null.");
+		notEmpty(tags, "Tags cannot be null and must contain 1 or more Tag to query the image for.");
+		requireNonNull(executor, "Executor cannot be null.");
+		isWritable(image, String.format("Unable to read the given image [%s], ensure that the image exists at the given withPath and that the executing Java process has permissions to read it.", image));
+
+		log.debug("Writing {} tags to image asynchronously: {}", tags.size(), image);
+
+		List<String> args = toArguments(singleton(image), tags, options);
+		WriteResultHandler handler = new WriteResultHandler();
+		CompletableFuture<Void> future = strategy.executeAsync(this.executor, path, args, handler, executor);
+		if (metadataCache != null) {
+			future = future.whenComplete((result, ex) -> invalidateMetadataCache(image));
+		}
+
+		return future.thenApply(result -> {
+			WriteResult writeResult = handler.getResult();
+			if (!writeResult.isSuccess()) {
+				log.warn("Unable to write image {}: {}", image, writeResult);
+			}
+
+			return writeResult;
+		});
+	}
+
+	private List<String> toArguments(Collection<File> images, Collection<? extends Tag> tags, ExifToolOptions options) {
 		List<String> tagArgs = new ArrayList<>(tags.size());
 		for (Tag tag : tags) {
 			tagArgs.add("-" + tag.getName());
 		}
 
-		return toArguments(image, options, tagArgs);
+		return toArguments(images, options, tagArgs);
 	}
 
-	private List<String> toArguments(File image, Map<? extends Tag, String> tags, ExifToolOptions options) {
+	private List<String> toArguments(Collection<File> images, Map<? extends Tag, String> tags, ExifToolOptions options) {
 		List<String> tagArgs = new ArrayList<>(tags.size());
 		for (Map.Entry<? extends Tag, String> entry : tags.entrySet()) {
 			tagArgs.add("-" + entry.getKey().getName() + "=" + entry.getValue());
 		}
 
-		return toArguments(image, options, tagArgs);
+		return toArguments(images, options, tagArgs);
+	}
+
+	private List<String> toArguments(Collection<File> images, ExifToolOptions options, List<String> tags) {
+		List<String> args = toQueryArguments(options, tags, images.size() + 1);
+
+		// Add image arguments.
+		for (File image : images) {
+			args.add(image.getAbsolutePath());
+		}
+
+		// Add last argument.
+		// This argument will only be used by exiftool if stay_open flag has been set.
+		args.add("-execute");
+
+		return args;
 	}
 
-	private List<String> toArguments(File image, ExifToolOptions options, List<String> tags) {
+	private List<String> toQueryArguments(ExifToolOptions options, List<String> tags, int extraSize) {
 		Collection<String> optionArgs = toCollection(options.serialize());
-		int expectedSize = optionArgs.size() + tags.size() + 3;
+		int expectedSize = optionArgs.size() + tags.size() + extraSize + 1;
 		List<String> args = new ArrayList<>(expectedSize);
 
 		// Options.
 		addAll(args, optionArgs);
 
-		// Compact output.
-		args.add("-S");
+		// Compact output, JSON output is already compact.
+		if (!isJson(optionArgs)) {
+			args.add("-S");
+		}
 
 		// Add tags arguments.
 		args.addAll(tags);
 
-		// Add image argument.
-		args.add(image.getAbsolutePath());
+		return args;
+	}
 
-		// Add last argument.
-		// This argument will only be used by exiftool if stay_open flag has been set.
-		args.add("-execute");
+	/**
+	 * Default executor of asynchronous operations, lazily created on first use.
+	 *
+	 * <br>
+	 *
+	 * The number of threads is bounded (extra operations are queued): a pool of processes dispatches
+	 * asynchronous executions without blocking a thread while waiting for an available process
+	 * (see {@link com.thebuzzmedia.exiftool.core.strategies.PoolStrategy}), so threads are only busy
+	 * while commands are running.
+	 *
+	 * <br>
+	 *
+	 * Threads are daemon threads, so that pending operations never prevent the JVM from exiting,
+	 * and idle threads are released after a short delay.
+	 */
+	private static final class AsyncExecutor {
+		private static final int MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
 
-		return new ArrayList<>(args);
+		private static final ThreadPoolExecutor INSTANCE = create();
+
+		private AsyncExecutor() {
+		}
+
+		private static ThreadPoolExecutor create() {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new AsyncThreadFactory());
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+	}
+
+	private static final class AsyncThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "exiftool-async-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
 	}
 
 	private static final class FinalizerTask implements Runnable {
@@ -17,10 +17,15 @@
 
 package com.thebuzzmedia.exiftool;
 
+import com.thebuzzmedia.exiftool.core.cache.MetadataCacheFactory;
+import com.thebuzzmedia.exiftool.core.cache.PersistentMetadataCache;
 import com.thebuzzmedia.exiftool.core.schedulers.DefaultScheduler;
 import com.thebuzzmedia.exiftool.core.schedulers.NoOpScheduler;
 import com.thebuzzmedia.exiftool.core.strategies.DefaultStrategy;
+import com.thebuzzmedia.exiftool.core.strategies.DispatchPolicy;
+import com.thebuzzmedia.exiftool.core.strategies.PipelinedStayOpenStrategy;
 import com.thebuzzmedia.exiftool.core.strategies.PoolStrategy;
+import com.thebuzzmedia.exiftool.core.strategies.RecyclePolicy;
 import com.thebuzzmedia.exiftool.core.strategies.StayOpenStrategy;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
@@ -28,11 +33,15 @@ import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.executor.CommandExecutors;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
 import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.millis;
 import static com.thebuzzmedia.exiftool.process.executor.CommandExecutors.newExecutor;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 
 /**
  * Builder for {@link ExifTool} instance.
@@ -148,6 +157,15 @@ public class ExifToolBuilder {
 	 */
 	private static final ExecutorFunction EXECUTOR = new ExecutorFunction();
 
+	/**
+	 * Warm-up command: listing tags of common groups loads associated exiftool
+	 * modules (EXIF, XMP, QuickTime), so that first real execution does not pay
+	 * the loading cost.
+	 */
+	private static final List<String> WARM_UP_ARGUMENTS = unmodifiableList(asList(
+		"-listx", "-EXIF:All", "-XMP:All", "-QuickTime:All", "-execute"
+	));
+
 	/**
 	 * ExifTool path.
 	 */
@@ -183,6 +201,79 @@ public class ExifToolBuilder {
 	 */
 	private int poolSize;
 
+	/**
+	 * Maximum pool size, the pool is elastic if it is greater than {@link #poolSize}.
+	 */
+	private int maxPoolSize;
+
+	/**
+	 * Maximum time (in milliseconds) to wait for an available pool element before a new one is created.
+	 */
+	private long growDelay;
+
+	/**
+	 * Time (in milliseconds) after which an idle pool element may be removed.
+	 */
+	private long idleDelay;
+
+	/**
+	 * Maximum time (in milliseconds) to wait for an available pool element, no timeout
+	 * if it is less than or equal to zero.
+	 */
+	private long poolAcquireTimeout;
+
+	/**
+	 * Maximum number of threads waiting for an available pool element, unbounded
+	 * if it is less than or equal to zero.
+	 */
+	private int poolMaxWaiters;
+
+	/**
+	 * Policy used to pick an available pool element, pool default if {@code null}.
+	 */
+	private DispatchPolicy poolDispatchPolicy;
+
+	/**
+	 * Maximum time (in milliseconds) to wait for the output of a command.
+	 */
+	private long commandTimeout;
+
+	/**
+	 * Delay (in milliseconds) between health checks of pool elements.
+	 */
+	private long healthCheckInterval;
+
+	/**
+	 * Policy used to recycle {@code exiftool} processes, never recycled if {@code null}.
+	 */
+	private RecyclePolicy recyclePolicy;
+
+	/**
+	 * Check if exiftool processes should be started at build time.
+	 */
+	private boolean prewarm;
+
+	/**
+	 * Check if pool elements should be prewarmed in parallel.
+	 */
+	private boolean parallelPrewarm;
+
+	/**
+	 * Maximum number of in-flight commands per daemon, pipelining is disabled
+	 * if it is less than or equal to zero.
+	 */
+	private int maxInFlight;
+
+	/**
+	 * Cache of image metadata, metadata are not cached if it is {@code null}.
+	 */
+	private MetadataCache metadataCache;
+
+	/**
+	 * File of the persistent cache of image metadata, used if {@link #metadataCache} is not set.
+	 */
+	private File metadataCacheFile;
+
 	/**
 	 * Create builder with default settings.
 	 */
@@ -324,6 +415,42 @@ public class ExifToolBuilder {
 		return this;
 	}
 
+	/**
+	 * Enable {@code stay_open} feature with pipelined commands: up to {@code maxInFlight}
+	 * commands will be sent to the daemon before their output is read
+	 * (see {@link PipelinedStayOpenStrategy}).
+	 *
+	 * <strong>Note:</strong>
+	 *
+	 * <ul>
+	 *   <li>If {@link #withStrategy} has already been called, then calling is useless.</li>
+	 *   <li>
+	 *     Pipelining is ignored with a pool (see {@link #withPoolSize(int)}) since each
+	 *     pool element runs one command at a time.
+	 *   </li>
+	 * </ul>
+	 *
+	 * @param maxInFlight Maximum number of in-flight commands.
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder enablePipelining(int maxInFlight) {
+		log.debug("Enable 'stay_open' feature with pipelined commands");
+
+		if (strategy != null) {
+			log.warn("A custom strategy is defined, enabling 'stay_open' feature will be ignored");
+		}
+
+		if (maxInFlight > 0) {
+			this.stayOpen = true;
+			this.maxInFlight = maxInFlight;
+		}
+		else {
+			log.warn("Pipelining has been enabled with a value less or equal than zero, ignore it.");
+		}
+
+		return this;
+	}
+
 	/**
 	 * Override default execution strategy.
 	 *
@@ -362,6 +489,7 @@ public class ExifToolBuilder {
 
 		if (poolSize > 0) {
 			this.poolSize = poolSize;
+			this.maxPoolSize = poolSize;
 			this.cleanupDelay = cleanupDelay;
 		}
 		else {
@@ -387,6 +515,7 @@ public class ExifToolBuilder {
 
 		if (poolSize > 0) {
 			this.poolSize = poolSize;
+			this.maxPoolSize = poolSize;
 			this.cleanupDelay = 0L;
 		}
 		else {
@@ -396,6 +525,260 @@ public class ExifToolBuilder {
 		return this;
 	}
 
+	/**
+	 * Override default execution strategy:
+	 *
+	 * <ul>
+	 *   <li>
+	 *     an elastic pool of {@link StayOpenStrategy} will be used: the pool starts with {@code minSize}
+	 *     elements and may grow up to {@code maxSize} elements.
+	 *   </li>
+	 *   <li>
+	 *     A new element is created when no element becomes available within {@code growDelay}
+	 *     milliseconds.
+	 *   </li>
+	 *   <li>
+	 *     An element idle for at least {@code idleDelay} milliseconds is removed from the pool
+	 *     (until the pool size is {@code minSize}).
+	 *   </li>
+	 *   <li>No cleanup scheduler will be used for pool elements.</li>
+	 * </ul>
+	 *
+	 * @param minSize Minimum pool size.
+	 * @param maxSize Maximum pool size.
+	 * @param growDelay Maximum time (in milliseconds) to wait for an available element before a new one is created.
+	 * @param idleDelay Time (in milliseconds) after which an idle element may be removed.
+	 * @return Current builder.
+	 * @see PoolStrategy
+	 */
+	public ExifToolBuilder withElasticPool(int minSize, int maxSize, long growDelay, long idleDelay) {
+		log.debug("Overriding default strategy");
+
+		if (minSize > 0 && maxSize >= minSize && growDelay >= 0 && idleDelay > 0) {
+			this.poolSize = minSize;
+			this.maxPoolSize = maxSize;
+			this.growDelay = growDelay;
+			this.idleDelay = idleDelay;
+			this.cleanupDelay = 0L;
+		}
+		else {
+			log.warn("Elastic pool has been enabled with invalid settings, ignore it.");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Set the maximum time to wait for an available pool element: if no element becomes
+	 * available in time, execution fails with a {@link com.thebuzzmedia.exiftool.exceptions.PoolTimeoutException}.
+	 *
+	 * <strong>Note:</strong> this setting is ignored if no pool is used
+	 * (see {@link #withPoolSize(int)} and {@link #withElasticPool(int, int, long, long)}).
+	 *
+	 * @param acquireTimeout Acquisition timeout (in milliseconds).
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withPoolAcquireTimeout(long acquireTimeout) {
+		log.debug("Set pool acquisition timeout");
+
+		if (acquireTimeout > 0) {
+			this.poolAcquireTimeout = acquireTimeout;
+		}
+		else {
+			log.warn("Pool acquisition timeout has been set with a value less or equal than zero, ignore it.");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of threads waiting for an available pool element: when it is
+	 * reached, execution fails immediately with a {@link com.thebuzzmedia.exiftool.exceptions.PoolRejectedException}.
+	 *
+	 * <strong>Note:</strong> this setting is ignored if no pool is used
+	 * (see {@link #withPoolSize(int)} and {@link #withElasticPool(int, int, long, long)}).
+	 *
+	 * @param maxWaiters Maximum number of waiting threads.
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withPoolMaxWaiters(int maxWaiters) {
+		log.debug("Set pool maximum number of waiting threads");
+
+		if (maxWaiters > 0) {
+			this.poolMaxWaiters = maxWaiters;
+		}
+		else {
+			log.warn("Pool maximum number of waiting threads has been set with a value less or equal than zero, ignore it.");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Set the maximum time to wait for the output of a command: if {@code exiftool} does not complete
+	 * a command in time (for instance, if it is stuck on a corrupted file), its process is killed and the
+	 * command fails with a {@link com.thebuzzmedia.exiftool.exceptions.CommandTimeoutException}. Other
+	 * commands are not affected: a new process is started by the next execution, and a pool element is
+	 * released as soon as its command has failed.
+	 *
+	 * <strong>Note:</strong> this setting is ignored if the {@code stay_open} feature is not enabled
+	 * (see {@link #enableStayOpen()}, {@link #withPoolSize(int)}), or if pipelining is enabled
+	 * (see {@link #enablePipelining(int)}).
+	 *
+	 * @param commandTimeout Command timeout (in milliseconds).
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withCommandTimeout(long commandTimeout) {
+		log.debug("Set command timeout");
+
+		if (commandTimeout > 0) {
+			this.commandTimeout = commandTimeout;
+		}
+		else {
+			log.warn("Command timeout has been set with a value less or equal than zero, ignore it.");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Check health of available pool elements periodically: an {@code exiftool} process that has crashed
+	 * (for instance, killed by the operating system), or that does not answer a {@code -ver} command, is
+	 * replaced in background, before an execution picks it.
+	 *
+	 * <strong>Note:</strong> this setting is ignored if no pool is used
+	 * (see {@link #withPoolSize(int)} and {@link #withElasticPool(int, int, long, long)}).
+	 *
+	 * @param interval Delay between health checks (in milliseconds).
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withHealthCheck(long interval) {
+		log.debug("Set pool health check interval");
+
+		if (interval > 0) {
+			this.healthCheckInterval = interval;
+		}
+		else {
+			log.warn("Pool health check interval has been set with a value less or equal than zero, ignore it.");
+		}
+
+		return this;
+	}
+
+	/**
+	 * Set the policy used to recycle long-lived {@code exiftool} processes, that may grow in memory
+	 * (see {@link RecyclePolicy}): a process is replaced once it has executed a given number of commands,
+	 * once it has been running for a given time, or once its resident memory exceeds a given size. The new
+	 * process is started before the old one is stopped.
+	 *
+	 * <strong>Note:</strong> this setting is ignored if the {@code stay_open} feature is not enabled
+	 * (see {@link #enableStayOpen()}, {@link #withPoolSize(int)}), or if pipelining is enabled
+	 * (see {@link #enablePipelining(int)}).
+	 *
+	 * @param recyclePolicy Recycle policy.
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withRecyclePolicy(RecyclePolicy recyclePolicy) {
+		log.debug("Set process recycle policy");
+		this.recyclePolicy = recyclePolicy;
+		return this;
+	}
+
+	/**
+	 * Set the policy used to pick an available pool element (see {@link DispatchPolicy}).
+	 *
+	 * <strong>Note:</strong> this setting is ignored if no pool is used
+	 * (see {@link #withPoolSize(int)} and {@link #withElasticPool(int, int, long, long)}).
+	 *
+	 * @param dispatchPolicy Dispatch policy.
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withPoolDispatchPolicy(DispatchPolicy dispatchPolicy) {
+		log.debug("Set pool dispatch policy: {}", dispatchPolicy);
+		this.poolDispatchPolicy = dispatchPolicy;
+		return this;
+	}
+
+	/**
+	 * Cache metadata read for a single image, so that reading again the same tags of an
+	 * unmodified image does not run {@code exiftool}.
+	 *
+	 * <br>
+	 *
+	 * Least recently used entries are evicted once total number of cached tags exceeds
+	 * {@code maximumWeight}. Guava cache is used if it is available on the classpath,
+	 * a built-in implementation is used otherwise.
+	 *
+	 * @param maximumWeight Maximum number of cached tags.
+	 * @return Current builder.
+	 * @throws IllegalArgumentException If {@code maximumWeight} is not strictly positive.
+	 */
+	public ExifToolBuilder withMetadataCache(long maximumWeight) {
+		return withMetadataCache(MetadataCacheFactory.newCache(maximumWeight));
+	}
+
+	/**
+	 * Cache metadata read for a single image with given cache (see {@link #withMetadataCache(long)}).
+	 * Entries of an image are invalidated once its metadata have been written.
+	 *
+	 * @param metadataCache Cache of metadata, {@code null} to disable caching.
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withMetadataCache(MetadataCache metadataCache) {
+		log.debug("Set metadata cache: {}", metadataCache);
+		this.metadataCache = metadataCache;
+		return this;
+	}
+
+	/**
+	 * Cache metadata read for a single image in given file, so that metadata of unmodified images
+	 * are not read again by {@code exiftool} after a restart (see {@link PersistentMetadataCache}).
+	 *
+	 * <br>
+	 *
+	 * Cache file is stamped with the version of {@code exiftool}: it is dropped when {@code exiftool}
+	 * is upgraded. Failure to open the cache file is logged, metadata are not cached in that case.
+	 *
+	 * @param file Cache file, created if it does not exist.
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder withPersistentMetadataCache(File file) {
+		log.debug("Set persistent metadata cache: {}", file);
+		this.metadataCacheFile = file;
+		return this;
+	}
+
+	/**
+	 * Start {@code exiftool} processes when {@link #build()} is called, instead of
+	 * starting them lazily on first execution: a warm-up command is run so that common
+	 * modules (EXIF, XMP, QuickTime) are also loaded.
+	 *
+	 * <strong>Note:</strong>
+	 *
+	 * <ul>
+	 *   <li>This is useless if {@code stay_open} feature is not enabled (see {@link #enableStayOpen()}).</li>
+	 *   <li>Failure to prewarm is logged, but does not prevent {@link #build()} from succeeding.</li>
+	 * </ul>
+	 *
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder enablePrewarm() {
+		return enablePrewarm(false);
+	}
+
+	/**
+	 * Start {@code exiftool} processes when {@link #build()} is called (see {@link #enablePrewarm()}).
+	 *
+	 * @param parallel {@code true} to prewarm pool elements in parallel (see {@link #withPoolSize(int)}).
+	 * @return Current builder.
+	 */
+	public ExifToolBuilder enablePrewarm(boolean parallel) {
+		log.debug("Enable prewarm");
+		this.prewarm = true;
+		this.parallelPrewarm = parallel;
+		return this;
+	}
+
 	/**
 	 * Create exiftool instance with previous settings.
 	 *
@@ -404,7 +787,7 @@ public class ExifToolBuilder {
 	public ExifTool build() {
 		String path = firstNonNull(this.path, PATH);
 		CommandExecutor executor = firstNonNull(this.executor, EXECUTOR);
-		ExecutionStrategy strategy = firstNonNull(this.strategy, new StrategyFunction(stayOpen, cleanupDelay, scheduler, poolSize));
+		ExecutionStrategy strategy = firstNonNull(this.strategy, new StrategyFunction(stayOpen, cleanupDelay, scheduler, poolSize, maxPoolSize, growDelay, idleDelay, poolAcquireTimeout, poolMaxWaiters, poolDispatchPolicy, parallelPrewarm, maxInFlight, commandTimeout, healthCheckInterval, recyclePolicy));
 
 		// Add some debugging information
 		if (log.isDebugEnabled()) {
@@ -415,7 +798,58 @@ public class ExifToolBuilder {
 			log.debug(" - StayOpen: {}", stayOpen);
 		}
 
-		return new ExifTool(path, executor, strategy);
+		MetadataCache metadataCache = this.metadataCache;
+		if (metadataCache == null && metadataCacheFile != null) {
+			metadataCache = openMetadataCache(metadataCacheFile, path, executor);
+		}
+
+		ExifTool exifTool = new ExifTool(path, executor, strategy, metadataCache);
+
+		if (prewarm) {
+			prewarm(strategy, executor, path);
+		}
+
+		return exifTool;
+	}
+
+	/**
+	 * Open persistent metadata cache, stamped with {@code exiftool} version.
+	 * Failure is only logged: metadata will not be cached.
+	 *
+	 * @param file Cache file.
+	 * @param path ExifTool path.
+	 * @param executor ExifTool executor.
+	 * @return The cache, {@code null} if it cannot be opened.
+	 */
+	private static MetadataCache openMetadataCache(File file, String path, CommandExecutor executor) {
+		try {
+			return PersistentMetadataCache.open(file, ExifTool.loadVersion(path, executor));
+		}
+		catch (IOException ex) {
+			log.warn("Failed to open metadata cache file {}, metadata will not be cached", file);
+			log.warn(ex.getMessage(), ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Run the warm-up command with given strategy.
+	 * Failure is only logged: processes will be started on demand.
+	 *
+	 * @param strategy Execution strategy.
+	 * @param executor ExifTool executor.
+	 * @param path ExifTool path.
+	 */
+	private static void prewarm(ExecutionStrategy strategy, CommandExecutor executor, String path) {
+		log.debug("Prewarm strategy: {}", strategy);
+
+		try {
+			strategy.prewarm(executor, path, WARM_UP_ARGUMENTS, stopHandler());
+		}
+		catch (IOException ex) {
+			log.warn("Failed to prewarm strategy, exiftool processes will be started on demand");
+			log.warn(ex.getMessage(), ex);
+		}
 	}
 
 	/**
@@ -544,6 +978,14 @@ public class ExifToolBuilder {
 	 * will be created. For this strategy, a scheduler will be created. This scheduler will be used to run
 	 * a task to clean resources used by this strategy. This task will run automatically after a specified
 	 * delay.
+	 *
+	 * <h3>Pool</h3>
+	 * If a pool size has been set, then an instance of {@link PoolStrategy} of {@link StayOpenStrategy}
+	 * will be created. If an elastic pool has been enabled, elements are created and removed with the load.
+	 *
+	 * <h3>Pipelining</h3>
+	 * If pipelining has been enabled, then an instance of {@link PipelinedStayOpenStrategy} will be
+	 * created instead of {@link StayOpenStrategy}.
 	 */
 	private static class StrategyFunction implements FactoryFunction<ExecutionStrategy> {
 		private final Boolean stayOpen;
@@ -554,35 +996,96 @@ public class ExifToolBuilder {
 
 		private final int poolSize;
 
-		public StrategyFunction(Boolean stayOpen, Long delay, Scheduler scheduler, int poolSize) {
+		private final int maxPoolSize;
+
+		private final long growDelay;
+
+		private final long idleDelay;
+
+		private final long acquireTimeout;
+
+		private final int maxWaiters;
+
+		private final DispatchPolicy dispatchPolicy;
+
+		private final boolean parallelPrewarm;
+
+		private final int maxInFlight;
+
+		private final long commandTimeout;
+
+		private final long healthCheckInterval;
+
+		private final RecyclePolicy recyclePolicy;
+
+		public StrategyFunction(Boolean stayOpen, Long delay, Scheduler scheduler, int poolSize, int maxPoolSize, long growDelay, long idleDelay, long acquireTimeout, int maxWaiters, DispatchPolicy dispatchPolicy, boolean parallelPrewarm, int maxInFlight, long commandTimeout, long healthCheckInterval, RecyclePolicy recyclePolicy) {
 			this.stayOpen = stayOpen;
 			this.delay = delay;
 			this.scheduler = scheduler;
 			this.poolSize = poolSize;
+			this.maxPoolSize = maxPoolSize;
+			this.growDelay = growDelay;
+			this.idleDelay = idleDelay;
+			this.acquireTimeout = acquireTimeout;
+			this.maxWaiters = maxWaiters;
+			this.dispatchPolicy = dispatchPolicy;
+			this.parallelPrewarm = parallelPrewarm;
+			this.maxInFlight = maxInFlight;
+			this.commandTimeout = commandTimeout;
+			this.healthCheckInterval = healthCheckInterval;
+			this.recyclePolicy = recyclePolicy;
 		}
 
 		@Override
 		public ExecutionStrategy apply() {
-			// First, try the pool strategy.
+			// First, try the elastic pool strategy.
+			if (poolSize > 0 && maxPoolSize > poolSize) {
+				PoolStrategy pool = new PoolStrategy(
+					() -> configure(new StayOpenStrategy(new SchedulerFunction(delay).apply())),
+					poolSize, maxPoolSize, millis(growDelay), millis(idleDelay)
+				);
+
+				return configure(pool);
+			}
+
+			// Then, try the fixed pool strategy.
 			if (poolSize > 0) {
 				List<ExecutionStrategy> strategies = new ArrayList<>(poolSize);
 				for (int i = 0; i < poolSize; i++) {
 					Scheduler scheduler = new SchedulerFunction(delay).apply();
-					StayOpenStrategy strategy = new StayOpenStrategy(scheduler);
+					StayOpenStrategy strategy = configure(new StayOpenStrategy(scheduler));
 					strategies.add(strategy);
 				}
 
-				return new PoolStrategy(strategies);
+				return configure(new PoolStrategy(strategies));
 			}
 
 			// Try the stayOpen strategy.
 			if (stayOpen != null && stayOpen) {
-				return new StayOpenStrategy(firstNonNull(scheduler, new SchedulerFunction(delay)));
+				if (maxInFlight > 0) {
+					return new PipelinedStayOpenStrategy(firstNonNull(scheduler, new SchedulerFunction(delay)), maxInFlight);
+				}
+
+				return configure(new StayOpenStrategy(firstNonNull(scheduler, new SchedulerFunction(delay))));
 			}
 
 			// Simple use case: nothing has been parametrized, so
 			// just return the default strategy.
 			return new DefaultStrategy();
 		}
+
+		private StayOpenStrategy configure(StayOpenStrategy strategy) {
+			strategy.withRecyclePolicy(recyclePolicy);
+			return commandTimeout > 0 ? strategy.withCommandTimeout(millis(commandTimeout)) : strategy;
+		}
+
+		private PoolStrategy configure(PoolStrategy pool) {
+			pool.withAcquireTimeout(acquireTimeout > 0 ? millis(acquireTimeout) : null)
+				.withMaxWaiters(maxWaiters)
+				.withParallelPrewarm(parallelPrewarm)
+				.withHealthCheck(healthCheckInterval > 0 ? millis(healthCheckInterval) : null);
+
+			return dispatchPolicy == null ? pool : pool.withDispatchPolicy(dispatchPolicy);
+		}
 	}
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache of image metadata read by {@link ExifTool}.
+ *
+ * <br>
+ *
+ * Entries are keyed by the identity of the image (canonical path, size, last modification
+ * time and file key when the file system provides one), the serialized options and the set
+ * of queried tags: an image that has been modified since its metadata have been cached
+ * is a cache miss.
+ *
+ * <br>
+ *
+ * Implementations must be thread-safe.
+ */
+public interface MetadataCache {
+
+	/**
+	 * Get metadata of given image from the cache, or load them with given {@code loader}
+	 * and put them in the cache.
+	 * If image attributes cannot be read, metadata are loaded but not cached.
+	 *
+	 * <br>
+	 *
+	 * Image identity is read before metadata are loaded: if the image is modified while
+	 * metadata are loaded, the entry will not be returned for the new version of the image.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options used to read metadata.
+	 * @param tags Queried tags.
+	 * @param loader Function reading metadata with {@code exiftool}.
+	 * @return Metadata, {@code null} only if {@code loader} returned {@code null} (which is not cached).
+	 * @throws IOException If {@code loader} fails.
+	 */
+	Map<Tag, String> load(File image, ExifToolOptions options, Collection<? extends Tag> tags, Loader loader) throws IOException;
+
+	/**
+	 * Get metadata of given image from the cache, or load them asynchronously with given {@code loader}
+	 * and put them in the cache once they have been loaded (see {@link #load(File, ExifToolOptions, Collection, Loader)}).
+	 *
+	 * <br>
+	 *
+	 * Default implementation does not use the cache: metadata are always loaded with {@code loader}.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options used to read metadata.
+	 * @param tags Queried tags.
+	 * @param loader Function reading metadata asynchronously with {@code exiftool}.
+	 * @return Metadata, completed with {@code null} only if {@code loader} completed with {@code null} (which is not cached).
+	 */
+	default CompletableFuture<Map<Tag, String>> loadAsync(File image, ExifToolOptions options, Collection<? extends Tag> tags, AsyncLoader loader) {
+		return loader.load();
+	}
+
+	/**
+	 * Invalidate all entries of given image, whatever the options or the queried tags.
+	 *
+	 * @param image Image.
+	 */
+	void invalidate(File image);
+
+	/**
+	 * Get current size of cache (a.k.a number of entries).
+	 *
+	 * @return Cache Size.
+	 */
+	long size();
+
+	/**
+	 * Invalidate all entries.
+	 */
+	void clear();
+
+	/**
+	 * Function reading metadata of an image.
+	 */
+	@FunctionalInterface
+	interface Loader {
+
+		/**
+		 * Read metadata.
+		 *
+		 * @return Metadata.
+		 * @throws IOException If something bad happen during I/O operations.
+		 */
+		Map<Tag, String> load() throws IOException;
+	}
+
+	/**
+	 * Function reading metadata of an image asynchronously.
+	 */
+	@FunctionalInterface
+	interface AsyncLoader {
+
+		/**
+		 * Read metadata.
+		 *
+		 * @return Metadata, completed exceptionally if something bad happen during I/O operations.
+		 */
+		CompletableFuture<Map<Tag, String>> load();
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool;
+
+import com.thebuzzmedia.exiftool.commons.lang.ToStringBuilder;
+import com.thebuzzmedia.exiftool.core.handlers.BaseTagHandler;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import static java.util.Collections.unmodifiableCollection;
+
+/**
+ * A query (options and list of tags) prepared once, and executed for many images
+ * with {@link ExifTool#getImageMeta(File, PreparedQuery)}.
+ *
+ * <br>
+ *
+ * Arguments sent to {@code exiftool} for options and tags are built (and encoded) once, and
+ * the lookup of tag names is computed once: executing the query for an image only appends the
+ * path of the image to the prepared arguments.
+ *
+ * <br>
+ *
+ * This class is immutable and thread-safe: the same query may be executed concurrently.
+ *
+ * @see ExifTool#prepare(ExifToolOptions, Collection)
+ */
+public final class PreparedQuery {
+
+	/**
+	 * Last argument, used by exiftool if stay_open flag has been set.
+	 */
+	private static final String EXECUTE = "-execute";
+
+	/**
+	 * Query options.
+	 */
+	private final ExifToolOptions options;
+
+	/**
+	 * Queried tags.
+	 */
+	private final Collection<Tag> tags;
+
+	/**
+	 * Arguments of the query, without any image.
+	 */
+	private final EncodedArguments arguments;
+
+	/**
+	 * Handler used as a prototype for each execution, {@code null} if JSON output is used.
+	 */
+	private final BaseTagHandler handler;
+
+	/**
+	 * Create query.
+	 *
+	 * @param options Query options.
+	 * @param tags Queried tags.
+	 * @param arguments Arguments of the query, without any image.
+	 * @param handler Handler used as a prototype for each execution, {@code null} if JSON output is used.
+	 */
+	PreparedQuery(ExifToolOptions options, Collection<? extends Tag> tags, EncodedArguments arguments, BaseTagHandler handler) {
+		this.options = options;
+		this.tags = unmodifiableCollection(new ArrayList<>(tags));
+		this.arguments = arguments;
+		this.handler = handler;
+	}
+
+	/**
+	 * Get query options.
+	 *
+	 * @return {@link #options}
+	 */
+	public ExifToolOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * Get queried tags.
+	 *
+	 * @return {@link #tags}
+	 */
+	public Collection<Tag> getTags() {
+		return tags;
+	}
+
+	/**
+	 * Get arguments to query given image.
+	 *
+	 * @param image The image.
+	 * @return Arguments.
+	 */
+	EncodedArguments arguments(File image) {
+		return arguments.append(image.getAbsolutePath(), EXECUTE);
+	}
+
+	/**
+	 * Check if the JSON output is used.
+	 *
+	 * @return {@code true} if JSON output is used, {@code false} otherwise.
+	 */
+	boolean isJson() {
+		return handler == null;
+	}
+
+	/**
+	 * Create a new handler reading output of the query.
+	 *
+	 * @return The handler.
+	 */
+	BaseTagHandler newHandler() {
+		return handler.newHandler();
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(getClass())
+				.append("options", options)
+				.append("tags", tags)
+				.build();
+	}
+}
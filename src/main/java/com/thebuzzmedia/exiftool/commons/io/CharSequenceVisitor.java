@@ -0,0 +1,42 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.commons.io;
+
+/**
+ * Visitor that may read lines of {@link java.io.InputStream} without materializing
+ * a {@link String} for each line.
+ *
+ * <br>
+ *
+ * When a visitor implements this interface, readers call {@link #readLine(CharSequence)}
+ * instead of {@link #readLine(String)}. Given sequence is only valid during the call: its
+ * content may be overwritten by the next read operation, so a visitor retaining a value
+ * must convert it to a {@link String} first.
+ */
+public interface CharSequenceVisitor extends StreamVisitor {
+
+	/**
+	 * Read line.
+	 * Result is a boolean and should indicate if instance of {@link java.io.InputStream}
+	 * has a next line to read.
+	 *
+	 * @param line Line, {@code null} if the end of the stream has been reached.
+	 * @return {@code true} if next line should be read, {@code false} otherwise.
+	 */
+	boolean readLine(CharSequence line);
+}
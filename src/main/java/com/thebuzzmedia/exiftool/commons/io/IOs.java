@@ -20,12 +20,9 @@ package com.thebuzzmedia.exiftool.commons.io;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
 
 /**
  * Static Input/Output Utilities.
@@ -37,11 +34,6 @@ public final class IOs {
 	 */
 	private static final Logger log = LoggerFactory.getLogger(IOs.class);
 
-	/**
-	 * Encoding.
-	 */
-	private static final Charset UTF_8 = Charset.forName("UTF-8");
-
 	// Ensure non instantiation.
 	private IOs() {
 	}
@@ -56,14 +48,50 @@ public final class IOs {
 	public static void readInputStream(InputStream is, StreamVisitor visitor) throws IOException {
 		log.trace("Read input stream");
 
-		String line = null;
-		BufferedReader br = new BufferedReader(new InputStreamReader(is, UTF_8));
+		LineReader reader = new LineReader(is);
+		boolean eof = false;
+
+		try {
+			eof = readLines(reader, visitor);
+		}
+		finally {
+			// Maybe last line is not null (suppose an handler that should stop on given output).
+			// On the opposite, if line is null, then we know that stream should be closed.
+			if (eof) {
+				closeQuietly(reader);
+			}
+		}
+	}
+
+	/**
+	 * Read lines from given reader and continue until the visitor returns {@code false}.
+	 *
+	 * <br>
+	 *
+	 * If the visitor implements {@link CharSequenceVisitor}, lines are given as {@link CharSequence}
+	 * without allocating a {@link String} for each line, otherwise {@link StreamVisitor#readLine(String)}
+	 * is called.
+	 *
+	 * <br>
+	 *
+	 * Contrary to {@link #readInputStream(InputStream, StreamVisitor)}, the reader is never closed: this method
+	 * should be used to read a long-lived stream several times without losing characters already buffered
+	 * by the reader.
+	 *
+	 * @param reader Reader.
+	 * @param visitor Result handler.
+	 * @return {@code true} if the end of the stream has been reached, {@code false} otherwise.
+	 * @throws IOException If an error occurred during read operation.
+	 */
+	public static boolean readLines(LineReader reader, StreamVisitor visitor) throws IOException {
+		CharSequenceVisitor sequenceVisitor = visitor instanceof CharSequenceVisitor ? (CharSequenceVisitor) visitor : null;
+		CharSequence line = null;
 
 		try {
 			boolean hasNext = true;
 			while (hasNext) {
-				line = br.readLine();
-				hasNext = visitor.readLine(line);
+				line = reader.readLine();
+				hasNext = sequenceVisitor != null ? sequenceVisitor.readLine(line) : visitor.readLine(line == null ? null : line.toString());
 				log.trace("  - Line: {}", line);
 				log.trace("  - Continue: {}", hasNext);
 			}
@@ -72,13 +100,8 @@ public final class IOs {
 			log.error(ex.getMessage(), ex);
 			throw ex;
 		}
-		finally {
-			// Maybe last line is not null (suppose an handler that should stop on given output).
-			// On the opposite, if line is null, then we know that stream should be closed.
-			if (line == null) {
-				closeQuietly(br);
-			}
-		}
+
+		return line == null;
 	}
 
 	/**
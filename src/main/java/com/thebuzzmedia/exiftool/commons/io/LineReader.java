@@ -0,0 +1,250 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.commons.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read UTF-8 lines from an {@link InputStream}, reusing the same buffers for
+ * each line.
+ *
+ * <br>
+ *
+ * Contrary to {@link java.io.BufferedReader#readLine()}, no {@link String} is allocated
+ * for each line: lines are decoded into a reusable {@link CharBuffer} that is returned
+ * as a {@link CharSequence}. This sequence is only valid until the next read operation.
+ *
+ * <br>
+ *
+ * Lines are terminated by {@code \n}, an optional {@code \r} before it is removed.
+ * Bytes read after the end of a line are kept for the next read operation, so that a
+ * reader may be used for the whole lifetime of a long-lived stream.
+ *
+ * <br>
+ *
+ * <strong>Note:</strong> This class is not thread safe.
+ */
+public final class LineReader implements Closeable {
+
+	/**
+	 * Default size of the read buffer.
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * The read stream.
+	 */
+	private final InputStream is;
+
+	/**
+	 * Decoder used when a line is not pure ASCII.
+	 */
+	private final CharsetDecoder decoder;
+
+	/**
+	 * Bytes read from the stream.
+	 */
+	private final byte[] buffer;
+
+	/**
+	 * View of {@link #buffer} given to the decoder.
+	 */
+	private final ByteBuffer bufferView;
+
+	/**
+	 * Position of the next byte to read in {@link #buffer}.
+	 */
+	private int position;
+
+	/**
+	 * Number of bytes available in {@link #buffer}.
+	 */
+	private int limit;
+
+	/**
+	 * Bytes of a line spanning several read operations.
+	 */
+	private byte[] pending;
+
+	/**
+	 * Number of bytes in {@link #pending}.
+	 */
+	private int pendingLength;
+
+	/**
+	 * View of {@link #pending} given to the decoder.
+	 */
+	private ByteBuffer pendingView;
+
+	/**
+	 * Decoded line.
+	 */
+	private CharBuffer chars;
+
+	/**
+	 * Create reader.
+	 *
+	 * @param is Input stream.
+	 * @throws NullPointerException If {@code is} is {@code null}.
+	 */
+	public LineReader(InputStream is) {
+		this(is, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create reader.
+	 *
+	 * @param is Input stream.
+	 * @param bufferSize Size of the read buffer.
+	 * @throws NullPointerException If {@code is} is {@code null}.
+	 * @throws IllegalArgumentException If {@code bufferSize} is not positive.
+	 */
+	public LineReader(InputStream is, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive");
+		}
+
+		this.is = requireNonNull(is, "Input stream should not be null");
+		this.decoder = UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		this.buffer = new byte[bufferSize];
+		this.bufferView = ByteBuffer.wrap(buffer);
+		this.pending = new byte[0];
+		this.pendingView = ByteBuffer.wrap(pending);
+		this.chars = CharBuffer.allocate(128);
+	}
+
+	/**
+	 * Read next line.
+	 *
+	 * @return The line, {@code null} if the end of the stream has been reached. Returned
+	 *     sequence is only valid until the next read operation.
+	 * @throws IOException If an error occurred during read operation.
+	 */
+	public CharSequence readLine() throws IOException {
+		pendingLength = 0;
+
+		while (true) {
+			int start = position;
+			for (int i = start; i < limit; i++) {
+				if (buffer[i] == '\n') {
+					position = i + 1;
+
+					if (pendingLength == 0) {
+						return decode(buffer, bufferView, start, i - start);
+					}
+
+					append(start, i - start);
+					return decode(pending, pendingView, 0, pendingLength);
+				}
+			}
+
+			// End of line has not been read yet: keep bytes and read again.
+			append(start, limit - start);
+			position = 0;
+			limit = 0;
+
+			int n = is.read(buffer, 0, buffer.length);
+			if (n < 0) {
+				return pendingLength == 0 ? null : decode(pending, pendingView, 0, pendingLength);
+			}
+
+			limit = n;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		is.close();
+	}
+
+	private void append(int start, int length) {
+		if (length == 0) {
+			return;
+		}
+
+		int newLength = pendingLength + length;
+		if (newLength > pending.length) {
+			byte[] newPending = new byte[Math.max(newLength, pending.length * 2)];
+			System.arraycopy(pending, 0, newPending, 0, pendingLength);
+			pending = newPending;
+			pendingView = ByteBuffer.wrap(pending);
+		}
+
+		System.arraycopy(buffer, start, pending, pendingLength, length);
+		pendingLength = newLength;
+	}
+
+	private CharSequence decode(byte[] bytes, ByteBuffer view, int start, int length) {
+		int end = start + length;
+		if (length > 0 && bytes[end - 1] == '\r') {
+			end--;
+		}
+
+		// UTF-8 never produces more chars than bytes.
+		int size = end - start;
+		if (chars.capacity() < size) {
+			chars = CharBuffer.allocate(Math.max(size, chars.capacity() * 2));
+		}
+
+		// Buffer methods are called through Buffer to stay compatible with Java 8 runtime.
+		((Buffer) chars).clear();
+
+		if (isAscii(bytes, start, end)) {
+			char[] array = chars.array();
+			for (int i = start; i < end; i++) {
+				array[i - start] = (char) bytes[i];
+			}
+
+			((Buffer) chars).position(size);
+		}
+		else {
+			((Buffer) view).clear();
+			((Buffer) view).position(start);
+			((Buffer) view).limit(end);
+			decoder.reset();
+			decoder.decode(view, chars, true);
+			decoder.flush(chars);
+		}
+
+		((Buffer) chars).flip();
+		return chars;
+	}
+
+	private static boolean isAscii(byte[] bytes, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (bytes[i] < 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
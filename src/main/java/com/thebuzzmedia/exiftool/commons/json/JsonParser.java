@@ -0,0 +1,330 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.commons.json;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Minimal JSON parser, reading values one by one from a {@link CharSequence}
+ * without building an intermediate tree.
+ *
+ * <br>
+ *
+ * Values are read as:
+ *
+ * <ul>
+ *   <li>{@link String} for JSON strings.</li>
+ *   <li>{@link Integer}, {@link Long} or {@link Double} for JSON numbers (the smallest type that fits).</li>
+ *   <li>{@link Boolean} for {@code true} and {@code false}.</li>
+ *   <li>{@code null} for {@code null}.</li>
+ *   <li>An unmodifiable {@link List} for JSON arrays.</li>
+ *   <li>An unmodifiable {@link Map} (preserving member order) for JSON objects.</li>
+ * </ul>
+ *
+ * Containers may also be read step by step using {@link #expect(char)} and {@link #consume(char)},
+ * so that large arrays do not have to be read at once.
+ *
+ * <br>
+ *
+ * <strong>Note:</strong> This class is not thread safe.
+ */
+public final class JsonParser {
+
+	/**
+	 * The parsed input.
+	 */
+	private final CharSequence input;
+
+	/**
+	 * Index of the next character to read.
+	 */
+	private int position;
+
+	/**
+	 * Buffer used to unescape strings.
+	 */
+	private final StringBuilder buffer;
+
+	/**
+	 * Create parser.
+	 *
+	 * @param input JSON input.
+	 * @throws NullPointerException If {@code input} is {@code null}.
+	 */
+	public JsonParser(CharSequence input) {
+		this.input = requireNonNull(input, "JSON input must not be null");
+		this.position = 0;
+		this.buffer = new StringBuilder();
+	}
+
+	/**
+	 * Get the index of the next character to read.
+	 *
+	 * @return Current position.
+	 */
+	public int position() {
+		return position;
+	}
+
+	/**
+	 * Check if there is something left to read (whitespaces are ignored).
+	 *
+	 * @return {@code true} if the end of the input has not been reached, {@code false} otherwise.
+	 */
+	public boolean hasNext() {
+		skipWhitespaces();
+		return position < input.length();
+	}
+
+	/**
+	 * Read the next (non whitespace) character if it is equal to {@code c}.
+	 *
+	 * @param c Expected character.
+	 * @return {@code true} if the character has been read, {@code false} otherwise.
+	 */
+	public boolean consume(char c) {
+		skipWhitespaces();
+		if (position < input.length() && input.charAt(position) == c) {
+			position++;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read the next (non whitespace) character, that must be equal to {@code c}.
+	 *
+	 * @param c Expected character.
+	 * @throws IllegalArgumentException If next character is not {@code c}.
+	 */
+	public void expect(char c) {
+		if (!consume(c)) {
+			throw error("Expected '" + c + "'");
+		}
+	}
+
+	/**
+	 * Read a JSON string.
+	 *
+	 * @return The unescaped string.
+	 * @throws IllegalArgumentException If next value is not a valid JSON string.
+	 */
+	public String readString() {
+		expect('"');
+		buffer.setLength(0);
+
+		while (position < input.length()) {
+			char c = input.charAt(position++);
+			if (c == '"') {
+				return buffer.toString();
+			}
+
+			if (c == '\\') {
+				buffer.append(readEscaped());
+			}
+			else {
+				buffer.append(c);
+			}
+		}
+
+		throw error("Unterminated string");
+	}
+
+	/**
+	 * Read a JSON value.
+	 *
+	 * @return The value (see class documentation for returned types).
+	 * @throws IllegalArgumentException If next value is not a valid JSON value.
+	 */
+	public Object readValue() {
+		skipWhitespaces();
+		if (position >= input.length()) {
+			throw error("Unexpected end of input");
+		}
+
+		char c = input.charAt(position);
+		switch (c) {
+			case '"':
+				return readString();
+			case '[':
+				return readArray();
+			case '{':
+				return readObject();
+			case 't':
+				readLiteral("true");
+				return Boolean.TRUE;
+			case 'f':
+				readLiteral("false");
+				return Boolean.FALSE;
+			case 'n':
+				readLiteral("null");
+				return null;
+			default:
+				if (c == '-' || (c >= '0' && c <= '9')) {
+					return readNumber();
+				}
+
+				throw error("Unexpected character '" + c + "'");
+		}
+	}
+
+	private List<Object> readArray() {
+		expect('[');
+
+		List<Object> values = new ArrayList<>();
+		if (!consume(']')) {
+			do {
+				values.add(readValue());
+			}
+			while (consume(','));
+
+			expect(']');
+		}
+
+		return unmodifiableList(values);
+	}
+
+	private Map<String, Object> readObject() {
+		expect('{');
+
+		Map<String, Object> values = new LinkedHashMap<>();
+		if (!consume('}')) {
+			do {
+				String name = readString();
+				expect(':');
+				values.put(name, readValue());
+			}
+			while (consume(','));
+
+			expect('}');
+		}
+
+		return unmodifiableMap(values);
+	}
+
+	private Number readNumber() {
+		int start = position;
+		boolean decimal = false;
+
+		while (position < input.length()) {
+			char c = input.charAt(position);
+			if (c == '.' || c == 'e' || c == 'E') {
+				decimal = true;
+			}
+			else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+				break;
+			}
+
+			position++;
+		}
+
+		String number = input.subSequence(start, position).toString();
+
+		try {
+			if (!decimal) {
+				long value = Long.parseLong(number);
+				if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					return (int) value;
+				}
+
+				return value;
+			}
+		}
+		catch (NumberFormatException ex) {
+			// Integer is too large to fit in a long: read it as a double.
+		}
+
+		try {
+			return Double.parseDouble(number);
+		}
+		catch (NumberFormatException ex) {
+			throw error("Invalid number '" + number + "'");
+		}
+	}
+
+	private void readLiteral(String literal) {
+		int end = position + literal.length();
+		if (end > input.length() || !literal.contentEquals(input.subSequence(position, end))) {
+			throw error("Expected '" + literal + "'");
+		}
+
+		position = end;
+	}
+
+	private char readEscaped() {
+		if (position >= input.length()) {
+			throw error("Unterminated escape sequence");
+		}
+
+		char c = input.charAt(position++);
+		switch (c) {
+			case '"':
+			case '\\':
+			case '/':
+				return c;
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'u':
+				if (position + 4 > input.length()) {
+					throw error("Invalid unicode escape sequence");
+				}
+
+				try {
+					char unicode = (char) Integer.parseInt(input.subSequence(position, position + 4).toString(), 16);
+					position += 4;
+					return unicode;
+				}
+				catch (NumberFormatException ex) {
+					throw error("Invalid unicode escape sequence");
+				}
+			default:
+				throw error("Invalid escape sequence '\\" + c + "'");
+		}
+	}
+
+	private void skipWhitespaces() {
+		while (position < input.length()) {
+			char c = input.charAt(position);
+			if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+				return;
+			}
+
+			position++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException("Invalid JSON at position " + position + ": " + message);
+	}
+}
@@ -0,0 +1,327 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.commons.lang.ToStringBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Metadata of an image, with direct access to values of {@link StandardTag}.
+ *
+ * <br>
+ *
+ * Values of standard tags are stored in arrays indexed by the ordinal of the tag, and numeric
+ * values are parsed once, on first access, to primitive values: reading the same tag several times
+ * with {@link #getInt(StandardTag)}, {@link #getLong(StandardTag)} or {@link #getDouble(StandardTag)}
+ * does not parse (nor box) the value again.
+ *
+ * <br>
+ *
+ * Other tags (such as {@link UnspecifiedTag}) are kept as strings.
+ *
+ * <br>
+ *
+ * <strong>Note:</strong> Since values are parsed lazily, this class is not thread-safe
+ * and should not be shared across threads without external synchronization.
+ */
+public final class Metadata {
+
+	/**
+	 * Number of standard tags.
+	 */
+	private static final int SIZE = StandardTag.values().length;
+
+	/**
+	 * Flag set when long value has been parsed.
+	 */
+	private static final byte LONG_PARSED = 1;
+
+	/**
+	 * Flag set when double value has been parsed.
+	 */
+	private static final byte DOUBLE_PARSED = 2;
+
+	/**
+	 * Create metadata from tag values.
+	 *
+	 * @param tags Tag values, as returned by {@link com.thebuzzmedia.exiftool.ExifTool#getImageMeta}.
+	 * @return The metadata.
+	 * @throws NullPointerException If {@code tags} is {@code null}.
+	 */
+	public static Metadata of(Map<? extends Tag, String> tags) {
+		requireNonNull(tags, "Tags must not be null");
+
+		String[] values = new String[SIZE];
+		Map<Tag, String> others = null;
+
+		int size = 0;
+		for (Map.Entry<? extends Tag, String> entry : tags.entrySet()) {
+			Tag tag = entry.getKey();
+			String value = entry.getValue();
+			if (value == null) {
+				continue;
+			}
+
+			size++;
+
+			if (tag instanceof StandardTag) {
+				values[((StandardTag) tag).ordinal()] = value;
+			}
+			else {
+				if (others == null) {
+					others = new HashMap<>();
+				}
+
+				others.put(tag, value);
+			}
+		}
+
+		return new Metadata(values, others == null ? emptyMap() : unmodifiableMap(others), size);
+	}
+
+	/**
+	 * Values of standard tags, indexed by ordinal, {@code null} when the tag is missing.
+	 */
+	private final String[] values;
+
+	/**
+	 * Values of tags that are not standard tags.
+	 */
+	private final Map<Tag, String> others;
+
+	/**
+	 * Number of tags.
+	 */
+	private final int size;
+
+	/**
+	 * Parse state of each standard tag (see {@link #LONG_PARSED} and {@link #DOUBLE_PARSED}), lazily created.
+	 */
+	private byte[] parsed;
+
+	/**
+	 * Parsed long values, lazily created.
+	 */
+	private long[] longs;
+
+	/**
+	 * Parsed double values, lazily created.
+	 */
+	private double[] doubles;
+
+	private Metadata(String[] values, Map<Tag, String> others, int size) {
+		this.values = values;
+		this.others = others;
+		this.size = size;
+	}
+
+	/**
+	 * Check if given tag has a value.
+	 *
+	 * @param tag The tag.
+	 * @return {@code true} if tag has a value, {@code false} otherwise.
+	 */
+	public boolean contains(Tag tag) {
+		return getString(tag) != null;
+	}
+
+	/**
+	 * Get the value of given tag, as returned by {@code exiftool}.
+	 *
+	 * @param tag The tag.
+	 * @return The value, {@code null} if tag has no value.
+	 */
+	public String getString(Tag tag) {
+		if (tag instanceof StandardTag) {
+			return values[((StandardTag) tag).ordinal()];
+		}
+
+		return others.get(tag);
+	}
+
+	/**
+	 * Get the value of given tag as an {@code int}.
+	 *
+	 * @param tag The tag.
+	 * @return The value.
+	 * @throws NoSuchElementException If tag has no value.
+	 * @throws NumberFormatException If value is not an integer, or does not fit in an {@code int}.
+	 */
+	public int getInt(StandardTag tag) {
+		long value = getLong(tag);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new NumberFormatException("Value of tag " + tag.getName() + " does not fit in an int: " + value);
+		}
+
+		return (int) value;
+	}
+
+	/**
+	 * Get the value of given tag as an {@code int}, or a default value if tag has no value.
+	 *
+	 * @param tag The tag.
+	 * @param defaultValue Value returned if tag has no value.
+	 * @return The value.
+	 * @throws NumberFormatException If value is not an integer, or does not fit in an {@code int}.
+	 */
+	public int getInt(StandardTag tag, int defaultValue) {
+		return values[tag.ordinal()] == null ? defaultValue : getInt(tag);
+	}
+
+	/**
+	 * Get the value of given tag as a {@code long}.
+	 *
+	 * @param tag The tag.
+	 * @return The value.
+	 * @throws NoSuchElementException If tag has no value.
+	 * @throws NumberFormatException If value is not an integer.
+	 */
+	public long getLong(StandardTag tag) {
+		int i = index(tag);
+		if ((parsed[i] & LONG_PARSED) == 0) {
+			if (longs == null) {
+				longs = new long[SIZE];
+			}
+
+			longs[i] = Long.parseLong(values[i]);
+			parsed[i] |= LONG_PARSED;
+		}
+
+		return longs[i];
+	}
+
+	/**
+	 * Get the value of given tag as a {@code long}, or a default value if tag has no value.
+	 *
+	 * @param tag The tag.
+	 * @param defaultValue Value returned if tag has no value.
+	 * @return The value.
+	 * @throws NumberFormatException If value is not an integer.
+	 */
+	public long getLong(StandardTag tag, long defaultValue) {
+		return values[tag.ordinal()] == null ? defaultValue : getLong(tag);
+	}
+
+	/**
+	 * Get the value of given tag as a {@code double}.
+	 *
+	 * @param tag The tag.
+	 * @return The value ({@code inf} is returned as {@link Double#POSITIVE_INFINITY} and {@code undef} as {@link Double#NaN}).
+	 * @throws NoSuchElementException If tag has no value.
+	 * @throws NumberFormatException If value is not a number.
+	 */
+	public double getDouble(StandardTag tag) {
+		int i = index(tag);
+		if ((parsed[i] & DOUBLE_PARSED) == 0) {
+			if (doubles == null) {
+				doubles = new double[SIZE];
+			}
+
+			doubles[i] = StandardTag.parseDouble(values[i]);
+			parsed[i] |= DOUBLE_PARSED;
+		}
+
+		return doubles[i];
+	}
+
+	/**
+	 * Get the value of given tag as a {@code double}, or a default value if tag has no value.
+	 *
+	 * @param tag The tag.
+	 * @param defaultValue Value returned if tag has no value.
+	 * @return The value.
+	 * @throws NumberFormatException If value is not a number.
+	 */
+	public double getDouble(StandardTag tag, double defaultValue) {
+		return values[tag.ordinal()] == null ? defaultValue : getDouble(tag);
+	}
+
+	/**
+	 * Get the number of tags.
+	 *
+	 * @return Number of tags.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get all tag values, as returned by {@code exiftool}.
+	 *
+	 * @return Tag values.
+	 */
+	public Map<Tag, String> toMap() {
+		Map<Tag, String> tags = new HashMap<>(others);
+		for (StandardTag tag : StandardTag.values()) {
+			String value = values[tag.ordinal()];
+			if (value != null) {
+				tags.put(tag, value);
+			}
+		}
+
+		return unmodifiableMap(tags);
+	}
+
+	private int index(StandardTag tag) {
+		int i = tag.ordinal();
+		if (values[i] == null) {
+			throw new NoSuchElementException("Tag " + tag.getName() + " has no value");
+		}
+
+		if (parsed == null) {
+			parsed = new byte[SIZE];
+		}
+
+		return i;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof Metadata) {
+			Metadata m = (Metadata) o;
+			return Arrays.equals(values, m.values) && others.equals(m.others);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(values) + others.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(getClass())
+				.append("tags", toMap())
+				.build();
+	}
+}
@@ -173,6 +173,31 @@ public final class StandardOptions implements ExifToolOptions {
 	 */
 	private final boolean useArgsFormat;
 
+	/**
+	 * Use JSON formatting for output (see {@link com.thebuzzmedia.exiftool.core.handlers.JsonTagHandler}).
+	 */
+	private final boolean jsonOutput;
+
+	/**
+	 * Print group name of each tag (tag names are prefixed by the group name, such as {@code EXIF:ISO}).
+	 */
+	private final boolean groupNames;
+
+	/**
+	 * Output structured information (XMP and JSON only) instead of flattening to individual tags.
+	 */
+	private final boolean struct;
+
+	/**
+	 * Recursively process files in sub-directories, when a directory is given.
+	 */
+	private final boolean recursive;
+
+	/**
+	 * Process only files with these extensions, when a directory is given.
+	 */
+	private final List<String> extensions;
+
 	/**
 	 * Create options.
 	 *
@@ -192,6 +217,11 @@ public final class StandardOptions implements ExifToolOptions {
 	 * @param noCompositeTags Do not extract composite tags.
 	 * @param overwriteMode The overwrite mode.
 	 * @param useArgsFormat Output information in the form of exiftool arguments.
+	 * @param jsonOutput Use JSON formatting for output.
+	 * @param groupNames Print group name of each tag.
+	 * @param struct Output structured information.
+	 * @param recursive Recursively process sub-directories.
+	 * @param extensions Process only files with these extensions.
 	 */
 	private StandardOptions(
 			Format format,
@@ -209,7 +239,12 @@ public final class StandardOptions implements ExifToolOptions {
 			boolean extractUnknown,
 			boolean noCompositeTags,
 			OverwriteMode overwriteMode,
-			boolean useArgsFormat
+			boolean useArgsFormat,
+			boolean jsonOutput,
+			boolean groupNames,
+			boolean struct,
+			boolean recursive,
+			Collection<String> extensions
 	) {
 		this.format = format;
 		this.ignoreMinorErrors = ignoreMinorErrors;
@@ -227,6 +262,11 @@ public final class StandardOptions implements ExifToolOptions {
 		this.duplicates = duplicates;
 		this.overwriteOriginal = overwriteMode;
 		this.useArgsFormat = useArgsFormat;
+		this.jsonOutput = jsonOutput;
+		this.groupNames = groupNames;
+		this.struct = struct;
+		this.recursive = recursive;
+		this.extensions = unmodifiableList(new ArrayList<>(extensions));
 	}
 
 	@Override
@@ -249,6 +289,27 @@ public final class StandardOptions implements ExifToolOptions {
 			arguments.add("-args");
 		}
 
+		if (jsonOutput) {
+			arguments.add("-j");
+		}
+
+		if (groupNames) {
+			arguments.add("-G");
+		}
+
+		if (struct) {
+			arguments.add("-struct");
+		}
+
+		if (recursive) {
+			arguments.add("-r");
+		}
+
+		for (String extension : extensions) {
+			arguments.add("-ext");
+			arguments.add(extension);
+		}
+
 		if (isNotEmpty(dateFormat)) {
 			arguments.add("-dateFormat");
 			arguments.add(dateFormat);
@@ -482,6 +543,51 @@ public final class StandardOptions implements ExifToolOptions {
 		return useArgsFormat;
 	}
 
+	/**
+	 * Get {@link #jsonOutput}
+	 *
+	 * @return {@link #jsonOutput}
+	 */
+	public boolean isJsonOutput() {
+		return jsonOutput;
+	}
+
+	/**
+	 * Get {@link #groupNames}
+	 *
+	 * @return {@link #groupNames}
+	 */
+	public boolean isGroupNames() {
+		return groupNames;
+	}
+
+	/**
+	 * Get {@link #struct}
+	 *
+	 * @return {@link #struct}
+	 */
+	public boolean isStruct() {
+		return struct;
+	}
+
+	/**
+	 * Get {@link #recursive}
+	 *
+	 * @return {@link #recursive}
+	 */
+	public boolean isRecursive() {
+		return recursive;
+	}
+
+	/**
+	 * Get {@link #extensions}
+	 *
+	 * @return {@link #extensions}
+	 */
+	public List<String> getExtensions() {
+		return extensions;
+	}
+
 	/**
 	 * Re-Create builder from given options.
 	 *
@@ -504,7 +610,12 @@ public final class StandardOptions implements ExifToolOptions {
 				.withExtractUnknown(extractUnknown)
 				.withoutCompositeTags(noCompositeTags)
 				.withOverwriteMode(overwriteOriginal)
-				.withUseArgsFormat(useArgsFormat);
+				.withUseArgsFormat(useArgsFormat)
+				.withJsonOutput(jsonOutput)
+				.withGroupNames(groupNames)
+				.withStruct(struct)
+				.withRecursive(recursive)
+				.withExtensions(extensions);
 	}
 
 	@Override
@@ -530,7 +641,12 @@ public final class StandardOptions implements ExifToolOptions {
 					&& Objects.equals(extractUnknown, opts.extractUnknown)
 					&& Objects.equals(noCompositeTags, opts.noCompositeTags)
 					&& Objects.equals(overwriteOriginal, opts.overwriteOriginal)
-					&& Objects.equals(useArgsFormat, opts.useArgsFormat);
+					&& Objects.equals(useArgsFormat, opts.useArgsFormat)
+					&& Objects.equals(jsonOutput, opts.jsonOutput)
+					&& Objects.equals(groupNames, opts.groupNames)
+					&& Objects.equals(struct, opts.struct)
+					&& Objects.equals(recursive, opts.recursive)
+					&& Objects.equals(extensions, opts.extensions);
 		}
 
 		return false;
@@ -554,7 +670,12 @@ public final class StandardOptions implements ExifToolOptions {
 				extractUnknown,
 				noCompositeTags,
 				overwriteOriginal,
-				useArgsFormat
+				useArgsFormat,
+				jsonOutput,
+				groupNames,
+				struct,
+				recursive,
+				extensions
 		);
 	}
 
@@ -577,6 +698,11 @@ public final class StandardOptions implements ExifToolOptions {
 				.append("noCompositeTags", noCompositeTags)
 				.append("overwriteOriginal", overwriteOriginal)
 				.append("useArgsFormat", useArgsFormat)
+				.append("jsonOutput", jsonOutput)
+				.append("groupNames", groupNames)
+				.append("struct", struct)
+				.append("recursive", recursive)
+				.append("extensions", extensions)
 				.build();
 	}
 
@@ -695,6 +821,41 @@ public final class StandardOptions implements ExifToolOptions {
 		 */
 		private boolean useArgsFormat;
 
+		/**
+		 * Use JSON formatting for output.
+		 *
+		 * @see StandardOptions#jsonOutput
+		 */
+		private boolean jsonOutput;
+
+		/**
+		 * Print group name of each tag.
+		 *
+		 * @see StandardOptions#groupNames
+		 */
+		private boolean groupNames;
+
+		/**
+		 * Output structured information.
+		 *
+		 * @see StandardOptions#struct
+		 */
+		private boolean struct;
+
+		/**
+		 * Recursively process sub-directories.
+		 *
+		 * @see StandardOptions#recursive
+		 */
+		private boolean recursive;
+
+		/**
+		 * Process only files with these extensions.
+		 *
+		 * @see StandardOptions#extensions
+		 */
+		private final Set<String> extensions;
+
 		private Builder() {
 			this.ignoreMinorErrors = false;
 			this.format = StandardFormat.HUMAN_READABLE;
@@ -712,6 +873,11 @@ public final class StandardOptions implements ExifToolOptions {
 			this.noCompositeTags = false;
 			this.overwriteOriginal = OverwriteMode.NONE;
 			this.useArgsFormat = false;
+			this.jsonOutput = false;
+			this.groupNames = false;
+			this.struct = false;
+			this.recursive = false;
+			this.extensions = new LinkedHashSet<>();
 		}
 
 		/**
@@ -1013,6 +1179,75 @@ public final class StandardOptions implements ExifToolOptions {
 			return this;
 		}
 
+		/**
+		 * Update {@link #jsonOutput}.
+		 *
+		 * @param jsonOutput The flag.
+		 * @return The builder.
+		 */
+		public Builder withJsonOutput(boolean jsonOutput) {
+			this.jsonOutput = jsonOutput;
+			return this;
+		}
+
+		/**
+		 * Update {@link #groupNames}.
+		 *
+		 * @param groupNames The flag.
+		 * @return The builder.
+		 */
+		public Builder withGroupNames(boolean groupNames) {
+			this.groupNames = groupNames;
+			return this;
+		}
+
+		/**
+		 * Update {@link #struct}.
+		 *
+		 * @param struct The flag.
+		 * @return The builder.
+		 */
+		public Builder withStruct(boolean struct) {
+			this.struct = struct;
+			return this;
+		}
+
+		/**
+		 * Update {@link #recursive}.
+		 *
+		 * @param recursive The flag.
+		 * @return The builder.
+		 */
+		public Builder withRecursive(boolean recursive) {
+			this.recursive = recursive;
+			return this;
+		}
+
+		/**
+		 * Process only files with given extensions (without the leading dot, such as {@code "jpg"}).
+		 *
+		 * @param extension Extension.
+		 * @param others Other (optional) extensions.
+		 * @return The builder.
+		 */
+		public Builder withExtensions(String extension, String... others) {
+			List<String> extensions = new ArrayList<>(1 + others.length);
+			extensions.add(extension);
+			Collections.addAll(extensions, others);
+			return withExtensions(extensions);
+		}
+
+		/**
+		 * Process only files with given extensions (without the leading dot, such as {@code "jpg"}).
+		 *
+		 * @param extensions Extensions.
+		 * @return The builder.
+		 */
+		public Builder withExtensions(Collection<String> extensions) {
+			this.extensions.addAll(extensions);
+			return this;
+		}
+
 		/**
 		 * Build ExifTool options.
 		 *
@@ -1035,7 +1270,12 @@ public final class StandardOptions implements ExifToolOptions {
 					extractUnknown,
 					noCompositeTags,
 					overwriteOriginal,
-					useArgsFormat
+					useArgsFormat,
+					jsonOutput,
+					groupNames,
+					struct,
+					recursive,
+					extensions
 			);
 		}
 
@@ -1212,6 +1452,51 @@ public final class StandardOptions implements ExifToolOptions {
 			return useArgsFormat;
 		}
 
+		/**
+		 * Get {@link #jsonOutput}
+		 *
+		 * @return {@link #jsonOutput}
+		 */
+		public boolean isJsonOutput() {
+			return jsonOutput;
+		}
+
+		/**
+		 * Get {@link #groupNames}
+		 *
+		 * @return {@link #groupNames}
+		 */
+		public boolean isGroupNames() {
+			return groupNames;
+		}
+
+		/**
+		 * Get {@link #struct}
+		 *
+		 * @return {@link #struct}
+		 */
+		public boolean isStruct() {
+			return struct;
+		}
+
+		/**
+		 * Get {@link #recursive}
+		 *
+		 * @return {@link #recursive}
+		 */
+		public boolean isRecursive() {
+			return recursive;
+		}
+
+		/**
+		 * Get {@link #extensions}
+		 *
+		 * @return {@link #extensions}
+		 */
+		public Set<String> getExtensions() {
+			return unmodifiableSet(extensions);
+		}
+
 		@Override
 		public String toString() {
 			return ToStringBuilder.create(getClass())
@@ -1230,6 +1515,11 @@ public final class StandardOptions implements ExifToolOptions {
 					.append("noCompositeTags", noCompositeTags)
 					.append("overwriteOriginal", overwriteOriginal)
 					.append("useArgsFormat", useArgsFormat)
+					.append("jsonOutput", jsonOutput)
+					.append("groupNames", groupNames)
+					.append("struct", struct)
+					.append("recursive", recursive)
+					.append("extensions", extensions)
 					.build();
 		}
 	}
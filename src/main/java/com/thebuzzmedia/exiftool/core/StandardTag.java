@@ -599,6 +599,26 @@ public enum StandardTag implements Tag {
 		return type.parse(value);
 	}
 
+	/**
+	 * Parse a double value, as printed by {@code exiftool} with the
+	 * {@link StandardFormat#NUMERIC} format.
+	 *
+	 * @param value Tag value.
+	 * @return The double value.
+	 * @throws NumberFormatException If {@code value} is not a valid double.
+	 */
+	static double parseDouble(String value) {
+		if (Objects.equals("inf", value)) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		if (Objects.equals(value, "undef")) {
+			return Double.NaN;
+		}
+
+		return Double.parseDouble(value);
+	}
+
 	@SuppressWarnings("unchecked")
 	private enum Type {
 		INTEGER {
@@ -618,15 +638,7 @@ public enum StandardTag implements Tag {
 		DOUBLE {
 			@Override
 			public <T> T parse(String value) {
-				if (Objects.equals("inf", value)) {
-					return (T) Double.valueOf(Double.POSITIVE_INFINITY);
-				}
-
-				if (Objects.equals(value, "undef")) {
-					return (T) Double.valueOf(Double.NaN);
-				}
-
-				return (T) Double.valueOf(Double.parseDouble(value));
+				return (T) Double.valueOf(parseDouble(value));
 			}
 		},
 
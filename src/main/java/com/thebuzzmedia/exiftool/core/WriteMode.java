@@ -0,0 +1,35 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core;
+
+/**
+ * Behavior of a batch write operation when the write operation of an image fails.
+ */
+public enum WriteMode {
+
+	/**
+	 * Write all images, and report failures in results.
+	 * Commands are sent without waiting for the output of previous ones when the strategy supports it.
+	 */
+	CONTINUE_ON_ERROR,
+
+	/**
+	 * Stop at the first failure: remaining images are not sent to {@code exiftool}.
+	 * Commands are executed one after the other, so that no write is pending when a failure is detected.
+	 */
+	FAIL_FAST
+}
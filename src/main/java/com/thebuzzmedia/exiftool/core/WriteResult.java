@@ -0,0 +1,189 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core;
+
+import com.thebuzzmedia.exiftool.commons.lang.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Result of the write operation of an image, as reported by the summary printed by {@code exiftool}.
+ *
+ * <br>
+ *
+ * Lines starting with {@code "Warning:"} and {@code "Error:"} are reported as warnings and errors.
+ *
+ * <br>
+ *
+ * <strong>Note:</strong> {@code exiftool} prints these lines to its error output: with the {@code stay_open}
+ * feature, error output is read separately and correlated with the command that printed it. A failure is
+ * also detected with the {@code "files weren't updated due to errors"} summary line.
+ */
+public final class WriteResult {
+
+	/**
+	 * Number of updated (or created) files.
+	 */
+	private final int updated;
+
+	/**
+	 * Number of unchanged files.
+	 */
+	private final int unchanged;
+
+	/**
+	 * Number of files not updated because of errors.
+	 */
+	private final int failed;
+
+	/**
+	 * Other lines printed by {@code exiftool}.
+	 */
+	private final List<String> messages;
+
+	/**
+	 * Warnings printed by {@code exiftool}, without the {@code "Warning:"} prefix.
+	 */
+	private final List<String> warnings;
+
+	/**
+	 * Errors printed by {@code exiftool}, without the {@code "Error:"} prefix.
+	 */
+	private final List<String> errors;
+
+	/**
+	 * Create result.
+	 *
+	 * @param updated Number of updated (or created) files.
+	 * @param unchanged Number of unchanged files.
+	 * @param failed Number of files not updated because of errors.
+	 * @param messages Other lines printed by {@code exiftool}.
+	 */
+	public WriteResult(int updated, int unchanged, int failed, List<String> messages) {
+		this(updated, unchanged, failed, messages, Collections.<String>emptyList(), Collections.<String>emptyList());
+	}
+
+	/**
+	 * Create result.
+	 *
+	 * @param updated Number of updated (or created) files.
+	 * @param unchanged Number of unchanged files.
+	 * @param failed Number of files not updated because of errors.
+	 * @param messages Other lines printed by {@code exiftool}.
+	 * @param warnings Warnings printed by {@code exiftool}.
+	 * @param errors Errors printed by {@code exiftool}.
+	 */
+	public WriteResult(int updated, int unchanged, int failed, List<String> messages, List<String> warnings, List<String> errors) {
+		this.updated = updated;
+		this.unchanged = unchanged;
+		this.failed = failed;
+		this.messages = unmodifiableList(new ArrayList<>(messages));
+		this.warnings = unmodifiableList(new ArrayList<>(warnings));
+		this.errors = unmodifiableList(new ArrayList<>(errors));
+	}
+
+	/**
+	 * Create result of a file that has not been sent to {@code exiftool}.
+	 *
+	 * @param message Failure message.
+	 * @return The result.
+	 */
+	public static WriteResult failure(String message) {
+		return new WriteResult(0, 0, 1, Collections.<String>emptyList(), Collections.<String>emptyList(), singletonList(message));
+	}
+
+	/**
+	 * Check if the file has been written (or did not need to be updated).
+	 * Warnings do not make the write operation fail.
+	 *
+	 * @return {@code true} if the write operation succeeded, {@code false} otherwise.
+	 */
+	public boolean isSuccess() {
+		return failed == 0 && errors.isEmpty() && (updated > 0 || unchanged > 0);
+	}
+
+	/**
+	 * Get the number of updated (or created) files.
+	 *
+	 * @return Number of updated files.
+	 */
+	public int getUpdated() {
+		return updated;
+	}
+
+	/**
+	 * Get the number of unchanged files.
+	 *
+	 * @return Number of unchanged files.
+	 */
+	public int getUnchanged() {
+		return unchanged;
+	}
+
+	/**
+	 * Get the number of files not updated because of errors.
+	 *
+	 * @return Number of failed files.
+	 */
+	public int getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Get other lines printed by {@code exiftool} (such as {@code "Nothing to do."}).
+	 *
+	 * @return Messages.
+	 */
+	public List<String> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Get warnings printed by {@code exiftool}, without the {@code "Warning:"} prefix.
+	 *
+	 * @return Warnings.
+	 */
+	public List<String> getWarnings() {
+		return warnings;
+	}
+
+	/**
+	 * Get errors printed by {@code exiftool}, without the {@code "Error:"} prefix.
+	 *
+	 * @return Errors.
+	 */
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(getClass())
+				.append("updated", updated)
+				.append("unchanged", unchanged)
+				.append("failed", failed)
+				.append("messages", messages)
+				.append("warnings", warnings)
+				.append("errors", errors)
+				.build();
+	}
+}
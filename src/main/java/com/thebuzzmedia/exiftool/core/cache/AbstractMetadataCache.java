@@ -0,0 +1,139 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.ExifToolOptions;
+import com.thebuzzmedia.exiftool.MetadataCache;
+import com.thebuzzmedia.exiftool.Tag;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base implementation of {@link MetadataCache}: compute entry keys and let
+ * implementations store entries.
+ *
+ * <br>
+ *
+ * Weight of an entry is its number of tags (at least one), so that maximum weight
+ * roughly bounds the number of cached values.
+ */
+abstract class AbstractMetadataCache implements MetadataCache {
+
+	@Override
+	public Map<Tag, String> load(File image, ExifToolOptions options, Collection<? extends Tag> tags, Loader loader) throws IOException {
+		requireNonNull(loader, "Loader should not be null");
+
+		// Key is computed before loading, so that a concurrent modification of the image
+		// does not associate old metadata to its new identity.
+		MetadataKey key = MetadataKey.of(image, options, tags);
+		if (key == null) {
+			return loader.load();
+		}
+
+		Map<Tag, String> metadata = doGet(key);
+		if (metadata == null) {
+			Map<Tag, String> loaded = loader.load();
+			if (loaded == null) {
+				return null;
+			}
+
+			metadata = unmodifiableMap(new HashMap<>(loaded));
+			doPut(key, metadata);
+		}
+
+		return metadata;
+	}
+
+	@Override
+	public CompletableFuture<Map<Tag, String>> loadAsync(File image, ExifToolOptions options, Collection<? extends Tag> tags, AsyncLoader loader) {
+		requireNonNull(loader, "Loader should not be null");
+
+		MetadataKey key = MetadataKey.of(image, options, tags);
+		if (key == null) {
+			return loader.load();
+		}
+
+		Map<Tag, String> metadata = doGet(key);
+		if (metadata != null) {
+			return CompletableFuture.completedFuture(metadata);
+		}
+
+		return loader.load().thenApply(loaded -> {
+			if (loaded == null) {
+				return null;
+			}
+
+			Map<Tag, String> result = unmodifiableMap(new HashMap<>(loaded));
+			doPut(key, result);
+			return result;
+		});
+	}
+
+	@Override
+	public void invalidate(File image) {
+		String path;
+		try {
+			path = image.getCanonicalPath();
+		}
+		catch (IOException ex) {
+			path = image.getAbsolutePath();
+		}
+
+		doInvalidate(path);
+	}
+
+	/**
+	 * Compute weight of an entry.
+	 *
+	 * @param metadata Entry value.
+	 * @return Entry weight.
+	 */
+	static int weigh(Map<Tag, String> metadata) {
+		return Math.max(1, metadata.size());
+	}
+
+	/**
+	 * Get entry.
+	 *
+	 * @param key Entry key.
+	 * @return Entry value, {@code null} if it is not in the cache.
+	 */
+	abstract Map<Tag, String> doGet(MetadataKey key);
+
+	/**
+	 * Put entry, evicting least recently used entries if maximum weight is exceeded.
+	 *
+	 * @param key Entry key.
+	 * @param metadata Entry value.
+	 */
+	abstract void doPut(MetadataKey key, Map<Tag, String> metadata);
+
+	/**
+	 * Remove all entries of given image.
+	 *
+	 * @param path Canonical path of the image.
+	 */
+	abstract void doInvalidate(String path);
+}
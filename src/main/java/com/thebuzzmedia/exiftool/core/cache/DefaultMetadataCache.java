@@ -0,0 +1,139 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.Tag;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Default metadata cache, used if Guava is not available: entries are stored in
+ * a {@link LinkedHashMap} with access order, so that least recently used entries
+ * are evicted first once maximum weight is exceeded.
+ *
+ * <br>
+ *
+ * Keys are also indexed by image path, so that invalidating an image does not scan the whole cache.
+ */
+class DefaultMetadataCache extends AbstractMetadataCache {
+
+	/**
+	 * Cached entries, guarded by {@code this}.
+	 */
+	private final LinkedHashMap<MetadataKey, Map<Tag, String>> cache;
+
+	/**
+	 * Keys of cached entries, indexed by image path, guarded by {@code this}.
+	 */
+	private final Map<String, Set<MetadataKey>> keysByPath;
+
+	/**
+	 * Maximum total weight of entries.
+	 */
+	private final long maximumWeight;
+
+	/**
+	 * Current total weight of entries, guarded by {@code this}.
+	 */
+	private long weight;
+
+	/**
+	 * Create default cache.
+	 *
+	 * @param maximumWeight Maximum total weight of entries.
+	 */
+	DefaultMetadataCache(long maximumWeight) {
+		this.cache = new LinkedHashMap<>(16, 0.75f, true);
+		this.keysByPath = new HashMap<>();
+		this.maximumWeight = maximumWeight;
+		this.weight = 0;
+	}
+
+	@Override
+	synchronized Map<Tag, String> doGet(MetadataKey key) {
+		return cache.get(key);
+	}
+
+	@Override
+	synchronized void doPut(MetadataKey key, Map<Tag, String> metadata) {
+		Map<Tag, String> previous = cache.put(key, metadata);
+		if (previous != null) {
+			weight -= weigh(previous);
+		}
+		else {
+			keysByPath.computeIfAbsent(key.getPath(), path -> new HashSet<>(2)).add(key);
+		}
+
+		weight += weigh(metadata);
+
+		// Evict least recently used entries, the eldest entry being the first one.
+		Iterator<Map.Entry<MetadataKey, Map<Tag, String>>> it = cache.entrySet().iterator();
+		while (weight > maximumWeight && it.hasNext()) {
+			Map.Entry<MetadataKey, Map<Tag, String>> entry = it.next();
+			weight -= weigh(entry.getValue());
+			it.remove();
+			unindex(entry.getKey());
+		}
+	}
+
+	@Override
+	synchronized void doInvalidate(String path) {
+		Set<MetadataKey> keys = keysByPath.remove(path);
+		if (keys == null) {
+			return;
+		}
+
+		for (MetadataKey key : keys) {
+			Map<Tag, String> metadata = cache.remove(key);
+			if (metadata != null) {
+				weight -= weigh(metadata);
+			}
+		}
+	}
+
+	/**
+	 * Remove evicted key from the index by path.
+	 *
+	 * @param key Evicted key.
+	 */
+	private void unindex(MetadataKey key) {
+		Set<MetadataKey> keys = keysByPath.get(key.getPath());
+		if (keys != null) {
+			keys.remove(key);
+			if (keys.isEmpty()) {
+				keysByPath.remove(key.getPath());
+			}
+		}
+	}
+
+	@Override
+	public synchronized long size() {
+		return cache.size();
+	}
+
+	@Override
+	public synchronized void clear() {
+		cache.clear();
+		keysByPath.clear();
+		weight = 0;
+	}
+}
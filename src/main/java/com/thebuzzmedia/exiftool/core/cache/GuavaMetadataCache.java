@@ -0,0 +1,116 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.thebuzzmedia.exiftool.Tag;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metadata cache using Guava {@link Cache}, with least recently used eviction
+ * once maximum weight is exceeded.
+ *
+ * <br>
+ *
+ * Keys are also indexed by image path, so that invalidating an image does not scan the whole cache.
+ */
+class GuavaMetadataCache extends AbstractMetadataCache {
+
+	/**
+	 * Guava cache implementation.
+	 */
+	private final Cache<MetadataKey, Map<Tag, String>> cache;
+
+	/**
+	 * Keys of cached entries, indexed by image path: keys of evicted entries are removed by
+	 * a removal listener, keys of invalidated entries are removed with their image.
+	 */
+	private final ConcurrentMap<String, Set<MetadataKey>> keysByPath;
+
+	/**
+	 * Create Guava Cache.
+	 *
+	 * @param maximumWeight Maximum total weight of entries.
+	 */
+	GuavaMetadataCache(long maximumWeight) {
+		this.keysByPath = new ConcurrentHashMap<>();
+		this.cache = CacheBuilder.newBuilder()
+				.maximumWeight(maximumWeight)
+				.weigher(new MetadataWeigher())
+				.removalListener(new EvictionListener())
+				.build();
+	}
+
+	@Override
+	Map<Tag, String> doGet(MetadataKey key) {
+		return cache.getIfPresent(key);
+	}
+
+	@Override
+	void doPut(MetadataKey key, Map<Tag, String> metadata) {
+		keysByPath.computeIfAbsent(key.getPath(), path -> ConcurrentHashMap.newKeySet()).add(key);
+		cache.put(key, metadata);
+	}
+
+	@Override
+	void doInvalidate(String path) {
+		Set<MetadataKey> keys = keysByPath.remove(path);
+		if (keys != null) {
+			cache.invalidateAll(keys);
+		}
+	}
+
+	@Override
+	public long size() {
+		return cache.size();
+	}
+
+	@Override
+	public void clear() {
+		cache.invalidateAll();
+		keysByPath.clear();
+	}
+
+	private final class EvictionListener implements RemovalListener<MetadataKey, Map<Tag, String>> {
+		@Override
+		public void onRemoval(RemovalNotification<MetadataKey, Map<Tag, String>> notification) {
+			// Keys of explicitly removed entries have already been removed from the index.
+			MetadataKey key = notification.getKey();
+			if (key != null && notification.wasEvicted()) {
+				keysByPath.computeIfPresent(key.getPath(), (path, keys) -> {
+					keys.remove(key);
+					return keys.isEmpty() ? null : keys;
+				});
+			}
+		}
+	}
+
+	private static final class MetadataWeigher implements Weigher<MetadataKey, Map<Tag, String>> {
+		@Override
+		public int weigh(MetadataKey key, Map<Tag, String> metadata) {
+			return AbstractMetadataCache.weigh(metadata);
+		}
+	}
+}
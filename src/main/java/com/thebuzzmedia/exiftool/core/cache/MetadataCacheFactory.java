@@ -0,0 +1,45 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.MetadataCache;
+
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.isPositive;
+import static com.thebuzzmedia.exiftool.commons.reflection.DependencyUtils.isGuavaAvailable;
+
+/**
+ * {@link MetadataCache} factory.
+ */
+public final class MetadataCacheFactory {
+
+	// Ensure non instantiation.
+	private MetadataCacheFactory() {
+	}
+
+	/**
+	 * Create new cache for image metadata.
+	 * Weight of an entry is its number of tags.
+	 *
+	 * @param maximumWeight Maximum total weight of entries.
+	 * @return New instance of {@link MetadataCache}.
+	 * @throws IllegalArgumentException If {@code maximumWeight} is not strictly positive.
+	 */
+	public static MetadataCache newCache(long maximumWeight) {
+		isPositive(maximumWeight, "Maximum weight must be strictly positive");
+		return isGuavaAvailable() ? new GuavaMetadataCache(maximumWeight) : new DefaultMetadataCache(maximumWeight);
+	}
+}
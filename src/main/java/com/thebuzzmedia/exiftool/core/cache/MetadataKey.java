@@ -0,0 +1,235 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.ExifToolOptions;
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.commons.lang.ToStringBuilder;
+import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Key of metadata cache entries.
+ *
+ * <br>
+ *
+ * Identity of the image is made of its canonical path, its size, its last modification time
+ * and its file key (such as the inode on unix systems), so that a modified image does not
+ * match previous entries.
+ */
+final class MetadataKey {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(MetadataKey.class);
+
+	/**
+	 * Canonical path of the image.
+	 */
+	private final String path;
+
+	/**
+	 * Size of the image, in bytes.
+	 */
+	private final long size;
+
+	/**
+	 * Last modification time of the image, in milliseconds.
+	 */
+	private final long lastModified;
+
+	/**
+	 * File key, may be {@code null}.
+	 */
+	private final Object fileKey;
+
+	/**
+	 * Serialized options.
+	 */
+	private final List<String> options;
+
+	/**
+	 * Queried tags, indexed by name.
+	 */
+	private final Map<String, Tag> tags;
+
+	/**
+	 * Cached hash code.
+	 */
+	private final int hashCode;
+
+	private MetadataKey(String path, BasicFileAttributes attributes, List<String> options, Map<String, Tag> tags) {
+		this.path = path;
+		this.size = attributes.size();
+		this.lastModified = attributes.lastModifiedTime().toMillis();
+		this.fileKey = attributes.fileKey();
+		this.options = options;
+		this.tags = tags;
+		this.hashCode = Objects.hash(path, size, lastModified, fileKey, options, tags.keySet());
+	}
+
+	/**
+	 * Create key.
+	 *
+	 * @param image Image.
+	 * @param options ExifTool options.
+	 * @param tags Queried tags.
+	 * @return The key, {@code null} if image attributes cannot be read.
+	 */
+	static MetadataKey of(File image, ExifToolOptions options, Collection<? extends Tag> tags) {
+		BasicFileAttributes attributes;
+		String path;
+
+		try {
+			path = image.getCanonicalPath();
+			attributes = Files.readAttributes(image.toPath(), BasicFileAttributes.class);
+		}
+		catch (IOException ex) {
+			log.debug("Cannot read attributes of {}, skip cache", image);
+			return null;
+		}
+
+		List<String> args = new ArrayList<>();
+		for (String arg : options.serialize()) {
+			args.add(arg);
+		}
+
+		Map<String, Tag> names = new HashMap<>();
+		if (tags != null) {
+			for (Tag tag : tags) {
+				names.put(tag.getName(), tag);
+			}
+		}
+
+		return new MetadataKey(path, attributes, args, names);
+	}
+
+	/**
+	 * Get canonical path of the image.
+	 *
+	 * @return Canonical path.
+	 */
+	String getPath() {
+		return path;
+	}
+
+	/**
+	 * Get identity of the image content: its size, last modification time and file key.
+	 * Two keys of the same path with a different identity refer to different versions of the image.
+	 *
+	 * @return Image identity.
+	 */
+	String getIdentity() {
+		return size + ":" + lastModified + ":" + (fileKey == null ? "" : fileKey.toString());
+	}
+
+	/**
+	 * Get a 64-bit hash (FNV-1a) of the query: serialized options and sorted tag names.
+	 * This hash is stable between executions.
+	 *
+	 * @return Query hash.
+	 */
+	long getQueryHash() {
+		long h = 0xcbf29ce484222325L;
+		for (String option : options) {
+			h = fnv(h, option);
+		}
+
+		// Separate options from tags.
+		h = fnv(h, "\u0000");
+
+		for (String name : new TreeSet<>(tags.keySet())) {
+			h = fnv(h, name);
+		}
+
+		return h;
+	}
+
+	/**
+	 * Get queried tag with given name, or an {@link UnspecifiedTag} if it was not queried.
+	 *
+	 * @param name Tag name.
+	 * @return The tag.
+	 */
+	Tag toTag(String name) {
+		Tag tag = tags.get(name);
+		return tag == null ? new UnspecifiedTag(name) : tag;
+	}
+
+	private static long fnv(long hash, String value) {
+		long h = hash;
+		for (int i = 0; i < value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= 0x100000001b3L;
+		}
+
+		// Terminate each value, so that ("ab", "c") and ("a", "bc") differ.
+		h ^= 0xff;
+		h *= 0x100000001b3L;
+		return h;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof MetadataKey) {
+			MetadataKey k = (MetadataKey) o;
+			return hashCode == k.hashCode
+					&& size == k.size
+					&& lastModified == k.lastModified
+					&& Objects.equals(path, k.path)
+					&& Objects.equals(fileKey, k.fileKey)
+					&& Objects.equals(options, k.options)
+					&& Objects.equals(tags.keySet(), k.tags.keySet());
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(getClass())
+				.append("path", path)
+				.append("size", size)
+				.append("lastModified", lastModified)
+				.append("options", options)
+				.append("tags", tags.keySet())
+				.build();
+	}
+}
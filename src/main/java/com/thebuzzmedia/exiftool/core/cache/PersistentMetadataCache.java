@@ -0,0 +1,571 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Metadata cache stored in a file, so that metadata of unmodified images do not have to be
+ * read again by {@code exiftool} after a restart.
+ *
+ * <br>
+ *
+ * The file is an append-only log of records:
+ *
+ * <ul>
+ *   <li>A header with the version of {@code exiftool}: if it does not match the current version,
+ *   the file is truncated, since a new version may not output the same metadata.</li>
+ *   <li>A {@code PUT} record for each cached entry, with the canonical path of the image, its identity
+ *   (size, last modification time and file key), a hash of the query (options and tags) and the metadata.</li>
+ *   <li>A {@code REMOVE} record for each invalidated image.</li>
+ * </ul>
+ *
+ * When the cache is opened, the file is mapped in memory and scanned to build an index of the
+ * location of each live record: metadata are decoded from the mapped file only when they are requested.
+ * Records appended since the file has been mapped are read through a file channel, the file is mapped
+ * again once it has doubled in size.
+ * Entries of a previous version of an image (and invalidated entries) are dead records, that are
+ * dropped by {@link #compact()}. Compaction is also done when the cache is opened if dead records
+ * take more than half of the file.
+ *
+ * <br>
+ *
+ * This cache is not bounded: the number of entries is the number of distinct images and queries.
+ * It must not be opened by several instances, or several processes, at the same time.
+ */
+public final class PersistentMetadataCache extends AbstractMetadataCache {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(PersistentMetadataCache.class);
+
+	/**
+	 * Magic number of the file header ({@code EXMC}).
+	 */
+	private static final int MAGIC = 0x45584d43;
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final int FORMAT = 1;
+
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+
+	/**
+	 * Cache file.
+	 */
+	private final Path file;
+
+	/**
+	 * Version stamp of the cache, a.k.a the {@code exiftool} version.
+	 */
+	private final String version;
+
+	/**
+	 * Live records, indexed by canonical path of images.
+	 * Guarded by {@code this}.
+	 */
+	private final Map<String, ImageRecords> index;
+
+	/**
+	 * File mapped in memory, may be shorter than the file if records have been appended since it
+	 * has been mapped ({@code null} if file is not mapped).
+	 * Guarded by {@code this}.
+	 */
+	private ByteBuffer mapped;
+
+	/**
+	 * Length of the file.
+	 * Guarded by {@code this}.
+	 */
+	private long length;
+
+	/**
+	 * Number of bytes of dead records.
+	 * Guarded by {@code this}.
+	 */
+	private long garbage;
+
+	private PersistentMetadataCache(Path file, Version version) {
+		this.file = file;
+		this.version = version.toString();
+		this.index = new HashMap<>();
+	}
+
+	/**
+	 * Open cache stored in given file, the file is created if it does not exist.
+	 *
+	 * @param file Cache file.
+	 * @param version Version of {@code exiftool}: entries of other versions are dropped.
+	 * @return The cache.
+	 * @throws IOException If the file cannot be read or written.
+	 */
+	public static PersistentMetadataCache open(File file, Version version) throws IOException {
+		requireNonNull(file, "File should not be null");
+		requireNonNull(version, "Version should not be null");
+
+		PersistentMetadataCache cache = new PersistentMetadataCache(file.toPath(), version);
+		synchronized (cache) {
+			cache.load();
+			if (cache.garbage > cache.length / 2) {
+				cache.compact();
+			}
+		}
+
+		return cache;
+	}
+
+	@Override
+	synchronized Map<Tag, String> doGet(MetadataKey key) {
+		ImageRecords records = index.get(key.getPath());
+		if (records == null || !records.identity.equals(key.getIdentity())) {
+			return null;
+		}
+
+		Record record = records.queries.get(key.getQueryHash());
+		if (record == null) {
+			return null;
+		}
+
+		try {
+			return readMetadata(record, key);
+		}
+		catch (IOException | RuntimeException ex) {
+			log.warn("Cannot read cached metadata of " + key.getPath() + ", ignore entry", ex);
+			return null;
+		}
+	}
+
+	@Override
+	synchronized void doPut(MetadataKey key, Map<Tag, String> metadata) {
+		try {
+			byte[] bytes = encode(PUT, key.getPath(), key.getIdentity(), key.getQueryHash(), metadata);
+			long offset = append(bytes);
+			index(key.getPath(), key.getIdentity(), key.getQueryHash(), new Record(offset, bytes.length));
+		}
+		catch (IOException ex) {
+			log.warn("Cannot write metadata of " + key.getPath() + " to cache file " + file, ex);
+		}
+	}
+
+	@Override
+	synchronized void doInvalidate(String path) {
+		ImageRecords records = index.remove(path);
+		if (records == null) {
+			return;
+		}
+
+		try {
+			byte[] bytes = encode(REMOVE, path, null, 0, null);
+			append(bytes);
+			garbage += records.size() + bytes.length;
+		}
+		catch (IOException ex) {
+			log.warn("Cannot invalidate metadata of " + path + " in cache file " + file, ex);
+		}
+	}
+
+	@Override
+	public synchronized long size() {
+		long size = 0;
+		for (ImageRecords records : index.values()) {
+			size += records.queries.size();
+		}
+
+		return size;
+	}
+
+	@Override
+	public synchronized void clear() {
+		try {
+			reset();
+		}
+		catch (IOException ex) {
+			log.warn("Cannot clear cache file " + file, ex);
+		}
+	}
+
+	/**
+	 * Rewrite the cache file with live records only.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	public synchronized void compact() throws IOException {
+		log.debug("Compact cache file {} ({} dead bytes)", file, garbage);
+
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		// Index is updated only once the file has been replaced: it must match the file in place if compaction fails.
+		Map<Record, Long> offsets = new IdentityHashMap<>();
+		long offset;
+		try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ); OutputStream os = Files.newOutputStream(tmp)) {
+			byte[] header = header();
+			os.write(header);
+			offset = header.length;
+
+			for (ImageRecords records : index.values()) {
+				for (Record record : records.queries.values()) {
+					os.write(read(source, record).array());
+					offsets.put(record, offset);
+					offset += record.length;
+				}
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			deleteQuietly(tmp, ex);
+			throw ex;
+		}
+
+		// Release mapping of the old file, otherwise it cannot be replaced on some platforms (such as Windows).
+		mapped = null;
+
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException | RuntimeException ex) {
+			deleteQuietly(tmp, ex);
+			throw ex;
+		}
+
+		for (Map.Entry<Record, Long> entry : offsets.entrySet()) {
+			entry.getKey().offset = entry.getValue();
+		}
+
+		length = offset;
+		garbage = 0;
+	}
+
+	private static void deleteQuietly(Path path, Exception failure) {
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException ex) {
+			failure.addSuppressed(ex);
+		}
+	}
+
+	/**
+	 * Read the cache file and build index of live records.
+	 * File is truncated if its version stamp does not match, or after its last valid record.
+	 *
+	 * @throws IOException If the file cannot be read.
+	 */
+	private void load() throws IOException {
+		if (!Files.exists(file) || Files.size(file) == 0) {
+			reset();
+			return;
+		}
+
+		length = Files.size(file);
+		ByteBuffer buf = map();
+
+		try {
+			if (buf.getInt() != MAGIC || buf.getInt() != FORMAT || !version.equals(readString(buf))) {
+				log.info("Cache file {} has been written by another version, drop it", file);
+				reset();
+				return;
+			}
+		}
+		catch (BufferUnderflowException ex) {
+			reset();
+			return;
+		}
+
+		long valid = buf.position();
+		while (buf.remaining() >= 4) {
+			int start = buf.position();
+			int size = buf.getInt();
+			if (size <= 0 || size > buf.remaining()) {
+				break;
+			}
+
+			try {
+				byte type = buf.get();
+				String path = readString(buf);
+				if (type == PUT) {
+					String identity = readString(buf);
+					long query = buf.getLong();
+					index(path, identity, query, new Record(start, size + 4));
+				}
+				else if (type == REMOVE) {
+					ImageRecords records = index.remove(path);
+					garbage += size + 4 + (records == null ? 0 : records.size());
+				}
+				else {
+					break;
+				}
+			}
+			catch (BufferUnderflowException | IllegalArgumentException ex) {
+				break;
+			}
+
+			((Buffer) buf).position(start + 4 + size);
+			valid = buf.position();
+		}
+
+		if (valid < length) {
+			// Last record has not been fully written, probably because of a crash.
+			log.warn("Cache file {} is corrupted after offset {}, truncate it", file, valid);
+			mapped = null;
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.truncate(valid);
+			}
+
+			length = valid;
+		}
+	}
+
+	/**
+	 * Truncate the cache file and write header.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void reset() throws IOException {
+		byte[] header = header();
+		Files.write(file, header);
+		index.clear();
+		mapped = null;
+		length = header.length;
+		garbage = 0;
+	}
+
+	/**
+	 * Add record to the index: previous record of the same query, and records of previous identity
+	 * of the image, become dead records.
+	 */
+	private void index(String path, String identity, long query, Record record) {
+		ImageRecords records = index.get(path);
+		if (records == null || !records.identity.equals(identity)) {
+			if (records != null) {
+				garbage += records.size();
+			}
+
+			records = new ImageRecords(identity);
+			index.put(path, records);
+		}
+
+		Record previous = records.queries.put(query, record);
+		if (previous != null) {
+			garbage += previous.length;
+		}
+	}
+
+	/**
+	 * Append record to the cache file.
+	 *
+	 * @param bytes Record.
+	 * @return Offset of the record.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private long append(byte[] bytes) throws IOException {
+		Files.write(file, bytes, StandardOpenOption.APPEND);
+		long offset = length;
+		length += bytes.length;
+		return offset;
+	}
+
+	/**
+	 * Get the whole file mapped in memory, the file is mapped again if records have been appended
+	 * since it has been mapped.
+	 *
+	 * @return Mapped file.
+	 * @throws IOException If the file cannot be mapped.
+	 */
+	private ByteBuffer map() throws IOException {
+		if (mapped == null || mapped.capacity() < length) {
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException("Cache file " + file + " is too large: " + length + " bytes");
+			}
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+				mapped = buf;
+			}
+		}
+
+		ByteBuffer buf = mapped.duplicate();
+		((Buffer) buf).limit((int) length);
+		return buf;
+	}
+
+	/**
+	 * Get bytes of given record: a record appended since the file has been mapped is read through
+	 * a file channel, unless the file has doubled in size since it has been mapped (in which case
+	 * the file is mapped again), so that appending records does not remap the file on each read.
+	 *
+	 * @param record The record.
+	 * @return Record bytes, from its first byte.
+	 * @throws IOException If the file cannot be read.
+	 */
+	private ByteBuffer read(Record record) throws IOException {
+		if (mapped != null && record.offset + record.length > mapped.capacity() && length < 2L * mapped.capacity()) {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				return read(channel, record);
+			}
+		}
+
+		ByteBuffer buf = map();
+		((Buffer) buf).position((int) record.offset);
+		((Buffer) buf).limit((int) (record.offset + record.length));
+		return buf.slice();
+	}
+
+	private static ByteBuffer read(FileChannel channel, Record record) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(record.length);
+		while (buf.hasRemaining()) {
+			if (channel.read(buf, record.offset + buf.position()) < 0) {
+				throw new EOFException("Record at offset " + record.offset + " is truncated");
+			}
+		}
+
+		((Buffer) buf).flip();
+		return buf;
+	}
+
+	private Map<Tag, String> readMetadata(Record record, MetadataKey key) throws IOException {
+		ByteBuffer buf = read(record);
+		((Buffer) buf).position(4);
+
+		// Skip type, path, identity and query.
+		buf.get();
+		readString(buf);
+		readString(buf);
+		buf.getLong();
+
+		int count = buf.getInt();
+		Map<Tag, String> metadata = new HashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			Tag tag = key.toTag(readString(buf));
+			metadata.put(tag, readString(buf));
+		}
+
+		return unmodifiableMap(metadata);
+	}
+
+	private byte[] header() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(FORMAT);
+		writeString(dos, version);
+		return out.toByteArray();
+	}
+
+	private static byte[] encode(byte type, String path, String identity, long query, Map<Tag, String> metadata) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(out);
+
+		// Record size, written once record is complete.
+		dos.writeInt(0);
+		dos.writeByte(type);
+		writeString(dos, path);
+
+		if (type == PUT) {
+			writeString(dos, identity);
+			dos.writeLong(query);
+			dos.writeInt(metadata.size());
+			for (Map.Entry<Tag, String> entry : metadata.entrySet()) {
+				writeString(dos, entry.getKey().getName());
+				writeString(dos, entry.getValue());
+			}
+		}
+
+		byte[] bytes = out.toByteArray();
+		ByteBuffer.wrap(bytes).putInt(bytes.length - 4);
+		return bytes;
+	}
+
+	private static void writeString(DataOutputStream dos, String value) throws IOException {
+		byte[] bytes = value == null ? new byte[0] : value.getBytes(UTF_8);
+		dos.writeInt(bytes.length);
+		dos.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buf) {
+		int size = buf.getInt();
+		if (size < 0 || size > buf.remaining()) {
+			throw new IllegalArgumentException("Invalid string size: " + size);
+		}
+
+		byte[] bytes = new byte[size];
+		buf.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	/**
+	 * Location of a record in the cache file.
+	 */
+	private static final class Record {
+		private long offset;
+		private final int length;
+
+		private Record(long offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Live records of an image, indexed by query hash.
+	 */
+	private static final class ImageRecords {
+		private final String identity;
+		private final Map<Long, Record> queries;
+
+		private ImageRecords(String identity) {
+			this.identity = identity;
+			this.queries = new HashMap<>(2);
+		}
+
+		private long size() {
+			long size = 0;
+			for (Record record : queries.values()) {
+				size += record.length;
+			}
+
+			return size;
+		}
+	}
+}
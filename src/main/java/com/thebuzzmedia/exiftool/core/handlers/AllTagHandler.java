@@ -32,7 +32,12 @@ import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
 public class AllTagHandler extends BaseTagHandler {
 
 	@Override
-	Tag toTag(String name) {
-		return new UnspecifiedTag(name);
+	public BaseTagHandler newHandler() {
+		return new AllTagHandler();
+	}
+
+	@Override
+	Tag toTag(CharSequence name) {
+		return new UnspecifiedTag(name.toString());
 	}
 }
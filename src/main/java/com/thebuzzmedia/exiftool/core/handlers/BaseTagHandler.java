@@ -18,12 +18,14 @@
 package com.thebuzzmedia.exiftool.core.handlers;
 
 import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
+import com.thebuzzmedia.exiftool.core.StandardTag;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
 import static java.util.Collections.unmodifiableMap;
@@ -33,11 +35,17 @@ import static java.util.Collections.unmodifiableMap;
  *
  * <br>
  *
+ * Lines are read as {@link CharSequence} (see {@link CharSequenceVisitor}): the tag name
+ * is looked up directly on the line, and a {@link String} is only created for values of
+ * retained tags.
+ *
+ * <br>
+ *
  * This class is not thread-safe and should be used to
  * read exiftool output from one thread (should not be shared across
  * several threads).
  */
-public abstract class BaseTagHandler implements TagHandler {
+public abstract class BaseTagHandler implements TagHandler, CharSequenceVisitor {
 
 	/**
 	 * Class logger.
@@ -45,19 +53,58 @@ public abstract class BaseTagHandler implements TagHandler {
 	private static final Logger log = LoggerFactory.getLogger(BaseTagHandler.class);
 
 	/**
-	 * Compiled {@link Pattern} of {@code ": "} used to split compact output from
-	 * ExifTool evenly into name/value pairs.
+	 * Separator used to split compact output from ExifTool evenly into name/value pairs.
 	 */
-	private static final Pattern TAG_VALUE_PATTERN = Pattern.compile(": ");
+	private static final String TAG_VALUE_SEPARATOR = ": ";
 
 	/**
 	 * Map of tags found.
 	 * Each tags will be added one by one during line processing.
 	 */
-	private final Map<Tag, String> tags = new HashMap<>();
+	private final Map<Tag, String> tags;
+
+	/**
+	 * Create handler, storing tags in a {@link HashMap}.
+	 */
+	BaseTagHandler() {
+		this(new HashMap<>());
+	}
+
+	/**
+	 * Create handler.
+	 *
+	 * @param tags Map used to store tags found.
+	 */
+	BaseTagHandler(Map<Tag, String> tags) {
+		this.tags = tags;
+	}
+
+	/**
+	 * Create the handler reading given tags: when only {@link StandardTag} are expected,
+	 * an {@link EnumTagHandler} is returned, a {@link StandardTagHandler} otherwise.
+	 *
+	 * @param tags Expected list of tags.
+	 * @return The handler.
+	 */
+	public static BaseTagHandler of(Collection<? extends Tag> tags) {
+		for (Tag tag : tags) {
+			if (!(tag instanceof StandardTag)) {
+				return new StandardTagHandler(tags);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		Collection<StandardTag> standardTags = (Collection<StandardTag>) tags;
+		return new EnumTagHandler(standardTags);
+	}
 
 	@Override
 	public boolean readLine(String line) {
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
 		// If line is null, then this is the end.
 		// If line is strictly equals to "{ready}", then it means that stay_open feature
 		// is enabled and this is the end of the output.
@@ -66,14 +113,12 @@ public abstract class BaseTagHandler implements TagHandler {
 		}
 
 		// Now, we are sure we can process line.
-		String[] pair = TAG_VALUE_PATTERN.split(line, 2);
-		if (pair != null && pair.length == 2) {
+		int separator = indexOf(line, TAG_VALUE_SEPARATOR);
+		if (separator >= 0) {
 			// Determine the tag represented by this value.
-			String name = pair[0];
-			String value = pair[1];
-
-			final Tag tag = toTag(name);
+			final Tag tag = toTag(line.subSequence(0, separator));
 			if (tag != null) {
+				String value = line.subSequence(separator + TAG_VALUE_SEPARATOR.length(), line.length()).toString();
 				tags.put(tag, value);
 				log.debug("Read Tag [name={}, value={}]", tag, value);
 			}
@@ -88,11 +133,20 @@ public abstract class BaseTagHandler implements TagHandler {
 		return true;
 	}
 
+	/**
+	 * Create a new handler, expecting the same tags as this handler, without any tag read.
+	 * Data computed from expected tags (such as the name lookup) is shared, so that a handler
+	 * can be used as a prototype for queries executed many times.
+	 *
+	 * @return The new handler.
+	 */
+	public abstract BaseTagHandler newHandler();
+
 	/**
 	 * Get a {@link Tag} for the given exif name
-	 * @param name the name of the tag
+	 * @param name the name of the tag, only valid during the call
 	 */
-	abstract Tag toTag(String name);
+	abstract Tag toTag(CharSequence name);
 
 	@Override
 	public Map<Tag, String> getTags() {
@@ -103,4 +157,27 @@ public abstract class BaseTagHandler implements TagHandler {
 	public int size() {
 		return tags.size();
 	}
+
+	/**
+	 * Find the first occurrence of {@code str} in {@code line}.
+	 *
+	 * @param line The line.
+	 * @param str The searched string.
+	 * @return Index of the first occurrence, {@code -1} if {@code str} is not found.
+	 */
+	private static int indexOf(CharSequence line, String str) {
+		int max = line.length() - str.length();
+		for (int i = 0; i <= max; i++) {
+			int j = 0;
+			while (j < str.length() && line.charAt(i + j) == str.charAt(j)) {
+				j++;
+			}
+
+			if (j == str.length()) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
 }
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
+import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Read tags of several files line by line.
+ *
+ * <br>
+ *
+ * When {@code exiftool} is run against several files, each file output is
+ * preceded by a header line such as {@code ======== /path/to/file.jpg}. This
+ * handler split output on these headers and delegates each section to a dedicated
+ * tag handler (see {@link BaseTagHandler#of(Collection)}).
+ *
+ * <br>
+ *
+ * Note that {@code exiftool} does not print any header if a single file is
+ * queried: in this case, every line is associated to this file.
+ *
+ * <br>
+ *
+ * This class is not thread-safe and should be used to
+ * read exiftool output from one thread (should not be shared across
+ * several threads).
+ */
+public class BatchTagHandler implements OutputHandler, CharSequenceVisitor {
+
+	/**
+	 * Class logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(BatchTagHandler.class);
+
+	/**
+	 * Prefix printed by {@code exiftool} before each file section.
+	 */
+	private static final String FILE_HEADER = "======== ";
+
+	/**
+	 * Prefix of summary lines printed by {@code exiftool} at the end of a multi-file command
+	 * (i.e {@code "    2 image files read"}).
+	 */
+	private static final String SUMMARY_PREFIX = " ";
+
+	/**
+	 * Queried files, indexed by their normalized absolute path.
+	 */
+	private final Map<String, File> files;
+
+	/**
+	 * Handler for each file, in query order.
+	 */
+	private final Map<File, BaseTagHandler> handlers;
+
+	/**
+	 * Handler of the file section currently read, may be {@code null}.
+	 */
+	private BaseTagHandler current;
+
+	/**
+	 * Create handler.
+	 *
+	 * @param files Queried files.
+	 * @param tags Expected list of tags.
+	 * @throws NullPointerException If {@code files} or {@code tags} is {@code null}.
+	 * @throws IllegalArgumentException If {@code files} or {@code tags} is empty.
+	 */
+	public BatchTagHandler(Collection<File> files, Collection<? extends Tag> tags) {
+		notEmpty(files, "Files should not be empty");
+		notEmpty(tags, "Tags should not be empty");
+
+		this.files = new HashMap<>();
+		this.handlers = new LinkedHashMap<>();
+
+		for (File file : files) {
+			// Each path is queried only once, even if the same file is given twice.
+			if (this.files.putIfAbsent(normalize(file.getAbsolutePath()), file) == null) {
+				this.handlers.put(file, BaseTagHandler.of(tags));
+			}
+		}
+
+		// With a single file, exiftool does not print any header.
+		this.current = handlers.size() == 1 ? handlers.values().iterator().next() : null;
+	}
+
+	@Override
+	public boolean readLine(String line) {
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
+		// If line is null, then this is the end.
+		// If line is strictly equals to "{ready}", then it means that stay_open feature
+		// is enabled and this is the end of the output.
+		if (!stopHandler().readLine(line)) {
+			return false;
+		}
+
+		if (startsWith(line, FILE_HEADER)) {
+			String path = line.subSequence(FILE_HEADER.length(), line.length()).toString();
+			File file = files.get(normalize(path));
+			current = file == null ? null : handlers.get(file);
+
+			if (current == null) {
+				log.warn("Output of unexpected file will be ignored: {}", path);
+			}
+
+			return true;
+		}
+
+		if (startsWith(line, SUMMARY_PREFIX)) {
+			log.debug("Skipped summary line: {}", line);
+			return true;
+		}
+
+		if (current == null) {
+			log.debug("Skipped line outside of any file section: {}", line);
+			return true;
+		}
+
+		current.readLine(line);
+		return true;
+	}
+
+	/**
+	 * Get tags that have been extracted for each file.
+	 * Each queried file is returned, in query order, even if no tags have been found.
+	 *
+	 * @return Tags of each file.
+	 */
+	public Map<File, Map<Tag, String>> getTags() {
+		Map<File, Map<Tag, String>> results = new LinkedHashMap<>();
+		for (Map.Entry<File, BaseTagHandler> entry : handlers.entrySet()) {
+			results.put(entry.getKey(), entry.getValue().getTags());
+		}
+
+		return unmodifiableMap(results);
+	}
+
+	/**
+	 * Get handled files, in query order and without duplicates.
+	 *
+	 * @return Handled files.
+	 */
+	public Collection<File> getFiles() {
+		return unmodifiableCollection(handlers.keySet());
+	}
+
+	/**
+	 * Get the number of files handled.
+	 *
+	 * @return Number of files.
+	 */
+	public int size() {
+		return handlers.size();
+	}
+
+	private static boolean startsWith(CharSequence line, String prefix) {
+		if (line.length() < prefix.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < prefix.length(); i++) {
+			if (line.charAt(i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static String normalize(String path) {
+		return path.replace('\\', '/');
+	}
+}
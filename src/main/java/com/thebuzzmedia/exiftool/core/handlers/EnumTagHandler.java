@@ -0,0 +1,147 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Read specified {@link StandardTag} line by line.
+ *
+ * <br>
+ *
+ * Unlike {@link StandardTagHandler}, nothing is computed from the expected tags: names
+ * are looked up in a hash table of all {@link StandardTag} display names, built once, expected
+ * tags are stored in an {@link EnumSet} and tags found in an {@link EnumMap}.
+ *
+ * <br>
+ *
+ * This class is not thread-safe and should be used to
+ * read exiftool output from one thread (should not be shared across
+ * several threads).
+ */
+public class EnumTagHandler extends BaseTagHandler {
+
+	/**
+	 * Open addressing hash table of standard tags, indexed by the hash of their display name.
+	 */
+	private static final StandardTag[] TABLE;
+
+	/**
+	 * Mask applied to hashes to get an index in {@link #TABLE}.
+	 */
+	private static final int MASK;
+
+	static {
+		StandardTag[] tags = StandardTag.values();
+
+		// Keep the table at most 25% full, so that collisions stay rare.
+		int size = Integer.highestOneBit(tags.length * 4 - 1) << 1;
+		TABLE = new StandardTag[size];
+		MASK = size - 1;
+
+		for (StandardTag tag : tags) {
+			int i = hash(tag.getDisplayName()) & MASK;
+			while (TABLE[i] != null) {
+				i = (i + 1) & MASK;
+			}
+
+			TABLE[i] = tag;
+		}
+	}
+
+	/**
+	 * Expected tags.
+	 */
+	private final EnumSet<StandardTag> inputs;
+
+	/**
+	 * Create handler with expected list of tags to parse.
+	 *
+	 * @param tags Expected list of tags.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public EnumTagHandler(Collection<StandardTag> tags) {
+		// Only standard tags are returned by toTag, so the map only contains standard tags.
+		super((Map) new EnumMap<StandardTag, String>(StandardTag.class));
+		this.inputs = EnumSet.noneOf(StandardTag.class);
+		this.inputs.addAll(tags);
+	}
+
+	/**
+	 * Create handler expecting the same tags as given handler.
+	 *
+	 * @param handler The handler.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private EnumTagHandler(EnumTagHandler handler) {
+		super((Map) new EnumMap<StandardTag, String>(StandardTag.class));
+		this.inputs = handler.inputs;
+	}
+
+	@Override
+	public BaseTagHandler newHandler() {
+		return new EnumTagHandler(this);
+	}
+
+	@Override
+	Tag toTag(CharSequence name) {
+		StandardTag tag = lookup(name);
+		return tag != null && inputs.contains(tag) ? tag : null;
+	}
+
+	/**
+	 * Find the standard tag with given display name.
+	 *
+	 * @param name Display name.
+	 * @return The tag, {@code null} if no standard tag has this display name.
+	 */
+	static StandardTag lookup(CharSequence name) {
+		int i = hash(name) & MASK;
+		StandardTag tag;
+		while ((tag = TABLE[i]) != null) {
+			if (tag.getDisplayName().contentEquals(name)) {
+				return tag;
+			}
+
+			i = (i + 1) & MASK;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Compute the hash of given name, equal to {@link String#hashCode()} with bits spread over the lower bits.
+	 *
+	 * @param name The name.
+	 * @return The hash.
+	 */
+	private static int hash(CharSequence name) {
+		int h = 0;
+		for (int i = 0; i < name.length(); i++) {
+			h = 31 * h + name.charAt(i);
+		}
+
+		return h ^ (h >>> 16);
+	}
+}
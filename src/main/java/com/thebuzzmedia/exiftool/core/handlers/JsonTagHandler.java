@@ -0,0 +1,423 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
+import com.thebuzzmedia.exiftool.commons.json.JsonParser;
+import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.thebuzzmedia.exiftool.Constants.SEPARATOR;
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
+import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Read tags of one or several files from the JSON output of {@code exiftool}
+ * (i.e when the {@code -j} option is used).
+ *
+ * <br>
+ *
+ * Output is read as lines arrive: once an object of the top level array is complete, it is read
+ * with a {@link JsonParser} and associated to the queried file given by its {@code SourceFile} member,
+ * so that only the output of the current file is buffered. Each value is kept both as a typed value
+ * (see {@link #getValues()}) and as a string (see {@link #getTags()}), formatted as it would have been
+ * with the default text output.
+ *
+ * <br>
+ *
+ * Tags may be prefixed with their group name (with the {@code -G} option): such tags are returned
+ * with their group and tag name (for example, {@code new UnspecifiedTag("IFD0:Artist")}), so that a
+ * tag found in several groups is returned once per group. The prefix is ignored when looking up
+ * expected tags.
+ *
+ * <br>
+ *
+ * This class is not thread-safe and should be used to
+ * read exiftool output from one thread (should not be shared across
+ * several threads).
+ */
+public class JsonTagHandler implements OutputHandler, CharSequenceVisitor {
+
+	/**
+	 * Class logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(JsonTagHandler.class);
+
+	/**
+	 * Name of the member giving the file of each object.
+	 */
+	private static final String SOURCE_FILE = "SourceFile";
+
+	/**
+	 * Separator between group name and tag name.
+	 */
+	private static final char GROUP_SEPARATOR = ':';
+
+	/**
+	 * Queried files, indexed by their normalized absolute path.
+	 */
+	private final Map<String, File> files;
+
+	/**
+	 * Expected tags, indexed by display name, {@code null} if every tag should be read.
+	 */
+	private final Map<String, Tag> inputs;
+
+	/**
+	 * Tags (as strings) of each file, in query order.
+	 */
+	private final Map<File, Map<Tag, String>> tags;
+
+	/**
+	 * Typed tags of each file, in query order.
+	 */
+	private final Map<File, Map<Tag, Object>> values;
+
+	/**
+	 * Output of the object being read, reused for each object.
+	 */
+	private final StringBuilder object;
+
+	/**
+	 * Nesting level of the output read so far: {@code 1} inside the top level array,
+	 * {@code 2} inside one of its objects.
+	 */
+	private int depth;
+
+	/**
+	 * Create handler reading every tag found in output.
+	 *
+	 * @param files Queried files.
+	 * @throws NullPointerException If {@code files} is {@code null}.
+	 * @throws IllegalArgumentException If {@code files} is empty.
+	 */
+	public JsonTagHandler(Collection<File> files) {
+		this(files, null);
+	}
+
+	/**
+	 * Create handler.
+	 *
+	 * @param files Queried files.
+	 * @param tags Expected list of tags, {@code null} to read every tag found in output.
+	 * @throws NullPointerException If {@code files} is {@code null}.
+	 * @throws IllegalArgumentException If {@code files} or {@code tags} is empty.
+	 */
+	public JsonTagHandler(Collection<File> files, Collection<? extends Tag> tags) {
+		notEmpty(files, "Files should not be empty");
+
+		this.files = new HashMap<>();
+		this.tags = new LinkedHashMap<>();
+		this.values = new LinkedHashMap<>();
+		this.object = new StringBuilder();
+		this.depth = 0;
+
+		for (File file : files) {
+			// Each path is queried only once, even if the same file is given twice.
+			if (this.files.putIfAbsent(normalize(file.getAbsolutePath()), file) == null) {
+				this.tags.put(file, new HashMap<>());
+				this.values.put(file, new HashMap<>());
+			}
+		}
+
+		if (tags == null) {
+			this.inputs = null;
+		}
+		else {
+			notEmpty(tags, "Tags should not be empty");
+			this.inputs = new HashMap<>();
+			for (Tag tag : tags) {
+				this.inputs.put(tag.getDisplayName(), tag);
+			}
+		}
+	}
+
+	@Override
+	public boolean readLine(String line) {
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
+		// If line is null, then this is the end.
+		// If line is strictly equals to "{ready}", then it means that stay_open feature
+		// is enabled and this is the end of the output.
+		if (!stopHandler().readLine(line)) {
+			if (depth > 0) {
+				log.error("Unable to read JSON output, end of output has been reached before the end of the array, tags read so far are kept");
+			}
+
+			object.setLength(0);
+			depth = 0;
+			return false;
+		}
+
+		feed(line);
+		return true;
+	}
+
+	/**
+	 * Get tags that have been extracted for each file, formatted as strings.
+	 * Each queried file is returned, in query order, even if no tags have been found.
+	 *
+	 * <br>
+	 *
+	 * Numbers and booleans are returned as printed by {@code exiftool}, items of lists are
+	 * joined with {@link com.thebuzzmedia.exiftool.Constants#SEPARATOR} and structures are
+	 * returned as JSON.
+	 *
+	 * @return Tags of each file.
+	 */
+	public Map<File, Map<Tag, String>> getTags() {
+		Map<File, Map<Tag, String>> results = new LinkedHashMap<>();
+		for (Map.Entry<File, Map<Tag, String>> entry : tags.entrySet()) {
+			results.put(entry.getKey(), unmodifiableMap(entry.getValue()));
+		}
+
+		return unmodifiableMap(results);
+	}
+
+	/**
+	 * Get typed tags that have been extracted for each file.
+	 * Each queried file is returned, in query order, even if no tags have been found.
+	 *
+	 * <br>
+	 *
+	 * See {@link JsonParser} for the type of values.
+	 *
+	 * @return Tags of each file.
+	 */
+	public Map<File, Map<Tag, Object>> getValues() {
+		Map<File, Map<Tag, Object>> results = new LinkedHashMap<>();
+		for (Map.Entry<File, Map<Tag, Object>> entry : values.entrySet()) {
+			results.put(entry.getKey(), unmodifiableMap(entry.getValue()));
+		}
+
+		return unmodifiableMap(results);
+	}
+
+	/**
+	 * Get handled files, in query order and without duplicates.
+	 *
+	 * @return Handled files.
+	 */
+	public Collection<File> getFiles() {
+		return unmodifiableCollection(tags.keySet());
+	}
+
+	/**
+	 * Get the number of files handled.
+	 *
+	 * @return Number of files.
+	 */
+	public int size() {
+		return tags.size();
+	}
+
+	/**
+	 * Track nesting level of given line, and read each object of the top level array once
+	 * its end has been reached. JSON strings printed by {@code exiftool} never contain a line
+	 * break, so each line starts outside of any string.
+	 *
+	 * @param line Output line.
+	 */
+	private void feed(CharSequence line) {
+		int start = depth >= 2 ? 0 : -1;
+		boolean inString = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (inString) {
+				if (c == '\\') {
+					i++;
+				}
+				else if (c == '"') {
+					inString = false;
+				}
+			}
+			else if (c == '"') {
+				inString = true;
+			}
+			else if (c == '[' || c == '{') {
+				if (++depth == 2) {
+					start = i;
+				}
+			}
+			else if (c == ']' || c == '}') {
+				if (--depth == 1 && start >= 0) {
+					object.append(line, start, i + 1);
+					parse();
+					start = -1;
+				}
+				else if (depth < 0) {
+					log.error("Unable to read JSON output, unexpected character: {}", c);
+					depth = 0;
+				}
+			}
+		}
+
+		if (start >= 0) {
+			object.append(line, start, line.length()).append('\n');
+		}
+	}
+
+	private void parse() {
+		try {
+			readObject(new JsonParser(object));
+		}
+		catch (IllegalArgumentException ex) {
+			log.error("Unable to read JSON output, tags read so far are kept: {}", ex.getMessage());
+		}
+		finally {
+			object.setLength(0);
+		}
+	}
+
+	private void readObject(JsonParser parser) {
+		parser.expect('{');
+		if (parser.consume('}')) {
+			return;
+		}
+
+		// With a single file, fall back to this file if SourceFile is missing or unexpected.
+		File file = files.size() == 1 ? tags.keySet().iterator().next() : null;
+
+		do {
+			String name = parser.readString();
+			parser.expect(':');
+
+			int start = parser.position();
+			Object value;
+			String str;
+			if (parser.consume('[')) {
+				// Read items one by one, to keep the raw text of each item.
+				StringBuilder sb = new StringBuilder();
+				value = readArray(parser, sb);
+				str = sb.toString();
+			}
+			else {
+				value = parser.readValue();
+				str = toString(parser, start, value);
+			}
+
+			if (SOURCE_FILE.equals(name)) {
+				File sourceFile = value instanceof String ? files.get(normalize((String) value)) : null;
+				if (sourceFile != null) {
+					file = sourceFile;
+				}
+				else if (file == null) {
+					log.warn("Output of unexpected file will be ignored: {}", value);
+				}
+
+				continue;
+			}
+
+			if (file == null) {
+				continue;
+			}
+
+			Tag tag = toTag(name);
+			if (tag != null) {
+				tags.get(file).put(tag, str);
+				values.get(file).put(tag, value);
+				log.debug("Read Tag [name={}, value={}]", tag, str);
+			}
+			else {
+				log.debug("Unable to read Tag: {}", name);
+			}
+		}
+		while (parser.consume(','));
+
+		parser.expect('}');
+	}
+
+	private Tag toTag(String name) {
+		if (inputs == null) {
+			return new UnspecifiedTag(name);
+		}
+
+		int separator = name.lastIndexOf(GROUP_SEPARATOR);
+		if (separator < 0) {
+			return inputs.get(name);
+		}
+
+		// Keep group name: the same tag may be printed for several groups.
+		return inputs.containsKey(name.substring(separator + 1)) ? new UnspecifiedTag(name) : null;
+	}
+
+	/**
+	 * Read items of an array, once its opening bracket has been consumed.
+	 *
+	 * @param parser The parser.
+	 * @param sb Builder receiving the string of each item, joined with {@link com.thebuzzmedia.exiftool.Constants#SEPARATOR}.
+	 * @return Typed items.
+	 */
+	private List<Object> readArray(JsonParser parser, StringBuilder sb) {
+		List<Object> items = new ArrayList<>();
+		if (parser.consume(']')) {
+			return unmodifiableList(items);
+		}
+
+		do {
+			if (!items.isEmpty()) {
+				sb.append(SEPARATOR);
+			}
+
+			int start = parser.position();
+			if (parser.consume('[')) {
+				items.add(readArray(parser, sb));
+			}
+			else {
+				Object item = parser.readValue();
+				sb.append(toString(parser, start, item));
+				items.add(item);
+			}
+		}
+		while (parser.consume(','));
+
+		parser.expect(']');
+		return unmodifiableList(items);
+	}
+
+	private String toString(JsonParser parser, int start, Object value) {
+		if (value instanceof String) {
+			return (String) value;
+		}
+
+		// Numbers, booleans and structures are returned as printed.
+		return object.subSequence(start, parser.position()).toString().trim();
+	}
+
+	private static String normalize(String path) {
+		return path.replace('\\', '/');
+	}
+}
@@ -3,18 +3,39 @@ package com.thebuzzmedia.exiftool.core.handlers;
 import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
 
 import com.thebuzzmedia.exiftool.Constants;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 
-public class RawOutputHandler implements OutputHandler {
+public class RawOutputHandler implements OutputHandler, CharSequenceVisitor {
 
 	private final StringBuilder output;
 
+	// Maximum number of characters kept, output beyond this limit is read but dropped.
+	private final int maxLength;
+
+	private boolean truncated;
+
 	public RawOutputHandler() {
+		this(Integer.MAX_VALUE);
+	}
+
+	public RawOutputHandler(int maxLength) {
+		if (maxLength < 0) {
+			throw new IllegalArgumentException("Max length must be positive");
+		}
+
 		this.output = new StringBuilder();
+		this.maxLength = maxLength;
+		this.truncated = false;
 	}
 
 	@Override
 	public boolean readLine(String line) {
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
 		// If line is null, then this is the end.
 		// If line is strictly equals to "{ready}", then it means that stay_open feature
 		// is enabled and this is the end of the output.
@@ -22,7 +43,18 @@ public class RawOutputHandler implements OutputHandler {
 			return false;
 		}
 
-		if (output.length() > 0) {
+		// Keep reading until the end, so that the output of next commands is not corrupted.
+		if (truncated) {
+			return true;
+		}
+
+		int separator = output.length() > 0 ? Constants.BR.length() : 0;
+		if ((long) output.length() + separator + line.length() > maxLength) {
+			truncated = true;
+			return true;
+		}
+
+		if (separator > 0) {
 			output.append(Constants.BR);
 		}
 		output.append(line);
@@ -34,4 +66,9 @@ public class RawOutputHandler implements OutputHandler {
 		// output the raw string that exiftool outputes
 		return output.toString();
 	}
+
+	// True if some lines have been dropped because output exceeded the max length.
+	public boolean isTruncated() {
+		return truncated;
+	}
 }
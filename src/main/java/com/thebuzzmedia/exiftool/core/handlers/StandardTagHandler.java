@@ -41,6 +41,16 @@ public class StandardTagHandler extends BaseTagHandler {
 	 */
 	private final Map<String, Tag> inputs;
 
+	/**
+	 * Names of expected inputs, used to look up a name without creating a {@link String}.
+	 */
+	private final String[] names;
+
+	/**
+	 * Expected inputs, in the same order as {@link #names}.
+	 */
+	private final Tag[] values;
+
 	/**
 	 * Create handler with expected list of tags to parse.
 	 *
@@ -53,14 +63,45 @@ public class StandardTagHandler extends BaseTagHandler {
 		}
 
 		this.inputs = unmodifiableMap(inputs);
+		this.names = inputs.keySet().toArray(new String[0]);
+		this.values = new Tag[names.length];
+		for (int i = 0; i < names.length; i++) {
+			values[i] = inputs.get(names[i]);
+		}
+	}
+
+	/**
+	 * Create handler expecting the same tags as given handler.
+	 *
+	 * @param handler The handler.
+	 */
+	private StandardTagHandler(StandardTagHandler handler) {
+		this.inputs = handler.inputs;
+		this.names = handler.names;
+		this.values = handler.values;
+	}
+
+	@Override
+	public BaseTagHandler newHandler() {
+		return new StandardTagHandler(this);
 	}
 
 	@Override
-	Tag toTag(String name) {
+	Tag toTag(CharSequence name) {
 		// Return the tag a only if we were able to map the name back
 		// to a Tag instance. If not, then this is an unknown/unexpected
 		// tag return value and we skip it since we cannot translate it
 		// back to one of our supported tags.
-		return inputs.get(name);
+		if (name instanceof String) {
+			return inputs.get(name);
+		}
+
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].contentEquals(name)) {
+				return values[i];
+			}
+		}
+
+		return null;
 	}
 }
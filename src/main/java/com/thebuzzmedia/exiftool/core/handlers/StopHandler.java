@@ -17,6 +17,7 @@
 
 package com.thebuzzmedia.exiftool.core.handlers;
 
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 
 /**
@@ -31,13 +32,18 @@ import com.thebuzzmedia.exiftool.process.OutputHandler;
  * This handler is thread safe, stateless and is implemented as
  * a singleton.
  */
-public class StopHandler implements OutputHandler {
+public class StopHandler implements OutputHandler, CharSequenceVisitor {
 
 	/**
 	 * Singleton instance.
 	 */
 	private static final StopHandler INSTANCE = new StopHandler();
 
+	/**
+	 * Line printed by exiftool at the end of each command output, when {@code stay_open} feature is enabled.
+	 */
+	private static final String READY = "{ready}";
+
 	/**
 	 * Get instance.
 	 *
@@ -53,6 +59,11 @@ public class StopHandler implements OutputHandler {
 
 	@Override
 	public boolean readLine(String line) {
-		return line != null && !line.equals("{ready}");
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
+		return line != null && !READY.contentEquals(line);
 	}
 }
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
+import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read tags of files found by {@code exiftool} (i.e when directories are queried), and give
+ * tags of each file to a consumer as soon as they have been read.
+ *
+ * <br>
+ *
+ * Like {@link BatchTagHandler}, output is split on file headers (such as {@code ======== /path/to/file.jpg}),
+ * but files are not known in advance and nothing is kept once a file has been given to the consumer: the
+ * memory used does not depend on the number of files.
+ *
+ * <br>
+ *
+ * This class is not thread-safe and should be used to
+ * read exiftool output from one thread (should not be shared across
+ * several threads).
+ */
+public class StreamingTagHandler implements OutputHandler, CharSequenceVisitor {
+
+	/**
+	 * Class logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(StreamingTagHandler.class);
+
+	/**
+	 * Prefix printed by {@code exiftool} before each file section.
+	 */
+	private static final String FILE_HEADER = "======== ";
+
+	/**
+	 * Prefix of summary lines printed by {@code exiftool} at the end of a multi-file command
+	 * (i.e {@code "    2 image files read"}).
+	 */
+	private static final String SUMMARY_PREFIX = " ";
+
+	/**
+	 * Handler used to create a new handler for each file.
+	 */
+	private final BaseTagHandler prototype;
+
+	/**
+	 * Consumer of the tags of each file.
+	 */
+	private final BiConsumer<File, Map<Tag, String>> consumer;
+
+	/**
+	 * File currently read, may be {@code null}.
+	 */
+	private File file;
+
+	/**
+	 * Handler of the file currently read, may be {@code null}.
+	 */
+	private BaseTagHandler current;
+
+	/**
+	 * Number of files given to the consumer.
+	 */
+	private int size;
+
+	/**
+	 * Create handler.
+	 *
+	 * @param tags Expected list of tags.
+	 * @param consumer Consumer of the tags of each file.
+	 * @throws NullPointerException If {@code tags} or {@code consumer} is {@code null}.
+	 * @throws IllegalArgumentException If {@code tags} is empty.
+	 */
+	public StreamingTagHandler(Collection<? extends Tag> tags, BiConsumer<File, Map<Tag, String>> consumer) {
+		notEmpty(tags, "Tags should not be empty");
+		this.prototype = BaseTagHandler.of(tags);
+		this.consumer = requireNonNull(consumer, "Consumer should not be null");
+		this.size = 0;
+	}
+
+	@Override
+	public boolean readLine(String line) {
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
+		// If line is null, then this is the end.
+		// If line is strictly equals to "{ready}", then it means that stay_open feature
+		// is enabled and this is the end of the output.
+		if (!stopHandler().readLine(line)) {
+			complete();
+			return false;
+		}
+
+		if (startsWith(line, FILE_HEADER)) {
+			complete();
+			file = new File(line.subSequence(FILE_HEADER.length(), line.length()).toString());
+			current = prototype.newHandler();
+			return true;
+		}
+
+		if (startsWith(line, SUMMARY_PREFIX)) {
+			log.debug("Skipped summary line: {}", line);
+			return true;
+		}
+
+		if (current == null) {
+			log.debug("Skipped line outside of any file section: {}", line);
+			return true;
+		}
+
+		current.readLine(line);
+		return true;
+	}
+
+	/**
+	 * Get the number of files given to the consumer.
+	 *
+	 * @return Number of files.
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void complete() {
+		if (current != null) {
+			size++;
+			consumer.accept(file, current.getTags());
+			file = null;
+			current = null;
+		}
+	}
+
+	private static boolean startsWith(CharSequence line, String prefix) {
+		if (line.length() < prefix.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < prefix.length(); i++) {
+			if (line.charAt(i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.core.WriteResult;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
+
+/**
+ * Handler reading the output of a write operation, to build a {@link WriteResult}
+ * from the summary lines printed by {@code exiftool}:
+ *
+ * <ul>
+ *   <li>{@code "    1 image files updated"} (or {@code "created"})</li>
+ *   <li>{@code "    1 image files unchanged"}</li>
+ *   <li>{@code "    1 files weren't updated due to errors"}</li>
+ * </ul>
+ *
+ * Lines starting with {@code "Warning:"} or {@code "Error:"} are collected as warnings and errors, other
+ * lines are kept as messages: these lines may be read from the standard output (when error output is merged
+ * into it) or from the error output (see {@link #readErrorLine(String)}).
+ */
+public class WriteResultHandler implements OutputHandler {
+
+	private static final String UPDATED = "image files updated";
+	private static final String CREATED = "image files created";
+	private static final String UNCHANGED = "image files unchanged";
+	private static final String FAILED = "files weren't updated due to errors";
+	private static final String WARNING = "Warning:";
+	private static final String ERROR = "Error:";
+
+	private int updated;
+	private int unchanged;
+	private int failed;
+	private final List<String> messages;
+	private final List<String> warnings;
+	private final List<String> errors;
+
+	/**
+	 * Create handler.
+	 */
+	public WriteResultHandler() {
+		this.messages = new ArrayList<>(1);
+		this.warnings = new ArrayList<>(1);
+		this.errors = new ArrayList<>(1);
+	}
+
+	@Override
+	public boolean readLine(String line) {
+		if (!stopHandler().readLine(line)) {
+			return false;
+		}
+
+		String text = line.trim();
+		if (readDiagnostic(text)) {
+			return true;
+		}
+
+		int i = 0;
+		while (i < text.length() && Character.isDigit(text.charAt(i))) {
+			i++;
+		}
+
+		if (i == 0 || i == text.length() || !parseSummary(Integer.parseInt(text.substring(0, i)), text.substring(i).trim())) {
+			if (!text.isEmpty()) {
+				messages.add(text);
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public void readErrorLine(String line) {
+		String text = line.trim();
+		if (!readDiagnostic(text) && !text.isEmpty()) {
+			messages.add(text);
+		}
+	}
+
+	private boolean readDiagnostic(String text) {
+		if (text.startsWith(WARNING)) {
+			warnings.add(text.substring(WARNING.length()).trim());
+			return true;
+		}
+
+		if (text.startsWith(ERROR)) {
+			errors.add(text.substring(ERROR.length()).trim());
+			return true;
+		}
+
+		return false;
+	}
+
+	private boolean parseSummary(int count, String summary) {
+		if (summary.equals(UPDATED) || summary.equals(CREATED)) {
+			updated += count;
+		}
+		else if (summary.equals(UNCHANGED)) {
+			unchanged += count;
+		}
+		else if (summary.equals(FAILED)) {
+			failed += count;
+		}
+		else {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get result of the write operation.
+	 *
+	 * @return The result.
+	 */
+	public WriteResult getResult() {
+		return new WriteResult(updated, unchanged, failed, messages, warnings, errors);
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+import com.thebuzzmedia.exiftool.process.CommandProcess;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deadline of a command: once expired, the process running the command is killed, so that
+ * the thread reading its output is released.
+ *
+ * <br>
+ *
+ * Deadlines of all strategies share the same daemon thread, lazily created on first use.
+ */
+final class CommandWatchdog implements Runnable {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(CommandWatchdog.class);
+
+	private static final int RUNNING = 0;
+	private static final int DONE = 1;
+	private static final int EXPIRED = 2;
+
+	/**
+	 * The watched process.
+	 */
+	private final CommandProcess process;
+
+	/**
+	 * State of the command: {@link #RUNNING}, {@link #DONE} or {@link #EXPIRED}.
+	 */
+	private final AtomicInteger state;
+
+	/**
+	 * Task killing the process, cancelled when the command is done.
+	 */
+	private ScheduledFuture<?> task;
+
+	private CommandWatchdog(CommandProcess process) {
+		this.process = process;
+		this.state = new AtomicInteger(RUNNING);
+	}
+
+	/**
+	 * Start watching a command run by given process.
+	 *
+	 * @param process The process.
+	 * @param timeout Command timeout.
+	 * @return The watchdog, that must be stopped once the command output has been read.
+	 */
+	static CommandWatchdog start(CommandProcess process, SchedulerDuration timeout) {
+		CommandWatchdog watchdog = new CommandWatchdog(process);
+		watchdog.task = Timer.INSTANCE.schedule(watchdog, timeout.getDelay(), timeout.getTimeUnit());
+		return watchdog;
+	}
+
+	/**
+	 * Stop watching the command.
+	 *
+	 * @return {@code true} if the command has been done in time, {@code false} if the deadline
+	 *   has expired and the process has been killed.
+	 */
+	boolean stop() {
+		if (state.compareAndSet(RUNNING, DONE)) {
+			task.cancel(false);
+			return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public void run() {
+		// Command may be done at the same time: never kill a process that may run another command.
+		if (!state.compareAndSet(RUNNING, EXPIRED)) {
+			return;
+		}
+
+		log.warn("ExifTool command timed out, kill the process");
+
+		try {
+			process.destroy();
+		}
+		catch (Exception ex) {
+			log.warn(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Executor running expired deadlines, lazily created on first use.
+	 */
+	private static final class Timer {
+		private static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+		private Timer() {
+		}
+
+		private static ScheduledThreadPoolExecutor create() {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "exiftool-command-watchdog");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			// Most deadlines are cancelled: do not keep them until they expire.
+			executor.setRemoveOnCancelPolicy(true);
+			return executor;
+		}
+	}
+}
@@ -64,7 +64,7 @@ public class DefaultStrategy implements ExecutionStrategy {
 				.addAll(arguments)
 				.build();
 
-		executor.execute(cmd, handler);
+		executor.stream(cmd, handler);
 	}
 
 	@Override
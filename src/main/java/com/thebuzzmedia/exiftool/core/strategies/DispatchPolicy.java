@@ -0,0 +1,53 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.strategies;
+
+/**
+ * Policy used by {@link PoolStrategy} to pick an available strategy among
+ * pool elements.
+ *
+ * <br>
+ *
+ * Picking the same strategies again and again keeps their {@code exiftool} process
+ * running, while other strategies remain idle: their process may then be stopped by
+ * the cleanup task and will not pay the start-up cost unless the load increases.
+ */
+public enum DispatchPolicy {
+
+	/**
+	 * Strategies are used in turn: the strategy that has been idle for the longest time is picked first.
+	 */
+	FIFO,
+
+	/**
+	 * The most recently used strategy is picked first.
+	 */
+	MOST_RECENTLY_USED,
+
+	/**
+	 * A strategy with a running process is picked first, if any, otherwise the most
+	 * recently used strategy is picked.
+	 */
+	WARM_FIRST,
+
+	/**
+	 * The strategy that last processed a file with the same extension is picked first,
+	 * if it is available, otherwise the most recently used strategy is picked.
+	 */
+	EXTENSION_AFFINITY
+}
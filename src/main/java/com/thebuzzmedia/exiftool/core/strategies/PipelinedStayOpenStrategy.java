@@ -0,0 +1,701 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import com.thebuzzmedia.exiftool.Constants;
+import com.thebuzzmedia.exiftool.ExecutionStrategy;
+import com.thebuzzmedia.exiftool.Scheduler;
+import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.CommandProcess;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+import com.thebuzzmedia.exiftool.process.command.CommandBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.isPositive;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Execution strategy that use {@code exiftool} with the {@code stay_open} feature
+ * and allows several commands to be sent to the same daemon before their output
+ * is read.
+ *
+ * <br>
+ *
+ * With {@link StayOpenStrategy}, each execution writes a command and then blocks until
+ * the whole output has been read: the daemon is idle while the caller parses the output and
+ * while the next caller writes its command. This strategy uses numbered commands
+ * ({@code -execute<N>}, available since {@code exiftool} 8.64) instead:
+ *
+ * <ul>
+ *   <li>Commands are written as soon as they are submitted, up to a configurable number of in-flight commands.</li>
+ *   <li>A dedicated reader thread reads daemon output and dispatches it to the handler of the matching command.</li>
+ *   <li>Each execution completes when the {@code {ready<N>}} marker of its command has been read.</li>
+ * </ul>
+ *
+ * <br>
+ *
+ * This strategy is thread-safe: it may be shared across several threads, each
+ * execution blocks until its own output has been read.
+ *
+ * <br>
+ *
+ * Asynchronous executions (see {@link #executeAsync}) do not block any thread while waiting
+ * for the command output: returned futures are completed by the reader thread, so dependent
+ * actions should not block (or should be run with an executor).
+ *
+ * <br>
+ *
+ * A command whose handler fails is completed with the handler exception, next commands are not
+ * affected. If the output cannot be read anymore, or if the end of an unexpected command is read,
+ * all pending commands fail and the daemon is discarded: a new one is started by the next execution.
+ */
+public class PipelinedStayOpenStrategy implements ExecutionStrategy {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(PipelinedStayOpenStrategy.class);
+
+	/**
+	 * Minimum version of {@code exiftool} supporting numbered {@code -execute} commands (available since 8.64)
+	 * and the {@code -echo4} option used to mark the end of errors of each command (available since 9.15).
+	 */
+	private static final Version V9_15 = new Version("9.15");
+
+	/**
+	 * Argument used to run a command.
+	 */
+	private static final String EXECUTE = "-execute";
+
+	/**
+	 * Prefix of the line printed by {@code exiftool} when a numbered command is over.
+	 */
+	private static final String READY_PREFIX = "{ready";
+
+	/**
+	 * Line given to command handler when its output is over.
+	 * This is the line printed by {@code exiftool} for commands without number, so
+	 * that existing handlers can be used without any change.
+	 */
+	private static final String READY = "{ready}";
+
+	/**
+	 * Scheduler: will be used to perform automatic cleanup.
+	 */
+	private final Scheduler scheduler;
+
+	/**
+	 * Maximum number of commands sent to the daemon that have not been fully read yet.
+	 */
+	private final int maxInFlight;
+
+	/**
+	 * Permits, one per in-flight command.
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * Commands waiting for their output, in submission order.
+	 */
+	private final Queue<PendingCommand> pending;
+
+	/**
+	 * Process opened when the first execution is called.
+	 * This process will remain open until a call to {@link #close} is made.
+	 */
+	private CommandProcess process;
+
+	/**
+	 * Identifier of the last submitted command.
+	 */
+	private long lastId;
+
+	/**
+	 * Create strategy.
+	 * Scheduler provided in parameter will be used to clean resources (exiftool process).
+	 *
+	 * @param scheduler Delay between automatic cleanup.
+	 * @param maxInFlight Maximum number of commands sent to the daemon before their output is read.
+	 * @throws NullPointerException If {@code scheduler} is {@code null}.
+	 * @throws IllegalArgumentException If {@code maxInFlight} is less than or equal to zero.
+	 */
+	public PipelinedStayOpenStrategy(Scheduler scheduler, int maxInFlight) {
+		this.scheduler = requireNonNull(scheduler, "Scheduler should not be null");
+		this.maxInFlight = isPositive(maxInFlight, "Maximum number of in-flight commands must be positive");
+		this.permits = new Semaphore(maxInFlight, true);
+		this.pending = new ConcurrentLinkedQueue<>();
+		this.lastId = 0;
+	}
+
+	@Override
+	public void execute(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+		log.debug("Using ExifTool in pipelined daemon mode (-stay_open True)...");
+
+		try {
+			permits.acquire();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for an available exiftool command slot");
+		}
+
+		try {
+			PendingCommand command = submit(executor, exifTool, arguments, handler);
+			await(command);
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> executeAsync(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler, Executor async) {
+		// Too many in-flight commands: wait for an available slot in a dedicated thread.
+		if (!permits.tryAcquire()) {
+			return ExecutionStrategy.super.executeAsync(executor, exifTool, arguments, handler, async);
+		}
+
+		log.debug("Using ExifTool in pipelined daemon mode (-stay_open True)...");
+
+		try {
+			PendingCommand command = submit(executor, exifTool, arguments, handler);
+			return command.future.whenComplete((result, ex) -> permits.release());
+		}
+		catch (IOException | RuntimeException ex) {
+			permits.release();
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			future.completeExceptionally(ex);
+			return future;
+		}
+	}
+
+	@Override
+	public void executeAll(CommandExecutor executor, String exifTool, List<? extends List<String>> commands, List<? extends OutputHandler> handlers) throws IOException {
+		if (commands.size() != handlers.size()) {
+			throw new IllegalArgumentException("Each command must have its own handler");
+		}
+
+		log.debug("Using ExifTool in pipelined daemon mode (-stay_open True) to execute {} commands...", commands.size());
+
+		// Commands are written as soon as a slot is available, and waited for once all of them have been sent.
+		List<PendingCommand> submitted = new ArrayList<>(commands.size());
+		for (int i = 0; i < commands.size(); i++) {
+			try {
+				permits.acquire();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for an available exiftool command slot");
+			}
+
+			try {
+				PendingCommand command = submit(executor, exifTool, commands.get(i), handlers.get(i));
+				command.future.whenComplete((result, ex) -> permits.release());
+				submitted.add(command);
+			}
+			catch (IOException | RuntimeException ex) {
+				permits.release();
+				throw ex;
+			}
+		}
+
+		for (PendingCommand command : submitted) {
+			await(command);
+		}
+	}
+
+	@Override
+	public void prewarm(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+		log.debug("Prewarm exiftool daemon");
+		execute(executor, exifTool, arguments, handler);
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return process != null && process.isRunning();
+	}
+
+	@Override
+	public boolean isSupported(Version version) {
+		return V9_15.compareTo(version) <= 0;
+	}
+
+	@Override
+	public void close() throws Exception {
+		// Wait for in-flight commands: permits must be acquired before the lock
+		// to avoid a dead lock with executions waiting to write their command.
+		permits.acquireUninterruptibly(maxInFlight);
+
+		try {
+			synchronized (this) {
+				if (process != null) {
+					closeProcess();
+				}
+
+				closeScheduler();
+			}
+		}
+		finally {
+			permits.release(maxInFlight);
+		}
+	}
+
+	@Override
+	public void shutdown() throws Exception {
+		close();
+		shutdownScheduler();
+	}
+
+	/**
+	 * Get the maximum number of commands that may be sent to the daemon before their output is read.
+	 *
+	 * @return Maximum number of in-flight commands.
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * Write command to the daemon process, starting it if needed.
+	 *
+	 * @param executor Executor used to start the daemon.
+	 * @param exifTool ExifTool path.
+	 * @param arguments Command arguments.
+	 * @param handler Output handler.
+	 * @return The pending command.
+	 * @throws IOException If write operation failed.
+	 */
+	private synchronized PendingCommand submit(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+		// Start daemon process if it is not already started.
+		if (process == null || process.isClosed()) {
+			log.debug("Start exiftool process");
+			process = executor.start(CommandBuilder.builder(exifTool, 6)
+					.addArgument("-stay_open", "True")
+					.addArgument("-sep", Constants.SEPARATOR)
+					.addArgument("-@")
+					.addArgument("-")
+					.build());
+
+			startReader(process);
+		}
+
+		// Always reset the cleanup task.
+		scheduler.stop();
+		scheduler.start(this::safeClose);
+
+		long id = ++lastId;
+		PendingCommand command = new PendingCommand(id, handler);
+		pending.add(command);
+
+		try {
+			process.writeLines(toNumberedCommand(arguments, id));
+			process.flush();
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			pending.remove(command);
+			throw ex;
+		}
+
+		return command;
+	}
+
+	/**
+	 * Wait for the end of given command.
+	 *
+	 * @param command The command.
+	 * @throws IOException If the output of the command cannot be read.
+	 */
+	private static void await(PendingCommand command) throws IOException {
+		try {
+			command.future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for exiftool output");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Replace the final {@code -execute} argument by its numbered version, preceded
+	 * by the arguments printing the error marker of the command.
+	 *
+	 * @param arguments Arguments.
+	 * @param id Command identifier.
+	 * @return Arguments to write.
+	 */
+	private static List<String> toNumberedCommand(List<String> arguments, long id) {
+		int size = arguments.size();
+		boolean hasExecute = size > 0 && arguments.get(size - 1).equals(EXECUTE);
+		int nbArgs = hasExecute ? size - 1 : size;
+
+		List<String> newArgs = new ArrayList<>(nbArgs + 3);
+		for (int i = 0; i < nbArgs; i++) {
+			newArgs.add(arguments.get(i));
+		}
+
+		newArgs.addAll(StayOpenStrategy.errorsMarkerArguments(id));
+
+		newArgs.add(EXECUTE + id);
+		return newArgs;
+	}
+
+	/**
+	 * Start the thread reading output of given process.
+	 *
+	 * @param process The process.
+	 */
+	private void startReader(CommandProcess process) {
+		Thread reader = new Thread(new OutputReader(process), "exiftool-pipeline-reader");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * Close pending cleanup task and stop scheduler.
+	 * This scheduler may be re-used if necessary.
+	 */
+	private synchronized void closeScheduler() {
+		try {
+			log.debug("Attempting to stop cleanup task");
+			scheduler.stop();
+			log.debug("Cleanup task successfully stopped");
+		}
+		catch (Exception ex) {
+			log.warn("Cleanup task failed to stop");
+			log.warn(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Shutdown scheduler.
+	 */
+	private synchronized void shutdownScheduler() {
+		try {
+			log.debug("Attempting to shutdown cleanup task");
+			scheduler.shutdown();
+			log.debug("Cleanup task successfully shutdown");
+		}
+		catch (Exception ex) {
+			log.warn("Cleanup task failed to shutdown");
+			log.warn(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Close ExifTool process.
+	 * Process may be re-used if necessary.
+	 *
+	 * @throws Exception If an error occurs during the close operation.
+	 */
+	private synchronized void closeProcess() throws Exception {
+		try {
+			log.debug("Attempting to close ExifTool daemon process, issuing '-stay_open\\nFalse\\n' command...");
+			process.write("-stay_open\nFalse\n");
+			process.flush();
+			process.close();
+			log.debug("ExifTool daemon process successfully closed");
+		}
+		catch (Exception ex) {
+			log.warn("ExifTool daemon failed to stop");
+			log.warn(ex.getMessage(), ex);
+			throw ex;
+		}
+		finally {
+			process = null;
+		}
+	}
+
+	/**
+	 * This is exactly the same operation as {@link #close} but catch
+	 * all exceptions and log stacktrace.
+	 */
+	private void safeClose() {
+		try {
+			close();
+		}
+		catch (Exception ex) {
+			log.error(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Stop given process, without sending the {@code stay_open} command.
+	 *
+	 * @param process The process.
+	 */
+	private static void discardProcess(CommandProcess process) {
+		try {
+			process.destroy();
+			process.close();
+		}
+		catch (Exception ex) {
+			log.warn(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Fail all pending commands.
+	 *
+	 * @param ex The failure.
+	 */
+	private void failPending(IOException ex) {
+		PendingCommand command;
+		while ((command = pending.poll()) != null) {
+			command.future.completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * A command that has been written to the daemon and that is waiting for its output.
+	 */
+	private static final class PendingCommand {
+		/**
+		 * Command identifier.
+		 */
+		private final long id;
+
+		/**
+		 * Handler of the command output.
+		 */
+		private final OutputHandler handler;
+
+		/**
+		 * Completed when the whole output has been read.
+		 */
+		private final CompletableFuture<Void> future;
+
+		/**
+		 * Flag set to {@code false} once the handler does not want to read anything else.
+		 */
+		private boolean active;
+
+		/**
+		 * Exception thrown by the handler, if any.
+		 */
+		private RuntimeException failure;
+
+		private PendingCommand(long id, OutputHandler handler) {
+			this.id = id;
+			this.handler = handler;
+			this.future = new CompletableFuture<>();
+			this.active = true;
+		}
+
+		/**
+		 * Stop giving output to the handler, that failed with given exception.
+		 *
+		 * @param ex Handler exception.
+		 */
+		private void fail(RuntimeException ex) {
+			log.error("Output handler of command #{} failed, remaining output will be ignored", id, ex);
+			if (failure == null) {
+				failure = ex;
+			}
+
+			active = false;
+		}
+
+		/**
+		 * Complete the command once its whole output has been read.
+		 */
+		private void complete() {
+			if (failure == null) {
+				future.complete(null);
+			}
+			else {
+				future.completeExceptionally(failure);
+			}
+		}
+	}
+
+	/**
+	 * Read output of the daemon process and dispatch each line to the handler
+	 * of the oldest pending command.
+	 *
+	 * <br>
+	 *
+	 * This task runs until the end of the output stream, or until the output cannot be
+	 * matched with pending commands anymore: the process is then discarded.
+	 */
+	private final class OutputReader implements Runnable, OutputHandler, CharSequenceVisitor {
+		/**
+		 * The read process.
+		 */
+		private final CommandProcess process;
+
+		/**
+		 * Flag set to {@code true} once the end of the stream has been reached, or
+		 * once the output does not match pending commands anymore.
+		 */
+		private boolean eof;
+
+		/**
+		 * Failure set once the output does not match pending commands anymore.
+		 */
+		private IOException desync;
+
+		private OutputReader(CommandProcess process) {
+			this.process = process;
+			this.eof = false;
+		}
+
+		@Override
+		public void run() {
+			IOException failure;
+			try {
+				while (!eof) {
+					process.stream(this);
+				}
+
+				failure = desync != null ? desync : new IOException("ExifTool process output has been closed before the end of pending commands");
+			}
+			catch (IOException | RuntimeException ex) {
+				failure = ex instanceof IOException ? (IOException) ex : new IOException(ex);
+			}
+
+			stop(failure);
+		}
+
+		/**
+		 * Discard the process, if it is still used by the strategy, and fail pending commands:
+		 * since nobody reads the process output anymore, next execution must start a new process.
+		 *
+		 * @param failure Failure given to pending commands.
+		 */
+		private void stop(IOException failure) {
+			synchronized (PipelinedStayOpenStrategy.this) {
+				if (PipelinedStayOpenStrategy.this.process != process) {
+					// Process has been closed: no command is pending.
+					log.debug("ExifTool process output cannot be read anymore: {}", failure.getMessage());
+					return;
+				}
+
+				// Pending commands are failed under the lock: no command can be written to the process meanwhile.
+				PipelinedStayOpenStrategy.this.process = null;
+				if (pending.isEmpty()) {
+					log.warn("ExifTool process output cannot be read anymore, process will be restarted: {}", failure.getMessage());
+				}
+				else {
+					log.error(failure.getMessage(), failure);
+					failPending(failure);
+				}
+			}
+
+			discardProcess(process);
+		}
+
+		@Override
+		public boolean readLine(String line) {
+			return readLine((CharSequence) line);
+		}
+
+		@Override
+		public boolean readLine(CharSequence line) {
+			if (line == null) {
+				eof = true;
+				return false;
+			}
+
+			PendingCommand command = pending.peek();
+			if (command == null) {
+				log.warn("Output of unexpected command will be ignored: {}", line);
+				return true;
+			}
+
+			if (isReady(line)) {
+				String id = line.subSequence(READY_PREFIX.length(), line.length() - 1).toString();
+				if (!id.equals(String.valueOf(command.id))) {
+					// Next lines cannot be given to the right handler anymore.
+					desync = new IOException("ExifTool process output is out of sync, expected end of command #" + command.id + " but got: " + line);
+					eof = true;
+					return false;
+				}
+
+				pending.poll();
+
+				try {
+					// Errors, and their marker, are printed before the end of the command output.
+					process.readErrors(command.handler, StayOpenStrategy.errorsMarker(command.id));
+					if (command.active) {
+						command.handler.readLine(READY);
+					}
+				}
+				catch (RuntimeException ex) {
+					command.fail(ex);
+				}
+
+				command.complete();
+
+				// Stop here: process output of next command in a new read operation.
+				return false;
+			}
+
+			if (command.active) {
+				OutputHandler handler = command.handler;
+				try {
+					command.active = handler instanceof CharSequenceVisitor
+						? ((CharSequenceVisitor) handler).readLine(line)
+						: handler.readLine(line.toString());
+				}
+				catch (RuntimeException ex) {
+					command.fail(ex);
+				}
+			}
+
+			return true;
+		}
+
+		private boolean isReady(CharSequence line) {
+			int length = line.length();
+			if (length <= READY_PREFIX.length() || line.charAt(length - 1) != '}') {
+				return false;
+			}
+
+			for (int i = 0; i < READY_PREFIX.length(); i++) {
+				if (line.charAt(i) != READY_PREFIX.charAt(i)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+}
@@ -18,21 +18,46 @@
 package com.thebuzzmedia.exiftool.core.strategies;
 
 import com.thebuzzmedia.exiftool.ExecutionStrategy;
+import com.thebuzzmedia.exiftool.Scheduler;
 import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.core.schedulers.DefaultScheduler;
+import com.thebuzzmedia.exiftool.core.schedulers.NoOpScheduler;
+import com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration;
 import com.thebuzzmedia.exiftool.exceptions.PoolIOException;
+import com.thebuzzmedia.exiftool.exceptions.PoolRejectedException;
+import com.thebuzzmedia.exiftool.exceptions.PoolTimeoutException;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.isPositive;
 import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
+import static java.util.Collections.synchronizedList;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Implementation of {@link ExecutionStrategy} using a pool of
@@ -44,6 +69,61 @@ import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
  *
  * This strategy should be used in a multithreaded environment, when application need to
  * extract exif data from images in parallel.
+ *
+ * <h3>Elastic pool</h3>
+ *
+ * A pool created with a strategy factory (see {@link #PoolStrategy(Supplier, int, int, SchedulerDuration, SchedulerDuration)})
+ * grows and shrinks with the load:
+ *
+ * <ul>
+ *   <li>
+ *     When no strategy becomes available within the {@code growDelay}, a new strategy is created (until
+ *     the maximum size is reached).
+ *   </li>
+ *   <li>
+ *     Strategies that have been idle for at least the {@code idleDelay} are shut down and removed from
+ *     the pool (until the minimum size is reached).
+ *   </li>
+ * </ul>
+ *
+ * By default, most recently used strategies are picked first, so that surplus strategies become idle
+ * as soon as the load decreases.
+ *
+ * <h3>Dispatch</h3>
+ *
+ * The order in which available strategies are picked can be changed with
+ * {@link #withDispatchPolicy(DispatchPolicy)} (see {@link DispatchPolicy}).
+ *
+ * <h3>Backpressure</h3>
+ *
+ * By default, a thread waits until a strategy becomes available. To shed load instead
+ * of building unbounded latency:
+ *
+ * <ul>
+ *   <li>
+ *     An acquisition timeout can be set (see {@link #withAcquireTimeout(SchedulerDuration)}): a
+ *     {@link PoolTimeoutException} is thrown if no strategy becomes available in time.
+ *   </li>
+ *   <li>
+ *     A maximum number of waiting executions can be set (see {@link #withMaxWaiters(int)}): when
+ *     it is reached, a {@link PoolRejectedException} is thrown immediately.
+ *   </li>
+ * </ul>
+ *
+ * <h3>Asynchronous executions</h3>
+ *
+ * An asynchronous execution (see {@link #executeAsync(CommandExecutor, String, List, OutputHandler, Executor)})
+ * never blocks a thread while waiting for an available strategy: when the pool is exhausted, the execution
+ * is queued and dispatched, in arrival order, as soon as a strategy is released. Queued executions count as
+ * waiters (see {@link #withMaxWaiters(int)}) and fail with a {@link PoolTimeoutException} if they are not
+ * dispatched within the acquisition timeout. Since no thread waits for the {@code growDelay}, an elastic
+ * pool grows immediately when an asynchronous execution finds no available strategy.
+ *
+ * <h3>Health check</h3>
+ *
+ * Available strategies can be checked periodically (see {@link #withHealthCheck(SchedulerDuration)}):
+ * broken strategies (such as a crashed {@code exiftool} process) are repaired in background, before
+ * an execution picks them (see {@link ExecutionStrategy#checkHealth(CommandExecutor, String)}).
  */
 public class PoolStrategy implements ExecutionStrategy {
 
@@ -53,17 +133,120 @@ public class PoolStrategy implements ExecutionStrategy {
 	private static final Logger log = LoggerFactory.getLogger(PoolStrategy.class);
 
 	/**
-	 * Pool size (i.e number of available slot).
+	 * Pool list: strategies currently available.
+	 */
+	private final BlockingDeque<ExecutionStrategy> pool;
+
+	/**
+	 * Current pool size (i.e number of strategies, available or not).
+	 */
+	private final AtomicInteger size;
+
+	/**
+	 * Largest size reached by the pool.
+	 */
+	private final AtomicInteger highWaterMark;
+
+	/**
+	 * Factory used to create new strategies, {@code null} if pool size is fixed.
+	 */
+	private final Supplier<? extends ExecutionStrategy> factory;
+
+	/**
+	 * Minimum pool size.
 	 */
-	private final int poolSize;
+	private final int minSize;
 
 	/**
-	 * Pool list.
+	 * Maximum pool size.
 	 */
-	private final BlockingQueue<ExecutionStrategy> pool;
+	private final int maxSize;
+
+	/**
+	 * Maximum time to wait for an available strategy before a new one is created.
+	 */
+	private final SchedulerDuration growDelay;
+
+	/**
+	 * Time after which an idle strategy may be removed from the pool.
+	 */
+	private final SchedulerDuration idleDelay;
+
+	/**
+	 * Last time (in nanoseconds) each strategy has been released.
+	 */
+	private final Map<ExecutionStrategy, Long> lastUsed;
+
+	/**
+	 * Scheduler used to remove idle strategies.
+	 */
+	private final Scheduler scheduler;
+
+	/**
+	 * Flag set when the task removing idle strategies is scheduled.
+	 */
+	private final AtomicBoolean retirementScheduled;
+
+	/**
+	 * Number of executions (threads or queued asynchronous executions) currently waiting for an available strategy.
+	 */
+	private final AtomicInteger waiters;
+
+	/**
+	 * Asynchronous executions waiting for an available strategy, in arrival order.
+	 * Guarded by the queue itself.
+	 */
+	private final Deque<PendingExecution> pending;
+
+	/**
+	 * Maximum time to wait for an available strategy, {@code null} to wait indefinitely.
+	 */
+	private volatile SchedulerDuration acquireTimeout;
+
+	/**
+	 * Maximum number of waiting executions, unbounded if it is less than or equal to zero.
+	 */
+	private volatile int maxWaiters;
+
+	/**
+	 * Policy used to pick an available strategy.
+	 */
+	private volatile DispatchPolicy dispatchPolicy;
+
+	/**
+	 * Strategy that last processed a file, indexed by file extension (used with
+	 * {@link DispatchPolicy#EXTENSION_AFFINITY}).
+	 */
+	private final Map<String, ExecutionStrategy> affinities;
+
+	/**
+	 * Check if strategies should be prewarmed in parallel.
+	 */
+	private volatile boolean parallelPrewarm;
+
+	/**
+	 * Scheduler used to check health of available strategies, {@code null} if health check is disabled.
+	 */
+	private volatile Scheduler healthScheduler;
+
+	/**
+	 * Flag set when the health check task is scheduled.
+	 */
+	private final AtomicBoolean healthCheckScheduled = new AtomicBoolean(false);
+
+	/**
+	 * Executor given to the last execution, used by health checks.
+	 */
+	private volatile CommandExecutor lastExecutor;
+
+	/**
+	 * ExifTool path given to the last execution, used by health checks.
+	 */
+	private volatile String lastExifTool;
 
 	/**
 	 * Create the pool.
+	 * Strategies are picked using {@link DispatchPolicy#FIFO} by default.
 	 *
 	 * @param strategies Internal strategies.
 	 * @throws NullPointerException If {@code strategies} is {@code null}.
@@ -72,31 +255,152 @@ public class PoolStrategy implements ExecutionStrategy {
 	public PoolStrategy(Collection<ExecutionStrategy> strategies) {
 		notEmpty(strategies, "Pool must not be empty");
 
-		this.poolSize = strategies.size();
 		this.pool = new LinkedBlockingDeque<>(strategies);
+		this.size = new AtomicInteger(strategies.size());
+		this.highWaterMark = new AtomicInteger(strategies.size());
+		this.factory = null;
+		this.minSize = strategies.size();
+		this.maxSize = strategies.size();
+		this.growDelay = null;
+		this.idleDelay = null;
+		this.lastUsed = new ConcurrentHashMap<>();
+		this.scheduler = new NoOpScheduler();
+		this.retirementScheduled = new AtomicBoolean(false);
+		this.waiters = new AtomicInteger(0);
+		this.pending = new ArrayDeque<>();
+		this.dispatchPolicy = DispatchPolicy.FIFO;
+		this.affinities = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Create an elastic pool.
+	 *
+	 * <br>
+	 *
+	 * The pool starts with {@code minSize} strategies, and may grow up to {@code maxSize} strategies.
+	 * Strategies are picked using {@link DispatchPolicy#MOST_RECENTLY_USED} by default.
+	 *
+	 * @param factory Factory used to create pool strategies.
+	 * @param minSize Minimum pool size.
+	 * @param maxSize Maximum pool size.
+	 * @param growDelay Maximum time to wait for an available strategy before a new one is created.
+	 * @param idleDelay Time after which an idle strategy may be removed from the pool.
+	 * @throws NullPointerException If one parameter is {@code null}.
+	 * @throws IllegalArgumentException If {@code minSize} is not positive or if {@code maxSize} is less than {@code minSize}.
+	 */
+	public PoolStrategy(Supplier<? extends ExecutionStrategy> factory, int minSize, int maxSize, SchedulerDuration growDelay, SchedulerDuration idleDelay) {
+		this.factory = requireNonNull(factory, "Strategy factory must not be null");
+		this.minSize = isPositive(minSize, "Pool minimum size must be positive");
+		this.growDelay = requireNonNull(growDelay, "Grow delay must not be null");
+		this.idleDelay = requireNonNull(idleDelay, "Idle delay must not be null");
+
+		if (maxSize < minSize) {
+			throw new IllegalArgumentException("Pool maximum size must be greater than or equal to pool minimum size");
+		}
+
+		this.maxSize = maxSize;
+		this.pool = new LinkedBlockingDeque<>();
+		this.size = new AtomicInteger(0);
+		this.highWaterMark = new AtomicInteger(0);
+		this.lastUsed = new ConcurrentHashMap<>();
+		this.scheduler = new DefaultScheduler(idleDelay);
+		this.retirementScheduled = new AtomicBoolean(false);
+		this.waiters = new AtomicInteger(0);
+		this.pending = new ArrayDeque<>();
+		this.dispatchPolicy = DispatchPolicy.MOST_RECENTLY_USED;
+		this.affinities = new ConcurrentHashMap<>();
+
+		for (int i = 0; i < minSize; i++) {
+			pool.offer(grow());
+		}
 	}
 
 	@Override
 	public void execute(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+		scheduleHealthCheck(executor, exifTool);
+
 		ExecutionStrategy strategy = null;
 		try {
-			strategy = this.pool.take();
+			strategy = acquire(arguments);
 			strategy.execute(executor, exifTool, arguments, handler);
 		}
 		catch (InterruptedException ex) {
 			log.warn(ex.getMessage());
 			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for an available strategy");
+		}
+		finally {
+			if (strategy != null) {
+				release(strategy, arguments);
+			}
+		}
+	}
+
+	@Override
+	public void executeAll(CommandExecutor executor, String exifTool, List<? extends List<String>> commands, List<? extends OutputHandler> handlers) throws IOException {
+		if (commands.isEmpty()) {
+			return;
+		}
+
+		scheduleHealthCheck(executor, exifTool);
+
+		// Whole batch is executed by the same strategy, so that it is not split in round trips.
+		List<String> arguments = commands.get(0);
+		ExecutionStrategy strategy = null;
+		try {
+			strategy = acquire(arguments);
+			strategy.executeAll(executor, exifTool, commands, handlers);
+		}
+		catch (InterruptedException ex) {
+			log.warn(ex.getMessage());
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for an available strategy");
 		}
 		finally {
 			if (strategy != null) {
-				this.pool.offer(strategy);
+				release(strategy, arguments);
 			}
 		}
 	}
 
+	@Override
+	public CompletableFuture<Void> executeAsync(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler, Executor async) {
+		scheduleHealthCheck(executor, exifTool);
+
+		PendingExecution execution = new PendingExecution(executor, exifTool, arguments, handler, async);
+		ExecutionStrategy strategy = null;
+		synchronized (pending) {
+			// Queued executions are served first.
+			if (pending.isEmpty()) {
+				strategy = select(arguments);
+			}
+
+			if (strategy == null) {
+				int limit = maxWaiters;
+				if (waiters.incrementAndGet() > limit && limit > 0) {
+					waiters.decrementAndGet();
+					execution.future.completeExceptionally(new PoolRejectedException("Pool is exhausted, maximum number of waiting threads (" + limit + ") has been reached"));
+					return execution.future;
+				}
+
+				pending.addLast(execution);
+				scheduleTimeout(execution);
+			}
+		}
+
+		if (strategy != null) {
+			dispatch(strategy, execution);
+		}
+		else {
+			dispatchPending();
+		}
+
+		return execution.future;
+	}
+
 	@Override
 	public boolean isRunning() {
-		return pool.size() < poolSize;
+		return pool.size() < size.get();
 	}
 
 	@Override
@@ -118,25 +422,558 @@ public class PoolStrategy implements ExecutionStrategy {
 		});
 	}
 
+	/**
+	 * Run the warm-up command with each strategy of the pool, so that each {@code exiftool}
+	 * process is started (see {@link #withParallelPrewarm(boolean)}).
+	 */
+	@Override
+	public void prewarm(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+		scheduleHealthCheck(executor, exifTool);
+
+		try {
+			processPool((strategy, i) -> {
+				log.debug("Prewarming strategy #{}", i);
+				strategy.prewarm(executor, exifTool, arguments, handler);
+			}, parallelPrewarm, "Some strategies in the pool failed to prewarm");
+		}
+		catch (IOException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	/**
+	 * Check health of available strategies: strategies currently running a command are skipped
+	 * (a broken strategy is detected by its next execution).
+	 *
+	 * <br>
+	 *
+	 * Each strategy is removed from the pool while it is checked, so that no execution picks it.
+	 */
+	@Override
+	public boolean checkHealth(CommandExecutor executor, String exifTool) throws IOException {
+		boolean healthy = true;
+		for (ExecutionStrategy strategy : new ArrayList<>(pool)) {
+			if (!pool.removeFirstOccurrence(strategy)) {
+				// Picked by an execution in the meantime.
+				continue;
+			}
+
+			try {
+				if (!strategy.checkHealth(executor, exifTool)) {
+					log.warn("Strategy {} was not healthy and has been repaired", strategy);
+					healthy = false;
+				}
+			}
+			finally {
+				pool.offerLast(strategy);
+			}
+		}
+
+		return healthy;
+	}
+
 	@Override
 	public void shutdown() throws Exception {
+		Scheduler health = healthScheduler;
+		healthScheduler = null;
+		if (health != null) {
+			health.shutdown();
+		}
+
+		scheduler.shutdown();
 		processPool((strategy, i) -> {
 			log.debug("Closing strategy #{}", i);
 			strategy.shutdown();
 		});
 	}
 
+	/**
+	 * Set the maximum time to wait for an available strategy: if no strategy becomes
+	 * available in time, a {@link PoolTimeoutException} is thrown.
+	 *
+	 * @param acquireTimeout Acquisition timeout, {@code null} to wait indefinitely.
+	 * @return Current pool.
+	 */
+	public PoolStrategy withAcquireTimeout(SchedulerDuration acquireTimeout) {
+		this.acquireTimeout = acquireTimeout;
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of executions waiting for an available strategy: when it is
+	 * reached, new executions are rejected with a {@link PoolRejectedException}.
+	 *
+	 * @param maxWaiters Maximum number of waiting executions, unbounded if it is less than or equal to zero.
+	 * @return Current pool.
+	 */
+	public PoolStrategy withMaxWaiters(int maxWaiters) {
+		this.maxWaiters = maxWaiters;
+		return this;
+	}
+
+	/**
+	 * Set the policy used to pick an available strategy.
+	 *
+	 * @param dispatchPolicy Dispatch policy.
+	 * @return Current pool.
+	 * @throws NullPointerException If {@code dispatchPolicy} is {@code null}.
+	 */
+	public PoolStrategy withDispatchPolicy(DispatchPolicy dispatchPolicy) {
+		this.dispatchPolicy = requireNonNull(dispatchPolicy, "Dispatch policy must not be null");
+		return this;
+	}
+
+	/**
+	 * Set whether strategies should be prewarmed in parallel (see {@link #prewarm}), each
+	 * strategy being prewarmed in a dedicated thread, or one after the other.
+	 *
+	 * @param parallelPrewarm {@code true} to prewarm strategies in parallel.
+	 * @return Current pool.
+	 */
+	public PoolStrategy withParallelPrewarm(boolean parallelPrewarm) {
+		this.parallelPrewarm = parallelPrewarm;
+		return this;
+	}
+
+	/**
+	 * Check health of available strategies periodically (see {@link #checkHealth(CommandExecutor, String)}),
+	 * once the pool has been used: a broken strategy is repaired before an execution picks it.
+	 *
+	 * @param interval Delay between health checks, {@code null} to disable health check.
+	 * @return Current pool.
+	 */
+	public synchronized PoolStrategy withHealthCheck(SchedulerDuration interval) {
+		Scheduler previous = healthScheduler;
+		healthScheduler = interval == null ? null : new DefaultScheduler(interval);
+		healthCheckScheduled.set(false);
+		if (previous != null) {
+			previous.shutdown();
+		}
+
+		return this;
+	}
+
+	/**
+	 * Get the number of executions (threads or queued asynchronous executions) currently
+	 * waiting for an available strategy.
+	 *
+	 * @return Number of waiting executions.
+	 */
+	public int getWaiters() {
+		return waiters.get();
+	}
+
+	/**
+	 * Get the current pool size, i.e the number of strategies, available or not.
+	 *
+	 * @return Pool size.
+	 */
+	public int getSize() {
+		return size.get();
+	}
+
+	/**
+	 * Get the largest size reached by the pool since its creation.
+	 *
+	 * @return High-water mark of pool size.
+	 */
+	public int getHighWaterMark() {
+		return highWaterMark.get();
+	}
+
+	/**
+	 * Pick an available strategy, growing the pool if no strategy becomes available
+	 * within the grow delay.
+	 *
+	 * @param arguments Command arguments.
+	 * @return The strategy.
+	 * @throws InterruptedException If current thread has been interrupted while waiting.
+	 * @throws PoolRejectedException If the maximum number of waiting threads has been reached.
+	 * @throws PoolTimeoutException If no strategy became available within the acquisition timeout.
+	 */
+	private ExecutionStrategy acquire(List<String> arguments) throws InterruptedException, IOException {
+		// Fast path: do not count as a waiter if a strategy is immediately available.
+		ExecutionStrategy strategy = select(arguments);
+		if (strategy != null) {
+			return strategy;
+		}
+
+		int limit = maxWaiters;
+		if (waiters.incrementAndGet() > limit && limit > 0) {
+			waiters.decrementAndGet();
+			throw new PoolRejectedException("Pool is exhausted, maximum number of waiting threads (" + limit + ") has been reached");
+		}
+
+		try {
+			strategy = await();
+		}
+		finally {
+			waiters.decrementAndGet();
+		}
+
+		if (strategy == null) {
+			throw new PoolTimeoutException("No strategy became available within " + acquireTimeout);
+		}
+
+		return strategy;
+	}
+
+	/**
+	 * Pick an available strategy according to the dispatch policy, without waiting.
+	 *
+	 * @param arguments Command arguments.
+	 * @return The strategy, {@code null} if no strategy is available.
+	 */
+	private ExecutionStrategy select(List<String> arguments) {
+		switch (dispatchPolicy) {
+			case WARM_FIRST:
+				for (ExecutionStrategy strategy : pool) {
+					if (strategy.isRunning() && pool.removeFirstOccurrence(strategy)) {
+						return strategy;
+					}
+				}
+				break;
+
+			case EXTENSION_AFFINITY:
+				String extension = extension(arguments);
+				ExecutionStrategy strategy = extension == null ? null : affinities.get(extension);
+				if (strategy != null && pool.removeFirstOccurrence(strategy)) {
+					return strategy;
+				}
+				break;
+
+			default:
+				break;
+		}
+
+		// Available strategies are ordered according to the dispatch policy (see release).
+		return pool.pollFirst();
+	}
+
+	/**
+	 * Wait for an available strategy, growing the pool if no strategy becomes available
+	 * within the grow delay.
+	 *
+	 * @return The strategy, {@code null} if the acquisition timeout elapsed.
+	 * @throws InterruptedException If current thread has been interrupted while waiting.
+	 */
+	private ExecutionStrategy await() throws InterruptedException {
+		SchedulerDuration timeout = acquireTimeout;
+		long deadline = timeout == null ? 0 : System.nanoTime() + toNanos(timeout);
+
+		if (factory != null) {
+			long wait = toNanos(growDelay);
+			if (timeout != null) {
+				wait = Math.min(wait, deadline - System.nanoTime());
+			}
+
+			ExecutionStrategy strategy = pool.pollFirst(wait, TimeUnit.NANOSECONDS);
+			if (strategy != null) {
+				return strategy;
+			}
+
+			strategy = grow();
+			if (strategy != null) {
+				return strategy;
+			}
+		}
+
+		if (timeout == null) {
+			return pool.takeFirst();
+		}
+
+		return pool.pollFirst(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Give back the strategy to the pool.
+	 *
+	 * @param strategy The strategy.
+	 * @param arguments Arguments of the command executed by the strategy.
+	 */
+	private void release(ExecutionStrategy strategy, List<String> arguments) {
+		DispatchPolicy policy = dispatchPolicy;
+		if (policy == DispatchPolicy.EXTENSION_AFFINITY) {
+			String extension = extension(arguments);
+			if (extension != null) {
+				affinities.put(extension, strategy);
+			}
+		}
+
+		if (factory != null) {
+			lastUsed.put(strategy, System.nanoTime());
+		}
+
+		if (policy == DispatchPolicy.FIFO) {
+			pool.offerLast(strategy);
+		}
+		else {
+			pool.offerFirst(strategy);
+		}
+
+		dispatchPending();
+	}
+
+	/**
+	 * Dispatch queued asynchronous executions, in arrival order, as long as strategies
+	 * are available (growing the pool if needed).
+	 */
+	private void dispatchPending() {
+		while (true) {
+			PendingExecution execution;
+			ExecutionStrategy strategy;
+			synchronized (pending) {
+				execution = pending.peekFirst();
+				if (execution == null) {
+					return;
+				}
+
+				try {
+					strategy = select(execution.arguments);
+					if (strategy == null && factory != null) {
+						strategy = grow();
+					}
+				}
+				catch (RuntimeException ex) {
+					// Strategy factory failed: fail this execution, next ones may succeed.
+					pending.pollFirst();
+					waiters.decrementAndGet();
+					execution.fail(ex);
+					continue;
+				}
+
+				if (strategy == null) {
+					return;
+				}
+
+				pending.pollFirst();
+				waiters.decrementAndGet();
+			}
+
+			dispatch(strategy, execution);
+		}
+	}
+
+	/**
+	 * Run the execution with given strategy: strategy is released as soon as execution
+	 * is finished, without blocking any thread.
+	 *
+	 * @param strategy The strategy.
+	 * @param execution The execution.
+	 */
+	private void dispatch(ExecutionStrategy strategy, PendingExecution execution) {
+		execution.cancelTimeout();
+
+		CompletableFuture<Void> result;
+		try {
+			result = strategy.executeAsync(execution.executor, execution.exifTool, execution.arguments, execution.handler, execution.async);
+		}
+		catch (RuntimeException ex) {
+			result = new CompletableFuture<>();
+			result.completeExceptionally(ex);
+		}
+
+		result.whenComplete((ignored, ex) -> {
+			release(strategy, execution.arguments);
+			if (ex == null) {
+				execution.future.complete(null);
+			}
+			else {
+				execution.fail(ex);
+			}
+		});
+	}
+
+	/**
+	 * Fail the queued execution with a {@link PoolTimeoutException} if it is not dispatched
+	 * within the acquisition timeout.
+	 * Must be called while holding the {@link #pending} lock.
+	 *
+	 * @param execution The queued execution.
+	 */
+	private void scheduleTimeout(PendingExecution execution) {
+		SchedulerDuration timeout = acquireTimeout;
+		if (timeout == null) {
+			return;
+		}
+
+		execution.timeout = AcquireTimeouts.INSTANCE.schedule(() -> {
+			boolean removed;
+			synchronized (pending) {
+				removed = pending.remove(execution);
+				if (removed) {
+					waiters.decrementAndGet();
+				}
+			}
+
+			if (removed) {
+				execution.fail(new PoolTimeoutException("No strategy became available within " + timeout));
+			}
+		}, timeout.getDelay(), timeout.getTimeUnit());
+	}
+
+	/**
+	 * Get the (lower-cased) extension of the last file given in command arguments.
+	 *
+	 * @param arguments Command arguments.
+	 * @return The extension, {@code null} if there is no file or if file has no extension.
+	 */
+	private static String extension(List<String> arguments) {
+		for (int i = arguments.size() - 1; i >= 0; i--) {
+			String argument = arguments.get(i);
+			if (!argument.startsWith("-")) {
+				String name = new File(argument).getName();
+				int dot = name.lastIndexOf('.');
+				return dot > 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : null;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Create a new strategy, if the maximum pool size has not been reached.
+	 *
+	 * @return The new strategy, {@code null} if pool is full.
+	 */
+	private ExecutionStrategy grow() {
+		int current;
+		do {
+			current = size.get();
+			if (current >= maxSize) {
+				return null;
+			}
+		}
+		while (!size.compareAndSet(current, current + 1));
+
+		ExecutionStrategy strategy;
+		try {
+			strategy = requireNonNull(factory.get(), "Strategy factory must not return null");
+		}
+		catch (RuntimeException ex) {
+			size.decrementAndGet();
+			throw ex;
+		}
+
+		int newSize = current + 1;
+		highWaterMark.accumulateAndGet(newSize, Math::max);
+		lastUsed.put(strategy, System.nanoTime());
+		log.debug("Pool size increased to {}", newSize);
+
+		if (newSize > minSize) {
+			scheduleRetirement();
+		}
+
+		return strategy;
+	}
+
+	/**
+	 * Schedule the task removing idle strategies, if not already scheduled.
+	 */
+	private void scheduleRetirement() {
+		if (retirementScheduled.compareAndSet(false, true)) {
+			scheduler.start(this::retireIdleStrategies);
+		}
+	}
+
+	/**
+	 * Remove strategies that have been idle for at least the idle delay, as long as
+	 * the pool size is greater than its minimum size.
+	 */
+	private void retireIdleStrategies() {
+		retirementScheduled.set(false);
+
+		long now = System.nanoTime();
+		long maxIdle = toNanos(idleDelay);
+		List<ExecutionStrategy> retired = new ArrayList<>();
+
+		synchronized (this) {
+			// Least recently used strategies are at the end of the pool.
+			Iterator<ExecutionStrategy> it = pool.descendingIterator();
+			while (it.hasNext() && size.get() > minSize) {
+				ExecutionStrategy strategy = it.next();
+				Long last = lastUsed.get(strategy);
+				if (last != null && now - last >= maxIdle && pool.removeLastOccurrence(strategy)) {
+					size.decrementAndGet();
+					lastUsed.remove(strategy);
+					retired.add(strategy);
+				}
+			}
+		}
+
+		affinities.values().removeAll(retired);
+
+		for (ExecutionStrategy strategy : retired) {
+			try {
+				strategy.shutdown();
+			}
+			catch (Exception ex) {
+				log.warn("Failed to shutdown idle strategy");
+				log.warn(ex.getMessage(), ex);
+			}
+		}
+
+		if (!retired.isEmpty()) {
+			log.debug("Pool size decreased to {}", size.get());
+		}
+
+		if (size.get() > minSize) {
+			scheduleRetirement();
+		}
+	}
+
+	/**
+	 * Remember parameters of an execution, and schedule the health check task if it is not already scheduled.
+	 *
+	 * @param executor Executor.
+	 * @param exifTool ExifTool path.
+	 */
+	private void scheduleHealthCheck(CommandExecutor executor, String exifTool) {
+		lastExecutor = executor;
+		lastExifTool = exifTool;
+
+		Scheduler health = healthScheduler;
+		if (health != null && healthCheckScheduled.compareAndSet(false, true)) {
+			health.start(this::runHealthCheck);
+		}
+	}
+
+	private void runHealthCheck() {
+		healthCheckScheduled.set(false);
+
+		try {
+			checkHealth(lastExecutor, lastExifTool);
+		}
+		catch (Exception ex) {
+			log.warn("Pool health check failed");
+			log.warn(ex.getMessage(), ex);
+		}
+
+		scheduleHealthCheck(lastExecutor, lastExifTool);
+	}
+
+	private static long toNanos(SchedulerDuration duration) {
+		return duration.getTimeUnit().toNanos(duration.getDelay());
+	}
+
 	private void processPool(ExecutionStrategyFunction function) throws Exception {
-		List<ExecutionStrategy> strategies = new ArrayList<>(poolSize);
+		processPool(function, false, "Some strategies in the pool failed to close properly");
+	}
+
+	private synchronized void processPool(ExecutionStrategyFunction function, boolean parallel, String errorMessage) throws Exception {
+		List<ExecutionStrategy> strategies = new ArrayList<>(size.get());
 
 		// Get all strategies from the pool.
 		// We need to be sure that all strategies are available.
 		log.debug("Retrieve all pending strategies");
 		int added = 0;
-		while (added != poolSize) {
+		while (added < size.get()) {
 			try {
 				added += this.pool.drainTo(strategies);
-				if (added < poolSize) {
+				if (added < size.get()) {
 					ExecutionStrategy strategy = this.pool.take();
 					strategies.add(strategy);
 					added++;
@@ -148,30 +985,127 @@ public class PoolStrategy implements ExecutionStrategy {
 			}
 		}
 
-		List<Exception> thrownEx = new ArrayList<>(strategies.size());
-		int i = 0;
-		for (ExecutionStrategy strategy : strategies) {
-			try {
-				function.apply(strategy, i);
-			}
-			catch (Exception ex) {
-				log.error("Failed to process strategy #{}", i);
-				thrownEx.add(ex);
-			}
-			finally {
-				i++;
+		List<Exception> thrownEx = synchronizedList(new ArrayList<>(strategies.size()));
+		if (parallel) {
+			processInParallel(function, strategies, thrownEx);
+		}
+		else {
+			int i = 0;
+			for (ExecutionStrategy strategy : strategies) {
+				try {
+					apply(function, strategy, i, thrownEx);
+				}
+				finally {
+					i++;
 
-				// Strategy is now available.
-				this.pool.offer(strategy);
+					// Strategy is now available.
+					this.pool.offer(strategy);
+				}
 			}
 		}
 
 		if (thrownEx.size() > 0) {
-			throw new PoolIOException("Some strategies in the pool failed to close properly", thrownEx);
+			throw new PoolIOException(errorMessage, thrownEx);
+		}
+	}
+
+	private void processInParallel(ExecutionStrategyFunction function, List<ExecutionStrategy> strategies, List<Exception> thrownEx) {
+		List<Thread> threads = new ArrayList<>(strategies.size());
+		for (int i = 0; i < strategies.size(); i++) {
+			int index = i;
+			ExecutionStrategy strategy = strategies.get(i);
+			Thread thread = new Thread(() -> apply(function, strategy, index, thrownEx), "exiftool-pool-" + i);
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+
+		// Strategies must not be made available before the end of each thread.
+		boolean interrupted = false;
+		for (Thread thread : threads) {
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				}
+				catch (InterruptedException ex) {
+					log.warn(ex.getMessage());
+					interrupted = true;
+				}
+			}
+		}
+
+		for (ExecutionStrategy strategy : strategies) {
+			this.pool.offer(strategy);
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void apply(ExecutionStrategyFunction function, ExecutionStrategy strategy, int i, List<Exception> thrownEx) {
+		try {
+			function.apply(strategy, i);
+		}
+		catch (Exception ex) {
+			log.error("Failed to process strategy #{}", i);
+			thrownEx.add(ex);
 		}
 	}
 
 	private interface ExecutionStrategyFunction {
 		void apply(ExecutionStrategy strategy, int i) throws Exception;
 	}
+
+	/**
+	 * Asynchronous execution waiting for an available strategy.
+	 */
+	private static final class PendingExecution {
+		private final CommandExecutor executor;
+		private final String exifTool;
+		private final List<String> arguments;
+		private final OutputHandler handler;
+		private final Executor async;
+		private final CompletableFuture<Void> future;
+		private volatile ScheduledFuture<?> timeout;
+
+		private PendingExecution(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler, Executor async) {
+			this.executor = executor;
+			this.exifTool = exifTool;
+			this.arguments = arguments;
+			this.handler = handler;
+			this.async = async;
+			this.future = new CompletableFuture<>();
+		}
+
+		private void cancelTimeout() {
+			ScheduledFuture<?> current = timeout;
+			if (current != null) {
+				current.cancel(false);
+			}
+		}
+
+		private void fail(Throwable ex) {
+			future.completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * Lazy holder of the timer failing queued asynchronous executions: a single daemon
+	 * thread, shared by all pools, that only runs when an acquisition timeout elapses.
+	 */
+	private static final class AcquireTimeouts {
+		private static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+		private static ScheduledThreadPoolExecutor create() {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "exiftool-pool-timeout");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			executor.setRemoveOnCancelPolicy(true);
+			return executor;
+		}
+	}
 }
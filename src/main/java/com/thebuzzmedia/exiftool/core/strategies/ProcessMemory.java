@@ -0,0 +1,103 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Read the resident memory of a process, from {@code /proc/<pid>/status}.
+ *
+ * <br>
+ *
+ * This is only supported on Linux: on other platforms, resident memory is unknown.
+ */
+final class ProcessMemory {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(ProcessMemory.class);
+
+	/**
+	 * Prefix of the resident memory line, in {@code /proc/<pid>/status}.
+	 */
+	private static final String VM_RSS = "VmRSS:";
+
+	// Ensure non instantiation.
+	private ProcessMemory() {
+	}
+
+	/**
+	 * Get the resident memory of a process.
+	 *
+	 * @param pid Process identifier.
+	 * @return Resident memory (in bytes), {@code -1} if it is unknown.
+	 */
+	static long residentMemory(long pid) {
+		if (pid <= 0) {
+			return -1;
+		}
+
+		Path status = Paths.get("/proc", Long.toString(pid), "status");
+		if (!Files.isReadable(status)) {
+			return -1;
+		}
+
+		try {
+			return parseResidentMemory(Files.readAllLines(status, ISO_8859_1));
+		}
+		catch (IOException ex) {
+			// The process may have exited in the meantime.
+			log.debug("Cannot read resident memory of process {}: {}", pid, ex.getMessage());
+			return -1;
+		}
+	}
+
+	/**
+	 * Parse the resident memory from the lines of {@code /proc/<pid>/status} (for example {@code VmRSS:  12345 kB}).
+	 *
+	 * @param lines Lines of the status file.
+	 * @return Resident memory (in bytes), {@code -1} if it is not found.
+	 */
+	static long parseResidentMemory(List<String> lines) {
+		for (String line : lines) {
+			if (!line.startsWith(VM_RSS)) {
+				continue;
+			}
+
+			String[] parts = line.substring(VM_RSS.length()).trim().split("\\s+");
+			try {
+				long value = Long.parseLong(parts[0]);
+				return parts.length > 1 && parts[1].equalsIgnoreCase("kB") ? value * 1024 : value;
+			}
+			catch (NumberFormatException ex) {
+				return -1;
+			}
+		}
+
+		return -1;
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import com.thebuzzmedia.exiftool.commons.lang.ToStringBuilder;
+import com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.isPositive;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Policy used to recycle long-lived {@code exiftool} processes: a process may grow in memory
+ * over time, so it can be replaced once it has executed a given number of commands, once it
+ * has been running for a given time, or once its resident memory exceeds a given size.
+ *
+ * <br>
+ *
+ * This class is immutable: each {@code with*} method returns a new policy.
+ */
+public final class RecyclePolicy {
+
+	/**
+	 * Policy that never recycles processes.
+	 */
+	private static final RecyclePolicy NEVER = new RecyclePolicy(0, null, 0);
+
+	/**
+	 * Create a policy that never recycles processes, to be configured
+	 * with {@code with*} methods.
+	 *
+	 * @return The policy.
+	 */
+	public static RecyclePolicy recyclePolicy() {
+		return NEVER;
+	}
+
+	/**
+	 * Maximum number of commands executed by a process, zero if not limited.
+	 */
+	private final int maxRequests;
+
+	/**
+	 * Maximum lifetime of a process, {@code null} if not limited.
+	 */
+	private final SchedulerDuration maxLifetime;
+
+	/**
+	 * Maximum resident memory of a process (in bytes), zero if not limited.
+	 */
+	private final long maxResidentMemory;
+
+	private RecyclePolicy(int maxRequests, SchedulerDuration maxLifetime, long maxResidentMemory) {
+		this.maxRequests = maxRequests;
+		this.maxLifetime = maxLifetime;
+		this.maxResidentMemory = maxResidentMemory;
+	}
+
+	/**
+	 * Recycle processes once they have executed given number of commands.
+	 *
+	 * @param maxRequests Maximum number of commands, must be strictly positive.
+	 * @return The new policy.
+	 */
+	public RecyclePolicy withMaxRequests(int maxRequests) {
+		return new RecyclePolicy(isPositive(maxRequests, "Maximum number of requests should be a strictly positive value"), maxLifetime, maxResidentMemory);
+	}
+
+	/**
+	 * Recycle processes once they have been running for given time.
+	 *
+	 * @param maxLifetime Maximum lifetime.
+	 * @return The new policy.
+	 */
+	public RecyclePolicy withMaxLifetime(SchedulerDuration maxLifetime) {
+		return new RecyclePolicy(maxRequests, requireNonNull(maxLifetime, "Maximum lifetime should not be null"), maxResidentMemory);
+	}
+
+	/**
+	 * Recycle processes once their resident memory exceeds given size.
+	 *
+	 * <br>
+	 *
+	 * Resident memory is read from {@code /proc/<pid>/status}: this is only supported on Linux,
+	 * with Java 9 or later (to get the pid of the process), and ignored otherwise. It is read at
+	 * most once per second, so a process may exceed the limit for a few more commands.
+	 *
+	 * @param maxResidentMemory Maximum resident memory, in bytes, must be strictly positive.
+	 * @return The new policy.
+	 */
+	public RecyclePolicy withMaxResidentMemory(long maxResidentMemory) {
+		return new RecyclePolicy(maxRequests, maxLifetime, isPositive(maxResidentMemory, "Maximum resident memory should be a strictly positive value"));
+	}
+
+	/**
+	 * Get the maximum number of commands executed by a process.
+	 *
+	 * @return Maximum number of commands, zero if not limited.
+	 */
+	public int getMaxRequests() {
+		return maxRequests;
+	}
+
+	/**
+	 * Get the maximum lifetime of a process.
+	 *
+	 * @return Maximum lifetime, {@code null} if not limited.
+	 */
+	public SchedulerDuration getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	/**
+	 * Get the maximum resident memory of a process.
+	 *
+	 * @return Maximum resident memory (in bytes), zero if not limited.
+	 */
+	public long getMaxResidentMemory() {
+		return maxResidentMemory;
+	}
+
+	/**
+	 * Check if processes may be recycled with this policy.
+	 *
+	 * @return {@code true} if at least one limit has been set, {@code false} otherwise.
+	 */
+	public boolean isEnabled() {
+		return maxRequests > 0 || maxLifetime != null || maxResidentMemory > 0;
+	}
+
+	/**
+	 * Check if a process should be recycled.
+	 *
+	 * @param requests Number of commands executed by the process.
+	 * @param lifetime Time since the process has been started, in nanoseconds.
+	 * @param residentMemory Resident memory of the process (in bytes, negative if unknown): only read if a limit has been set.
+	 * @return {@code true} if the process should be recycled, {@code false} otherwise.
+	 */
+	boolean shouldRecycle(int requests, long lifetime, LongSupplier residentMemory) {
+		if (maxRequests > 0 && requests >= maxRequests) {
+			return true;
+		}
+
+		if (maxLifetime != null && lifetime >= maxLifetime.getTimeUnit().toNanos(maxLifetime.getDelay())) {
+			return true;
+		}
+
+		return maxResidentMemory > 0 && residentMemory.getAsLong() >= maxResidentMemory;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(getClass())
+				.append("maxRequests", maxRequests)
+				.append("maxLifetime", maxLifetime)
+				.append("maxResidentMemory", maxResidentMemory)
+				.build();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof RecyclePolicy) {
+			RecyclePolicy p = (RecyclePolicy) o;
+			return maxRequests == p.maxRequests && Objects.equals(maxLifetime, p.maxLifetime) && maxResidentMemory == p.maxResidentMemory;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(maxRequests, maxLifetime, maxResidentMemory);
+	}
+}
@@ -21,19 +21,53 @@ import com.thebuzzmedia.exiftool.Constants;
 import com.thebuzzmedia.exiftool.ExecutionStrategy;
 import com.thebuzzmedia.exiftool.Scheduler;
 import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration;
+import com.thebuzzmedia.exiftool.exceptions.CommandTimeoutException;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.CommandProcess;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 import com.thebuzzmedia.exiftool.process.command.CommandBuilder;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+import static com.thebuzzmedia.exiftool.core.handlers.StopHandler.stopHandler;
+import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.seconds;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 
 /**
  * Execution strategy that use {@code exiftool} with the {@code stay_open} feature.
+ *
+ * <h3>Command timeout</h3>
+ *
+ * A command timeout can be set (see {@link #withCommandTimeout(SchedulerDuration)}): if the output of a
+ * command has not been read in time (for instance, if {@code exiftool} is stuck on a corrupted file), the
+ * process is killed and the command fails with a {@link CommandTimeoutException}. A new process is started
+ * by the next execution.
+ *
+ * <h3>Health check</h3>
+ *
+ * A process that is not running anymore (for instance, if it has been killed by the operating system) is
+ * replaced by the next execution. {@link #checkHealth(CommandExecutor, String)} may be used to detect (and
+ * replace) dead or unresponsive processes before an execution needs them.
+ *
+ * <h3>Recycling</h3>
+ *
+ * Long-lived processes may grow in memory: a {@link RecyclePolicy} can be set (see {@link #withRecyclePolicy(RecyclePolicy)})
+ * to replace a process once it has executed a given number of commands, once it has been running for a given time,
+ * or once its resident memory exceeds a given size. The policy is checked once a command has completed: the new
+ * process is started before the old one is stopped, so it is loading while the caller processes the output.
+ *
+ * <h3>Errors</h3>
+ *
+ * Errors printed by {@code exiftool} are read separately from the command output: each command prints a
+ * marker on the error output once it is over ({@code -echo4 {err<N>}}), so that errors are given to the
+ * handler of the command that printed them. The {@code -echo4} option requires {@code exiftool} 9.15 or later.
  */
 public class StayOpenStrategy implements ExecutionStrategy {
 
@@ -43,9 +77,44 @@ public class StayOpenStrategy implements ExecutionStrategy {
 	private static final Logger log = LoggerFactory.getLogger(StayOpenStrategy.class);
 
 	/**
-	 * Minimum version of {@code exiftool} supporting {@code stay_open} feature.
+	 * Minimum version of {@code exiftool} supporting {@code stay_open} feature (available since 8.36)
+	 * and the {@code -echo4} option used to mark the end of errors of each command (available since 9.15).
+	 */
+	private static final Version V9_15 = new Version("9.15");
+
+	/**
+	 * Maximum number of commands written by {@link #executeAll} before their output is read:
+	 * output of these commands must fit in the buffer of the process output, otherwise
+	 * {@code exiftool} would stop reading its input.
+	 */
+	private static final int BATCH_WINDOW = 64;
+
+	/**
+	 * Command used to check that the process answers: print {@code exiftool} version.
+	 */
+	private static final List<String> PING = unmodifiableList(asList("-ver", "-execute"));
+
+	/**
+	 * Maximum time to wait for the answer of {@link #PING}, if no command timeout has been set.
+	 */
+	private static final SchedulerDuration PING_TIMEOUT = seconds(10);
+
+	/**
+	 * Option used to print a marker on the error output once a command is over: errors
+	 * printed before this marker belong to this command.
+	 */
+	static final String ECHO_ERRORS = "-echo4";
+
+	/**
+	 * Minimum delay between two reads of the resident memory of the process (see {@link RecyclePolicy#withMaxResidentMemory(long)}):
+	 * it is read from a file, which is too costly to do after each command.
+	 */
+	private static final long MEMORY_SAMPLE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * Prefix of the marker printed on the error output once a command is over.
 	 */
-	private static final Version V8_36 = new Version("8.36");
+	private static final String ERRORS_MARKER_PREFIX = "{err";
 
 	/**
 	 * Scheduler: will be used to perform automatic cleanup.
@@ -60,6 +129,36 @@ public class StayOpenStrategy implements ExecutionStrategy {
 	 */
 	private CommandProcess process;
 
+	/**
+	 * Maximum time to wait for the output of a command, {@code null} to wait indefinitely.
+	 */
+	private volatile SchedulerDuration commandTimeout;
+
+	/**
+	 * Policy used to recycle the process, {@code null} to never recycle it.
+	 */
+	private volatile RecyclePolicy recyclePolicy;
+
+	/**
+	 * Number of commands executed by the current process.
+	 */
+	private int requests;
+
+	/**
+	 * Time when the current process has been started, as returned by {@link System#nanoTime()}.
+	 */
+	private long startedAt;
+
+	/**
+	 * Time when the resident memory of the current process has last been read, as returned by {@link System#nanoTime()}.
+	 */
+	private long memorySampledAt;
+
+	/**
+	 * Identifier of the last command written to the process, used to build its error marker.
+	 */
+	private long lastId;
+
 	/**
 	 * Create strategy.
 	 * Scheduler provided in parameter will be used to clean resources (exiftool process).
@@ -73,39 +172,341 @@ public class StayOpenStrategy implements ExecutionStrategy {
 	@Override
 	public void execute(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
 		log.debug("Using ExifTool in daemon mode (-stay_open True)...");
-		List<String> newArgs = arguments.stream().map(input -> input + Constants.BR).collect(Collectors.toList());
+
+		// Prepared arguments are already encoded.
+		EncodedArguments encodedArgs = arguments instanceof EncodedArguments ? (EncodedArguments) arguments : null;
 
 		synchronized (this) {
-			// Start daemon process if it is not already started.
-			// If this is our first time calling getImageMeta with a "stayOpen"
-			// connection, set up the persistent process and run it so it is
-			// ready to receive commands from us.
-			if (process == null || process.isClosed()) {
-				log.debug("Start exiftool process");
-				process = executor.start(CommandBuilder.builder(exifTool, 6)
-						.addArgument("-stay_open", "True")
-						.addArgument("-sep", Constants.SEPARATOR)
-						.addArgument("-@")
-						.addArgument("-")
-						.build());
+			start(executor, exifTool);
+
+			try {
+				long id = ++lastId;
+				process.writeLines(errorsMarkerArguments(id));
+				if (encodedArgs != null) {
+					process.write(encodedArgs);
+				}
+				else {
+					process.writeLines(arguments);
+				}
+
+				process.flush();
+				stream(handler, errorsMarker(id));
+			}
+			catch (IOException ex) {
+				log.error(ex.getMessage(), ex);
+				throw ex;
 			}
 
-			// Always reset the cleanup task.
-			scheduler.stop();
-			scheduler.start(this::safeClose);
+			requests++;
+			recycle(executor, exifTool);
+		}
+	}
+
+	@Override
+	public void executeAll(CommandExecutor executor, String exifTool, List<? extends List<String>> commands, List<? extends OutputHandler> handlers) throws IOException {
+		if (commands.size() != handlers.size()) {
+			throw new IllegalArgumentException("Each command must have its own handler");
+		}
+
+		log.debug("Using ExifTool in daemon mode (-stay_open True) to execute {} commands...", commands.size());
+
+		synchronized (this) {
+			start(executor, exifTool);
 
 			try {
-				process.write(newArgs);
-				process.flush();
-				process.read(handler);
+				// Write commands by windows, then read their output: a single round trip
+				// is needed per window, instead of one per command.
+				for (int start = 0; start < commands.size(); start += BATCH_WINDOW) {
+					int end = Math.min(start + BATCH_WINDOW, commands.size());
+					long firstId = lastId + 1;
+					for (int i = start; i < end; i++) {
+						process.writeLines(errorsMarkerArguments(++lastId));
+						process.writeLines(commands.get(i));
+					}
+
+					process.flush();
+
+					for (int i = start; i < end; i++) {
+						stream(handlers.get(i), errorsMarker(firstId + i - start));
+					}
+				}
 			}
 			catch (IOException ex) {
 				log.error(ex.getMessage(), ex);
 				throw ex;
 			}
+
+			requests += commands.size();
+			recycle(executor, exifTool);
 		}
 	}
 
+	/**
+	 * Set the maximum time to wait for the output of a command: if the output has not been read
+	 * in time, the process is killed and a {@link CommandTimeoutException} is thrown.
+	 *
+	 * <br>
+	 *
+	 * With {@link #executeAll}, the timeout applies to each command, and remaining commands
+	 * of the batch fail with the same exception.
+	 *
+	 * @param commandTimeout Command timeout, {@code null} to wait indefinitely.
+	 * @return Current strategy.
+	 */
+	public StayOpenStrategy withCommandTimeout(SchedulerDuration commandTimeout) {
+		this.commandTimeout = commandTimeout;
+		return this;
+	}
+
+	/**
+	 * Set the policy used to recycle the process.
+	 *
+	 * @param recyclePolicy Recycle policy, {@code null} to never recycle the process.
+	 * @return Current strategy.
+	 */
+	public StayOpenStrategy withRecyclePolicy(RecyclePolicy recyclePolicy) {
+		this.recyclePolicy = recyclePolicy == null || !recyclePolicy.isEnabled() ? null : recyclePolicy;
+		return this;
+	}
+
+	/**
+	 * Replace the process if the recycle policy says so: the new process is started first, so
+	 * if it cannot be started, the current process is kept.
+	 *
+	 * @param executor Executor used to start the new process.
+	 * @param exifTool ExifTool path.
+	 */
+	private synchronized void recycle(CommandExecutor executor, String exifTool) {
+		RecyclePolicy policy = recyclePolicy;
+		if (policy == null || process == null || process.isClosed()) {
+			return;
+		}
+
+		CommandProcess current = process;
+		long now = System.nanoTime();
+		if (!policy.shouldRecycle(requests, now - startedAt, () -> sampleResidentMemory(current, now))) {
+			return;
+		}
+
+		log.debug("Recycle ExifTool process (pid {}) after {} commands", current.getPid(), requests);
+
+		try {
+			startProcess(executor, exifTool);
+		}
+		catch (IOException ex) {
+			log.warn("ExifTool process cannot be recycled, keep current process: {}", ex.getMessage());
+			return;
+		}
+
+		try {
+			stopProcess(current);
+		}
+		catch (Exception ex) {
+			// Already logged, the new process is running anyway.
+		}
+	}
+
+	/**
+	 * Arguments printing the error marker of given command on the error output, once the command is over.
+	 *
+	 * @param id Command identifier.
+	 * @return Arguments to write before the command.
+	 */
+	static List<String> errorsMarkerArguments(long id) {
+		return asList(ECHO_ERRORS, errorsMarker(id));
+	}
+
+	/**
+	 * Marker printed on the error output once given command is over.
+	 *
+	 * @param id Command identifier.
+	 * @return The marker.
+	 */
+	static String errorsMarker(long id) {
+		return ERRORS_MARKER_PREFIX + id + "}";
+	}
+
+	/**
+	 * Read output of the next command written to the process, then its errors.
+	 *
+	 * @param handler Output handler.
+	 * @param marker Error marker of the command.
+	 * @throws IOException If an error occurs, or if the command timed out.
+	 */
+	private synchronized void stream(OutputHandler handler, String marker) throws IOException {
+		stream(handler, marker, commandTimeout);
+	}
+
+	/**
+	 * Read output of the next command written to the process, then its errors.
+	 *
+	 * @param handler Output handler.
+	 * @param marker Error marker of the command.
+	 * @param timeout Command timeout, {@code null} to wait indefinitely.
+	 * @throws IOException If an error occurs, or if the command timed out.
+	 */
+	private synchronized void stream(OutputHandler handler, String marker, SchedulerDuration timeout) throws IOException {
+		if (timeout == null) {
+			process.stream(handler);
+			process.readErrors(handler, marker);
+			return;
+		}
+
+		CommandWatchdog watchdog = CommandWatchdog.start(process, timeout);
+		try {
+			process.stream(handler);
+		}
+		catch (IOException | RuntimeException ex) {
+			// Reading the output of a killed process may fail.
+			if (watchdog.stop()) {
+				throw ex;
+			}
+		}
+
+		if (!watchdog.stop()) {
+			discardProcess();
+			throw new CommandTimeoutException("ExifTool command did not complete within " + timeout.getDelay() + " " + timeout.getTimeUnit() + ", process has been killed");
+		}
+
+		process.readErrors(handler, marker);
+	}
+
+	/**
+	 * Check the process, if it has been started: a process that is not running anymore, or that
+	 * does not answer to a {@code -ver} command in time (the command timeout, or 10 seconds if no
+	 * timeout has been set), is discarded and a new process is started.
+	 *
+	 * <br>
+	 *
+	 * The automatic cleanup task is not reset: checking an idle process does not prevent its cleanup.
+	 */
+	@Override
+	public synchronized boolean checkHealth(CommandExecutor executor, String exifTool) throws IOException {
+		if (process == null || process.isClosed()) {
+			// Nothing to check: a process will be started by the next execution.
+			return true;
+		}
+
+		CommandProcess current = process;
+		if (current.isRunning() && ping()) {
+			return true;
+		}
+
+		log.warn("ExifTool process (pid {}) is not healthy, restart it: {}", current.getPid(), current.getExitStatus());
+		discardProcess();
+		start(executor, exifTool);
+		return false;
+	}
+
+	private synchronized boolean ping() {
+		PingHandler handler = new PingHandler();
+		try {
+			long id = ++lastId;
+			process.writeLines(errorsMarkerArguments(id));
+			process.writeLines(PING);
+			process.flush();
+			stream(handler, errorsMarker(id), commandTimeout == null ? PING_TIMEOUT : commandTimeout);
+		}
+		catch (IOException ex) {
+			log.warn("ExifTool process did not answer health probe: {}", ex.getMessage());
+			return false;
+		}
+
+		return handler.answered();
+	}
+
+	/**
+	 * Close a killed process, without sending the {@code stay_open} command:
+	 * a new process will be started by the next execution.
+	 * Nothing is done if the process has already been discarded (i.e. after a command timeout).
+	 */
+	private synchronized void discardProcess() {
+		if (process == null) {
+			return;
+		}
+
+		try {
+			process.close();
+		}
+		catch (Exception ex) {
+			log.warn(ex.getMessage(), ex);
+		}
+		finally {
+			process = null;
+		}
+	}
+
+	@Override
+	public void prewarm(CommandExecutor executor, String exifTool, List<String> arguments, OutputHandler handler) throws IOException {
+		log.debug("Prewarm exiftool daemon");
+		execute(executor, exifTool, arguments, handler);
+	}
+
+	/**
+	 * Start daemon process if it is not already started, and reset the cleanup task.
+	 *
+	 * @param executor Executor used to start the daemon.
+	 * @param exifTool ExifTool path.
+	 * @throws IOException If the process cannot be started.
+	 */
+	private synchronized void start(CommandExecutor executor, String exifTool) throws IOException {
+		// Start daemon process if it is not already started.
+		// If this is our first time calling getImageMeta with a "stayOpen"
+		// connection, set up the persistent process and run it so it is
+		// ready to receive commands from us.
+		boolean closed = process == null || process.isClosed();
+		if (!closed && !process.isRunning()) {
+			log.warn("ExifTool process (pid {}) is not running anymore, restart it: {}", process.getPid(), process.getExitStatus());
+			discardProcess();
+			closed = true;
+		}
+
+		if (closed) {
+			startProcess(executor, exifTool);
+		}
+
+		// Always reset the cleanup task.
+		scheduler.stop();
+		scheduler.start(this::safeClose);
+	}
+
+	/**
+	 * Start a new daemon process, replacing the current one (that must be closed by the caller).
+	 *
+	 * @param executor Executor used to start the daemon.
+	 * @param exifTool ExifTool path.
+	 * @throws IOException If the process cannot be started.
+	 */
+	private synchronized void startProcess(CommandExecutor executor, String exifTool) throws IOException {
+		log.debug("Start exiftool process");
+		process = executor.start(CommandBuilder.builder(exifTool, 6)
+				.addArgument("-stay_open", "True")
+				.addArgument("-sep", Constants.SEPARATOR)
+				.addArgument("-@")
+				.addArgument("-")
+				.build());
+
+		requests = 0;
+		startedAt = System.nanoTime();
+		memorySampledAt = startedAt;
+	}
+
+	/**
+	 * Read resident memory of given process, unless it has been read less than {@link #MEMORY_SAMPLE_INTERVAL} ago.
+	 *
+	 * @param current The process.
+	 * @param now Current time, as returned by {@link System#nanoTime()}.
+	 * @return Resident memory (in bytes), negative if unknown or if it has been read recently.
+	 */
+	private long sampleResidentMemory(CommandProcess current, long now) {
+		if (now - memorySampledAt < MEMORY_SAMPLE_INTERVAL) {
+			return -1;
+		}
+
+		memorySampledAt = now;
+		return ProcessMemory.residentMemory(current.getPid());
+	}
+
 	@Override
 	public synchronized boolean isRunning() {
 		return process != null && process.isRunning();
@@ -113,7 +514,7 @@ public class StayOpenStrategy implements ExecutionStrategy {
 
 	@Override
 	public boolean isSupported(Version version) {
-		return V8_36.compareTo(version) <= 0;
+		return V9_15.compareTo(version) <= 0;
 	}
 
 	@Override
@@ -180,6 +581,22 @@ public class StayOpenStrategy implements ExecutionStrategy {
 	 * @throws Exception If an error occurs during the close operation.
 	 */
 	private synchronized void closeProcess() throws Exception {
+		try {
+			stopProcess(process);
+		}
+		finally {
+			// Dot not forget to set it to null.
+			process = null;
+		}
+	}
+
+	/**
+	 * Stop given ExifTool process, issuing the {@code stay_open} command.
+	 *
+	 * @param process The process.
+	 * @throws Exception If an error occurs during the close operation.
+	 */
+	private static void stopProcess(CommandProcess process) throws Exception {
 		try {
 			// If ExifTool was used in stayOpen mode but getImageMeta was never
 			// called then the streams were never initialized and there is nothing
@@ -199,10 +616,6 @@ public class StayOpenStrategy implements ExecutionStrategy {
 			// Re-throw the error, this will let the caller do what he wants with the exception.
 			throw ex;
 		}
-		finally {
-			// Dot not forget to set it to null.
-			process = null;
-		}
 	}
 
 	/**
@@ -219,4 +632,28 @@ public class StayOpenStrategy implements ExecutionStrategy {
 			log.error(ex.getMessage(), ex);
 		}
 	}
+
+	/**
+	 * Handler reading the answer of {@link #PING}.
+	 */
+	private static final class PingHandler implements OutputHandler {
+		private boolean version;
+		private boolean ready;
+
+		@Override
+		public boolean readLine(String line) {
+			if (!stopHandler().readLine(line)) {
+				// End of command output, or end of process output.
+				ready = line != null;
+				return false;
+			}
+
+			version = version || !line.trim().isEmpty();
+			return true;
+		}
+
+		private boolean answered() {
+			return version && ready;
+		}
+	}
 }
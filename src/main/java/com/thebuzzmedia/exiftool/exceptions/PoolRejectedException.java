@@ -0,0 +1,36 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Error thrown when a pool rejects an execution because the maximum
+ * number of threads waiting for an available strategy has been reached.
+ */
+public class PoolRejectedException extends IOException {
+
+	/**
+	 * Create exception.
+	 *
+	 * @param message Error message.
+	 */
+	public PoolRejectedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.exceptions;
+
+import com.thebuzzmedia.exiftool.core.WriteResult;
+
+import java.io.File;
+
+/**
+ * Exception thrown when the write operation of a file fails and
+ * a batch write operation must stop.
+ */
+public class WriteFailedException extends AbstractExifException {
+
+	/**
+	 * File that has not been written.
+	 */
+	private final File file;
+
+	/**
+	 * Result of the write operation.
+	 */
+	private final WriteResult result;
+
+	/**
+	 * Create exception.
+	 *
+	 * @param file File that has not been written.
+	 * @param result Result of the write operation.
+	 */
+	public WriteFailedException(File file, WriteResult result) {
+		super(String.format("Unable to write file [%s]: %s", file, result));
+		this.file = file;
+		this.result = result;
+	}
+
+	/**
+	 * Get {@link #file}
+	 *
+	 * @return {@link #file}
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Get {@link #result}
+	 *
+	 * @return {@link #result}
+	 */
+	public WriteResult getResult() {
+		return result;
+	}
+}
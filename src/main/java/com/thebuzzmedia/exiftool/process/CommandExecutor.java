@@ -46,6 +46,28 @@ public interface CommandExecutor {
 	 */
 	CommandResult execute(Command command, OutputHandler handler) throws IOException;
 
+	/**
+	 * Execute command and give each line of its output to {@code handler} only: unlike
+	 * {@link #execute(Command, OutputHandler)}, the full output is not kept in memory, and
+	 * {@link CommandResult#getOutput()} of the returned result is {@code null}.
+	 *
+	 * <br>
+	 *
+	 * **NOTE:** Execution is synchronous.
+	 *
+	 * <br>
+	 *
+	 * Default implementation delegates to {@link #execute(Command, OutputHandler)}.
+	 *
+	 * @param command Command.
+	 * @param handler Custom output handler.
+	 * @return Result of execution.
+	 * @throws java.io.IOException If an error occurred during operation.
+	 */
+	default CommandResult stream(Command command, OutputHandler handler) throws IOException {
+		return execute(command, handler);
+	}
+
 	/**
 	 * Start command line and return associated process.
 	 * This process will be used to:
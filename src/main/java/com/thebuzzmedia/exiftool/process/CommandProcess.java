@@ -17,7 +17,11 @@
 
 package com.thebuzzmedia.exiftool.process;
 
+import com.thebuzzmedia.exiftool.Constants;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
+
 import java.io.IOException;
+import java.util.OptionalInt;
 
 /**
  * Process interface.
@@ -62,6 +66,42 @@ public interface CommandProcess extends AutoCloseable {
 	 */
 	String read(OutputHandler handler) throws IOException;
 
+	/**
+	 * Read output until handler returns {@code false}: each line is only given to {@code handler}, and
+	 * the full output is not kept in memory (unlike {@link #read(OutputHandler)}).
+	 *
+	 * <br>
+	 *
+	 * Default implementation delegates to {@link #read(OutputHandler)}.
+	 *
+	 * @param handler Output handler.
+	 * @throws java.io.IOException If an error occurred during operation.
+	 */
+	default void stream(OutputHandler handler) throws IOException {
+		read(handler);
+	}
+
+	/**
+	 * Give lines printed by the process on its error output before given marker line to
+	 * {@link OutputHandler#readErrorLine(String)} of given handler.
+	 *
+	 * <br>
+	 *
+	 * This method should be called once the output of a command has been read, with the marker
+	 * printed by this command on the error output once it is over (for example with {@code -echo4}):
+	 * errors of this command are then given to its handler, and errors of next commands are kept for
+	 * the next call. The marker line is not given to the handler.
+	 *
+	 * <br>
+	 *
+	 * Default implementation does nothing (error output is not read).
+	 *
+	 * @param handler Output handler.
+	 * @param marker Marker line.
+	 */
+	default void readErrors(OutputHandler handler, String marker) {
+	}
+
 	/**
 	 * Write input string to the current process.
 	 *
@@ -79,6 +119,40 @@ public interface CommandProcess extends AutoCloseable {
 	 */
 	void write(Iterable<String> inputs) throws IOException;
 
+	/**
+	 * Write lines to the current process, each line followed by a line separator.
+	 *
+	 * <br>
+	 *
+	 * Default implementation writes each line separately, implementations should
+	 * encode and write all lines at once.
+	 *
+	 * @param lines Lines.
+	 * @throws java.io.IOException If an error occurred during operation.
+	 */
+	default void writeLines(Iterable<String> lines) throws IOException {
+		for (String line : lines) {
+			write(line + Constants.BR);
+		}
+	}
+
+	/**
+	 * Write arguments to the current process, each argument followed by a line separator.
+	 *
+	 * <br>
+	 *
+	 * Default implementation writes each argument as a string, implementations should write
+	 * encoded form of arguments (see {@link EncodedArguments#writeTo(java.io.OutputStream, java.nio.charset.Charset)}).
+	 *
+	 * @param arguments Arguments.
+	 * @throws java.io.IOException If an error occurred during operation.
+	 */
+	default void write(EncodedArguments arguments) throws IOException {
+		for (String argument : arguments) {
+			write(argument + Constants.BR);
+		}
+	}
+
 	/**
 	 * Flush pending write operations.
 	 *
@@ -86,6 +160,25 @@ public interface CommandProcess extends AutoCloseable {
 	 */
 	void flush() throws IOException;
 
+	/**
+	 * Forcibly terminate the current process: pending read operations fail or reach
+	 * the end of the output, and the process cannot be used anymore (it should be closed).
+	 *
+	 * <br>
+	 *
+	 * This method may be called from another thread than the one reading the process output,
+	 * to recover from a process that does not respond anymore.
+	 *
+	 * <br>
+	 *
+	 * Default implementation closes the process.
+	 *
+	 * @throws Exception If an error occurred during operation.
+	 */
+	default void destroy() throws Exception {
+		close();
+	}
+
 	/**
 	 * Check if current process is still opened.
 	 * If this method returns {@code true}, then {@link #isClosed()} should return {@code false}.
@@ -94,6 +187,33 @@ public interface CommandProcess extends AutoCloseable {
 	 */
 	boolean isRunning();
 
+	/**
+	 * Get the native process identifier of the current process.
+	 *
+	 * <br>
+	 *
+	 * Default implementation returns {@code -1}.
+	 *
+	 * @return Process identifier, {@code -1} if it is unknown.
+	 */
+	default long getPid() {
+		return -1;
+	}
+
+	/**
+	 * Get the exit status of the current process, once it has terminated (for instance, if
+	 * it has been killed by the operating system).
+	 *
+	 * <br>
+	 *
+	 * Default implementation returns an empty status.
+	 *
+	 * @return Exit status, empty if process is still running or if status is unknown.
+	 */
+	default OptionalInt getExitStatus() {
+		return OptionalInt.empty();
+	}
+
 	/**
 	 * Check if current process has been closed.
 	 * If this method returns {@code true}, then {@link #isRunning()} should return {@code false}.
@@ -46,4 +46,17 @@ public interface OutputHandler extends StreamVisitor {
 	 * @return Boolean indicating if next line should be read.
 	 */
 	boolean readLine(String line);
+
+	/**
+	 * Read a line printed by the command on its error output, when it is read separately
+	 * from the standard output (i.e. by a long-lived process, see {@link CommandProcess#readErrors(OutputHandler, String)}).
+	 *
+	 * <br>
+	 *
+	 * Default implementation ignores the line.
+	 *
+	 * @param line Line printed on error output.
+	 */
+	default void readErrorLine(String line) {
+	}
 }
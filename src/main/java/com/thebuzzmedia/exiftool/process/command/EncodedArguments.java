@@ -0,0 +1,170 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.process.command;
+
+import com.thebuzzmedia.exiftool.Constants;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable list of arguments, sent to a running {@code exiftool} process
+ * (i.e with the {@code -@ -} option) one argument per line.
+ *
+ * <br>
+ *
+ * The encoded form of arguments is computed once per charset and cached, and new arguments
+ * can be appended (see {@link #append(String...)}) without copying existing arguments: this allows
+ * the same prefix (options and tags of a query) to be encoded once and sent for many files.
+ *
+ * <br>
+ *
+ * This class is thread-safe.
+ */
+public final class EncodedArguments extends AbstractList<String> implements RandomAccess {
+
+	/**
+	 * Create arguments.
+	 *
+	 * @param arguments Arguments.
+	 * @return The arguments.
+	 * @throws NullPointerException If {@code arguments} or one of the arguments is {@code null}.
+	 */
+	public static EncodedArguments of(List<String> arguments) {
+		requireNonNull(arguments, "Arguments should not be null");
+		return new EncodedArguments(null, arguments.toArray(new String[0]));
+	}
+
+	/**
+	 * Previous arguments, may be {@code null}.
+	 */
+	private final EncodedArguments prefix;
+
+	/**
+	 * Arguments added after {@link #prefix}.
+	 */
+	private final String[] arguments;
+
+	/**
+	 * Total number of arguments.
+	 */
+	private final int size;
+
+	/**
+	 * Last encoded form of {@link #arguments}, may be {@code null}.
+	 */
+	private volatile Encoded encoded;
+
+	private EncodedArguments(EncodedArguments prefix, String[] arguments) {
+		for (String argument : arguments) {
+			requireNonNull(argument, "Argument should not be null");
+		}
+
+		this.prefix = prefix;
+		this.arguments = arguments;
+		this.size = (prefix == null ? 0 : prefix.size) + arguments.length;
+	}
+
+	/**
+	 * Create new arguments, made of current arguments followed by given ones.
+	 * Current arguments are not copied (and are encoded once).
+	 *
+	 * @param others Appended arguments.
+	 * @return New arguments.
+	 * @throws NullPointerException If one of the arguments is {@code null}.
+	 */
+	public EncodedArguments append(String... others) {
+		return new EncodedArguments(this, others.clone());
+	}
+
+	/**
+	 * Write arguments, each followed by {@link Constants#BR}.
+	 *
+	 * @param os Output stream.
+	 * @param charset Charset used to encode arguments.
+	 * @throws IOException If an error occurred while writing.
+	 */
+	public void writeTo(OutputStream os, Charset charset) throws IOException {
+		if (prefix != null) {
+			prefix.writeTo(os, charset);
+		}
+
+		os.write(encode(charset));
+	}
+
+	@Override
+	public String get(int index) {
+		int prefixSize = prefix == null ? 0 : prefix.size;
+		if (index < prefixSize) {
+			return prefix.get(index);
+		}
+
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		return arguments[index - prefixSize];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private byte[] encode(Charset charset) {
+		Encoded current = encoded;
+		if (current == null || !current.charset.equals(charset)) {
+			StringBuilder sb = new StringBuilder();
+			for (String argument : arguments) {
+				sb.append(argument).append(Constants.BR);
+			}
+
+			current = new Encoded(charset, sb.toString().getBytes(charset));
+			encoded = current;
+		}
+
+		return current.bytes;
+	}
+
+	/**
+	 * Arguments encoded with a given charset.
+	 */
+	private static final class Encoded {
+
+		/**
+		 * Charset used to encode arguments.
+		 */
+		private final Charset charset;
+
+		/**
+		 * Encoded arguments.
+		 */
+		private final byte[] bytes;
+
+		private Encoded(Charset charset, byte[] bytes) {
+			this.charset = charset;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -17,6 +17,7 @@
 
 package com.thebuzzmedia.exiftool.process.executor;
 
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 
 import java.util.ArrayList;
@@ -41,7 +42,7 @@ import static java.util.Collections.unmodifiableList;
  * <strong>Note:</strong> this class is thread safe if (and only if)
  * internal handlers are thread safe.
  */
-class CompositeHandler implements OutputHandler {
+class CompositeHandler implements OutputHandler, CharSequenceVisitor {
 
 	/**
 	 * List of internal handlers.
@@ -76,4 +77,38 @@ class CompositeHandler implements OutputHandler {
 
 		return hasNext;
 	}
+
+	@Override
+	public void readErrorLine(String line) {
+		for (OutputHandler handler : handlers) {
+			handler.readErrorLine(line);
+		}
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
+		// Line is converted to a string only once, and only if an handler needs it.
+		String str = null;
+
+		boolean hasNext = true;
+		for (OutputHandler handler : handlers) {
+			boolean next;
+			if (handler instanceof CharSequenceVisitor) {
+				next = ((CharSequenceVisitor) handler).readLine(line);
+			}
+			else {
+				if (str == null && line != null) {
+					str = line.toString();
+				}
+
+				next = handler.readLine(str);
+			}
+
+			if (!next) {
+				hasNext = false;
+			}
+		}
+
+		return hasNext;
+	}
 }
@@ -58,23 +58,38 @@ public class DefaultCommandExecutor implements CommandExecutor {
 		return readProcessOutput(command, requireNonNull(handler, "Handler should not be null"));
 	}
 
+	@Override
+	public CommandResult stream(Command command, OutputHandler handler) throws IOException {
+		requireNonNull(handler, "Handler should not be null");
+
+		final Process proc = createProcess(command, true);
+		readInputStream(proc.getInputStream(), handler);
+		return waitFor(proc, null);
+	}
+
 	@Override
 	public CommandProcess start(Command command) throws IOException {
-		final Process proc = createProcess(command);
-		return new DefaultCommandProcess(proc.getInputStream(), proc.getOutputStream(), proc.getErrorStream());
+		// Error output is read separately: errors of a long-lived process must not
+		// be mixed with (and parsed as) the output of commands.
+		final Process proc = createProcess(command, false);
+		return new DefaultCommandProcess(proc);
 	}
 
 	private CommandResult readProcessOutput(Command cmd, OutputHandler h) throws IOException {
-		final Process proc = createProcess(cmd);
+		final Process proc = createProcess(cmd, true);
 		final ResultHandler h1 = new ResultHandler();
 		final OutputHandler handler = h == null ? h1 : new CompositeHandler(h, h1);
 
 		readInputStream(proc.getInputStream(), handler);
 
+		return waitFor(proc, h1);
+	}
+
+	private CommandResult waitFor(Process proc, ResultHandler resultHandler) {
 		// Wait for end of process
 		try {
 			proc.waitFor();
-			return new DefaultCommandResult(proc.exitValue(), h1.getOutput());
+			return new DefaultCommandResult(proc.exitValue(), resultHandler == null ? null : resultHandler.getOutput());
 		}
 		catch (InterruptedException ex) {
 			log.error(ex.getMessage(), ex);
@@ -88,10 +103,10 @@ public class DefaultCommandExecutor implements CommandExecutor {
 		}
 	}
 
-	private Process createProcess(Command command) throws IOException {
+	private Process createProcess(Command command, boolean redirectErrorStream) throws IOException {
 		try {
 			List<String> args = command.getArguments();
-			ProcessBuilder builder = new ProcessBuilder(args).redirectErrorStream(true);
+			ProcessBuilder builder = new ProcessBuilder(args).redirectErrorStream(redirectErrorStream);
 			return builder.start();
 		}
 		catch (IOException ex) {
@@ -17,21 +17,34 @@
 
 package com.thebuzzmedia.exiftool.process.executor;
 
+import com.thebuzzmedia.exiftool.Constants;
+import com.thebuzzmedia.exiftool.commons.io.LineReader;
+import com.thebuzzmedia.exiftool.commons.reflection.ClassUtils.ReflectionException;
 import com.thebuzzmedia.exiftool.logs.Logger;
 import com.thebuzzmedia.exiftool.logs.LoggerFactory;
 import com.thebuzzmedia.exiftool.process.CommandProcess;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.util.OptionalInt;
 
-import static com.thebuzzmedia.exiftool.commons.io.IOs.readInputStream;
+import static com.thebuzzmedia.exiftool.commons.io.IOs.readLines;
 import static com.thebuzzmedia.exiftool.commons.lang.Objects.firstNonNull;
 import static com.thebuzzmedia.exiftool.commons.lang.PreConditions.notEmpty;
+import static com.thebuzzmedia.exiftool.commons.reflection.ClassUtils.findMethod;
+import static com.thebuzzmedia.exiftool.commons.reflection.ClassUtils.invoke;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -54,12 +67,29 @@ public class DefaultCommandProcess implements CommandProcess {
 	 */
 	private static final Logger log = LoggerFactory.getLogger(DefaultCommandProcess.class);
 
+	/**
+	 * Minimum size of the buffer used to encode commands.
+	 */
+	private static final int MIN_BUFFER_SIZE = 1024;
+
+	/**
+	 * Method {@code Process#pid()}, available since Java 9, {@code null} if it is not available.
+	 */
+	private static final MethodHandle PID = findPidMethod();
+
 	/**
 	 * Instance of {@link InputStream}.
 	 * This stream will be used to handle read operation.
 	 */
 	private final InputStream is;
 
+	/**
+	 * Reader of {@link #is}, created once for the whole process lifetime:
+	 * bytes buffered after the end of a command output are not lost
+	 * and will be returned by the next read operation.
+	 */
+	private final LineReader reader;
+
 	/**
 	 * Output stream.
 	 * This stream will be used to handle write operation.
@@ -71,10 +101,41 @@ public class DefaultCommandProcess implements CommandProcess {
 	 */
 	private final InputStream err;
 
+	/**
+	 * Reader of {@link #err} running in a dedicated thread, may be {@code null}
+	 * if error stream is not read.
+	 */
+	private final ErrorStreamReader errorReader;
+
+	/**
+	 * Charset used to encode inputs, resolved once for the whole process lifetime.
+	 */
+	private final Charset charset;
+
+	/**
+	 * Encoder of {@link #charset}, lazily created and reused for each command.
+	 */
+	private CharsetEncoder encoder;
+
+	/**
+	 * Lines of the command being written, reused for each command.
+	 */
+	private final StringBuilder lines;
+
+	/**
+	 * Encoded command, reused (and grown if needed) for each command.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Underlying process, may be {@code null} if only streams are known.
+	 */
+	private final Process process;
+
 	/**
 	 * Flag to know if a given process has been closed.
 	 */
-	private boolean close;
+	private volatile boolean close;
 
 	/**
 	 * Create process.
@@ -83,9 +144,47 @@ public class DefaultCommandProcess implements CommandProcess {
 	 * @param err Error stream.
 	 */
 	public DefaultCommandProcess(InputStream is, OutputStream os, InputStream err) {
+		this(is, os, err, false);
+	}
+
+	/**
+	 * Create process.
+	 *
+	 * <br>
+	 *
+	 * When {@code readErrors} is {@code true}, error stream is read in a dedicated thread for the
+	 * whole process lifetime, so that a long-lived process is never blocked because nobody reads its
+	 * error output (see {@link #readErrors(OutputHandler, String)}).
+	 *
+	 * @param is Input stream.
+	 * @param os Output stream.
+	 * @param err Error stream.
+	 * @param readErrors Read error stream.
+	 */
+	public DefaultCommandProcess(InputStream is, OutputStream os, InputStream err, boolean readErrors) {
+		this(null, is, os, err, readErrors);
+	}
+
+	/**
+	 * Create process reading streams of given (long-lived) process: error stream is read in a
+	 * dedicated thread (see {@link #DefaultCommandProcess(InputStream, OutputStream, InputStream, boolean)}),
+	 * and the process is killed by {@link #destroy()}.
+	 *
+	 * @param process Process.
+	 */
+	public DefaultCommandProcess(Process process) {
+		this(requireNonNull(process, "Process should not be null"), process.getInputStream(), process.getOutputStream(), process.getErrorStream(), true);
+	}
+
+	private DefaultCommandProcess(Process process, InputStream is, OutputStream os, InputStream err, boolean readErrors) {
+		this.process = process;
 		this.is = requireNonNull(is, "Input stream should not be null");
 		this.os = requireNonNull(os, "Output stream should not be null");
 		this.err = requireNonNull(err, "Error stream should not be null");
+		this.errorReader = readErrors ? ErrorStreamReader.start(err) : null;
+		this.reader = new LineReader(is);
+		this.charset = guessCharset();
+		this.lines = new StringBuilder();
 		this.close = false;
 	}
 
@@ -99,6 +198,28 @@ public class DefaultCommandProcess implements CommandProcess {
 		return doRead(requireNonNull(handler, "Handler should not be null"));
 	}
 
+	@Override
+	public void stream(OutputHandler handler) throws IOException {
+		requireNonNull(handler, "Handler should not be null");
+		if (isClosed()) {
+			throw new IllegalStateException("Cannot read from closed process");
+		}
+
+		log.debug("Stream command output");
+
+		// Read output stream until the end, without keeping the full output.
+		readLines(reader, handler);
+	}
+
+	@Override
+	public void readErrors(OutputHandler handler, String marker) {
+		requireNonNull(handler, "Handler should not be null");
+		requireNonNull(marker, "Marker should not be null");
+		if (errorReader != null) {
+			errorReader.drain(handler, marker);
+		}
+	}
+
 	@Override
 	public void write(String input, String... others) throws IOException {
 		doWrite(input);
@@ -117,14 +238,93 @@ public class DefaultCommandProcess implements CommandProcess {
 		}
 	}
 
+	@Override
+	public void writeLines(Iterable<String> inputs) throws IOException {
+		notEmpty(inputs, "Write inputs should not be empty");
+		if (isClosed()) {
+			throw new IllegalStateException("Cannot write from closed process");
+		}
+
+		lines.setLength(0);
+		for (String input : inputs) {
+			requireNonNull(input, "Write input should not be null");
+			lines.append(input).append(Constants.BR);
+		}
+
+		log.debug("Send command input with charset {}: {}", charset, lines);
+
+		ByteBuffer encoded = encode(lines);
+
+		try {
+			os.write(encoded.array(), 0, encoded.position());
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void write(EncodedArguments arguments) throws IOException {
+		if (isClosed()) {
+			throw new IllegalStateException("Cannot write from closed process");
+		}
+
+		log.debug("Send command input with charset {}: {}", charset, arguments);
+
+		try {
+			arguments.writeTo(os, charset);
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			throw ex;
+		}
+	}
+
 	@Override
 	public void flush() throws IOException {
 		os.flush();
 	}
 
+	@Override
+	public void destroy() throws Exception {
+		if (process == null) {
+			// Closing streams is the only way to interrupt pending operations.
+			close();
+			return;
+		}
+
+		log.debug("Kill process");
+
+		// Once the process is dead, pending read operations reach the end of the output:
+		// streams will be closed by the thread reading the output.
+		process.destroyForcibly();
+	}
+
 	@Override
 	public boolean isRunning() {
-		return !isClosed();
+		return !isClosed() && (process == null || process.isAlive());
+	}
+
+	@Override
+	public long getPid() {
+		if (process == null || PID == null) {
+			return -1;
+		}
+
+		try {
+			return (Long) invoke(PID, process);
+		}
+		catch (ReflectionException ex) {
+			// May be thrown if the operating system does not support it.
+			log.debug("Unable to get process identifier: {}", ex.getMessage());
+			return -1;
+		}
+	}
+
+	@Override
+	public OptionalInt getExitStatus() {
+		return process == null || process.isAlive() ? OptionalInt.empty() : OptionalInt.of(process.exitValue());
 	}
 
 	@Override
@@ -170,7 +370,7 @@ public class DefaultCommandProcess implements CommandProcess {
 		final OutputHandler handler = h == null ? out : new CompositeHandler(out, h);
 
 		// Read output stream until the end
-		readInputStream(is, handler);
+		readLines(reader, handler);
 
 		// We can return the output
 		return out.getOutput();
@@ -184,9 +384,6 @@ public class DefaultCommandProcess implements CommandProcess {
 		// Check valid input.
 		requireNonNull(input, "Write input should not be null");
 
-		// Extract the most appropriate charset, depends on the OS & the JVM.
-		Charset charset = guessCharset();
-
 		// Just log some debug information
 		log.debug("Send command input with charset {}: {}", charset, input);
 
@@ -199,7 +396,50 @@ public class DefaultCommandProcess implements CommandProcess {
 		}
 	}
 
-	private Charset guessCharset() {
+	/**
+	 * Encode given characters in {@link #buffer}, growing it if needed.
+	 *
+	 * @param input Characters.
+	 * @return The buffer, with encoded bytes between {@code 0} and its position.
+	 */
+	private ByteBuffer encode(CharSequence input) {
+		if (encoder == null) {
+			// Same behavior as String#getBytes: replace invalid characters.
+			encoder = charset.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+
+		int expectedSize = (int) (input.length() * (double) encoder.maxBytesPerChar());
+		if (buffer == null || buffer.capacity() < expectedSize) {
+			buffer = ByteBuffer.allocate(Math.max(expectedSize, MIN_BUFFER_SIZE));
+		}
+
+		// Buffer is big enough for the worst case, so the encoder never overflows.
+		((Buffer) buffer).clear();
+		encoder.reset();
+		CharBuffer chars = CharBuffer.wrap(input);
+		encoder.encode(chars, buffer, true);
+		encoder.flush(buffer);
+		return buffer;
+	}
+
+	private static MethodHandle findPidMethod() {
+		try {
+			return findMethod(Process.class, "pid", long.class);
+		}
+		catch (ReflectionException ex) {
+			log.debug("Process identifiers are not available with this JVM");
+			return null;
+		}
+	}
+
+	/**
+	 * Extract the most appropriate charset, depends on the OS and the JVM.
+	 *
+	 * @return The charset.
+	 */
+	private static Charset guessCharset() {
 		String nativeEncoding = System.getProperty("native.encoding");
 		if (nativeEncoding != null) {
 			return Charset.forName(nativeEncoding);
@@ -0,0 +1,259 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.process.executor;
+
+import com.thebuzzmedia.exiftool.commons.io.LineReader;
+import com.thebuzzmedia.exiftool.logs.Logger;
+import com.thebuzzmedia.exiftool.logs.LoggerFactory;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Read the error output of a long-lived process in a dedicated (daemon) thread.
+ *
+ * <br>
+ *
+ * The error output of a process must be read, otherwise a process printing a lot of
+ * warnings fills the buffer of the pipe and is blocked until someone reads it.
+ * Read lines are kept (up to {@link #MAX_LINES} lines) until they are given to the handler of
+ * a command with {@link #drain(OutputHandler, String)}.
+ *
+ * <br>
+ *
+ * Each command must print a marker line on the error output once it is over (for example
+ * with {@code -echo4}): lines read before this marker are the errors of this command, lines read
+ * after belong to the next commands. Markers are expected to differ only by a number (such as
+ * {@code {err<N>}}): a late marker of a previous command (whose marker has not been read in time)
+ * is dropped, and is never given to the handler of the next command.
+ *
+ * <br>
+ *
+ * <strong>Note:</strong> This class is thread safe.
+ */
+final class ErrorStreamReader implements Runnable {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = LoggerFactory.getLogger(ErrorStreamReader.class);
+
+	/**
+	 * Maximum number of kept lines: oldest lines are dropped when nobody drains them.
+	 */
+	static final int MAX_LINES = 1024;
+
+	/**
+	 * Maximum time to wait for a marker: this is only a safeguard against a process that
+	 * does not print the expected marker, since the marker of a command is printed before the
+	 * end of its output.
+	 */
+	static final long MARKER_TIMEOUT_MS = 10000;
+
+	/**
+	 * Numbers of a marker line, replaced to compare markers of different commands.
+	 */
+	private static final Pattern NUMBER = Pattern.compile("[0-9]+");
+
+	/**
+	 * Counter used to name reader threads.
+	 */
+	private static final AtomicInteger counter = new AtomicInteger(0);
+
+	/**
+	 * Reader of the error output.
+	 */
+	private final LineReader reader;
+
+	/**
+	 * Lines read, not drained yet.
+	 * Guarded by {@link #lock}.
+	 */
+	private final ArrayDeque<String> lines;
+
+	/**
+	 * Lock guarding state shared with the reader thread.
+	 */
+	private final Object lock;
+
+	/**
+	 * Flag set to {@code true} once the end of the error output has been reached.
+	 * Guarded by {@link #lock}.
+	 */
+	private boolean done;
+
+	/**
+	 * Create reader of given error output.
+	 *
+	 * @param err Error output.
+	 */
+	private ErrorStreamReader(InputStream err) {
+		this.reader = new LineReader(err);
+		this.lines = new ArrayDeque<>();
+		this.lock = new Object();
+		this.done = false;
+	}
+
+	/**
+	 * Start reading given error output in a new daemon thread.
+	 *
+	 * @param err Error output.
+	 * @return The reader.
+	 */
+	static ErrorStreamReader start(InputStream err) {
+		ErrorStreamReader errorReader = new ErrorStreamReader(err);
+		Thread thread = new Thread(errorReader, "exiftool-error-reader-" + counter.incrementAndGet());
+		thread.setDaemon(true);
+		thread.start();
+		return errorReader;
+	}
+
+	@Override
+	public void run() {
+		try {
+			CharSequence line;
+			while ((line = reader.readLine()) != null) {
+				add(line.toString());
+			}
+		}
+		catch (IOException ex) {
+			// Process has probably been closed.
+			log.debug("ExifTool error output cannot be read anymore: {}", ex.getMessage());
+		}
+		finally {
+			synchronized (lock) {
+				done = true;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	private void add(String line) {
+		log.debug("ExifTool error output: {}", line);
+		synchronized (lock) {
+			if (lines.size() == MAX_LINES) {
+				log.warn("Too many lines in ExifTool error output, dropping: {}", lines.poll());
+			}
+
+			lines.add(line);
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Give lines read before given marker to {@link OutputHandler#readErrorLine(String)}
+	 * of given handler, waiting for the marker if it has not been read yet.
+	 *
+	 * <br>
+	 *
+	 * The marker itself is consumed, but is not given to the handler, and neither are markers of
+	 * other commands. If the handler fails, lines are still consumed until the marker, and the handler
+	 * exception is then rethrown.
+	 *
+	 * @param handler The handler.
+	 * @param marker The marker line printed once the command is over.
+	 */
+	void drain(OutputHandler handler, String marker) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MARKER_TIMEOUT_MS);
+		String markerTemplate = template(marker);
+		RuntimeException failure = null;
+		boolean over = false;
+		while (!over) {
+			List<String> drained = new ArrayList<>();
+			synchronized (lock) {
+				over = !awaitLines(deadline);
+
+				String line;
+				while ((line = lines.poll()) != null) {
+					if (line.equals(marker)) {
+						over = true;
+						break;
+					}
+
+					if (markerTemplate.equals(template(line))) {
+						log.debug("Dropping marker of a previous command: {}", line);
+						continue;
+					}
+
+					drained.add(line);
+				}
+
+				if (!over && done && lines.isEmpty()) {
+					log.debug("ExifTool error output has been closed before: {}", marker);
+					over = true;
+				}
+			}
+
+			// Call handler outside the lock: reader thread must not be blocked by a slow handler.
+			for (int i = 0; i < drained.size() && failure == null; i++) {
+				try {
+					handler.readErrorLine(drained.get(i));
+				}
+				catch (RuntimeException ex) {
+					failure = ex;
+				}
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Replace numbers of given line, so that markers of different commands are equal.
+	 *
+	 * @param line Line.
+	 * @return Line template.
+	 */
+	private static String template(String line) {
+		return NUMBER.matcher(line).replaceAll("#");
+	}
+
+	/**
+	 * Wait for new lines, or for the end of the error output.
+	 *
+	 * @param deadline Maximum time to wait, as returned by {@link System#nanoTime()}.
+	 * @return {@code false} if nothing can be read before the deadline, {@code true} otherwise.
+	 */
+	private boolean awaitLines(long deadline) {
+		while (lines.isEmpty() && !done) {
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				log.warn("ExifTool error output marker has not been read in time, errors may be missing");
+				return false;
+			}
+
+			try {
+				lock.wait(remaining);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -18,6 +18,7 @@
 package com.thebuzzmedia.exiftool.process.executor;
 
 import com.thebuzzmedia.exiftool.Constants;
+import com.thebuzzmedia.exiftool.commons.io.CharSequenceVisitor;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 
 /**
@@ -30,7 +31,7 @@ import com.thebuzzmedia.exiftool.process.OutputHandler;
  * <strong>Note:</strong> that this handler is not thread safe and should be
  * synchronized if needed.
  */
-class ResultHandler implements OutputHandler {
+class ResultHandler implements OutputHandler, CharSequenceVisitor {
 
 	/**
 	 * Current output.
@@ -46,6 +47,11 @@ class ResultHandler implements OutputHandler {
 
 	@Override
 	public boolean readLine(String line) {
+		return readLine((CharSequence) line);
+	}
+
+	@Override
+	public boolean readLine(CharSequence line) {
 		if (line != null) {
 			if (output.length() > 0) {
 				output.append(Constants.BR);
@@ -17,14 +17,19 @@
 
 package com.thebuzzmedia.exiftool;
 
+import com.thebuzzmedia.exiftool.core.cache.PersistentMetadataCache;
 import com.thebuzzmedia.exiftool.core.schedulers.DefaultScheduler;
 import com.thebuzzmedia.exiftool.core.schedulers.NoOpScheduler;
 import com.thebuzzmedia.exiftool.core.strategies.DefaultStrategy;
+import com.thebuzzmedia.exiftool.core.strategies.DispatchPolicy;
+import com.thebuzzmedia.exiftool.core.strategies.PipelinedStayOpenStrategy;
 import com.thebuzzmedia.exiftool.core.strategies.PoolStrategy;
+import com.thebuzzmedia.exiftool.core.strategies.RecyclePolicy;
 import com.thebuzzmedia.exiftool.core.strategies.StayOpenStrategy;
 import com.thebuzzmedia.exiftool.process.Command;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.CommandResult;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
 import com.thebuzzmedia.exiftool.process.executor.DefaultCommandExecutor;
 import com.thebuzzmedia.exiftool.tests.builders.CommandResultBuilder;
 import com.thebuzzmedia.exiftool.tests.builders.FileBuilder;
@@ -33,16 +38,25 @@ import org.assertj.core.api.Condition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.duration;
+import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.millis;
+import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
 import static com.thebuzzmedia.exiftool.tests.ReflectionTestUtils.readPrivateField;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.collection;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ExifToolBuilderTest {
@@ -135,6 +149,25 @@ public class ExifToolBuilderTest {
 		assertThat(builder).extracting("scheduler").isSameAs(scheduler);
 	}
 
+	@Test
+	void it_should_enable_pipelining() {
+		assertThat(builder).extracting("maxInFlight").isEqualTo(0);
+
+		ExifToolBuilder r1 = builder.enablePipelining(4);
+
+		assertThat(r1).isSameAs(builder);
+		assertThat(builder).extracting("stayOpen").isEqualTo(true);
+		assertThat(builder).extracting("maxInFlight").isEqualTo(4);
+	}
+
+	@Test
+	void it_should_not_enable_pipelining_with_negative_value() {
+		builder.enablePipelining(0);
+
+		assertThat(builder).extracting("stayOpen").isNull();
+		assertThat(builder).extracting("maxInFlight").isEqualTo(0);
+	}
+
 	@Test
 	void it_should_override_strategy() {
 		assertThat(builder).extracting("strategy").isNull();
@@ -207,6 +240,19 @@ public class ExifToolBuilderTest {
 		assertThat(exifTool).extracting("strategy.scheduler").isSameAs(scheduler);
 	}
 
+	@Test
+	void it_should_create_exiftool_with_pipelined_strategy() {
+		ExifTool exifTool = builder
+				.withExecutor(executor)
+				.enableStayOpen(scheduler)
+				.enablePipelining(8)
+				.build();
+
+		assertThat(exifTool).extracting("strategy").isExactlyInstanceOf(PipelinedStayOpenStrategy.class);
+		assertThat(exifTool).extracting("strategy.scheduler").isSameAs(scheduler);
+		assertThat(exifTool).extracting("strategy.maxInFlight").isEqualTo(8);
+	}
+
 	@Test
 	void it_should_not_enable_stay_open_by_default() {
 		ExifTool exifTool = builder.withExecutor(executor).build();
@@ -286,4 +332,152 @@ public class ExifToolBuilderTest {
 					}
 				});
 	}
+
+	@Test
+	void it_should_create_with_elastic_pool_strategy() {
+		ExifTool exifTool = builder.withExecutor(executor).withElasticPool(2, 10, 100, 60000).build();
+
+		assertThat(exifTool).extracting("strategy").isExactlyInstanceOf(PoolStrategy.class);
+		assertThat(exifTool).extracting("strategy.minSize").isEqualTo(2);
+		assertThat(exifTool).extracting("strategy.maxSize").isEqualTo(10);
+		assertThat(exifTool).extracting("strategy.pool").asInstanceOf(collection(ExecutionStrategy.class))
+				.hasSize(2)
+				.are(new Condition<ExecutionStrategy>("Pool should only contains instance of StayOpenStrategy") {
+					@Override
+					public boolean matches(ExecutionStrategy value) {
+						return value instanceof StayOpenStrategy;
+					}
+				});
+	}
+
+	@Test
+	void it_should_not_create_elastic_pool_strategy_with_invalid_sizes() {
+		ExifTool exifTool = builder.withExecutor(executor).withElasticPool(2, 1, 100, 60000).build();
+		assertThat(exifTool).extracting("strategy").isExactlyInstanceOf(DefaultStrategy.class);
+	}
+
+	@Test
+	void it_should_create_pool_strategy_with_backpressure() {
+		ExifTool exifTool = builder.withExecutor(executor)
+				.withPoolSize(2)
+				.withPoolAcquireTimeout(500)
+				.withPoolMaxWaiters(5)
+				.build();
+
+		assertThat(exifTool).extracting("strategy").isExactlyInstanceOf(PoolStrategy.class);
+		assertThat(exifTool).extracting("strategy.acquireTimeout").isEqualTo(millis(500));
+		assertThat(exifTool).extracting("strategy.maxWaiters").isEqualTo(5);
+	}
+
+	@Test
+	void it_should_create_pool_strategy_with_dispatch_policy() {
+		ExifTool exifTool = builder.withExecutor(executor)
+				.withPoolSize(2)
+				.withPoolDispatchPolicy(DispatchPolicy.WARM_FIRST)
+				.build();
+
+		assertThat(exifTool).extracting("strategy").isExactlyInstanceOf(PoolStrategy.class);
+		assertThat(exifTool).extracting("strategy.dispatchPolicy").isEqualTo(DispatchPolicy.WARM_FIRST);
+	}
+
+	@Test
+	void it_should_create_stay_open_strategy_with_command_timeout() {
+		ExifTool exifTool = builder.withExecutor(executor).enableStayOpen().withCommandTimeout(5000).build();
+
+		assertThat(exifTool).extracting("strategy").isExactlyInstanceOf(StayOpenStrategy.class);
+		assertThat(exifTool).extracting("strategy.commandTimeout").isEqualTo(millis(5000));
+	}
+
+	@Test
+	void it_should_create_pool_strategy_with_command_timeout() {
+		ExifTool exifTool = builder.withExecutor(executor).withPoolSize(2).withCommandTimeout(5000).build();
+
+		assertThat(exifTool).extracting("strategy.pool").asInstanceOf(collection(StayOpenStrategy.class))
+				.hasSize(2)
+				.allSatisfy(strategy -> assertThat(strategy).extracting("commandTimeout").isEqualTo(millis(5000)));
+	}
+
+	@Test
+	void it_should_ignore_invalid_command_timeout() {
+		ExifTool exifTool = builder.withExecutor(executor).enableStayOpen().withCommandTimeout(0).build();
+		assertThat(exifTool).extracting("strategy.commandTimeout").isNull();
+	}
+
+	@Test
+	void it_should_create_pool_strategy_with_health_check() {
+		ExifTool exifTool = builder.withExecutor(executor).withPoolSize(2).withHealthCheck(60000).build();
+		assertThat(exifTool).extracting("strategy.healthScheduler").isNotNull();
+	}
+
+	@Test
+	void it_should_ignore_invalid_health_check_interval() {
+		ExifTool exifTool = builder.withExecutor(executor).withPoolSize(2).withHealthCheck(-1).build();
+		assertThat(exifTool).extracting("strategy.healthScheduler").isNull();
+	}
+
+	@Test
+	void it_should_create_pool_strategy_with_recycle_policy() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy().withMaxRequests(1000);
+		ExifTool exifTool = builder.withExecutor(executor).withPoolSize(2).withRecyclePolicy(policy).build();
+
+		assertThat(exifTool).extracting("strategy.pool").asInstanceOf(collection(StayOpenStrategy.class))
+				.hasSize(2)
+				.allSatisfy(strategy -> assertThat(strategy).extracting("recyclePolicy").isEqualTo(policy));
+	}
+
+	@Test
+	void it_should_prewarm_strategy_on_build() throws Exception {
+		builder.withExecutor(executor).withPath(path).withStrategy(strategy).enablePrewarm().build();
+
+		verify(strategy).prewarm(same(executor), eq(path), anyListOf(String.class), any(OutputHandler.class));
+	}
+
+	@Test
+	void it_should_not_fail_if_prewarm_fails() throws Exception {
+		doThrow(new IOException("fail")).when(strategy).prewarm(any(CommandExecutor.class), anyString(), anyListOf(String.class), any(OutputHandler.class));
+
+		ExifTool exifTool = builder.withExecutor(executor).withStrategy(strategy).enablePrewarm().build();
+
+		assertThat(exifTool).isNotNull();
+	}
+
+	@Test
+	void it_should_create_pool_strategy_with_parallel_prewarm() {
+		ExifTool exifTool = builder.withExecutor(executor).withPoolSize(2).enablePrewarm(true).build();
+
+		assertThat(exifTool).extracting("strategy.parallelPrewarm").isEqualTo(true);
+	}
+
+	@Test
+	void it_should_create_exiftool_with_metadata_cache() {
+		ExifTool exifTool = builder.withExecutor(executor).withMetadataCache(100).build();
+
+		assertThat(exifTool).extracting("metadataCache").isInstanceOf(MetadataCache.class);
+	}
+
+	@Test
+	void it_should_create_exiftool_without_metadata_cache() {
+		ExifTool exifTool = builder.withExecutor(executor).build();
+
+		assertThat(exifTool).extracting("metadataCache").isNull();
+	}
+
+	@Test
+	void it_should_create_exiftool_with_persistent_metadata_cache(@TempDir File tmp) {
+		File file = new File(tmp, "metadata.cache");
+
+		ExifTool exifTool = builder.withExecutor(executor).withPersistentMetadataCache(file).build();
+
+		assertThat(exifTool).extracting("metadataCache").isInstanceOf(PersistentMetadataCache.class);
+		assertThat(file).exists();
+	}
+
+	@Test
+	void it_should_create_exiftool_without_metadata_cache_if_cache_file_cannot_be_opened(@TempDir File tmp) {
+		File file = new File(new File(tmp, "missing"), "metadata.cache");
+
+		ExifTool exifTool = builder.withExecutor(executor).withPersistentMetadataCache(file).build();
+
+		assertThat(exifTool).extracting("metadataCache").isNull();
+	}
 }
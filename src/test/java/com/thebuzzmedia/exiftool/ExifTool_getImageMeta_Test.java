@@ -17,6 +17,7 @@
 
 package com.thebuzzmedia.exiftool;
 
+import com.thebuzzmedia.exiftool.core.Metadata;
 import com.thebuzzmedia.exiftool.core.StandardFormat;
 import com.thebuzzmedia.exiftool.core.StandardOptions;
 import com.thebuzzmedia.exiftool.core.StandardTag;
@@ -40,17 +41,23 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
 import static com.thebuzzmedia.exiftool.tests.TagTestUtils.parseTags;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -383,6 +390,276 @@ class ExifTool_getImageMeta_Test {
 		);
 	}
 
+	@Test
+	void it_should_fail_if_images_is_empty() {
+		assertThatThrownBy(() -> exifTool.getImageMeta(Collections.<File>emptyList(), asList((Tag[]) StandardTag.values())))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Images cannot be null and must contain 1 or more image to query.");
+	}
+
+	@Test
+	void it_should_fail_if_one_image_is_not_readable() {
+		File f1 = new FileBuilder("foo.png").build();
+		File f2 = new FileBuilder("bar.png").canRead(false).build();
+		assertThatThrownBy(() -> exifTool.getImageMeta(asList(f1, f2), asList((Tag[]) StandardTag.values())))
+				.isInstanceOf(UnreadableFileException.class)
+				.hasMessage(
+						"Unable to read the given image [/tmp/bar.png], " +
+								"ensure that the image exists at the given withPath and that the " +
+								"executing Java process has permissions to read it."
+				);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_get_metadata_of_several_images_in_one_execution() throws Exception {
+		// Given
+		File f1 = new FileBuilder("foo.png").build();
+		File f2 = new FileBuilder("bar.png").build();
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("======== /tmp/foo.png");
+			handler.readLine("Artist: foo");
+			handler.readLine("======== /tmp/bar.png");
+			handler.readLine("Artist: bar");
+			handler.readLine("XPComment: baz");
+			handler.readLine("    2 image files read");
+			handler.readLine("{ready}");
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		// When
+		Map<File, Map<Tag, String>> results = exifTool.getImageMeta(asList(f1, f2), asList(StandardTag.ARTIST, StandardTag.COMMENT));
+
+		// Then
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).execute(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class));
+
+		assertThat(results).hasSize(2);
+		assertThat(results.get(f1)).hasSize(1).containsEntry(StandardTag.ARTIST, "foo");
+		assertThat(results.get(f2)).hasSize(2).containsEntry(StandardTag.ARTIST, "bar").containsEntry(StandardTag.COMMENT, "baz");
+
+		List<String> args = argsCaptor.getValue();
+		assertThat(args).isNotEmpty().containsExactly(
+				"-n",
+				"-S",
+				"-Artist",
+				"-XPComment",
+				"/tmp/foo.png",
+				"/tmp/bar.png",
+				"-execute"
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_get_metadata_of_several_images_using_json_output() throws Exception {
+		// Given
+		File f1 = new FileBuilder("foo.png").build();
+		File f2 = new FileBuilder("bar.png").build();
+		StandardOptions options = StandardOptions.builder().withJsonOutput(true).withGroupNames(true).build();
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("[{");
+			handler.readLine("  \"SourceFile\": \"/tmp/foo.png\",");
+			handler.readLine("  \"IFD0:Artist\": \"foo\"");
+			handler.readLine("},");
+			handler.readLine("{");
+			handler.readLine("  \"SourceFile\": \"/tmp/bar.png\",");
+			handler.readLine("  \"IFD0:Artist\": \"bar\",");
+			handler.readLine("  \"IFD0:XPComment\": \"baz\"");
+			handler.readLine("}]");
+			handler.readLine("{ready}");
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		// When
+		Map<File, Map<Tag, String>> results = exifTool.getImageMeta(asList(f1, f2), options, asList(StandardTag.ARTIST, StandardTag.COMMENT));
+
+		// Then
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).execute(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class));
+
+		assertThat(results).hasSize(2);
+		assertThat(results.get(f1)).hasSize(1).containsEntry(new UnspecifiedTag("IFD0:Artist"), "foo");
+		assertThat(results.get(f2)).hasSize(2).containsEntry(new UnspecifiedTag("IFD0:Artist"), "bar").containsEntry(new UnspecifiedTag("IFD0:XPComment"), "baz");
+
+		List<String> args = argsCaptor.getValue();
+		assertThat(args).contains("-j", "-G", "-Artist", "-XPComment", "/tmp/foo.png", "/tmp/bar.png", "-execute").doesNotContain("-S");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_get_typed_metadata_using_json_output() throws Exception {
+		// Given
+		File image = new FileBuilder("foo.png").build();
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("[{");
+			handler.readLine("  \"SourceFile\": \"/tmp/foo.png\",");
+			handler.readLine("  \"ISO\": 100,");
+			handler.readLine("  \"FNumber\": 2.8");
+			handler.readLine("}]");
+			handler.readLine("{ready}");
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		// When
+		Map<File, Map<Tag, Object>> results = exifTool.getImageMetaValues(singletonList(image), options, asList(StandardTag.ISO, StandardTag.FNUMBER));
+
+		// Then
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).execute(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class));
+
+		assertThat(results).hasSize(1);
+		assertThat(results.get(image)).hasSize(2).containsEntry(StandardTag.ISO, 100).containsEntry(StandardTag.FNUMBER, 2.8);
+		assertThat(argsCaptor.getValue()).containsExactly(
+				"-n",
+				"-j",
+				"-ISO",
+				"-FNumber",
+				"/tmp/foo.png",
+				"-execute"
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_get_typed_image_metadata() throws Exception {
+		// Given
+		File image = new FileBuilder("foo.png").build();
+		Map<Tag, String> tags = new LinkedHashMap<>();
+		tags.put(StandardTag.ISO, "100");
+		tags.put(StandardTag.FNUMBER, "2.8");
+
+		doAnswer(new ReadTagsAnswer(tags, "{ready}")).when(strategy).execute(
+				same(executor), same(path), anyListOf(String.class), any(OutputHandler.class)
+		);
+
+		// When
+		Metadata metadata = exifTool.getMetadata(image, tags.keySet());
+
+		// Then
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).execute(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class));
+		assertThat(metadata.size()).isEqualTo(2);
+		assertThat(metadata.getInt(StandardTag.ISO)).isEqualTo(100);
+		assertThat(metadata.getDouble(StandardTag.FNUMBER)).isEqualTo(2.8);
+		assertThat(argsCaptor.getValue()).containsExactly(
+				"-n",
+				"-S",
+				"-ISO",
+				"-FNumber",
+				"/tmp/foo.png",
+				"-execute"
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_get_image_metadata_with_prepared_query() throws Exception {
+		// Given
+		File f1 = new FileBuilder("foo.png").build();
+		File f2 = new FileBuilder("bar.png").build();
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.NUMERIC).build();
+		PreparedQuery query = exifTool.prepare(options, asList(StandardTag.ARTIST, StandardTag.COMMENT));
+
+		doAnswer(invocation -> {
+			List<String> args = (List<String>) invocation.getArguments()[2];
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("Artist: " + args.get(args.size() - 2));
+			handler.readLine("{ready}");
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		// When
+		Map<Tag, String> r1 = exifTool.getImageMeta(f1, query);
+		Map<Tag, String> r2 = exifTool.getImageMeta(f2, query);
+
+		// Then
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy, times(2)).execute(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class));
+
+		assertThat(query.getOptions()).isSameAs(options);
+		assertThat(query.getTags()).containsExactly(StandardTag.ARTIST, StandardTag.COMMENT);
+		assertThat(r1).hasSize(1).containsEntry(StandardTag.ARTIST, "/tmp/foo.png");
+		assertThat(r2).hasSize(1).containsEntry(StandardTag.ARTIST, "/tmp/bar.png");
+		assertThat(argsCaptor.getAllValues().get(0)).containsExactly("-n", "-S", "-Artist", "-XPComment", "/tmp/foo.png", "-execute");
+		assertThat(argsCaptor.getAllValues().get(1)).containsExactly("-n", "-S", "-Artist", "-XPComment", "/tmp/bar.png", "-execute");
+	}
+
+	@Test
+	void it_should_fail_asynchronously_if_executor_is_null() {
+		File image = new FileBuilder("foo.png").build();
+		StandardOptions options = StandardOptions.builder().build();
+		List<StandardTag> tags = singletonList(StandardTag.ARTIST);
+
+		assertThatThrownBy(() -> exifTool.getImageMetaAsync(image, options, tags, null))
+				.isInstanceOf(NullPointerException.class)
+				.hasMessage("Executor cannot be null.");
+	}
+
+	@Test
+	void it_should_get_image_metadata_asynchronously() throws Exception {
+		// Given
+		File image = new FileBuilder("foo.png").build();
+		Executor async = Runnable::run;
+		CompletableFuture<Void> execution = new CompletableFuture<>();
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("Artist: foo");
+			handler.readLine("{ready}");
+			return execution;
+		}).when(strategy).executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async));
+
+		// When
+		StandardOptions options = StandardOptions.builder().build();
+		CompletableFuture<Map<Tag, String>> future = exifTool.getImageMetaAsync(image, options, singletonList(StandardTag.ARTIST), async);
+
+		// Then
+		assertThat(future).isNotDone();
+
+		execution.complete(null);
+
+		assertThat(future).isDone();
+		assertThat(future.get()).hasSize(1).containsEntry(StandardTag.ARTIST, "foo");
+		verify(strategy, never()).execute(any(CommandExecutor.class), anyString(), anyListOf(String.class), any(OutputHandler.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_get_image_metadata_asynchronously_using_json_output() throws Exception {
+		// Given
+		File image = new FileBuilder("foo.png").build();
+		Executor async = Runnable::run;
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("[{");
+			handler.readLine("  \"SourceFile\": \"/tmp/foo.png\",");
+			handler.readLine("  \"IFD0:Artist\": \"foo\"");
+			handler.readLine("}]");
+			handler.readLine("{ready}");
+			return CompletableFuture.completedFuture(null);
+		}).when(strategy).executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async));
+
+		// When
+		StandardOptions options = StandardOptions.builder().withJsonOutput(true).withGroupNames(true).build();
+		CompletableFuture<Map<Tag, String>> future = exifTool.getImageMetaAsync(image, options, singletonList(StandardTag.ARTIST), async);
+
+		// Then
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).executeAsync(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class), same(async));
+
+		assertThat(future.get()).hasSize(1).containsEntry(new UnspecifiedTag("IFD0:Artist"), "foo");
+		assertThat(argsCaptor.getValue()).contains("-j", "-G", "-Artist", "/tmp/foo.png", "-execute").doesNotContain("-S");
+	}
+
 	private static final class ReadTagsAnswer implements Answer<Void> {
 		private final Map<Tag, String> tags;
 
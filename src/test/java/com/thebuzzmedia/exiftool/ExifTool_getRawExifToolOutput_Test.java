@@ -95,6 +95,20 @@ public class ExifTool_getRawExifToolOutput_Test {
 		assertThat(result).isEqualTo(rawOutput);
 	}
 
+	@Test
+	void it_should_get_raw_output_truncated_to_max_length() throws Exception {
+		String br = System.getProperty("line.separator");
+		String rawOutput = "foo" + br + "bar" + br + "baz";
+
+		doAnswer(new ReadRawOutputAnswer(rawOutput, "{ready}")).when(strategy).execute(
+				same(executor), same(path), anyListOf(String.class), any(OutputHandler.class)
+		);
+
+		String result = exifTool.getRawExifToolOutput(args, 6 + br.length());
+
+		assertThat(result).isEqualTo("foo" + br + "bar");
+	}
+
 	private static final class ReadRawOutputAnswer implements Answer<Void> {
 		private final String rawOutput;
 		private final String end;
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool;
+
+import com.thebuzzmedia.exiftool.core.StandardOptions;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.cache.MetadataCacheFactory;
+import com.thebuzzmedia.exiftool.process.Command;
+import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.CommandResult;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+import com.thebuzzmedia.exiftool.tests.builders.CommandResultBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExifTool_metadataCache_Test {
+
+	@TempDir
+	File tmp;
+
+	private String path;
+	private CommandExecutor executor;
+	private ExecutionStrategy strategy;
+	private MetadataCache cache;
+	private File image;
+
+	private ExifTool exifTool;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		executor = mock(CommandExecutor.class);
+		strategy = mock(ExecutionStrategy.class);
+		cache = MetadataCacheFactory.newCache(100);
+		path = "exiftool";
+
+		image = new File(tmp, "foo.png");
+		Files.write(image.toPath(), new byte[]{1, 2, 3});
+
+		CommandResult cmd = new CommandResultBuilder().output("9.36").build();
+		when(executor.execute(any(Command.class))).thenReturn(cmd);
+		when(strategy.isSupported(any(Version.class))).thenReturn(true);
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("Artist: John Doe");
+			handler.readLine("{ready}");
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		exifTool = new ExifTool(path, executor, strategy, cache);
+
+		reset(executor);
+	}
+
+	@Test
+	void it_should_read_metadata_from_cache() throws Exception {
+		Map<Tag, String> m1 = exifTool.getImageMeta(image, singletonList(StandardTag.ARTIST));
+		m1.put(StandardTag.ISO, "100");
+
+		Map<Tag, String> m2 = exifTool.getImageMeta(image, singletonList(StandardTag.ARTIST));
+
+		assertThat(m2).hasSize(1).containsEntry(StandardTag.ARTIST, "John Doe");
+		assertThat(cache.size()).isEqualTo(1);
+		verify(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+	}
+
+	@Test
+	void it_should_invalidate_cache_after_write() throws Exception {
+		exifTool.getImageMeta(image, singletonList(StandardTag.ARTIST));
+
+		Map<Tag, String> tags = new HashMap<>();
+		tags.put(StandardTag.ARTIST, "Jane Doe");
+		exifTool.setImageMeta(image, tags);
+
+		assertThat(cache.size()).isZero();
+
+		exifTool.getImageMeta(image, singletonList(StandardTag.ARTIST));
+		verify(strategy, times(3)).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+	}
+
+	@Test
+	void it_should_invalidate_cache_after_asynchronous_write() throws Exception {
+		Executor async = Runnable::run;
+		when(strategy.executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async)))
+				.thenReturn(CompletableFuture.completedFuture(null));
+
+		exifTool.getImageMeta(image, singletonList(StandardTag.ARTIST));
+
+		Map<Tag, String> tags = new HashMap<>();
+		tags.put(StandardTag.ARTIST, "Jane Doe");
+		exifTool.setImageMetaAsync(image, StandardOptions.builder().build(), tags, async).get();
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void it_should_read_metadata_asynchronously_from_cache() throws Exception {
+		Executor async = Runnable::run;
+		StandardOptions options = StandardOptions.builder().build();
+
+		exifTool.getImageMeta(image, options, singletonList(StandardTag.ARTIST));
+		Map<Tag, String> metadata = exifTool.getImageMetaAsync(image, options, singletonList(StandardTag.ARTIST), async).get();
+
+		assertThat(metadata).hasSize(1).containsEntry(StandardTag.ARTIST, "John Doe");
+		verify(strategy, never()).executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async));
+	}
+
+	@Test
+	void it_should_cache_metadata_read_asynchronously() throws Exception {
+		Executor async = Runnable::run;
+		StandardOptions options = StandardOptions.builder().build();
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("Artist: John Doe");
+			handler.readLine("{ready}");
+			return CompletableFuture.completedFuture(null);
+		}).when(strategy).executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async));
+
+		exifTool.getImageMetaAsync(image, options, singletonList(StandardTag.ARTIST), async).get();
+		Map<Tag, String> metadata = exifTool.getImageMeta(image, options, singletonList(StandardTag.ARTIST));
+
+		assertThat(metadata).hasSize(1).containsEntry(StandardTag.ARTIST, "John Doe");
+		assertThat(cache.size()).isEqualTo(1);
+		verify(strategy, never()).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+	}
+}
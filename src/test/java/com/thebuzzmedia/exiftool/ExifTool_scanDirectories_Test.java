@@ -0,0 +1,159 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool;
+
+import com.thebuzzmedia.exiftool.core.StandardOptions;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.exceptions.UnreadableFileException;
+import com.thebuzzmedia.exiftool.process.Command;
+import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.CommandResult;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+import com.thebuzzmedia.exiftool.tests.builders.CommandResultBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+class ExifTool_scanDirectories_Test {
+
+	private String path;
+	private CommandExecutor executor;
+	private ExecutionStrategy strategy;
+	private Executor async;
+
+	private ExifTool exifTool;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		executor = mock(CommandExecutor.class);
+		strategy = mock(ExecutionStrategy.class);
+		async = Runnable::run;
+		path = "exiftool";
+
+		CommandResult cmd = new CommandResultBuilder().output("9.36").build();
+		when(executor.execute(any(Command.class))).thenReturn(cmd);
+		when(strategy.isSupported(any(Version.class))).thenReturn(true);
+
+		exifTool = new ExifTool(path, executor, strategy);
+
+		reset(executor);
+	}
+
+	@Test
+	void it_should_fail_if_directories_is_empty() {
+		assertThatThrownBy(() -> exifTool.scanDirectories(new ArrayList<>(), StandardOptions.builder().build(), singletonList(StandardTag.ARTIST), (file, tags) -> { }))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Directories cannot be null and must contain 1 or more directory to scan.");
+	}
+
+	@Test
+	void it_should_fail_if_directory_is_not_readable(@TempDir File tmp) {
+		File directory = new File(tmp, "missing");
+		assertThatThrownBy(() -> exifTool.scanDirectories(singletonList(directory), StandardOptions.builder().build(), singletonList(StandardTag.ARTIST), (file, tags) -> { }))
+				.isInstanceOf(UnreadableFileException.class);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_scan_each_sub_tree_with_a_dedicated_command(@TempDir File tmp) throws Exception {
+		// Given
+		File sub1 = newDirectory(tmp, "sub1");
+		File sub2 = newDirectory(tmp, "sub2");
+		newDirectory(tmp, ".hidden");
+
+		List<List<String>> commands = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			List<String> args = (List<String>) invocation.getArguments()[2];
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			commands.add(args);
+
+			String directory = args.get(args.size() - 2);
+			handler.readLine("======== " + directory + "/foo.jpg");
+			handler.readLine("Artist: " + directory);
+			handler.readLine("    1 image files read");
+			handler.readLine("{ready}");
+			return CompletableFuture.completedFuture(null);
+		}).when(strategy).executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async));
+
+		StandardOptions options = StandardOptions.builder()
+				.withFormat(null)
+				.withRecursive(true)
+				.withExtensions("jpg")
+				.build();
+
+		Map<File, Map<Tag, String>> results = new ConcurrentHashMap<>();
+
+		// When
+		int size = exifTool.scanDirectories(singletonList(tmp), options, singletonList(StandardTag.ARTIST), results::put, async);
+
+		// Then
+		assertThat(size).isEqualTo(3);
+		assertThat(results).hasSize(3).containsOnlyKeys(
+				new File(tmp.getAbsolutePath() + "/foo.jpg"),
+				new File(sub1.getAbsolutePath() + "/foo.jpg"),
+				new File(sub2.getAbsolutePath() + "/foo.jpg")
+		);
+
+		assertThat(results.get(new File(sub1.getAbsolutePath() + "/foo.jpg"))).hasSize(1).containsEntry(StandardTag.ARTIST, sub1.getAbsolutePath());
+
+		assertThat(commands).hasSize(3).contains(
+				asList("-ext", "jpg", "-S", "-Artist", tmp.getAbsolutePath(), "-execute"),
+				asList("-r", "-ext", "jpg", "-S", "-Artist", sub1.getAbsolutePath(), "-execute"),
+				asList("-r", "-ext", "jpg", "-S", "-Artist", sub2.getAbsolutePath(), "-execute")
+		);
+	}
+
+	@Test
+	void it_should_fail_if_one_command_fails(@TempDir File tmp) {
+		CompletableFuture<Void> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IOException("fail"));
+		when(strategy.executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async))).thenReturn(failure);
+
+		assertThatThrownBy(() -> exifTool.scanDirectories(singletonList(tmp), StandardOptions.builder().build(), singletonList(StandardTag.ARTIST), (file, tags) -> { }, async))
+				.isInstanceOf(IOException.class)
+				.hasMessage("fail");
+	}
+
+	private static File newDirectory(File parent, String name) {
+		File directory = new File(parent, name);
+		assertThat(directory.mkdir()).isTrue();
+		return directory;
+	}
+}
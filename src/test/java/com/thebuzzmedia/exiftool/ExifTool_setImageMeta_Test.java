@@ -20,7 +20,10 @@ package com.thebuzzmedia.exiftool;
 import com.thebuzzmedia.exiftool.core.StandardFormat;
 import com.thebuzzmedia.exiftool.core.StandardOptions;
 import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.WriteMode;
+import com.thebuzzmedia.exiftool.core.WriteResult;
 import com.thebuzzmedia.exiftool.exceptions.UnwritableFileException;
+import com.thebuzzmedia.exiftool.exceptions.WriteFailedException;
 import com.thebuzzmedia.exiftool.process.Command;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.CommandResult;
@@ -38,15 +41,20 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -252,4 +260,177 @@ class ExifTool_setImageMeta_Test {
 			return "{ready}";
 		}
 	}
+
+	@Test
+	void it_should_set_image_metadata_asynchronously() throws Exception {
+		File image = new FileBuilder("foo.png").build();
+		Executor async = Runnable::run;
+		CompletableFuture<Void> execution = new CompletableFuture<>();
+		when(strategy.executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async))).thenReturn(execution);
+
+		StandardOptions options = StandardOptions.builder().withFormat(StandardFormat.HUMAN_READABLE).build();
+		CompletableFuture<Void> future = exifTool.setImageMetaAsync(image, options, tags, async);
+
+		assertThat(future).isNotDone();
+		execution.complete(null);
+		assertThat(future).isCompletedWithValue(null);
+
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).executeAsync(same(executor), same(path), argsCaptor.capture(), any(OutputHandler.class), same(async));
+		assertThat(argsCaptor.getValue()).containsExactly(
+				"-S",
+				"-ApertureValue=foo",
+				"-Artist=bar",
+				"/tmp/foo.png",
+				"-execute"
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_set_metadata_of_several_images() throws Exception {
+		File foo = new FileBuilder("foo.png").build();
+		File bar = new FileBuilder("bar.png").build();
+		File baz = new FileBuilder("baz.png").canWrite(false).build();
+
+		Map<File, Map<StandardTag, String>> images = new LinkedHashMap<>();
+		images.put(foo, tags);
+		images.put(bar, Collections.singletonMap(StandardTag.ARTIST, "baz"));
+		images.put(baz, tags);
+
+		doAnswer(invocation -> {
+			List<OutputHandler> handlers = (List<OutputHandler>) invocation.getArguments()[3];
+			handlers.get(0).readLine("    1 image files updated");
+			handlers.get(0).readLine("{ready}");
+			handlers.get(1).readLine("    0 image files updated");
+			handlers.get(1).readLine("    1 files weren't updated due to errors");
+			handlers.get(1).readLine("{ready}");
+			return null;
+		}).when(strategy).executeAll(same(executor), same(path), any(List.class), any(List.class));
+
+		Map<File, WriteResult> results = exifTool.setImageMeta(images);
+
+		ArgumentCaptor<List<List<String>>> commandsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(strategy).executeAll(same(executor), same(path), commandsCaptor.capture(), any(List.class));
+		assertThat(commandsCaptor.getValue()).containsExactly(
+				asList("-n", "-S", "-ApertureValue=foo", "-Artist=bar", "/tmp/foo.png", "-execute"),
+				asList("-n", "-S", "-Artist=baz", "/tmp/bar.png", "-execute")
+		);
+
+		assertThat(results).containsOnlyKeys(foo, bar, baz);
+		assertThat(results.keySet()).containsExactly(foo, bar, baz);
+		assertThat(results.get(foo).isSuccess()).isTrue();
+		assertThat(results.get(foo).getUpdated()).isEqualTo(1);
+		assertThat(results.get(bar).isSuccess()).isFalse();
+		assertThat(results.get(bar).getFailed()).isEqualTo(1);
+		assertThat(results.get(baz).isSuccess()).isFalse();
+		assertThat(results.get(baz).getErrors()).hasSize(1);
+	}
+
+	@Test
+	void it_should_return_result_of_write_operation() throws Exception {
+		File image = new FileBuilder("foo.png").build();
+
+		doAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("Warning: [minor] Fixed incorrect byte order - /tmp/foo.png");
+			handler.readLine("Error: Not a valid PNG (looks more like a JPEG) - /tmp/foo.png");
+			handler.readLine("    0 image files updated");
+			handler.readLine("    1 files weren't updated due to errors");
+			handler.readLine(null);
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		WriteResult result = exifTool.writeImageMeta(image, tags);
+
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.getFailed()).isEqualTo(1);
+		assertThat(result.getWarnings()).containsExactly("[minor] Fixed incorrect byte order - /tmp/foo.png");
+		assertThat(result.getErrors()).containsExactly("Not a valid PNG (looks more like a JPEG) - /tmp/foo.png");
+	}
+
+	@Test
+	void it_should_return_result_of_asynchronous_write_operation() throws Exception {
+		File image = new FileBuilder("foo.png").build();
+		Executor async = Runnable::run;
+
+		when(strategy.executeAsync(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class), same(async))).thenAnswer(invocation -> {
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			handler.readLine("    1 image files updated");
+			handler.readErrorLine("Warning: [minor] Fixed incorrect byte order - /tmp/foo.png");
+			handler.readLine("{ready}");
+			return CompletableFuture.completedFuture(null);
+		});
+
+		WriteResult result = exifTool.writeImageMetaAsync(image, StandardOptions.builder().build(), tags, async).get();
+
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.getUpdated()).isEqualTo(1);
+		assertThat(result.getWarnings()).containsExactly("[minor] Fixed incorrect byte order - /tmp/foo.png");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_stop_at_first_failure_in_fail_fast_mode() throws Exception {
+		File foo = new FileBuilder("foo.png").build();
+		File bar = new FileBuilder("bar.png").build();
+		File baz = new FileBuilder("baz.png").build();
+
+		Map<File, Map<StandardTag, String>> images = new LinkedHashMap<>();
+		images.put(foo, tags);
+		images.put(bar, tags);
+		images.put(baz, tags);
+
+		doAnswer(invocation -> {
+			List<String> args = (List<String>) invocation.getArguments()[2];
+			OutputHandler handler = (OutputHandler) invocation.getArguments()[3];
+			if (args.contains("/tmp/foo.png")) {
+				handler.readLine("    1 image files updated");
+			}
+			else {
+				handler.readLine("Error: File format error - /tmp/bar.png");
+				handler.readLine("    1 files weren't updated due to errors");
+			}
+
+			handler.readLine("{ready}");
+			return null;
+		}).when(strategy).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+
+		StandardOptions options = StandardOptions.builder().build();
+
+		assertThatThrownBy(() -> exifTool.setImageMeta(images, options, WriteMode.FAIL_FAST))
+				.isInstanceOf(WriteFailedException.class)
+				.satisfies(ex -> {
+					WriteFailedException failure = (WriteFailedException) ex;
+					assertThat(failure.getFile()).isSameAs(bar);
+					assertThat(failure.getResult().getErrors()).containsExactly("File format error - /tmp/bar.png");
+				});
+
+		verify(strategy, times(2)).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+		verify(strategy, never()).executeAll(same(executor), same(path), any(List.class), any(List.class));
+	}
+
+	@Test
+	void it_should_not_write_anything_with_non_writable_file_in_fail_fast_mode() throws Exception {
+		File foo = new FileBuilder("foo.png").build();
+		File bar = new FileBuilder("bar.png").canWrite(false).build();
+
+		Map<File, Map<StandardTag, String>> images = new LinkedHashMap<>();
+		images.put(foo, tags);
+		images.put(bar, tags);
+
+		StandardOptions options = StandardOptions.builder().build();
+
+		assertThatThrownBy(() -> exifTool.setImageMeta(images, options, WriteMode.FAIL_FAST))
+				.isInstanceOf(UnwritableFileException.class);
+
+		verify(strategy, never()).execute(same(executor), same(path), anyListOf(String.class), any(OutputHandler.class));
+	}
+
+	@Test
+	void it_should_fail_to_set_metadata_of_several_images_without_images() {
+		assertThatThrownBy(() -> exifTool.setImageMeta(Collections.emptyMap()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Images cannot be null and must contain 1 or more image to write.");
+	}
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.commons.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LineReaderTest {
+
+	@Test
+	void it_should_not_create_reader_without_stream() {
+		assertThatThrownBy(() -> new LineReader(null))
+				.isInstanceOf(NullPointerException.class)
+				.hasMessage("Input stream should not be null");
+	}
+
+	@Test
+	void it_should_read_lines() throws Exception {
+		LineReader reader = new LineReader(stream("first-line\nsecond-line\n"));
+
+		assertThat(reader.readLine()).hasToString("first-line");
+		assertThat(reader.readLine()).hasToString("second-line");
+		assertThat(reader.readLine()).isNull();
+	}
+
+	@Test
+	void it_should_read_last_line_without_line_separator() throws Exception {
+		LineReader reader = new LineReader(stream("first-line\nsecond-line"));
+
+		assertThat(reader.readLine()).hasToString("first-line");
+		assertThat(reader.readLine()).hasToString("second-line");
+		assertThat(reader.readLine()).isNull();
+	}
+
+	@Test
+	void it_should_remove_carriage_return() throws Exception {
+		LineReader reader = new LineReader(stream("first-line\r\n\r\nsecond-line\r\n"));
+
+		assertThat(reader.readLine()).hasToString("first-line");
+		assertThat(reader.readLine()).hasToString("");
+		assertThat(reader.readLine()).hasToString("second-line");
+		assertThat(reader.readLine()).isNull();
+	}
+
+	@Test
+	void it_should_read_lines_longer_than_buffer() throws Exception {
+		LineReader reader = new LineReader(stream("Artist: foobar\nISO: 100\n{ready}\n"), 4);
+
+		assertThat(reader.readLine()).hasToString("Artist: foobar");
+		assertThat(reader.readLine()).hasToString("ISO: 100");
+		assertThat(reader.readLine()).hasToString("{ready}");
+		assertThat(reader.readLine()).isNull();
+	}
+
+	@Test
+	void it_should_decode_utf8_characters_split_across_buffers() throws Exception {
+		LineReader reader = new LineReader(stream("Comment: àéê\nArtist: ü\n"), 3);
+
+		assertThat(reader.readLine()).hasToString("Comment: àéê");
+		assertThat(reader.readLine()).hasToString("Artist: ü");
+		assertThat(reader.readLine()).isNull();
+	}
+
+	@Test
+	void it_should_reuse_line_buffer() throws Exception {
+		LineReader reader = new LineReader(stream("first-line\nsecond-line\n"));
+
+		CharSequence l1 = reader.readLine();
+		CharSequence l2 = reader.readLine();
+
+		assertThat(l1).isSameAs(l2);
+		assertThat(l2).hasToString("second-line");
+	}
+
+	@Test
+	void it_should_keep_bytes_read_after_end_of_line_for_next_read() throws Exception {
+		LineReader reader = new LineReader(stream("{ready1}\nArtist: foo\n{ready2}\n"));
+
+		assertThat(IOs.readLines(reader, line -> line != null && !line.startsWith("{ready"))).isFalse();
+		assertThat(reader.readLine()).hasToString("Artist: foo");
+		assertThat(reader.readLine()).hasToString("{ready2}");
+	}
+
+	@Test
+	void it_should_give_char_sequence_to_char_sequence_visitor() throws Exception {
+		LineReader reader = new LineReader(stream("Artist: foo\n"));
+		CharSequenceCollector visitor = new CharSequenceCollector();
+
+		assertThat(IOs.readLines(reader, visitor)).isTrue();
+		assertThat(visitor.sequences).isEqualTo(2);
+		assertThat(visitor.output).hasToString("Artist: foo");
+	}
+
+	private static InputStream stream(String value) {
+		return new ByteArrayInputStream(value.getBytes(UTF_8));
+	}
+
+	private static final class CharSequenceCollector implements CharSequenceVisitor {
+		private final StringBuilder output = new StringBuilder();
+		private int sequences;
+
+		@Override
+		public boolean readLine(String line) {
+			throw new AssertionError("Line should be read as a char sequence");
+		}
+
+		@Override
+		public boolean readLine(CharSequence line) {
+			sequences++;
+			if (line == null) {
+				return false;
+			}
+
+			output.append(line);
+			return true;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.commons.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonParserTest {
+
+	@Test
+	void it_should_read_strings() {
+		JsonParser parser = new JsonParser("  \"foo \\\"bar\\\" \\\\ \\/ \\n\\t\\u00e9\"  ");
+		assertThat(parser.readValue()).isEqualTo("foo \"bar\" \\ / \n\té");
+		assertThat(parser.hasNext()).isFalse();
+	}
+
+	@Test
+	void it_should_read_numbers() {
+		assertThat(new JsonParser("100").readValue()).isEqualTo(100);
+		assertThat(new JsonParser("-1").readValue()).isEqualTo(-1);
+		assertThat(new JsonParser("4294967296").readValue()).isEqualTo(4294967296L);
+		assertThat(new JsonParser("2.8").readValue()).isEqualTo(2.8);
+		assertThat(new JsonParser("1e3").readValue()).isEqualTo(1000.0);
+		assertThat(new JsonParser("123456789012345678901234").readValue()).isEqualTo(1.2345678901234568E23);
+	}
+
+	@Test
+	void it_should_read_literals() {
+		assertThat(new JsonParser("true").readValue()).isEqualTo(true);
+		assertThat(new JsonParser("false").readValue()).isEqualTo(false);
+		assertThat(new JsonParser("null").readValue()).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void it_should_read_containers() {
+		JsonParser parser = new JsonParser("{\"a\": [1, \"b\", {}], \"c\": {\"d\": null}, \"e\": []}");
+		Map<String, Object> value = (Map<String, Object>) parser.readValue();
+
+		assertThat(value).containsOnlyKeys("a", "c", "e");
+		assertThat((List<Object>) value.get("a")).hasSize(3).startsWith(1, "b");
+		assertThat((Map<String, Object>) value.get("c")).hasSize(1).containsEntry("d", null);
+		assertThat((List<Object>) value.get("e")).isEmpty();
+	}
+
+	@Test
+	void it_should_read_array_step_by_step() {
+		JsonParser parser = new JsonParser("[ 1 , 2 ]");
+
+		parser.expect('[');
+		assertThat(parser.readValue()).isEqualTo(1);
+		assertThat(parser.consume(',')).isTrue();
+		assertThat(parser.position()).isEqualTo(5);
+		assertThat(parser.readValue()).isEqualTo(2);
+		assertThat(parser.consume(',')).isFalse();
+		parser.expect(']');
+
+		assertThat(parser.hasNext()).isFalse();
+	}
+
+	@Test
+	void it_should_fail_with_invalid_json() {
+		for (String json : asList("", "[1,", "\"foo", "{\"a\" 1}", "tru", "\"\\x\"", "\"\\u12\"", "-", "@")) {
+			assertThatThrownBy(() -> new JsonParser(json).readValue())
+					.as(json)
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageStartingWith("Invalid JSON at position ");
+		}
+	}
+
+	@Test
+	void it_should_fail_with_null_input() {
+		assertThatThrownBy(() -> new JsonParser(null))
+				.isInstanceOf(NullPointerException.class)
+				.hasMessage("JSON input must not be null");
+	}
+}
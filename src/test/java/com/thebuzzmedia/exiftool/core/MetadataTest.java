@@ -0,0 +1,119 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core;
+
+import com.thebuzzmedia.exiftool.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetadataTest {
+
+	@Test
+	void it_should_get_values() {
+		UnspecifiedTag custom = new UnspecifiedTag("Custom");
+
+		Map<Tag, String> tags = new HashMap<>();
+		tags.put(StandardTag.ISO, "100");
+		tags.put(StandardTag.FNUMBER, "2.8");
+		tags.put(StandardTag.FILE_SIZE, "4294967296");
+		tags.put(StandardTag.ARTIST, "foo");
+		tags.put(custom, "bar");
+
+		Metadata metadata = Metadata.of(tags);
+
+		assertThat(metadata.size()).isEqualTo(5);
+		assertThat(metadata.toMap()).isEqualTo(tags);
+
+		assertThat(metadata.getInt(StandardTag.ISO)).isEqualTo(100);
+		assertThat(metadata.getInt(StandardTag.ISO)).isEqualTo(100);
+		assertThat(metadata.getLong(StandardTag.FILE_SIZE)).isEqualTo(4294967296L);
+		assertThat(metadata.getDouble(StandardTag.FNUMBER)).isEqualTo(2.8);
+		assertThat(metadata.getDouble(StandardTag.ISO)).isEqualTo(100.0);
+		assertThat(metadata.getString(StandardTag.ARTIST)).isEqualTo("foo");
+		assertThat(metadata.getString(custom)).isEqualTo("bar");
+
+		assertThat(metadata.contains(StandardTag.ISO)).isTrue();
+		assertThat(metadata.contains(custom)).isTrue();
+		assertThat(metadata.contains(StandardTag.MAKE)).isFalse();
+		assertThat(metadata.getString(StandardTag.MAKE)).isNull();
+	}
+
+	@Test
+	void it_should_get_default_values() {
+		Metadata metadata = Metadata.of(new HashMap<>());
+
+		assertThat(metadata.size()).isZero();
+		assertThat(metadata.getInt(StandardTag.ISO, -1)).isEqualTo(-1);
+		assertThat(metadata.getLong(StandardTag.FILE_SIZE, -1L)).isEqualTo(-1L);
+		assertThat(metadata.getDouble(StandardTag.FNUMBER, 1.0)).isEqualTo(1.0);
+	}
+
+	@Test
+	void it_should_parse_special_double_values() {
+		Map<Tag, String> tags = new HashMap<>();
+		tags.put(StandardTag.FNUMBER, "inf");
+		tags.put(StandardTag.APERTURE, "undef");
+
+		Metadata metadata = Metadata.of(tags);
+
+		assertThat(metadata.getDouble(StandardTag.FNUMBER)).isEqualTo(Double.POSITIVE_INFINITY);
+		assertThat(metadata.getDouble(StandardTag.APERTURE)).isNaN();
+	}
+
+	@Test
+	void it_should_fail_if_tag_is_missing() {
+		Metadata metadata = Metadata.of(new HashMap<>());
+
+		assertThatThrownBy(() -> metadata.getInt(StandardTag.ISO))
+				.isInstanceOf(NoSuchElementException.class)
+				.hasMessage("Tag ISO has no value");
+	}
+
+	@Test
+	void it_should_fail_if_value_is_not_a_number() {
+		Map<Tag, String> tags = new HashMap<>();
+		tags.put(StandardTag.ISO, "foo");
+		tags.put(StandardTag.FILE_SIZE, "4294967296");
+
+		Metadata metadata = Metadata.of(tags);
+
+		assertThatThrownBy(() -> metadata.getInt(StandardTag.ISO)).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> metadata.getInt(StandardTag.FILE_SIZE))
+				.isInstanceOf(NumberFormatException.class)
+				.hasMessage("Value of tag FileSize does not fit in an int: 4294967296");
+	}
+
+	@Test
+	void it_should_implement_equals_and_hash_code() {
+		Map<Tag, String> tags = new HashMap<>();
+		tags.put(StandardTag.ISO, "100");
+
+		Metadata m1 = Metadata.of(tags);
+		Metadata m2 = Metadata.of(tags);
+		m2.getInt(StandardTag.ISO);
+
+		assertThat(m1).isEqualTo(m2).hasSameHashCodeAs(m2);
+		assertThat(m1).isNotEqualTo(Metadata.of(new HashMap<>()));
+	}
+}
@@ -51,6 +51,11 @@ class StandardOptionsTest {
 		assertThat(opts.isOverwriteOriginal()).isFalse();
 		assertThat(opts.isOverwriteOriginalInPlace()).isFalse();
 		assertThat(opts.isUseArgsFormat()).isFalse();
+		assertThat(opts.isJsonOutput()).isFalse();
+		assertThat(opts.isGroupNames()).isFalse();
+		assertThat(opts.isStruct()).isFalse();
+		assertThat(opts.isRecursive()).isFalse();
+		assertThat(opts.getExtensions()).isEmpty();
 		assertThat(opts.serialize()).isNotNull().isEmpty();
 	}
 
@@ -361,6 +366,40 @@ class StandardOptionsTest {
 		assertThat(opts.toBuilder().isUseArgsFormat()).isTrue();
 	}
 
+	@Test
+	void it_should_use_json_output() {
+		StandardOptions opts = StandardOptions.builder()
+				.withJsonOutput(true)
+				.withGroupNames(true)
+				.withStruct(true)
+				.build();
+
+		assertThat(opts).isNotNull();
+		assertThat(opts.isJsonOutput()).isTrue();
+		assertThat(opts.isGroupNames()).isTrue();
+		assertThat(opts.isStruct()).isTrue();
+		assertThat(opts.serialize()).hasSize(3).containsExactly("-j", "-G", "-struct");
+		assertThat(opts.toBuilder().isJsonOutput()).isTrue();
+		assertThat(opts.toBuilder().isGroupNames()).isTrue();
+		assertThat(opts.toBuilder().isStruct()).isTrue();
+	}
+
+	@Test
+	void it_should_scan_directories() {
+		StandardOptions opts = StandardOptions.builder()
+				.withRecursive(true)
+				.withExtensions("jpg", "png")
+				.withExtensions(singletonList("jpg"))
+				.build();
+
+		assertThat(opts).isNotNull();
+		assertThat(opts.isRecursive()).isTrue();
+		assertThat(opts.getExtensions()).containsExactly("jpg", "png");
+		assertThat(opts.serialize()).hasSize(5).containsExactly("-r", "-ext", "jpg", "-ext", "png");
+		assertThat(opts.toBuilder().isRecursive()).isTrue();
+		assertThat(opts.toBuilder().getExtensions()).containsExactly("jpg", "png");
+	}
+
 	@Test
 	void it_should_implement_equals_hash_code() {
 		EqualsVerifier.forClass(StandardOptions.class)
@@ -390,7 +429,12 @@ class StandardOptionsTest {
 						"extractUnknown: false, " +
 						"noCompositeTags: false, " +
 						"overwriteOriginal: NONE, " +
-						"useArgsFormat: false" +
+						"useArgsFormat: false, " +
+						"jsonOutput: false, " +
+						"groupNames: false, " +
+						"struct: false, " +
+						"recursive: false, " +
+						"extensions: []" +
 				"}"
 		);
 		// @formatter:on
@@ -417,7 +461,12 @@ class StandardOptionsTest {
 						"extractEmbedded: false, " +
 						"noCompositeTags: false, " +
 						"overwriteOriginal: NONE, " +
-						"useArgsFormat: false" +
+						"useArgsFormat: false, " +
+						"jsonOutput: false, " +
+						"groupNames: false, " +
+						"struct: false, " +
+						"recursive: false, " +
+						"extensions: []" +
 				"}"
 		);
 		// @formatter:on
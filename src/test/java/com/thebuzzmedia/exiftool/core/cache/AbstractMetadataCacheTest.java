@@ -0,0 +1,253 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.ExifToolOptions;
+import com.thebuzzmedia.exiftool.MetadataCache;
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.thebuzzmedia.exiftool.core.StandardTag.ISO;
+import static com.thebuzzmedia.exiftool.core.StandardTag.MAKE;
+import static com.thebuzzmedia.exiftool.core.StandardTag.MODEL;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+abstract class AbstractMetadataCacheTest<T extends MetadataCache> {
+
+	@TempDir
+	File tmp;
+
+	private File image;
+
+	private ExifToolOptions options;
+
+	private Collection<Tag> tags;
+
+	private MetadataCache.Loader loader;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		image = new File(tmp, "foo.png");
+		Files.write(image.toPath(), new byte[]{1, 2, 3});
+		options = StandardOptions.builder().build();
+		tags = asList(MAKE, MODEL);
+
+		Map<Tag, String> metadata = new HashMap<>();
+		metadata.put(MAKE, "HTC");
+		metadata.put(MODEL, "myTouch 4G");
+
+		loader = mock(MetadataCache.Loader.class);
+		when(loader.load()).thenReturn(metadata);
+	}
+
+	@Test
+	void it_should_load_metadata_once() throws Exception {
+		MetadataCache cache = create(100);
+
+		Map<Tag, String> m1 = cache.load(image, options, tags, loader);
+		Map<Tag, String> m2 = cache.load(image, options, asList(MODEL, MAKE), loader);
+
+		assertThat(m1).hasSize(2).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+		assertThat(m2).isEqualTo(m1);
+		assertThat(cache.size()).isEqualTo(1);
+		verify(loader).load();
+	}
+
+	@Test
+	void it_should_not_share_entries_of_different_queries() throws Exception {
+		MetadataCache cache = create(100);
+
+		cache.load(image, options, tags, loader);
+		cache.load(image, options, singletonList(MAKE), loader);
+		cache.load(image, StandardOptions.builder().withIgnoreMinorErrors(true).build(), tags, loader);
+
+		assertThat(cache.size()).isEqualTo(3);
+		verify(loader, times(3)).load();
+	}
+
+	@Test
+	void it_should_load_metadata_again_if_image_has_been_modified() throws Exception {
+		MetadataCache cache = create(100);
+
+		cache.load(image, options, tags, loader);
+		Files.write(image.toPath(), new byte[]{1, 2, 3, 4});
+		cache.load(image, options, tags, loader);
+
+		verify(loader, times(2)).load();
+	}
+
+	@Test
+	void it_should_invalidate_entries_of_image() throws Exception {
+		MetadataCache cache = create(100);
+		File other = new File(tmp, "bar.png");
+		Files.write(other.toPath(), new byte[]{1});
+
+		cache.load(image, options, tags, loader);
+		cache.load(image, options, singletonList(MAKE), loader);
+		cache.load(other, options, tags, loader);
+		assertThat(cache.size()).isEqualTo(3);
+
+		cache.invalidate(new File(tmp, "./foo.png"));
+
+		assertThat(cache.size()).isEqualTo(1);
+		cache.load(image, options, tags, loader);
+		verify(loader, times(4)).load();
+	}
+
+	@Test
+	void it_should_evict_entries_beyond_maximum_weight() throws Exception {
+		MetadataCache cache = create(4);
+		File other = new File(tmp, "bar.png");
+		Files.write(other.toPath(), new byte[]{1});
+		File another = new File(tmp, "baz.png");
+		Files.write(another.toPath(), new byte[]{2});
+
+		cache.load(image, options, tags, loader);
+		cache.load(other, options, tags, loader);
+		cache.load(another, options, tags, loader);
+
+		assertThat(cache.size()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void it_should_invalidate_entries_of_image_after_eviction() throws Exception {
+		MetadataCache cache = create(4);
+		File other = new File(tmp, "bar.png");
+		Files.write(other.toPath(), new byte[]{1});
+		File another = new File(tmp, "baz.png");
+		Files.write(another.toPath(), new byte[]{2});
+
+		cache.load(image, options, tags, loader);
+		cache.load(other, options, tags, loader);
+		cache.load(another, options, tags, loader);
+
+		cache.invalidate(image);
+		cache.invalidate(other);
+		cache.invalidate(another);
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void it_should_load_metadata_asynchronously_once() throws Exception {
+		MetadataCache cache = create(100);
+		Map<Tag, String> metadata = new HashMap<>();
+		metadata.put(MAKE, "HTC");
+		metadata.put(MODEL, "myTouch 4G");
+
+		MetadataCache.AsyncLoader asyncLoader = mock(MetadataCache.AsyncLoader.class);
+		when(asyncLoader.load()).thenReturn(CompletableFuture.completedFuture(metadata));
+
+		Map<Tag, String> m1 = cache.loadAsync(image, options, tags, asyncLoader).get();
+		Map<Tag, String> m2 = cache.loadAsync(image, options, tags, asyncLoader).get();
+		Map<Tag, String> m3 = cache.load(image, options, tags, loader);
+
+		assertThat(m1).hasSize(2).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+		assertThat(m2).isEqualTo(m1);
+		assertThat(m3).isEqualTo(m1);
+		assertThat(cache.size()).isEqualTo(1);
+		verify(asyncLoader).load();
+		verify(loader, never()).load();
+	}
+
+	@Test
+	void it_should_not_cache_asynchronous_failure() throws Exception {
+		MetadataCache cache = create(100);
+		CompletableFuture<Map<Tag, String>> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IOException("fail"));
+
+		CompletableFuture<Map<Tag, String>> future = cache.loadAsync(image, options, tags, () -> failure);
+
+		assertThat(future).isCompletedExceptionally();
+		assertThat(cache.size()).isZero();
+		verify(loader, never()).load();
+	}
+
+	@Test
+	void it_should_not_cache_metadata_of_unreadable_image() throws Exception {
+		MetadataCache cache = create(100);
+		File missing = new File(tmp, "missing.png");
+
+		cache.load(missing, options, tags, loader);
+		cache.load(missing, options, tags, loader);
+
+		assertThat(cache.size()).isZero();
+		verify(loader, times(2)).load();
+	}
+
+	@Test
+	void it_should_not_cache_null_metadata() throws Exception {
+		MetadataCache cache = create(100);
+		when(loader.load()).thenReturn(null);
+
+		assertThat(cache.load(image, options, tags, loader)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void it_should_not_cache_failure() throws Exception {
+		MetadataCache cache = create(100);
+		IOException ex = new IOException("fail");
+		when(loader.load()).thenThrow(ex);
+
+		assertThatThrownBy(() -> cache.load(image, options, singletonList(ISO), loader)).isSameAs(ex);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void it_should_clear_cache() throws Exception {
+		MetadataCache cache = create(100);
+		cache.load(image, options, tags, loader);
+
+		cache.clear();
+
+		assertThat(cache.size()).isZero();
+		cache.load(image, options, tags, loader);
+		verify(loader, times(2)).load();
+	}
+
+	@Test
+	void it_should_return_unmodifiable_metadata() throws Exception {
+		MetadataCache cache = create(100);
+
+		Map<Tag, String> metadata = cache.load(image, options, tags, loader);
+
+		assertThatThrownBy(() -> metadata.put(ISO, "100")).isInstanceOf(UnsupportedOperationException.class);
+		verify(loader).load();
+	}
+
+	abstract T create(long maximumWeight);
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.cache;
+
+import com.thebuzzmedia.exiftool.ExifToolOptions;
+import com.thebuzzmedia.exiftool.MetadataCache;
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.core.StandardOptions;
+import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.thebuzzmedia.exiftool.core.StandardTag.MAKE;
+import static com.thebuzzmedia.exiftool.core.StandardTag.MODEL;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PersistentMetadataCacheTest {
+
+	@TempDir
+	File tmp;
+
+	private File file;
+
+	private File image;
+
+	private Version version;
+
+	private ExifToolOptions options;
+
+	private Collection<Tag> tags;
+
+	private MetadataCache.Loader loader;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		file = new File(tmp, "metadata.cache");
+		image = newImage("foo.png", 3);
+		version = new Version("12.40");
+		options = StandardOptions.builder().build();
+		tags = asList(MAKE, MODEL);
+
+		Map<Tag, String> metadata = new HashMap<>();
+		metadata.put(MAKE, "HTC");
+		metadata.put(MODEL, "myTouch 4G");
+
+		loader = mock(MetadataCache.Loader.class);
+		when(loader.load()).thenReturn(metadata);
+	}
+
+	@Test
+	void it_should_read_metadata_after_reopening_cache() throws Exception {
+		PersistentMetadataCache.open(file, version).load(image, options, tags, loader);
+
+		MetadataCache.Loader other = mock(MetadataCache.Loader.class);
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+		Map<Tag, String> metadata = cache.load(image, options, asList(MODEL, MAKE), other);
+
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(metadata).hasSize(2).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+		verify(other, never()).load();
+	}
+
+	@Test
+	void it_should_read_metadata_of_unspecified_tags() throws Exception {
+		Map<Tag, String> all = new HashMap<>();
+		all.put(new UnspecifiedTag("Make"), "HTC");
+		when(loader.load()).thenReturn(all);
+
+		Collection<Tag> query = singletonList(new UnspecifiedTag("All"));
+		PersistentMetadataCache.open(file, version).load(image, options, query, loader);
+
+		Map<Tag, String> metadata = PersistentMetadataCache.open(file, version).load(image, options, query, mock(MetadataCache.Loader.class));
+
+		assertThat(metadata).hasSize(1);
+		assertThat(metadata.keySet().iterator().next().getName()).isEqualTo("Make");
+		assertThat(metadata.values()).containsExactly("HTC");
+	}
+
+	@Test
+	void it_should_drop_entries_of_other_version() throws Exception {
+		PersistentMetadataCache.open(file, version).load(image, options, tags, loader);
+
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, new Version("12.41"));
+		assertThat(cache.size()).isZero();
+
+		cache.load(image, options, tags, loader);
+		verify(loader, times(2)).load();
+	}
+
+	@Test
+	void it_should_persist_invalidation() throws Exception {
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+		cache.load(image, options, tags, loader);
+		cache.load(image, options, singletonList(MAKE), loader);
+
+		cache.invalidate(image);
+
+		assertThat(cache.size()).isZero();
+		assertThat(PersistentMetadataCache.open(file, version).size()).isZero();
+	}
+
+	@Test
+	void it_should_load_metadata_again_if_image_has_been_modified() throws Exception {
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+		cache.load(image, options, tags, loader);
+
+		Files.write(image.toPath(), new byte[]{1, 2, 3, 4, 5});
+		cache.load(image, options, tags, loader);
+
+		assertThat(cache.size()).isEqualTo(1);
+		verify(loader, times(2)).load();
+	}
+
+	@Test
+	void it_should_compact_dead_records() throws Exception {
+		File other = newImage("bar.png", 1);
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+		cache.load(other, options, tags, loader);
+		for (int i = 0; i < 5; i++) {
+			Files.write(image.toPath(), new byte[i + 10]);
+			cache.load(image, options, tags, loader);
+		}
+
+		long before = file.length();
+		cache.compact();
+
+		assertThat(file.length()).isLessThan(before);
+		assertThat(cache.size()).isEqualTo(2);
+
+		MetadataCache.Loader noop = mock(MetadataCache.Loader.class);
+		assertThat(cache.load(other, options, tags, noop)).containsEntry(MAKE, "HTC");
+		assertThat(PersistentMetadataCache.open(file, version).load(image, options, tags, noop)).containsEntry(MODEL, "myTouch 4G");
+		verify(noop, never()).load();
+	}
+
+	@Test
+	void it_should_keep_cache_usable_if_compaction_fails() throws Exception {
+		File other = newImage("bar.png", 1);
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+		cache.load(other, options, tags, loader);
+		cache.load(image, options, tags, loader);
+		cache.invalidate(other);
+		cache.load(other, options, tags, loader);
+
+		// Temporary file cannot be written.
+		File tmpFile = new File(tmp, file.getName() + ".tmp");
+		assertThat(tmpFile.mkdir()).isTrue();
+		assertThat(new File(tmpFile, "lock").createNewFile()).isTrue();
+
+		assertThatThrownBy(cache::compact).isInstanceOf(IOException.class);
+
+		MetadataCache.Loader noop = mock(MetadataCache.Loader.class);
+		assertThat(cache.load(image, options, tags, noop)).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+		assertThat(cache.load(other, options, tags, noop)).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+		verify(noop, never()).load();
+	}
+
+	@Test
+	void it_should_read_records_appended_since_file_has_been_mapped() throws Exception {
+		PersistentMetadataCache.open(file, version).load(image, options, tags, loader);
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+
+		MetadataCache.Loader noop = mock(MetadataCache.Loader.class);
+		for (int i = 0; i < 20; i++) {
+			File other = newImage("bar" + i + ".png", i + 1);
+			cache.load(other, options, tags, loader);
+			assertThat(cache.load(other, options, tags, noop)).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+			assertThat(cache.load(image, options, tags, noop)).containsEntry(MAKE, "HTC").containsEntry(MODEL, "myTouch 4G");
+		}
+
+		assertThat(cache.size()).isEqualTo(21);
+		verify(noop, never()).load();
+	}
+
+	@Test
+	void it_should_ignore_truncated_record() throws Exception {
+		PersistentMetadataCache.open(file, version).load(image, options, tags, loader);
+		long length = file.length();
+
+		// Simulate a crash while a record was written.
+		Files.write(file.toPath(), new byte[]{0, 0, 1, 0, 1, 2}, StandardOpenOption.APPEND);
+
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(file.length()).isEqualTo(length);
+	}
+
+	@Test
+	void it_should_clear_cache() throws Exception {
+		PersistentMetadataCache cache = PersistentMetadataCache.open(file, version);
+		cache.load(image, options, tags, loader);
+
+		cache.clear();
+
+		assertThat(cache.size()).isZero();
+		assertThat(PersistentMetadataCache.open(file, version).size()).isZero();
+	}
+
+	private File newImage(String name, int size) throws Exception {
+		File file = new File(tmp, name);
+		Files.write(file.toPath(), new byte[size]);
+		return file;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.tests.builders.FileBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchTagHandlerTest {
+
+	private List<? extends Tag> inputs;
+
+	private File f1;
+	private File f2;
+
+	@BeforeEach
+	void setUp() {
+		inputs = asList(
+				StandardTag.APERTURE,
+				StandardTag.ARTIST
+		);
+
+		f1 = new FileBuilder("foo.jpg").build();
+		f2 = new FileBuilder("bar.jpg").build();
+	}
+
+	@Test
+	void it_should_read_null_line() {
+		BatchTagHandler handler = new BatchTagHandler(asList(f1, f2), inputs);
+		boolean hasNext = handler.readLine(null);
+		assertThat(hasNext).isFalse();
+		assertThat(handler.getTags()).hasSize(2).containsOnlyKeys(f1, f2);
+		assertThat(handler.getTags().get(f1)).isEmpty();
+		assertThat(handler.getTags().get(f2)).isEmpty();
+	}
+
+	@Test
+	void it_should_read_last_line() {
+		BatchTagHandler handler = new BatchTagHandler(asList(f1, f2), inputs);
+		boolean hasNext = handler.readLine("{ready}");
+		assertThat(hasNext).isFalse();
+	}
+
+	@Test
+	void it_should_read_tags_of_each_file() {
+		BatchTagHandler handler = new BatchTagHandler(asList(f1, f2), inputs);
+
+		assertThat(handler.readLine("======== /tmp/foo.jpg")).isTrue();
+		assertThat(handler.readLine("Artist: foo")).isTrue();
+		assertThat(handler.readLine("ApertureValue: 2.8")).isTrue();
+		assertThat(handler.readLine("======== /tmp/bar.jpg")).isTrue();
+		assertThat(handler.readLine("Artist: bar")).isTrue();
+		assertThat(handler.readLine("    2 image files read")).isTrue();
+		assertThat(handler.readLine("{ready}")).isFalse();
+
+		Map<File, Map<Tag, String>> results = handler.getTags();
+		assertThat(results).hasSize(2).containsOnlyKeys(f1, f2);
+		assertThat(results.get(f1)).hasSize(2)
+				.containsEntry(StandardTag.ARTIST, "foo")
+				.containsEntry(StandardTag.APERTURE, "2.8");
+		assertThat(results.get(f2)).hasSize(1)
+				.containsEntry(StandardTag.ARTIST, "bar");
+	}
+
+	@Test
+	void it_should_keep_query_order() {
+		BatchTagHandler handler = new BatchTagHandler(asList(f2, f1), inputs);
+		handler.readLine("======== /tmp/foo.jpg");
+		handler.readLine("Artist: foo");
+		handler.readLine("{ready}");
+
+		assertThat(handler.getTags().keySet()).containsExactly(f2, f1);
+		assertThat(handler.getTags().get(f2)).isEmpty();
+	}
+
+	@Test
+	void it_should_ignore_lines_of_unexpected_files() {
+		BatchTagHandler handler = new BatchTagHandler(asList(f1, f2), inputs);
+		handler.readLine("Artist: nobody");
+		handler.readLine("======== /tmp/unknown.jpg");
+		handler.readLine("Artist: unknown");
+		handler.readLine("{ready}");
+
+		assertThat(handler.getTags().get(f1)).isEmpty();
+		assertThat(handler.getTags().get(f2)).isEmpty();
+	}
+
+	@Test
+	void it_should_read_tags_of_a_single_file_without_header() {
+		BatchTagHandler handler = new BatchTagHandler(singletonList(f1), inputs);
+		handler.readLine("Artist: foo");
+		handler.readLine("{ready}");
+
+		assertThat(handler.getTags()).hasSize(1);
+		assertThat(handler.getTags().get(f1)).hasSize(1).containsEntry(StandardTag.ARTIST, "foo");
+	}
+
+	@Test
+	void it_should_query_same_path_only_once() {
+		File copy = new FileBuilder("foo.jpg").build();
+		BatchTagHandler handler = new BatchTagHandler(asList(f1, copy, f2), inputs);
+
+		assertThat(handler.size()).isEqualTo(2);
+		assertThat(handler.getFiles()).containsExactly(f1, f2);
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnumTagHandlerTest {
+
+	private List<StandardTag> inputs;
+
+	@BeforeEach
+	void setUp() {
+		inputs = asList(
+				StandardTag.APERTURE,
+				StandardTag.ARTIST
+		);
+	}
+
+	@Test
+	void it_should_read_null_line() {
+		EnumTagHandler handler = new EnumTagHandler(inputs);
+		boolean hasNext = handler.readLine(null);
+		assertThat(hasNext).isFalse();
+		assertThat(handler.getTags()).isNotNull().isEmpty();
+	}
+
+	@Test
+	void it_should_read_tag_line() {
+		EnumTagHandler handler = new EnumTagHandler(inputs);
+		boolean r1 = handler.readLine(CharBuffer.wrap("Artist: foobar"));
+		boolean r2 = handler.readLine("ApertureValue: 2.8");
+		boolean r3 = handler.readLine("ISO: 100");
+		boolean r4 = handler.readLine("Unknown: foo");
+		boolean r5 = handler.readLine("{ready}");
+
+		assertThat(r1).isTrue();
+		assertThat(r2).isTrue();
+		assertThat(r3).isTrue();
+		assertThat(r4).isTrue();
+		assertThat(r5).isFalse();
+		assertThat(handler.size()).isEqualTo(2);
+		assertThat(handler.getTags())
+				.hasSize(2)
+				.containsEntry(StandardTag.ARTIST, "foobar")
+				.containsEntry(StandardTag.APERTURE, "2.8");
+	}
+
+	@Test
+	void it_should_create_new_handler_with_same_tags() {
+		EnumTagHandler handler = new EnumTagHandler(inputs);
+		handler.readLine("Artist: foo");
+
+		BaseTagHandler newHandler = handler.newHandler();
+		newHandler.readLine("ApertureValue: 2.8");
+		newHandler.readLine("ISO: 100");
+
+		assertThat(newHandler).isExactlyInstanceOf(EnumTagHandler.class);
+		assertThat(newHandler.getTags()).hasSize(1).containsEntry(StandardTag.APERTURE, "2.8");
+		assertThat(handler.getTags()).hasSize(1).containsEntry(StandardTag.ARTIST, "foo");
+	}
+
+	@Test
+	void it_should_lookup_every_standard_tag() {
+		for (StandardTag tag : StandardTag.values()) {
+			assertThat(EnumTagHandler.lookup(CharBuffer.wrap(tag.getDisplayName()))).isSameAs(tag);
+		}
+
+		assertThat(EnumTagHandler.lookup("Unknown")).isNull();
+		assertThat(EnumTagHandler.lookup("")).isNull();
+	}
+
+	@Test
+	void it_should_select_handler_from_tags() {
+		List<Tag> mixed = asList(StandardTag.ARTIST, new UnspecifiedTag("Custom"));
+
+		assertThat(BaseTagHandler.of(inputs)).isExactlyInstanceOf(EnumTagHandler.class);
+		assertThat(BaseTagHandler.of(mixed)).isExactlyInstanceOf(StandardTagHandler.class);
+	}
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.UnspecifiedTag;
+import com.thebuzzmedia.exiftool.tests.builders.FileBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonTagHandlerTest {
+
+	private List<? extends Tag> inputs;
+
+	private File f1;
+	private File f2;
+
+	@BeforeEach
+	void setUp() {
+		inputs = asList(
+				StandardTag.ARTIST,
+				StandardTag.ISO,
+				StandardTag.FNUMBER,
+				StandardTag.IPTC_KEYWORDS
+		);
+
+		f1 = new FileBuilder("foo.jpg").build();
+		f2 = new FileBuilder("bar.jpg").build();
+	}
+
+	@Test
+	void it_should_read_null_line() {
+		JsonTagHandler handler = new JsonTagHandler(asList(f1, f2), inputs);
+		boolean hasNext = handler.readLine(null);
+		assertThat(hasNext).isFalse();
+		assertThat(handler.getTags()).hasSize(2).containsOnlyKeys(f1, f2);
+		assertThat(handler.getTags().get(f1)).isEmpty();
+		assertThat(handler.getTags().get(f2)).isEmpty();
+	}
+
+	@Test
+	void it_should_read_tags_of_each_file() {
+		JsonTagHandler handler = new JsonTagHandler(asList(f1, f2), inputs);
+
+		assertThat(handler.readLine("[{")).isTrue();
+		assertThat(handler.readLine("  \"SourceFile\": \"/tmp/foo.jpg\",")).isTrue();
+		assertThat(handler.readLine("  \"Artist\": \"foo\",")).isTrue();
+		assertThat(handler.readLine("  \"ISO\": 100,")).isTrue();
+		assertThat(handler.readLine("  \"FNumber\": 2.80,")).isTrue();
+		assertThat(handler.readLine("  \"Keywords\": [\"a\", 1, true]")).isTrue();
+		assertThat(handler.readLine("},")).isTrue();
+		assertThat(handler.readLine("{")).isTrue();
+		assertThat(handler.readLine("  \"SourceFile\": \"/tmp/bar.jpg\",")).isTrue();
+		assertThat(handler.readLine("  \"Artist\": \"bar\",")).isTrue();
+		assertThat(handler.readLine("  \"Make\": \"Canon\"")).isTrue();
+		assertThat(handler.readLine("}]")).isTrue();
+		assertThat(handler.readLine("{ready}")).isFalse();
+
+		assertThat(handler.size()).isEqualTo(2);
+		assertThat(handler.getTags()).containsOnlyKeys(f1, f2);
+		assertThat(handler.getTags().get(f1))
+				.hasSize(4)
+				.containsEntry(StandardTag.ARTIST, "foo")
+				.containsEntry(StandardTag.ISO, "100")
+				.containsEntry(StandardTag.FNUMBER, "2.80")
+				.containsEntry(StandardTag.IPTC_KEYWORDS, "a|>☃1|>☃true");
+
+		assertThat(handler.getTags().get(f2)).hasSize(1).containsEntry(StandardTag.ARTIST, "bar");
+
+		assertThat(handler.getValues().get(f1))
+				.hasSize(4)
+				.containsEntry(StandardTag.ARTIST, "foo")
+				.containsEntry(StandardTag.ISO, 100)
+				.containsEntry(StandardTag.FNUMBER, 2.8)
+				.containsEntry(StandardTag.IPTC_KEYWORDS, asList("a", 1, true));
+	}
+
+	@Test
+	void it_should_read_tags_by_group_and_name() {
+		JsonTagHandler handler = new JsonTagHandler(singletonList(f1), inputs);
+
+		handler.readLine("[{\"SourceFile\": \"/tmp/foo.jpg\", \"EXIF:ISO\": 200, \"IFD0:Artist\": \"foo\", \"XMP:Artist\": \"bar\", \"EXIF:Make\": \"Canon\"}]");
+		handler.readLine("{ready}");
+
+		assertThat(handler.getTags().get(f1))
+				.hasSize(3)
+				.containsEntry(new UnspecifiedTag("EXIF:ISO"), "200")
+				.containsEntry(new UnspecifiedTag("IFD0:Artist"), "foo")
+				.containsEntry(new UnspecifiedTag("XMP:Artist"), "bar");
+
+		assertThat(handler.getValues().get(f1)).containsEntry(new UnspecifiedTag("EXIF:ISO"), 200);
+	}
+
+	@Test
+	void it_should_read_each_object_once_it_is_complete() {
+		JsonTagHandler handler = new JsonTagHandler(asList(f1, f2), inputs);
+
+		handler.readLine("[{");
+		handler.readLine("  \"SourceFile\": \"/tmp/foo.jpg\",");
+		handler.readLine("  \"Artist\": \"a } ] \\\" [ {\",");
+		handler.readLine("  \"Keywords\": [[\"a\", 1], {\"b\": [2]}]");
+		handler.readLine("},");
+
+		// Tags of first file are available before the end of the output.
+		assertThat(handler.getTags().get(f1))
+				.hasSize(2)
+				.containsEntry(StandardTag.ARTIST, "a } ] \" [ {")
+				.containsEntry(StandardTag.IPTC_KEYWORDS, "a|>☃1|>☃{\"b\": [2]}");
+
+		handler.readLine("{");
+		handler.readLine("  \"SourceFile\": \"/tmp/bar.jpg\",");
+		handler.readLine("  \"Artist\": \"bar\"");
+		handler.readLine("}]");
+
+		assertThat(handler.getTags().get(f2)).hasSize(1).containsEntry(StandardTag.ARTIST, "bar");
+		assertThat(handler.getValues().get(f1)).containsEntry(StandardTag.IPTC_KEYWORDS, asList(asList("a", 1), singletonMap("b", singletonList(2))));
+		assertThat(handler.readLine("{ready}")).isFalse();
+	}
+
+	@Test
+	void it_should_read_all_tags() {
+		JsonTagHandler handler = new JsonTagHandler(singletonList(f1));
+
+		handler.readLine("[{\"SourceFile\": \"foo.jpg\", \"EXIF:ISO\": 200, \"XMP:Region\": {\"Name\": \"John\"}}]");
+		handler.readLine(null);
+
+		assertThat(handler.getTags().get(f1))
+				.hasSize(2)
+				.containsEntry(new UnspecifiedTag("EXIF:ISO"), "200")
+				.containsEntry(new UnspecifiedTag("XMP:Region"), "{\"Name\": \"John\"}");
+	}
+
+	@Test
+	void it_should_keep_tags_read_before_invalid_output() {
+		JsonTagHandler handler = new JsonTagHandler(asList(f1, f2), inputs);
+
+		handler.readLine("[{\"SourceFile\": \"/tmp/foo.jpg\", \"Artist\": \"foo\"},");
+		handler.readLine("{\"SourceFile\": \"/tmp/bar.jpg\", \"Artist\": ");
+		handler.readLine("{ready}");
+
+		assertThat(handler.getTags().get(f1)).hasSize(1).containsEntry(StandardTag.ARTIST, "foo");
+		assertThat(handler.getTags().get(f2)).isEmpty();
+	}
+}
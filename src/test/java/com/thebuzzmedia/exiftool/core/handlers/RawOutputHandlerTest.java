@@ -1,5 +1,6 @@
 package com.thebuzzmedia.exiftool.core.handlers;
 
+import static com.thebuzzmedia.exiftool.tests.TestConstants.BR;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
@@ -37,4 +38,18 @@ public class RawOutputHandlerTest {
 
 		assertThat(result).isEqualTo(rawOutput);
 	}
+
+	@Test
+	void it_should_drop_lines_beyond_max_length() {
+		RawOutputHandler handler = new RawOutputHandler(10);
+
+		assertThat(handler.readLine("foo")).isTrue();
+		assertThat(handler.readLine("bar")).isTrue();
+		assertThat(handler.readLine("too long")).isTrue();
+		assertThat(handler.readLine("baz")).isTrue();
+		assertThat(handler.readLine("{ready}")).isFalse();
+
+		assertThat(handler.getOutput()).isEqualTo("foo" + BR + "bar");
+		assertThat(handler.isTruncated()).isTrue();
+	}
 }
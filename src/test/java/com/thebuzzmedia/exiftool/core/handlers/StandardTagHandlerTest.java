@@ -22,6 +22,7 @@ import com.thebuzzmedia.exiftool.core.StandardTag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.CharBuffer;
 import java.util.List;
 
 import static java.util.Arrays.asList;
@@ -67,6 +68,22 @@ class StandardTagHandlerTest {
 		assertThat(handler.getTags()).hasSize(1).containsEntry(tag, value);
 	}
 
+	@Test
+	void it_should_read_tag_line_from_char_sequence() {
+		Tag tag = StandardTag.ARTIST;
+		String value = "foobar";
+
+		StandardTagHandler handler = new StandardTagHandler(inputs);
+		boolean r1 = handler.readLine(CharBuffer.wrap(tag.getName() + ": " + value));
+		boolean r2 = handler.readLine(CharBuffer.wrap("Unknown: foo"));
+		boolean r3 = handler.readLine(CharBuffer.wrap("{ready}"));
+
+		assertThat(r1).isTrue();
+		assertThat(r2).isTrue();
+		assertThat(r3).isFalse();
+		assertThat(handler.getTags()).hasSize(1).containsEntry(tag, value);
+	}
+
 	@Test
 	void it_should_read_tag_line_with_additional_pattern() {
 		Tag tag = StandardTag.ARTIST;
@@ -77,4 +94,18 @@ class StandardTagHandlerTest {
 
 		assertThat(handler.getTags()).hasSize(1).containsEntry(tag, value);
 	}
+
+	@Test
+	void it_should_create_new_handler_with_same_tags() {
+		StandardTagHandler handler = new StandardTagHandler(inputs);
+		handler.readLine("Artist: foo");
+
+		BaseTagHandler newHandler = handler.newHandler();
+		newHandler.readLine("ApertureValue: 2.8");
+		newHandler.readLine("ISO: 100");
+
+		assertThat(newHandler).isExactlyInstanceOf(StandardTagHandler.class);
+		assertThat(newHandler.getTags()).hasSize(1).containsEntry(StandardTag.APERTURE, "2.8");
+		assertThat(handler.getTags()).hasSize(1).containsEntry(StandardTag.ARTIST, "foo");
+	}
 }
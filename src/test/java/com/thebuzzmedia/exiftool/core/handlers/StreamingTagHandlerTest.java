@@ -0,0 +1,69 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.Tag;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingTagHandlerTest {
+
+	@Test
+	void it_should_give_tags_of_each_file_when_read() {
+		Map<File, Map<Tag, String>> results = new LinkedHashMap<>();
+		StreamingTagHandler handler = new StreamingTagHandler(asList(StandardTag.ARTIST, StandardTag.ISO), results::put);
+
+		assertThat(handler.readLine("======== /tmp/foo.jpg")).isTrue();
+		assertThat(handler.readLine("Artist: foo")).isTrue();
+		assertThat(handler.readLine("ISO: 100")).isTrue();
+		assertThat(results).isEmpty();
+
+		assertThat(handler.readLine("======== /tmp/bar.jpg")).isTrue();
+		assertThat(results).hasSize(1);
+
+		assertThat(handler.readLine("Artist: bar")).isTrue();
+		assertThat(handler.readLine("    1 directories scanned")).isTrue();
+		assertThat(handler.readLine("    2 image files read")).isTrue();
+		assertThat(handler.readLine("{ready}")).isFalse();
+
+		assertThat(handler.size()).isEqualTo(2);
+		assertThat(results).hasSize(2).containsOnlyKeys(new File("/tmp/foo.jpg"), new File("/tmp/bar.jpg"));
+		assertThat(results.get(new File("/tmp/foo.jpg"))).hasSize(2).containsEntry(StandardTag.ARTIST, "foo").containsEntry(StandardTag.ISO, "100");
+		assertThat(results.get(new File("/tmp/bar.jpg"))).hasSize(1).containsEntry(StandardTag.ARTIST, "bar");
+	}
+
+	@Test
+	void it_should_skip_lines_outside_of_file_section() {
+		Map<File, Map<Tag, String>> results = new LinkedHashMap<>();
+		StreamingTagHandler handler = new StreamingTagHandler(asList(StandardTag.ARTIST, StandardTag.ISO), results::put);
+
+		assertThat(handler.readLine("Artist: foo")).isTrue();
+		assertThat(handler.readLine("    0 image files read")).isTrue();
+		assertThat(handler.readLine(null)).isFalse();
+
+		assertThat(handler.size()).isZero();
+		assertThat(results).isEmpty();
+	}
+}
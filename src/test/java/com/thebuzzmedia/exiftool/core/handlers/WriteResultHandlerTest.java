@@ -0,0 +1,120 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.handlers;
+
+import com.thebuzzmedia.exiftool.core.WriteResult;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteResultHandlerTest {
+
+	@Test
+	void it_should_read_updated_file() {
+		WriteResultHandler handler = new WriteResultHandler();
+
+		assertThat(handler.readLine("    1 image files updated")).isTrue();
+		assertThat(handler.readLine("{ready}")).isFalse();
+
+		WriteResult result = handler.getResult();
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.getUpdated()).isEqualTo(1);
+		assertThat(result.getUnchanged()).isZero();
+		assertThat(result.getFailed()).isZero();
+		assertThat(result.getMessages()).isEmpty();
+	}
+
+	@Test
+	void it_should_read_unchanged_file() {
+		WriteResultHandler handler = new WriteResultHandler();
+		handler.readLine("    0 image files updated");
+		handler.readLine("    1 image files unchanged");
+		handler.readLine(null);
+
+		WriteResult result = handler.getResult();
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.getUnchanged()).isEqualTo(1);
+	}
+
+	@Test
+	void it_should_read_failed_file() {
+		WriteResultHandler handler = new WriteResultHandler();
+		handler.readLine("    0 image files updated");
+		handler.readLine("    1 files weren't updated due to errors");
+		handler.readLine("{ready}");
+
+		WriteResult result = handler.getResult();
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.getFailed()).isEqualTo(1);
+	}
+
+	@Test
+	void it_should_keep_other_lines_as_messages() {
+		WriteResultHandler handler = new WriteResultHandler();
+		handler.readLine("Nothing to do.");
+		handler.readLine("");
+		handler.readLine("{ready}");
+
+		WriteResult result = handler.getResult();
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.getMessages()).containsExactly("Nothing to do.");
+	}
+
+	@Test
+	void it_should_read_warnings_and_errors() {
+		WriteResultHandler handler = new WriteResultHandler();
+		handler.readLine("Warning: Tag 'Foo' is not defined");
+		handler.readLine("Error: File not found - /tmp/foo.png");
+		handler.readLine("    0 image files updated");
+		handler.readLine("    1 files weren't updated due to errors");
+		handler.readLine("{ready}");
+
+		WriteResult result = handler.getResult();
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.getWarnings()).containsExactly("Tag 'Foo' is not defined");
+		assertThat(result.getErrors()).containsExactly("File not found - /tmp/foo.png");
+		assertThat(result.getMessages()).isEmpty();
+	}
+
+	@Test
+	void it_should_succeed_with_warnings() {
+		WriteResultHandler handler = new WriteResultHandler();
+		handler.readLine("Warning: [minor] Fixed incorrect byte order");
+		handler.readLine("    1 image files updated");
+		handler.readLine("{ready}");
+
+		WriteResult result = handler.getResult();
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.getWarnings()).hasSize(1);
+	}
+
+	@Test
+	void it_should_read_error_output() {
+		WriteResultHandler handler = new WriteResultHandler();
+		handler.readLine("    0 image files updated");
+		handler.readLine("    1 files weren't updated due to errors");
+		handler.readLine("{ready}");
+		handler.readErrorLine("Error: File not found - /tmp/foo.png");
+		handler.readErrorLine("Warning: Tag 'Foo' is not defined");
+		handler.readErrorLine("Unexpected message");
+
+		WriteResult result = handler.getResult();
+		assertThat(result.getErrors()).containsExactly("File not found - /tmp/foo.png");
+		assertThat(result.getWarnings()).containsExactly("Tag 'Foo' is not defined");
+		assertThat(result.getMessages()).containsExactly("Unexpected message");
+	}
+}
@@ -23,14 +23,20 @@ import com.thebuzzmedia.exiftool.process.OutputHandler;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @SuppressWarnings("resource")
 class DefaultStrategyTest {
@@ -46,7 +52,7 @@ class DefaultStrategyTest {
 		strategy.execute(executor, exifTool, args, handler);
 
 		ArgumentCaptor<Command> cmdCaptor = ArgumentCaptor.forClass(Command.class);
-		verify(executor).execute(cmdCaptor.capture(), same(handler));
+		verify(executor).stream(cmdCaptor.capture(), same(handler));
 
 		List<String> expectedArguments = new ArrayList<>();
 		expectedArguments.add(exifTool);
@@ -58,6 +64,33 @@ class DefaultStrategyTest {
 		assertThat(cmd.getArguments()).hasSameSizeAs(expectedArguments).isEqualTo(expectedArguments);
 	}
 
+	@Test
+	void it_should_execute_command_asynchronously() throws Exception {
+		CommandExecutor executor = mock(CommandExecutor.class);
+		OutputHandler handler = mock(OutputHandler.class);
+		List<String> args = asList("-S", "-n", "-XArtist", "-execute");
+
+		CompletableFuture<Void> future = new DefaultStrategy().executeAsync(executor, "exiftool", args, handler, Runnable::run);
+
+		assertThat(future).isCompletedWithValue(null);
+		verify(executor).stream(any(Command.class), same(handler));
+	}
+
+	@Test
+	void it_should_complete_exceptionally_if_asynchronous_command_fails() throws Exception {
+		CommandExecutor executor = mock(CommandExecutor.class);
+		OutputHandler handler = mock(OutputHandler.class);
+		List<String> args = asList("-S", "-n", "-XArtist", "-execute");
+		IOException ex = new IOException("fail");
+		when(executor.stream(any(Command.class), same(handler))).thenThrow(ex);
+
+		CompletableFuture<Void> future = new DefaultStrategy().executeAsync(executor, "exiftool", args, handler, Runnable::run);
+
+		assertThatThrownBy(future::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCause(ex);
+	}
+
 	@Test
 	void it_should_never_be_running() {
 		DefaultStrategy strategy = new DefaultStrategy();
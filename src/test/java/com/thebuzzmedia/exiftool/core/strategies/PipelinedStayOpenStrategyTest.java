@@ -0,0 +1,378 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import com.thebuzzmedia.exiftool.Scheduler;
+import com.thebuzzmedia.exiftool.Version;
+import com.thebuzzmedia.exiftool.process.Command;
+import com.thebuzzmedia.exiftool.process.CommandExecutor;
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+import com.thebuzzmedia.exiftool.process.executor.DefaultCommandProcess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.thebuzzmedia.exiftool.tests.TestConstants.BR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PipelinedStayOpenStrategyTest {
+
+	private Scheduler scheduler;
+	private CommandExecutor executor;
+	private PipedOutputStream daemonOutput;
+	private ByteArrayOutputStream daemonInput;
+	private ExecutorService threads;
+
+	private String exifTool;
+	private List<String> args;
+	private PipelinedStayOpenStrategy strategy;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		scheduler = mock(Scheduler.class);
+		executor = mock(CommandExecutor.class);
+		threads = Executors.newCachedThreadPool();
+		exifTool = "exiftool";
+		nextDaemon();
+
+		args = asList("-S", "-n", "-XArtist", "-execute");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		threads.shutdownNow();
+
+		if (strategy != null) {
+			try {
+				strategy.close();
+			}
+			catch (Exception ex) {
+				// No worry, that's ok in these unit tests.
+			}
+		}
+	}
+
+	@Test
+	void it_should_fail_with_invalid_max_in_flight() {
+		assertThatThrownBy(() -> new PipelinedStayOpenStrategy(scheduler, 0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Maximum number of in-flight commands must be positive");
+	}
+
+	@Test
+	void it_should_check_if_exiftool_version_is_supported() {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+		assertThat(strategy.isSupported(new Version("9.15"))).isTrue();
+		assertThat(strategy.isSupported(new Version("10.16"))).isTrue();
+		assertThat(strategy.isSupported(new Version("9.14"))).isFalse();
+	}
+
+	@Test
+	void it_should_send_several_commands_before_reading_output() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		LinesHandler h1 = new LinesHandler();
+		LinesHandler h2 = new LinesHandler();
+		Future<?> f1 = execute(h1);
+		awaitInput("-execute1" + BR);
+		Future<?> f2 = execute(h2);
+		awaitInput("-execute2" + BR);
+
+		writeOutput("Artist: foo", "{ready1}", "Artist: bar", "{ready2}");
+		f1.get(5, TimeUnit.SECONDS);
+		f2.get(5, TimeUnit.SECONDS);
+
+		assertThat(h1.lines).containsExactly("Artist: foo", "{ready}");
+		assertThat(h2.lines).containsExactly("Artist: bar", "{ready}");
+		assertThat(input())
+				.contains("-S" + BR + "-n" + BR + "-XArtist" + BR + "-echo4" + BR + "{err1}" + BR + "-execute1" + BR)
+				.doesNotContain("-execute" + BR);
+
+		verify(executor).start(any(Command.class));
+		verify(scheduler, times(2)).start(any(Runnable.class));
+	}
+
+	@Test
+	void it_should_not_send_more_commands_than_max_in_flight() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 1);
+
+		LinesHandler h1 = new LinesHandler();
+		LinesHandler h2 = new LinesHandler();
+		Future<?> f1 = execute(h1);
+		awaitInput("-execute1" + BR);
+		Future<?> f2 = execute(h2);
+
+		Thread.sleep(200);
+		assertThat(input()).doesNotContain("-execute2");
+
+		writeOutput("Artist: foo", "{ready1}");
+		f1.get(5, TimeUnit.SECONDS);
+		awaitInput("-execute2" + BR);
+
+		writeOutput("Artist: bar", "{ready2}");
+		f2.get(5, TimeUnit.SECONDS);
+
+		assertThat(h1.lines).containsExactly("Artist: foo", "{ready}");
+		assertThat(h2.lines).containsExactly("Artist: bar", "{ready}");
+	}
+
+	@Test
+	void it_should_send_all_commands_of_a_batch_before_reading_output() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		LinesHandler h1 = new LinesHandler();
+		LinesHandler h2 = new LinesHandler();
+		LinesHandler h3 = new LinesHandler();
+		Future<?> batch = threads.submit(() -> {
+			strategy.executeAll(executor, exifTool, asList(args, args, args), asList(h1, h2, h3));
+			return null;
+		});
+
+		awaitInput("-execute2" + BR);
+		assertThat(input()).doesNotContain("-execute3");
+
+		writeOutput("Artist: foo", "{ready1}");
+		awaitInput("-execute3" + BR);
+		writeOutput("Artist: bar", "{ready2}", "Artist: baz", "{ready3}");
+		batch.get(5, TimeUnit.SECONDS);
+
+		assertThat(h1.lines).containsExactly("Artist: foo", "{ready}");
+		assertThat(h2.lines).containsExactly("Artist: bar", "{ready}");
+		assertThat(h3.lines).containsExactly("Artist: baz", "{ready}");
+	}
+
+	@Test
+	void it_should_execute_command_asynchronously_without_blocking() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		LinesHandler handler = new LinesHandler();
+		Executor async = mock(Executor.class);
+		CompletableFuture<Void> future = strategy.executeAsync(executor, exifTool, args, handler, async);
+
+		awaitInput("-execute1" + BR);
+		assertThat(future).isNotDone();
+
+		writeOutput("Artist: foo", "{ready1}");
+		future.get(5, TimeUnit.SECONDS);
+
+		assertThat(handler.lines).containsExactly("Artist: foo", "{ready}");
+		verifyNoInteractions(async);
+	}
+
+	@Test
+	void it_should_fail_pending_commands_if_output_is_closed() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		Future<?> f1 = execute(new LinesHandler());
+		awaitInput("-execute1" + BR);
+
+		daemonOutput.close();
+
+		assertThatThrownBy(() -> f1.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	void it_should_restart_daemon_once_output_is_closed() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		Future<?> f1 = execute(new LinesHandler());
+		awaitInput("-execute1" + BR);
+
+		PipedOutputStream output1 = daemonOutput;
+		nextDaemon();
+		output1.close();
+
+		assertThatThrownBy(() -> f1.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+		LinesHandler h2 = new LinesHandler();
+		Future<?> f2 = execute(h2);
+		awaitInput("-execute2" + BR);
+		writeOutput("Artist: bar", "{ready2}");
+		f2.get(5, TimeUnit.SECONDS);
+
+		assertThat(h2.lines).containsExactly("Artist: bar", "{ready}");
+		verify(executor, times(2)).start(any(Command.class));
+	}
+
+	@Test
+	void it_should_fail_pending_commands_and_restart_daemon_if_output_is_out_of_sync() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		Future<?> f1 = execute(new LinesHandler());
+		awaitInput("-execute1" + BR);
+		Future<?> f2 = execute(new LinesHandler());
+		awaitInput("-execute2" + BR);
+
+		PipedOutputStream output1 = daemonOutput;
+		nextDaemon();
+		output1.write(("{ready2}" + BR).getBytes(UTF_8));
+		output1.flush();
+
+		assertThatThrownBy(() -> f1.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class)
+				.hasMessageContaining("ExifTool process output is out of sync, expected end of command #1 but got: {ready2}");
+		assertThatThrownBy(() -> f2.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class);
+
+		LinesHandler h3 = new LinesHandler();
+		Future<?> f3 = execute(h3);
+		awaitInput("-execute3" + BR);
+		writeOutput("Artist: baz", "{ready3}");
+		f3.get(5, TimeUnit.SECONDS);
+
+		assertThat(h3.lines).containsExactly("Artist: baz", "{ready}");
+		verify(executor, times(2)).start(any(Command.class));
+	}
+
+	@Test
+	void it_should_complete_next_commands_if_a_handler_fails() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		IllegalStateException failure = new IllegalStateException("Handler failure");
+		Future<?> f1 = execute(new FailingHandler(failure));
+		awaitInput("-execute1" + BR);
+		LinesHandler h2 = new LinesHandler();
+		Future<?> f2 = execute(h2);
+		awaitInput("-execute2" + BR);
+
+		writeOutput("Artist: foo", "Artist: foo", "{ready1}", "Artist: bar", "{ready2}");
+
+		assertThatThrownBy(() -> f1.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class)
+				.hasRootCauseInstanceOf(IllegalStateException.class)
+				.hasRootCauseMessage("Handler failure");
+
+		f2.get(5, TimeUnit.SECONDS);
+		assertThat(h2.lines).containsExactly("Artist: bar", "{ready}");
+
+		LinesHandler h3 = new LinesHandler();
+		Future<?> f3 = execute(h3);
+		awaitInput("-execute3" + BR);
+		writeOutput("Artist: baz", "{ready3}");
+		f3.get(5, TimeUnit.SECONDS);
+
+		assertThat(h3.lines).containsExactly("Artist: baz", "{ready}");
+		verify(executor).start(any(Command.class));
+	}
+
+	@Test
+	void it_should_close_daemon() throws Exception {
+		strategy = new PipelinedStayOpenStrategy(scheduler, 2);
+
+		Future<?> f1 = execute(new LinesHandler());
+		awaitInput("-execute1" + BR);
+		writeOutput("{ready1}");
+		f1.get(5, TimeUnit.SECONDS);
+
+		assertThat(strategy.isRunning()).isTrue();
+
+		strategy.close();
+
+		assertThat(strategy.isRunning()).isFalse();
+		assertThat(input()).endsWith("-stay_open\nFalse\n");
+		verify(scheduler, times(2)).stop();
+	}
+
+	private void nextDaemon() throws IOException {
+		daemonOutput = new PipedOutputStream();
+		daemonInput = new ByteArrayOutputStream();
+
+		DefaultCommandProcess process = new DefaultCommandProcess(new PipedInputStream(daemonOutput), daemonInput, mock(InputStream.class));
+		when(executor.start(any(Command.class))).thenReturn(process);
+	}
+
+	private Future<?> execute(OutputHandler handler) {
+		return threads.submit(() -> {
+			strategy.execute(executor, exifTool, args, handler);
+			return null;
+		});
+	}
+
+	private void writeOutput(String... lines) throws IOException {
+		for (String line : lines) {
+			daemonOutput.write((line + BR).getBytes(UTF_8));
+		}
+
+		daemonOutput.flush();
+	}
+
+	private String input() {
+		return new String(daemonInput.toByteArray(), UTF_8);
+	}
+
+	private void awaitInput(String expected) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 5000;
+		while (!input().contains(expected) && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+
+		assertThat(input()).contains(expected);
+	}
+
+	private static class FailingHandler implements OutputHandler {
+		private final RuntimeException failure;
+
+		private FailingHandler(RuntimeException failure) {
+			this.failure = failure;
+		}
+
+		@Override
+		public boolean readLine(String line) {
+			throw failure;
+		}
+	}
+
+	private static class LinesHandler implements OutputHandler {
+		private final List<String> lines = new CopyOnWriteArrayList<>();
+
+		@Override
+		public boolean readLine(String line) {
+			lines.add(line);
+			return true;
+		}
+	}
+}
@@ -20,24 +20,38 @@ package com.thebuzzmedia.exiftool.core.strategies;
 import com.thebuzzmedia.exiftool.ExecutionStrategy;
 import com.thebuzzmedia.exiftool.Version;
 import com.thebuzzmedia.exiftool.exceptions.PoolIOException;
+import com.thebuzzmedia.exiftool.exceptions.PoolRejectedException;
+import com.thebuzzmedia.exiftool.exceptions.PoolTimeoutException;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.millis;
+import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.seconds;
 import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
 import static java.lang.Thread.sleep;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.collection;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -101,6 +115,21 @@ class PoolStrategyTest {
 		verify(s1).execute(executor, exifTool, arguments, handler);
 	}
 
+	@Test
+	void it_should_execute_a_batch_with_a_single_strategy() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		Collection<ExecutionStrategy> strategies = asList(s1, s2);
+		List<List<String>> commands = asList(arguments, arguments);
+		List<OutputHandler> handlers = asList(handler, handler);
+
+		pool = new PoolStrategy(strategies);
+		pool.executeAll(executor, exifTool, commands, handlers);
+
+		verify(s1).executeAll(executor, exifTool, commands, handlers);
+		verify(s2, never()).executeAll(executor, exifTool, commands, handlers);
+	}
+
 	@Test
 	void it_should_check_that_version_is_not_supported() {
 		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
@@ -381,6 +410,263 @@ class PoolStrategyTest {
 		assertThat(exceptions).hasSize(2).contains(ex1, ex2);
 	}
 
+	@Test
+	void it_should_create_elastic_pool_with_min_size() {
+		pool = new PoolStrategy(() -> mock(ExecutionStrategy.class), 2, 4, millis(100), seconds(60));
+
+		assertThat(pool.getSize()).isEqualTo(2);
+		assertThat(pool.getHighWaterMark()).isEqualTo(2);
+		assertThat(pool.isRunning()).isFalse();
+	}
+
+	@Test
+	void it_should_not_create_elastic_pool_with_max_size_less_than_min_size() {
+		assertThatThrownBy(() -> new PoolStrategy(() -> mock(ExecutionStrategy.class), 2, 1, millis(100), seconds(60)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Pool maximum size must be greater than or equal to pool minimum size");
+	}
+
+	@Test
+	void it_should_grow_elastic_pool_when_no_strategy_is_available() throws Exception {
+		CountDownLatch execLock = new CountDownLatch(1);
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		doAnswer(new LockAnswer(1, execLock))
+				.when(s1)
+				.execute(any(CommandExecutor.class), anyString(), anyListOf(String.class), any(OutputHandler.class));
+
+		Iterator<ExecutionStrategy> strategies = asList(s1, s2).iterator();
+		pool = new PoolStrategy(strategies::next, 1, 2, millis(100), seconds(60));
+
+		// Start a thread with strategy #1
+		CountDownLatch lock = new CountDownLatch(1);
+		Thread t1 = new Thread(new ExecuteTask(1, lock, pool, executor, exifTool, arguments, handler));
+		t1.start();
+		lock.countDown();
+		sleep(500);
+
+		// Strategy #1 is busy, so strategy #2 should be created.
+		pool.execute(executor, exifTool, arguments, handler);
+
+		verify(s2).execute(executor, exifTool, arguments, handler);
+		assertThat(pool.getSize()).isEqualTo(2);
+		assertThat(pool.getHighWaterMark()).isEqualTo(2);
+
+		execLock.countDown();
+		t1.join();
+	}
+
+	@Test
+	void it_should_shrink_elastic_pool_when_strategies_are_idle() throws Exception {
+		CountDownLatch execLock = new CountDownLatch(1);
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		doAnswer(new LockAnswer(1, execLock))
+				.when(s1)
+				.execute(any(CommandExecutor.class), anyString(), anyListOf(String.class), any(OutputHandler.class));
+
+		Iterator<ExecutionStrategy> strategies = asList(s1, s2).iterator();
+		pool = new PoolStrategy(strategies::next, 1, 2, millis(100), millis(200));
+
+		CountDownLatch lock = new CountDownLatch(1);
+		Thread t1 = new Thread(new ExecuteTask(1, lock, pool, executor, exifTool, arguments, handler));
+		t1.start();
+		lock.countDown();
+		sleep(500);
+
+		pool.execute(executor, exifTool, arguments, handler);
+		execLock.countDown();
+		t1.join();
+
+		sleep(1000);
+
+		assertThat(pool.getSize()).isEqualTo(1);
+		assertThat(pool.getHighWaterMark()).isEqualTo(2);
+		verify(s1, never()).shutdown();
+		verify(s2).shutdown();
+	}
+
+	@Test
+	void it_should_fail_with_timeout_if_no_strategy_is_available() throws Exception {
+		CountDownLatch execLock = new CountDownLatch(1);
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		doAnswer(new LockAnswer(1, execLock))
+				.when(s1)
+				.execute(any(CommandExecutor.class), anyString(), anyListOf(String.class), any(OutputHandler.class));
+
+		pool = new PoolStrategy(singletonList(s1)).withAcquireTimeout(millis(200));
+
+		CountDownLatch lock = new CountDownLatch(1);
+		Thread t1 = new Thread(new ExecuteTask(1, lock, pool, executor, exifTool, arguments, handler));
+		t1.start();
+		lock.countDown();
+		sleep(500);
+
+		assertThatThrownBy(() -> pool.execute(executor, exifTool, arguments, handler))
+				.isInstanceOf(PoolTimeoutException.class);
+
+		assertThat(pool.getWaiters()).isZero();
+
+		execLock.countDown();
+		t1.join();
+	}
+
+	@Test
+	void it_should_reject_execution_if_max_waiters_is_reached() throws Exception {
+		CountDownLatch execLock = new CountDownLatch(1);
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		doAnswer(new LockAnswer(1, execLock))
+				.when(s1)
+				.execute(any(CommandExecutor.class), anyString(), anyListOf(String.class), any(OutputHandler.class));
+
+		pool = new PoolStrategy(singletonList(s1)).withMaxWaiters(1);
+
+		// Thread #1 is executing, thread #2 is waiting.
+		CountDownLatch lock = new CountDownLatch(1);
+		Thread t1 = new Thread(new ExecuteTask(1, lock, pool, executor, exifTool, arguments, handler));
+		Thread t2 = new Thread(new ExecuteTask(2, lock, pool, executor, exifTool, arguments, handler));
+		t1.start();
+		t2.start();
+		lock.countDown();
+		sleep(500);
+
+		assertThat(pool.getWaiters()).isEqualTo(1);
+		assertThatThrownBy(() -> pool.execute(executor, exifTool, arguments, handler))
+				.isInstanceOf(PoolRejectedException.class);
+
+		execLock.countDown();
+		t1.join();
+		t2.join();
+
+		assertThat(pool.getWaiters()).isZero();
+		verify(s1, times(2)).execute(executor, exifTool, arguments, handler);
+	}
+
+	@Test
+	void it_should_pick_strategies_in_turn_by_default() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+
+		pool = new PoolStrategy(asList(s1, s2));
+		pool.execute(executor, exifTool, arguments, handler);
+		pool.execute(executor, exifTool, arguments, handler);
+
+		verify(s1).execute(executor, exifTool, arguments, handler);
+		verify(s2).execute(executor, exifTool, arguments, handler);
+	}
+
+	@Test
+	void it_should_pick_most_recently_used_strategy() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+
+		pool = new PoolStrategy(asList(s1, s2)).withDispatchPolicy(DispatchPolicy.MOST_RECENTLY_USED);
+		pool.execute(executor, exifTool, arguments, handler);
+		pool.execute(executor, exifTool, arguments, handler);
+
+		verify(s1, times(2)).execute(executor, exifTool, arguments, handler);
+		verify(s2, never()).execute(executor, exifTool, arguments, handler);
+	}
+
+	@Test
+	void it_should_pick_running_strategy_first() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		when(s2.isRunning()).thenReturn(true);
+
+		pool = new PoolStrategy(asList(s1, s2)).withDispatchPolicy(DispatchPolicy.WARM_FIRST);
+		pool.execute(executor, exifTool, arguments, handler);
+
+		verify(s1, never()).execute(executor, exifTool, arguments, handler);
+		verify(s2).execute(executor, exifTool, arguments, handler);
+	}
+
+	@Test
+	void it_should_pick_strategy_by_file_extension() throws Exception {
+		List<String> jpg = asList("-S", "-ImageWidth", "/tmp/image.JPG", "-execute");
+		List<String> png = asList("-S", "-ImageWidth", "/tmp/image.png", "-execute");
+
+		CountDownLatch execLock = new CountDownLatch(1);
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		doAnswer(new LockAnswer(1, execLock)).when(s1).execute(executor, exifTool, jpg, handler);
+
+		pool = new PoolStrategy(asList(s1, s2)).withDispatchPolicy(DispatchPolicy.EXTENSION_AFFINITY);
+
+		// Strategy #1 processes a JPG file while strategy #2 processes a PNG file.
+		CountDownLatch lock = new CountDownLatch(1);
+		Thread t1 = new Thread(new ExecuteTask(1, lock, pool, executor, exifTool, jpg, handler));
+		t1.start();
+		lock.countDown();
+		sleep(500);
+
+		pool.execute(executor, exifTool, png, handler);
+		execLock.countDown();
+		t1.join();
+
+		// Strategy #1 is now the most recently used, but PNG files should still go to strategy #2.
+		reset(s1, s2);
+		pool.execute(executor, exifTool, png, handler);
+		pool.execute(executor, exifTool, jpg, handler);
+
+		verify(s1, never()).execute(executor, exifTool, png, handler);
+		verify(s1).execute(executor, exifTool, jpg, handler);
+		verify(s2).execute(executor, exifTool, png, handler);
+		verify(s2, never()).execute(executor, exifTool, jpg, handler);
+	}
+
+	@Test
+	void it_should_prewarm_all_strategies() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+
+		pool = new PoolStrategy(asList(s1, s2));
+		pool.prewarm(executor, exifTool, arguments, handler);
+
+		verify(s1).prewarm(executor, exifTool, arguments, handler);
+		verify(s2).prewarm(executor, exifTool, arguments, handler);
+		assertThat(pool.isRunning()).isFalse();
+	}
+
+	@Test
+	void it_should_prewarm_all_strategies_in_parallel() throws Exception {
+		// Each strategy waits for the other one: this can only succeed in parallel.
+		CountDownLatch latch = new CountDownLatch(2);
+		Answer<Void> answer = invocation -> {
+			latch.countDown();
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			return null;
+		};
+
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		doAnswer(answer).when(s1).prewarm(executor, exifTool, arguments, handler);
+		doAnswer(answer).when(s2).prewarm(executor, exifTool, arguments, handler);
+
+		pool = new PoolStrategy(asList(s1, s2)).withParallelPrewarm(true);
+		pool.prewarm(executor, exifTool, arguments, handler);
+
+		assertThat(latch.getCount()).isZero();
+		assertThat(pool.isRunning()).isFalse();
+	}
+
+	@Test
+	void it_should_collect_prewarm_exceptions() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		IOException ex1 = new IOException("1");
+		doThrow(ex1).when(s1).prewarm(executor, exifTool, arguments, handler);
+
+		pool = new PoolStrategy(asList(s1, s2)).withParallelPrewarm(true);
+
+		assertThatThrownBy(() -> pool.prewarm(executor, exifTool, arguments, handler))
+				.isInstanceOf(PoolIOException.class)
+				.hasMessage("Some strategies in the pool failed to prewarm");
+
+		verify(s2).prewarm(executor, exifTool, arguments, handler);
+		assertThat(pool.isRunning()).isFalse();
+	}
+
 	private void runPool(ExecutionStrategy s1, ExecutionStrategy s2, TaskFactory taskFactory) throws Exception {
 		pool = new PoolStrategy(asList(s1, s2));
 
@@ -406,4 +692,156 @@ class PoolStrategyTest {
 	private interface TaskFactory {
 		Runnable create(PoolStrategy pool);
 	}
+
+	@Test
+	void it_should_check_health_of_available_strategies() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		when(s1.checkHealth(executor, exifTool)).thenReturn(true);
+		when(s2.checkHealth(executor, exifTool)).thenReturn(false);
+
+		pool = new PoolStrategy(asList(s1, s2));
+
+		assertThat(pool.checkHealth(executor, exifTool)).isFalse();
+
+		verify(s1).checkHealth(executor, exifTool);
+		verify(s2).checkHealth(executor, exifTool);
+		assertThat(pool).extracting("pool").asInstanceOf(collection(ExecutionStrategy.class)).containsOnly(s1, s2);
+	}
+
+	@Test
+	void it_should_check_health_periodically_once_pool_has_been_used() throws Exception {
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		when(s1.checkHealth(executor, exifTool)).thenReturn(true);
+
+		pool = new PoolStrategy(singletonList(s1)).withHealthCheck(millis(20));
+
+		sleep(100);
+		verify(s1, never()).checkHealth(any(CommandExecutor.class), anyString());
+
+		pool.execute(executor, exifTool, arguments, handler);
+
+		await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+				verify(s1, atLeast(2)).checkHealth(executor, exifTool)
+		);
+	}
+
+	@Test
+	void it_should_queue_async_execution_until_a_strategy_is_released() throws Exception {
+		Executor async = Runnable::run;
+		CompletableFuture<Void> first = new CompletableFuture<>();
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		when(s1.executeAsync(executor, exifTool, arguments, handler, async))
+				.thenReturn(first)
+				.thenReturn(CompletableFuture.completedFuture(null));
+
+		pool = new PoolStrategy(singletonList(s1));
+
+		CompletableFuture<Void> f1 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+		CompletableFuture<Void> f2 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+
+		// Second execution is queued, no thread is waiting for the strategy.
+		verify(s1, times(1)).executeAsync(executor, exifTool, arguments, handler, async);
+		assertThat(pool.getWaiters()).isEqualTo(1);
+		assertThat(f2).isNotDone();
+
+		first.complete(null);
+
+		verify(s1, times(2)).executeAsync(executor, exifTool, arguments, handler, async);
+		assertThat(f1).isCompleted();
+		assertThat(f2).isCompleted();
+		assertThat(pool.getWaiters()).isZero();
+		assertThat(pool).extracting("pool").asInstanceOf(collection(ExecutionStrategy.class)).containsOnly(s1);
+	}
+
+	@Test
+	void it_should_release_strategy_when_async_execution_fails() throws Exception {
+		Executor async = Runnable::run;
+		CompletableFuture<Void> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IOException("fail"));
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		when(s1.executeAsync(executor, exifTool, arguments, handler, async)).thenReturn(failure);
+
+		pool = new PoolStrategy(singletonList(s1));
+
+		CompletableFuture<Void> future = pool.executeAsync(executor, exifTool, arguments, handler, async);
+
+		assertThatThrownBy(future::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class);
+
+		assertThat(pool).extracting("pool").asInstanceOf(collection(ExecutionStrategy.class)).containsOnly(s1);
+	}
+
+	@Test
+	void it_should_reject_async_execution_if_max_waiters_is_reached() throws Exception {
+		Executor async = Runnable::run;
+		CompletableFuture<Void> first = new CompletableFuture<>();
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		when(s1.executeAsync(executor, exifTool, arguments, handler, async))
+				.thenReturn(first)
+				.thenReturn(CompletableFuture.completedFuture(null));
+
+		pool = new PoolStrategy(singletonList(s1)).withMaxWaiters(1);
+
+		CompletableFuture<Void> f1 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+		CompletableFuture<Void> f2 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+		CompletableFuture<Void> f3 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+
+		assertThatThrownBy(f3::get)
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(PoolRejectedException.class);
+
+		first.complete(null);
+
+		assertThat(f1).isCompleted();
+		assertThat(f2).isCompleted();
+		assertThat(pool.getWaiters()).isZero();
+	}
+
+	@Test
+	void it_should_fail_queued_async_execution_with_timeout() throws Exception {
+		Executor async = Runnable::run;
+		CompletableFuture<Void> first = new CompletableFuture<>();
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		when(s1.executeAsync(executor, exifTool, arguments, handler, async)).thenReturn(first);
+
+		pool = new PoolStrategy(singletonList(s1)).withAcquireTimeout(millis(100));
+
+		pool.executeAsync(executor, exifTool, arguments, handler, async);
+		CompletableFuture<Void> f2 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+
+		assertThatThrownBy(() -> f2.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(PoolTimeoutException.class);
+
+		assertThat(pool.getWaiters()).isZero();
+
+		// Timed out execution is never dispatched.
+		first.complete(null);
+		verify(s1, times(1)).executeAsync(executor, exifTool, arguments, handler, async);
+	}
+
+	@Test
+	void it_should_grow_elastic_pool_immediately_for_async_execution() throws Exception {
+		Executor async = Runnable::run;
+		ExecutionStrategy s1 = mock(ExecutionStrategy.class);
+		ExecutionStrategy s2 = mock(ExecutionStrategy.class);
+		CompletableFuture<Void> first = new CompletableFuture<>();
+		when(s1.executeAsync(executor, exifTool, arguments, handler, async)).thenReturn(first);
+		when(s2.executeAsync(executor, exifTool, arguments, handler, async)).thenReturn(CompletableFuture.completedFuture(null));
+
+		Iterator<ExecutionStrategy> strategies = asList(s1, s2).iterator();
+		pool = new PoolStrategy(strategies::next, 1, 2, seconds(60), seconds(60));
+
+		pool.executeAsync(executor, exifTool, arguments, handler, async);
+		CompletableFuture<Void> f2 = pool.executeAsync(executor, exifTool, arguments, handler, async);
+
+		assertThat(f2).isCompleted();
+		verify(s2).executeAsync(executor, exifTool, arguments, handler, async);
+		assertThat(pool.getSize()).isEqualTo(2);
+		assertThat(pool.getWaiters()).isZero();
+
+		first.complete(null);
+	}
 }
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessMemoryTest {
+
+	@Test
+	void it_should_parse_resident_memory() {
+		long memory = ProcessMemory.parseResidentMemory(asList(
+				"Name:\tperl",
+				"VmPeak:\t   45000 kB",
+				"VmRSS:\t   12345 kB",
+				"Threads:\t1"
+		));
+
+		assertThat(memory).isEqualTo(12345L * 1024);
+	}
+
+	@Test
+	void it_should_not_parse_missing_resident_memory() {
+		assertThat(ProcessMemory.parseResidentMemory(singletonList("Name:\tperl"))).isEqualTo(-1);
+		assertThat(ProcessMemory.parseResidentMemory(singletonList("VmRSS:\tunknown"))).isEqualTo(-1);
+	}
+
+	@Test
+	void it_should_not_read_resident_memory_of_unknown_process() {
+		assertThat(ProcessMemory.residentMemory(-1)).isEqualTo(-1);
+		assertThat(ProcessMemory.residentMemory(Long.MAX_VALUE)).isEqualTo(-1);
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.core.strategies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.seconds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RecyclePolicyTest {
+
+	@Test
+	void it_should_never_recycle_by_default() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy();
+
+		assertThat(policy.isEnabled()).isFalse();
+		assertThat(policy.shouldRecycle(Integer.MAX_VALUE, Long.MAX_VALUE, () -> Long.MAX_VALUE)).isFalse();
+	}
+
+	@Test
+	void it_should_create_new_policy() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy();
+		RecyclePolicy p1 = policy.withMaxRequests(10).withMaxLifetime(seconds(60)).withMaxResidentMemory(1024);
+
+		assertThat(policy.isEnabled()).isFalse();
+		assertThat(p1.isEnabled()).isTrue();
+		assertThat(p1.getMaxRequests()).isEqualTo(10);
+		assertThat(p1.getMaxLifetime()).isEqualTo(seconds(60));
+		assertThat(p1.getMaxResidentMemory()).isEqualTo(1024);
+		assertThat(p1).isEqualTo(RecyclePolicy.recyclePolicy().withMaxRequests(10).withMaxLifetime(seconds(60)).withMaxResidentMemory(1024));
+	}
+
+	@Test
+	void it_should_fail_with_invalid_limits() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy();
+
+		assertThatThrownBy(() -> policy.withMaxRequests(0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Maximum number of requests should be a strictly positive value");
+
+		assertThatThrownBy(() -> policy.withMaxResidentMemory(-1))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Maximum resident memory should be a strictly positive value");
+
+		assertThatThrownBy(() -> policy.withMaxLifetime(null))
+				.isInstanceOf(NullPointerException.class)
+				.hasMessage("Maximum lifetime should not be null");
+	}
+
+	@Test
+	void it_should_recycle_after_max_requests() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy().withMaxRequests(10);
+		LongSupplier memory = mock(LongSupplier.class);
+
+		assertThat(policy.shouldRecycle(9, 0, memory)).isFalse();
+		assertThat(policy.shouldRecycle(10, 0, memory)).isTrue();
+		verifyNoInteractions(memory);
+	}
+
+	@Test
+	void it_should_recycle_after_max_lifetime() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy().withMaxLifetime(seconds(60));
+		LongSupplier memory = mock(LongSupplier.class);
+
+		assertThat(policy.shouldRecycle(0, TimeUnit.SECONDS.toNanos(59), memory)).isFalse();
+		assertThat(policy.shouldRecycle(0, TimeUnit.SECONDS.toNanos(60), memory)).isTrue();
+		verifyNoInteractions(memory);
+	}
+
+	@Test
+	void it_should_recycle_above_max_resident_memory() {
+		RecyclePolicy policy = RecyclePolicy.recyclePolicy().withMaxResidentMemory(1024);
+		LongSupplier memory = mock(LongSupplier.class);
+		when(memory.getAsLong()).thenReturn(-1L, 1023L, 1024L);
+
+		assertThat(policy.shouldRecycle(0, 0, memory)).isFalse();
+		assertThat(policy.shouldRecycle(0, 0, memory)).isFalse();
+		assertThat(policy.shouldRecycle(0, 0, memory)).isTrue();
+	}
+}
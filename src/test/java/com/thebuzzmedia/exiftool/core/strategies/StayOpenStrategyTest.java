@@ -18,25 +18,38 @@
 package com.thebuzzmedia.exiftool.core.strategies;
 
 import com.thebuzzmedia.exiftool.Scheduler;
+import com.thebuzzmedia.exiftool.exceptions.CommandTimeoutException;
 import com.thebuzzmedia.exiftool.process.Command;
 import com.thebuzzmedia.exiftool.process.CommandExecutor;
 import com.thebuzzmedia.exiftool.process.CommandProcess;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
-import org.assertj.core.api.Condition;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static com.thebuzzmedia.exiftool.core.schedulers.SchedulerDuration.millis;
+import static com.thebuzzmedia.exiftool.tests.MockitoTestUtils.anyListOf;
 import static com.thebuzzmedia.exiftool.tests.ReflectionTestUtils.writePrivateField;
-import static com.thebuzzmedia.exiftool.tests.TestConstants.BR;
+import static java.lang.Thread.sleep;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -101,9 +114,10 @@ class StayOpenStrategyTest {
 		inOrder.verify(executor).start(cmdCaptor.capture());
 		inOrder.verify(scheduler).stop();
 		inOrder.verify(scheduler).start(any(Runnable.class));
-		inOrder.verify(process).write(argsCaptor.capture());
+		inOrder.verify(process).writeLines(asList("-echo4", "{err1}"));
+		inOrder.verify(process).writeLines(argsCaptor.capture());
 		inOrder.verify(process).flush();
-		inOrder.verify(process).read(any(OutputHandler.class));
+		inOrder.verify(process).stream(any(OutputHandler.class));
 
 		assertThat(strategy).extracting("process").isSameAs(process);
 
@@ -111,6 +125,61 @@ class StayOpenStrategyTest {
 		verifyExecutionArguments(argsCaptor);
 	}
 
+	@Test
+	void it_should_write_all_commands_before_reading_their_output() throws Exception {
+		List<String> args2 = asList("-S", "-Artist=foo", "/tmp/foo.png", "-execute");
+		OutputHandler outputHandler2 = mock(OutputHandler.class);
+
+		strategy = new StayOpenStrategy(scheduler);
+		strategy.executeAll(executor, exifTool, asList(args, args2), asList(outputHandler, outputHandler2));
+
+		InOrder inOrder = inOrder(executor, process);
+		inOrder.verify(executor).start(any(Command.class));
+		inOrder.verify(process).writeLines(asList("-echo4", "{err1}"));
+		inOrder.verify(process).writeLines(args);
+		inOrder.verify(process).writeLines(asList("-echo4", "{err2}"));
+		inOrder.verify(process).writeLines(args2);
+		inOrder.verify(process).flush();
+		inOrder.verify(process).stream(outputHandler);
+		inOrder.verify(process).readErrors(outputHandler, "{err1}");
+		inOrder.verify(process).stream(outputHandler2);
+		inOrder.verify(process).readErrors(outputHandler2, "{err2}");
+	}
+
+	@Test
+	void it_should_fail_to_execute_commands_without_handlers() {
+		strategy = new StayOpenStrategy(scheduler);
+
+		assertThatThrownBy(() -> strategy.executeAll(executor, exifTool, asList(args, args), singletonList(outputHandler)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Each command must have its own handler");
+	}
+
+	@Test
+	void it_should_write_encoded_arguments() throws Exception {
+		EncodedArguments encodedArgs = EncodedArguments.of(args);
+
+		strategy = new StayOpenStrategy(scheduler);
+		strategy.execute(executor, exifTool, encodedArgs, outputHandler);
+
+		InOrder inOrder = inOrder(process);
+		inOrder.verify(process).writeLines(asList("-echo4", "{err1}"));
+		inOrder.verify(process).write(encodedArgs);
+		inOrder.verify(process).flush();
+		inOrder.verify(process).stream(outputHandler);
+		inOrder.verify(process).readErrors(outputHandler, "{err1}");
+	}
+
+	@Test
+	void it_should_start_process_on_prewarm() throws Exception {
+		strategy = new StayOpenStrategy(scheduler);
+		strategy.prewarm(executor, exifTool, args, outputHandler);
+
+		verify(executor).start(any(Command.class));
+		verify(process).stream(outputHandler);
+		assertThat(strategy).extracting("process").isSameAs(process);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	void it_should_not_start_process_twice_if_it_is_running() throws Exception {
@@ -119,6 +188,7 @@ class StayOpenStrategyTest {
 		// Mock Process
 		writePrivateField(strategy, "process", process);
 		when(process.isClosed()).thenReturn(false);
+		when(process.isRunning()).thenReturn(true);
 
 		strategy.execute(executor, exifTool, args, outputHandler);
 
@@ -130,9 +200,10 @@ class StayOpenStrategyTest {
 		inOrder.verify(process).isClosed();
 		inOrder.verify(scheduler).stop();
 		inOrder.verify(scheduler).start(any(Runnable.class));
-		inOrder.verify(process).write(argsCaptor.capture());
+		inOrder.verify(process).writeLines(asList("-echo4", "{err1}"));
+		inOrder.verify(process).writeLines(argsCaptor.capture());
 		inOrder.verify(process).flush();
-		inOrder.verify(process).read(any(OutputHandler.class));
+		inOrder.verify(process).stream(any(OutputHandler.class));
 
 		verifyExecutionArguments(argsCaptor);
 	}
@@ -155,9 +226,10 @@ class StayOpenStrategyTest {
 		inOrder.verify(executor).start(cmdCaptor.capture());
 		inOrder.verify(scheduler).stop();
 		inOrder.verify(scheduler).start(any(Runnable.class));
-		inOrder.verify(process).write(argsCaptor.capture());
+		inOrder.verify(process).writeLines(asList("-echo4", "{err1}"));
+		inOrder.verify(process).writeLines(argsCaptor.capture());
 		inOrder.verify(process).flush();
-		inOrder.verify(process).read(any(OutputHandler.class));
+		inOrder.verify(process).stream(any(OutputHandler.class));
 
 		verifyStartProcess(cmdCaptor);
 		verifyExecutionArguments(argsCaptor);
@@ -233,23 +305,268 @@ class StayOpenStrategyTest {
 
 	private void verifyExecutionArguments(ArgumentCaptor<List<String>> argsCaptor) {
 		List<String> processArgs = argsCaptor.getValue();
-		assertThat(processArgs)
-				.isNotEmpty()
-				.are(new Condition<String>() {
-					@Override
-					public boolean matches(String value) {
-						return value.endsWith(BR);
-					}
-				})
-				.isEqualTo(appendBr(args));
-	}
-
-	private List<String> appendBr(List<String> list) {
-		List<String> results = new ArrayList<>(list.size());
-		for (String input : list) {
-			results.add(input + BR);
+		assertThat(processArgs).isNotEmpty().isEqualTo(args);
+	}
+
+	@Test
+	void it_should_kill_process_when_command_times_out() throws Exception {
+		CountDownLatch killed = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			killed.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(process).stream(outputHandler);
+		doAnswer(invocation -> {
+			killed.countDown();
+			return null;
+		}).when(process).destroy();
+
+		strategy = new StayOpenStrategy(scheduler).withCommandTimeout(millis(50));
+
+		assertThatThrownBy(() -> strategy.execute(executor, exifTool, args, outputHandler))
+				.isInstanceOf(CommandTimeoutException.class)
+				.hasMessage("ExifTool command did not complete within 50 MILLISECONDS, process has been killed");
+
+		verify(process).destroy();
+		verify(process).close();
+		verify(process, never()).readErrors(same(outputHandler), anyString());
+		assertThat(strategy).extracting("process").isNull();
+
+		// Next execution starts a new process.
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process2);
+		strategy.execute(executor, exifTool, args, outputHandler);
+		verify(process2).stream(outputHandler);
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_not_kill_process_when_command_completes_in_time() throws Exception {
+		strategy = new StayOpenStrategy(scheduler).withCommandTimeout(millis(50));
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		Thread.sleep(100);
+
+		verify(process).stream(outputHandler);
+		verify(process).readErrors(outputHandler, "{err1}");
+		verify(process, never()).destroy();
+		assertThat(strategy).extracting("process").isSameAs(process);
+	}
+
+	@Test
+	void it_should_rethrow_error_of_command_completed_in_time() throws Exception {
+		IOException ex = new IOException("fail");
+		doThrow(ex).when(process).stream(outputHandler);
+
+		strategy = new StayOpenStrategy(scheduler).withCommandTimeout(millis(1000));
+
+		assertThatThrownBy(() -> strategy.execute(executor, exifTool, args, outputHandler)).isSameAs(ex);
+		verify(process, never()).destroy();
+	}
+
+	@Test
+	void it_should_restart_process_that_is_not_running_anymore() throws Exception {
+		strategy = new StayOpenStrategy(scheduler);
+		writePrivateField(strategy, "process", process);
+		when(process.isClosed()).thenReturn(false);
+		when(process.isRunning()).thenReturn(false);
+		when(process.getExitStatus()).thenReturn(OptionalInt.of(137));
+
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process2);
+
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		verify(process).close();
+		verify(process, never()).writeLines(args);
+		verify(process2).writeLines(args);
+		verify(process2).stream(outputHandler);
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_be_healthy_if_process_is_not_started() throws Exception {
+		strategy = new StayOpenStrategy(scheduler);
+
+		assertThat(strategy.checkHealth(executor, exifTool)).isTrue();
+
+		verify(executor, never()).start(any(Command.class));
+	}
+
+	@Test
+	void it_should_ping_running_process() throws Exception {
+		strategy = new StayOpenStrategy(scheduler);
+		writePrivateField(strategy, "process", process);
+		when(process.isRunning()).thenReturn(true);
+		doAnswer(invocation -> {
+			OutputHandler handler = invocation.getArgument(0);
+			handler.readLine("12.40");
+			handler.readLine("{ready}");
+			return null;
+		}).when(process).stream(any(OutputHandler.class));
+
+		assertThat(strategy.checkHealth(executor, exifTool)).isTrue();
+
+		InOrder inOrder = inOrder(process);
+		inOrder.verify(process).writeLines(asList("-echo4", "{err1}"));
+		inOrder.verify(process).writeLines(asList("-ver", "-execute"));
+		inOrder.verify(process).readErrors(any(OutputHandler.class), eq("{err1}"));
+		verify(process, never()).close();
+		verify(executor, never()).start(any(Command.class));
+		verify(scheduler, never()).start(any(Runnable.class));
+		assertThat(strategy).extracting("process").isSameAs(process);
+	}
+
+	@Test
+	void it_should_restart_process_that_does_not_answer_ping() throws Exception {
+		strategy = new StayOpenStrategy(scheduler);
+		writePrivateField(strategy, "process", process);
+		when(process.isRunning()).thenReturn(true);
+		doAnswer(invocation -> {
+			OutputHandler handler = invocation.getArgument(0);
+			handler.readLine(null);
+			return null;
+		}).when(process).stream(any(OutputHandler.class));
+
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process2);
+
+		assertThat(strategy.checkHealth(executor, exifTool)).isFalse();
+
+		verify(process).close();
+		verify(executor).start(any(Command.class));
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_restart_process_that_does_not_answer_ping_in_time() throws Exception {
+		strategy = new StayOpenStrategy(scheduler).withCommandTimeout(millis(50));
+		writePrivateField(strategy, "process", process);
+		when(process.isRunning()).thenReturn(true);
+		doAnswer(invocation -> {
+			sleep(500);
+			return null;
+		}).when(process).stream(any(OutputHandler.class));
+
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process2);
+
+		assertThat(strategy.checkHealth(executor, exifTool)).isFalse();
+
+		verify(executor).start(any(Command.class));
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_restart_dead_process_on_health_check() throws Exception {
+		strategy = new StayOpenStrategy(scheduler);
+		writePrivateField(strategy, "process", process);
+		when(process.isRunning()).thenReturn(false);
+
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process2);
+
+		assertThat(strategy.checkHealth(executor, exifTool)).isFalse();
+
+		verify(process, never()).writeLines(anyListOf(String.class));
+		verify(process).close();
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_recycle_process_after_max_requests() throws Exception {
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process, process2);
+		when(process.isRunning()).thenReturn(true);
+
+		strategy = new StayOpenStrategy(scheduler).withRecyclePolicy(RecyclePolicy.recyclePolicy().withMaxRequests(2));
+		strategy.execute(executor, exifTool, args, outputHandler);
+		assertThat(strategy).extracting("process").isSameAs(process);
+
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		// The new process is started before the old one is stopped.
+		InOrder inOrder = inOrder(executor, process);
+		inOrder.verify(executor).start(any(Command.class));
+		inOrder.verify(process).stream(outputHandler);
+		inOrder.verify(process).stream(outputHandler);
+		inOrder.verify(executor).start(any(Command.class));
+		inOrder.verify(process).write("-stay_open\nFalse\n");
+		inOrder.verify(process).close();
+
+		assertThat(strategy).extracting("process").isSameAs(process2);
+		assertThat(strategy).extracting("requests").isEqualTo(0);
+	}
+
+	@Test
+	void it_should_count_batch_commands_to_recycle_process() throws Exception {
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process, process2);
+
+		strategy = new StayOpenStrategy(scheduler).withRecyclePolicy(RecyclePolicy.recyclePolicy().withMaxRequests(2));
+		strategy.executeAll(executor, exifTool, asList(args, args), asList(outputHandler, outputHandler));
+
+		verify(process).close();
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_recycle_process_after_max_lifetime() throws Exception {
+		CommandProcess process2 = mock(CommandProcess.class);
+		when(executor.start(any(Command.class))).thenReturn(process, process2);
+		when(process.isRunning()).thenReturn(true);
+
+		strategy = new StayOpenStrategy(scheduler).withRecyclePolicy(RecyclePolicy.recyclePolicy().withMaxLifetime(millis(1)));
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		// Started at least 1ms before the end of the first command.
+		writePrivateField(strategy, "startedAt", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2));
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		verify(process).close();
+		assertThat(strategy).extracting("process").isSameAs(process2);
+	}
+
+	@Test
+	void it_should_not_read_resident_memory_after_each_command() throws Exception {
+		when(executor.start(any(Command.class))).thenReturn(process);
+		when(process.isRunning()).thenReturn(true);
+		when(process.getPid()).thenReturn(-1L);
+
+		strategy = new StayOpenStrategy(scheduler).withRecyclePolicy(RecyclePolicy.recyclePolicy().withMaxResidentMemory(Long.MAX_VALUE));
+		for (int i = 0; i < 10; i++) {
+			strategy.execute(executor, exifTool, args, outputHandler);
 		}
 
-		return results;
+		verify(process, never()).getPid();
+
+		sleep(1100);
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		verify(process).getPid();
+		assertThat(strategy).extracting("process").isSameAs(process);
+	}
+
+	@Test
+	void it_should_keep_process_if_it_cannot_be_recycled() throws Exception {
+		when(executor.start(any(Command.class))).thenReturn(process).thenThrow(new IOException("fail"));
+
+		strategy = new StayOpenStrategy(scheduler).withRecyclePolicy(RecyclePolicy.recyclePolicy().withMaxRequests(1));
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		verify(process, never()).close();
+		assertThat(strategy).extracting("process").isSameAs(process);
+	}
+
+	@Test
+	void it_should_not_recycle_process_without_policy() throws Exception {
+		when(process.isRunning()).thenReturn(true);
+
+		strategy = new StayOpenStrategy(scheduler).withRecyclePolicy(RecyclePolicy.recyclePolicy());
+		assertThat(strategy).extracting("recyclePolicy").isNull();
+
+		strategy.execute(executor, exifTool, args, outputHandler);
+		strategy.execute(executor, exifTool, args, outputHandler);
+
+		verify(process, never()).close();
 	}
 }
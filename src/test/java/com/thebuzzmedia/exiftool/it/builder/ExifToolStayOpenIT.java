@@ -17,7 +17,22 @@
 
 package com.thebuzzmedia.exiftool.it.builder;
 
+import com.thebuzzmedia.exiftool.ExifTool;
 import com.thebuzzmedia.exiftool.ExifToolBuilder;
+import com.thebuzzmedia.exiftool.core.StandardTag;
+import com.thebuzzmedia.exiftool.core.WriteResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.thebuzzmedia.exiftool.tests.TestConstants.EXIF_TOOL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
 
 class ExifToolStayOpenIT extends AbstractExifToolIT {
 
@@ -25,4 +40,33 @@ class ExifToolStayOpenIT extends AbstractExifToolIT {
 	ExifToolBuilder create() {
 		return new ExifToolBuilder().enableStayOpen();
 	}
+
+	@Test
+	void it_should_give_errors_to_the_command_that_printed_them(@TempDir File tmpFolder) throws Exception {
+		File invalid = new File(tmpFolder, "invalid.jpg");
+		Files.write(invalid.toPath(), "foo".getBytes(UTF_8));
+		File valid = new File(tmpFolder, "valid.jpg");
+		Files.copy(new File("src/test/resources/images/nexus-s-electric-cars.jpg").toPath(), valid.toPath());
+
+		Map<StandardTag, String> tags = singletonMap(StandardTag.ARTIST, "foo");
+		Map<File, Map<StandardTag, String>> images = new LinkedHashMap<>();
+		images.put(invalid, tags);
+		images.put(valid, tags);
+
+		try (ExifTool exifTool = create().withPath(EXIF_TOOL.getAbsolutePath()).build()) {
+			WriteResult failure = exifTool.writeImageMeta(invalid, tags);
+			WriteResult success = exifTool.writeImageMeta(valid, tags);
+			Map<File, WriteResult> results = exifTool.setImageMeta(images);
+
+			assertThat(failure.isSuccess()).isFalse();
+			assertThat(failure.getErrors()).singleElement().asString().contains(invalid.getName());
+			assertThat(success.isSuccess()).isTrue();
+			assertThat(success.getErrors()).isEmpty();
+
+			assertThat(results.get(invalid).isSuccess()).isFalse();
+			assertThat(results.get(invalid).getErrors()).singleElement().asString().contains(invalid.getName());
+			assertThat(results.get(valid).isSuccess()).isTrue();
+			assertThat(results.get(valid).getErrors()).isEmpty();
+		}
+	}
 }
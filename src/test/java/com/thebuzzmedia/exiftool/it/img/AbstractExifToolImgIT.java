@@ -33,6 +33,7 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.util.List;
 import java.util.Map;
 
 import static com.thebuzzmedia.exiftool.tests.FileTestUtils.copy;
@@ -51,12 +52,14 @@ public abstract class AbstractExifToolImgIT {
 	private ExifTool exifTool;
 	private ExifTool exifToolStayOpen;
 	private ExifTool exifToolPool;
+	private ExifTool exifToolPipelined;
 
 	@BeforeEach
 	void setUp() {
 		exifTool = new ExifToolBuilder().withPath(PATH).build();
 		exifToolStayOpen = new ExifToolBuilder().withPath(PATH).enableStayOpen().build();
 		exifToolPool = new ExifToolBuilder().withPath(PATH).withPoolSize(2).build();
+		exifToolPipelined = new ExifToolBuilder().withPath(PATH).enablePipelining(4).build();
 	}
 
 	@AfterEach
@@ -64,6 +67,7 @@ public abstract class AbstractExifToolImgIT {
 		exifTool.close();
 		exifToolStayOpen.close();
 		exifToolPool.close();
+		exifToolPipelined.close();
 	}
 
 	@Test
@@ -92,11 +96,27 @@ public abstract class AbstractExifToolImgIT {
 		verifyGetMeta(exifToolStayOpen);
 	}
 
+	@Test
+	void test_get_image_meta_pipelined() throws Exception {
+		verifyGetMeta(exifToolPipelined);
+		verifyGetMeta(exifToolPipelined);
+	}
+
 	@Test
 	void test_get_image_meta_pool() throws Exception {
 		verifyGetMeta(exifToolPool);
 	}
 
+	@Test
+	void test_get_image_meta_batch(@TempDir File tmpFolder) throws Exception {
+		verifyGetBatchMeta(exifTool, tmpFolder);
+	}
+
+	@Test
+	void test_get_image_meta_batch_stay_open(@TempDir File tmpFolder) throws Exception {
+		verifyGetBatchMeta(exifToolStayOpen, tmpFolder);
+	}
+
 	@Test
 	void test_set_image_meta(@TempDir File tmpFolder) throws Exception {
 		verifySetMeta(exifTool, tmpFolder);
@@ -127,6 +147,19 @@ public abstract class AbstractExifToolImgIT {
 		checkAllMetaContains(exifTool, file, expectations());
 	}
 
+	private void verifyGetBatchMeta(ExifTool exifTool, File tmpFolder) throws Exception {
+		ExifToolOptions options = StandardOptions.builder().withFormat(StandardFormat.HUMAN_READABLE).build();
+		File file = new File("src/test/resources/images/" + image());
+		File tmpCopy = copy(file, tmpFolder);
+		List<Tag> tags = asList(StandardTag.values());
+
+		Map<File, Map<Tag, String>> results = exifTool.getImageMeta(asList(file, tmpCopy), options, tags);
+
+		assertThat(results).hasSize(2).containsOnlyKeys(file, tmpCopy);
+		assertThat(results.get(file)).isEqualTo(exifTool.getImageMeta(file, options, tags));
+		assertThat(results.get(tmpCopy)).isEqualTo(exifTool.getImageMeta(tmpCopy, options, tags));
+	}
+
 	private void verifySetMeta(ExifTool exifTool, File tmpFolder) throws Exception {
 		ExifToolOptions options = StandardOptions.builder().withFormat(StandardFormat.HUMAN_READABLE).build();
 		File file = new File("src/test/resources/images/" + image());
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.thebuzzmedia.exiftool.process.command;
+
+import com.thebuzzmedia.exiftool.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EncodedArgumentsTest {
+
+	@Test
+	void it_should_append_arguments() {
+		EncodedArguments prefix = EncodedArguments.of(asList("-n", "-S"));
+		EncodedArguments arguments = prefix.append("/tmp/foo.png", "-execute");
+
+		assertThat(prefix).hasSize(2).containsExactly("-n", "-S");
+		assertThat(arguments).hasSize(4).containsExactly("-n", "-S", "/tmp/foo.png", "-execute");
+		assertThat(arguments).isEqualTo(asList("-n", "-S", "/tmp/foo.png", "-execute"));
+	}
+
+	@Test
+	void it_should_write_arguments() throws Exception {
+		EncodedArguments prefix = EncodedArguments.of(asList("-n", "-Artist"));
+		ByteArrayOutputStream os1 = new ByteArrayOutputStream();
+		ByteArrayOutputStream os2 = new ByteArrayOutputStream();
+
+		prefix.append("/tmp/été.png", "-execute").writeTo(os1, StandardCharsets.UTF_8);
+		prefix.append("/tmp/bar.png", "-execute").writeTo(os2, StandardCharsets.ISO_8859_1);
+
+		String br = Constants.BR;
+		assertThat(new String(os1.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("-n" + br + "-Artist" + br + "/tmp/été.png" + br + "-execute" + br);
+		assertThat(new String(os2.toByteArray(), StandardCharsets.ISO_8859_1)).isEqualTo("-n" + br + "-Artist" + br + "/tmp/bar.png" + br + "-execute" + br);
+	}
+
+	@Test
+	void it_should_fail_with_invalid_index() {
+		EncodedArguments arguments = EncodedArguments.of(asList("-n", "-S")).append("-execute");
+		assertThatThrownBy(() -> arguments.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	void it_should_not_create_arguments_with_null_argument() {
+		assertThatThrownBy(() -> EncodedArguments.of(asList("-n", null)))
+				.isInstanceOf(NullPointerException.class)
+				.hasMessage("Argument should not be null");
+	}
+}
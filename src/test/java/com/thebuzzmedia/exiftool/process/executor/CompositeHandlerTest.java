@@ -73,4 +73,18 @@ class CompositeHandlerTest {
 		verify(h1).readLine(end);
 		verify(h2).readLine(end);
 	}
+
+	@Test
+	void it_should_read_error_line() {
+		String line = "Warning: foo";
+
+		OutputHandler h1 = mock(OutputHandler.class);
+		OutputHandler h2 = mock(OutputHandler.class);
+
+		CompositeHandler handler = new CompositeHandler(h1, h2);
+		handler.readErrorLine(line);
+
+		verify(h1).readErrorLine(line);
+		verify(h2).readErrorLine(line);
+	}
 }
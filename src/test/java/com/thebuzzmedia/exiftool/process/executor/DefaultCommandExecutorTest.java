@@ -85,6 +85,24 @@ class DefaultCommandExecutorTest {
 		assertThat(result.getOutput()).isEqualTo("Hello World");
 	}
 
+	@Test
+	void it_should_stream_command_line_output_to_handler() throws Exception {
+		assumeFalse(IS_WINDOWS);
+
+		File script = new File(getClass().getResource("/processes/success.sh").getFile());
+		Command command = createUnixCommand(script.getAbsolutePath());
+		OutputHandler handler = mock(OutputHandler.class);
+
+		CommandExecutor executor = new DefaultCommandExecutor();
+		CommandResult result = executor.stream(command, handler);
+
+		verify(handler).readLine("Hello World");
+
+		assertThat(result).isNotNull();
+		assertThat(result.getExitStatus()).isZero();
+		assertThat(result.getOutput()).isNull();
+	}
+
 	@Test
 	void it_should_start_command_line() throws Exception {
 		assumeFalse(IS_WINDOWS);
@@ -17,7 +17,9 @@
 
 package com.thebuzzmedia.exiftool.process.executor;
 
+import com.thebuzzmedia.exiftool.commons.reflection.ClassUtils;
 import com.thebuzzmedia.exiftool.process.OutputHandler;
+import com.thebuzzmedia.exiftool.process.command.EncodedArguments;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 
@@ -27,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.thebuzzmedia.exiftool.tests.TestConstants.BR;
@@ -36,12 +39,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class DefaultCommandProcessTest {
@@ -257,6 +263,44 @@ class DefaultCommandProcessTest {
 		verify(handler, never()).readLine(thirdLine);
 	}
 
+	@Test
+	void it_should_stream_output_to_handler() throws Exception {
+		String output = "first-line" + BR + "{ready}" + BR + "second-line" + BR;
+		InputStream stream = new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8));
+		OutputHandler handler = mock(OutputHandler.class);
+		when(handler.readLine(anyString())).thenAnswer((Answer<Boolean>) invocation -> !"{ready}".equals(invocation.getArguments()[0]));
+
+		DefaultCommandProcess process = new DefaultCommandProcess(stream, mock(OutputStream.class), mock(InputStream.class));
+		process.stream(handler);
+
+		verify(handler).readLine("first-line");
+		verify(handler).readLine("{ready}");
+		verify(handler, never()).readLine("second-line");
+	}
+
+	@Test
+	void it_should_not_stream_from_closed_process() throws Exception {
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), mock(OutputStream.class), mock(InputStream.class));
+
+		process.close();
+
+		assertThatThrownBy(() -> process.stream(mock(OutputHandler.class)))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Cannot read from closed process");
+	}
+
+	@Test
+	void it_should_read_consecutive_outputs_without_losing_buffered_lines() throws Exception {
+		String output = "first-line" + BR + "{ready}" + BR + "second-line" + BR + "{ready}" + BR;
+		InputStream stream = new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8));
+		OutputHandler handler = line -> line != null && !line.equals("{ready}");
+
+		DefaultCommandProcess process = new DefaultCommandProcess(stream, mock(OutputStream.class), mock(InputStream.class));
+
+		assertThat(process.read(handler)).isEqualTo("first-line" + BR + "{ready}");
+		assertThat(process.read(handler)).isEqualTo("second-line" + BR + "{ready}");
+	}
+
 	@Test
 	void it_should_write_from_output() throws Exception {
 		ByteArrayOutputStream os = new ByteArrayOutputStream();
@@ -268,6 +312,42 @@ class DefaultCommandProcessTest {
 		assertThat(os.toString()).isEqualTo(message);
 	}
 
+	@Test
+	void it_should_write_encoded_arguments() throws Exception {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		EncodedArguments arguments = EncodedArguments.of(asList("-n", "-S")).append("-execute");
+
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), os, mock(InputStream.class));
+		process.write(arguments);
+
+		assertThat(os.toString()).isEqualTo("-n" + BR + "-S" + BR + "-execute" + BR);
+	}
+
+	@Test
+	void it_should_write_lines_at_once() throws Exception {
+		OutputStream os = mock(OutputStream.class);
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		doAnswer(invocation -> {
+			written.write((byte[]) invocation.getArguments()[0], (int) invocation.getArguments()[1], (int) invocation.getArguments()[2]);
+			return null;
+		}).when(os).write(any(byte[].class), anyInt(), anyInt());
+
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), os, mock(InputStream.class));
+		process.writeLines(asList("-n", "-S", "-execute"));
+		process.writeLines(asList("-Artist", "-execute"));
+
+		verify(os, times(2)).write(any(byte[].class), anyInt(), anyInt());
+		assertThat(written.toString()).isEqualTo("-n" + BR + "-S" + BR + "-execute" + BR + "-Artist" + BR + "-execute" + BR);
+	}
+
+	@Test
+	void it_should_not_write_empty_lines() {
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), mock(OutputStream.class), mock(InputStream.class));
+		assertThatThrownBy(() -> process.writeLines(emptyList()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Write inputs should not be empty");
+	}
+
 	@Test
 	void it_should_catch_write_failure() throws Exception {
 		OutputStream os = mock(OutputStream.class);
@@ -327,4 +407,148 @@ class DefaultCommandProcessTest {
 
 		assertThat(os.toString()).isEqualTo(msg1 + msg2);
 	}
+
+	@Test
+	void it_should_read_errors_in_dedicated_thread() throws Exception {
+		InputStream err = new ByteArrayInputStream(("Warning: foo" + BR + "Error: bar" + BR + "{err1}" + BR + "Error: baz" + BR + "{err2}" + BR).getBytes(StandardCharsets.UTF_8));
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), mock(OutputStream.class), err, true);
+		ErrorLines handler1 = new ErrorLines();
+		ErrorLines handler2 = new ErrorLines();
+
+		process.readErrors(handler1, "{err1}");
+		process.readErrors(handler2, "{err2}");
+
+		assertThat(handler1.lines).containsExactly("Warning: foo", "Error: bar");
+		assertThat(handler2.lines).containsExactly("Error: baz");
+	}
+
+	@Test
+	void it_should_not_read_errors_by_default() {
+		InputStream err = mock(InputStream.class);
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), mock(OutputStream.class), err);
+		ErrorLines handler = new ErrorLines();
+
+		process.readErrors(handler, "{err1}");
+
+		assertThat(handler.lines).isEmpty();
+		verifyNoInteractions(err);
+	}
+
+	@Test
+	void it_should_kill_process_on_destroy() throws Exception {
+		Process proc = mock(Process.class);
+		when(proc.getInputStream()).thenReturn(mock(InputStream.class));
+		when(proc.getOutputStream()).thenReturn(mock(OutputStream.class));
+		when(proc.getErrorStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+		DefaultCommandProcess process = new DefaultCommandProcess(proc);
+		process.destroy();
+
+		verify(proc).destroyForcibly();
+		assertThat(process.isClosed()).isFalse();
+	}
+
+	@Test
+	void it_should_close_streams_on_destroy_without_process() throws Exception {
+		OutputStream os = mock(OutputStream.class);
+		InputStream is = mock(InputStream.class);
+		InputStream err = mock(InputStream.class);
+
+		DefaultCommandProcess process = new DefaultCommandProcess(is, os, err);
+		process.destroy();
+
+		verify(is).close();
+		verify(os).close();
+		verify(err).close();
+		assertThat(process.isClosed()).isTrue();
+	}
+
+	@Test
+	void it_should_not_be_running_once_process_is_dead() {
+		Process proc = mock(Process.class);
+		when(proc.getInputStream()).thenReturn(mock(InputStream.class));
+		when(proc.getOutputStream()).thenReturn(mock(OutputStream.class));
+		when(proc.getErrorStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+		when(proc.isAlive()).thenReturn(true, false);
+		when(proc.exitValue()).thenReturn(137);
+
+		DefaultCommandProcess process = new DefaultCommandProcess(proc);
+
+		assertThat(process.isRunning()).isTrue();
+		assertThat(process.isRunning()).isFalse();
+		assertThat(process.isClosed()).isFalse();
+		assertThat(process.getExitStatus()).hasValue(137);
+	}
+
+	@Test
+	void it_should_get_pid_of_process() {
+		DefaultCommandProcess process = new DefaultCommandProcess(new PidProcess(42));
+
+		// Process#pid is only available with Java >= 9.
+		long expectedPid = ClassUtils.isPresent("java.lang.ProcessHandle") ? 42 : -1;
+		assertThat(process.getPid()).isEqualTo(expectedPid);
+	}
+
+	@Test
+	void it_should_not_get_pid_without_process() {
+		DefaultCommandProcess process = new DefaultCommandProcess(mock(InputStream.class), mock(OutputStream.class), mock(InputStream.class));
+		assertThat(process.getPid()).isEqualTo(-1);
+		assertThat(process.getExitStatus()).isEmpty();
+	}
+
+	private static final class ErrorLines implements OutputHandler {
+		private final List<String> lines = new ArrayList<>();
+
+		@Override
+		public boolean readLine(String line) {
+			return true;
+		}
+
+		@Override
+		public void readErrorLine(String line) {
+			lines.add(line);
+		}
+	}
+
+	private static final class PidProcess extends Process {
+		private final long pid;
+
+		private PidProcess(long pid) {
+			this.pid = pid;
+		}
+
+		// Overrides Process#pid with Java >= 9.
+		public long pid() {
+			return pid;
+		}
+
+		@Override
+		public OutputStream getOutputStream() {
+			return new ByteArrayOutputStream();
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+
+		@Override
+		public InputStream getErrorStream() {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+
+		@Override
+		public int waitFor() {
+			return 0;
+		}
+
+		@Override
+		public int exitValue() {
+			return 0;
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
 }
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2011 The Buzz Media, LLC
+ * Copyright 2015-2019 Mickael Jeanroy
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thebuzzmedia.exiftool.process.executor;
+
+import com.thebuzzmedia.exiftool.process.OutputHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.thebuzzmedia.exiftool.tests.TestConstants.BR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ErrorStreamReaderTest {
+
+	@Test
+	void it_should_drain_lines_until_marker() {
+		ErrorStreamReader reader = ErrorStreamReader.start(toStream("Warning: foo" + BR + "Error: bar" + BR + "{err1}" + BR + "Error: baz" + BR + "{err2}" + BR));
+		ErrorLines handler1 = new ErrorLines();
+		ErrorLines handler2 = new ErrorLines();
+
+		reader.drain(handler1, "{err1}");
+		reader.drain(handler2, "{err2}");
+
+		assertThat(handler1.lines).containsExactly("Warning: foo", "Error: bar");
+		assertThat(handler2.lines).containsExactly("Error: baz");
+	}
+
+	@Test
+	void it_should_wait_for_marker_before_next_command_errors() throws Exception {
+		PipedOutputStream err = new PipedOutputStream();
+		ErrorStreamReader reader = ErrorStreamReader.start(new PipedInputStream(err));
+		ErrorLines handler1 = new ErrorLines();
+		ErrorLines handler2 = new ErrorLines();
+
+		write(err, "Error: foo");
+		CompletableFuture<Void> drain1 = CompletableFuture.runAsync(() -> reader.drain(handler1, "{err1}"));
+		await().atMost(5, TimeUnit.SECONDS).until(() -> handler1.lines.size() == 1);
+		assertThat(drain1).isNotDone();
+
+		// Errors of the first command printed late must not be given to the second command.
+		write(err, "Error: bar", "{err1}", "Error: baz", "{err2}");
+		drain1.get(5, TimeUnit.SECONDS);
+		reader.drain(handler2, "{err2}");
+
+		assertThat(handler1.lines).containsExactly("Error: foo", "Error: bar");
+		assertThat(handler2.lines).containsExactly("Error: baz");
+	}
+
+	@Test
+	void it_should_consume_lines_until_marker_if_handler_fails() {
+		ErrorStreamReader reader = ErrorStreamReader.start(toStream("Error: foo" + BR + "Error: bar" + BR + "{err1}" + BR + "Error: baz" + BR + "{err2}" + BR));
+		IllegalStateException failure = new IllegalStateException("Handler failure");
+		OutputHandler failing = new OutputHandler() {
+			@Override
+			public boolean readLine(String line) {
+				return true;
+			}
+
+			@Override
+			public void readErrorLine(String line) {
+				throw failure;
+			}
+		};
+
+		assertThatThrownBy(() -> reader.drain(failing, "{err1}")).isSameAs(failure);
+
+		ErrorLines handler = new ErrorLines();
+		reader.drain(handler, "{err2}");
+		assertThat(handler.lines).containsExactly("Error: baz");
+	}
+
+	@Test
+	void it_should_drop_late_marker_of_previous_command() {
+		// Marker of command #1 has not been read in time, it is printed before errors of command #2.
+		ErrorStreamReader reader = ErrorStreamReader.start(toStream("{err1}" + BR + "Error: baz" + BR + "{err2}" + BR));
+		ErrorLines handler = new ErrorLines();
+
+		reader.drain(handler, "{err2}");
+
+		assertThat(handler.lines).containsExactly("Error: baz");
+	}
+
+	@Test
+	void it_should_stop_draining_at_end_of_error_output() {
+		ErrorStreamReader reader = ErrorStreamReader.start(toStream("Error: foo" + BR));
+		ErrorLines handler = new ErrorLines();
+
+		reader.drain(handler, "{err1}");
+
+		assertThat(handler.lines).containsExactly("Error: foo");
+	}
+
+	@Test
+	void it_should_drop_oldest_lines_when_nobody_drains_them() {
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i <= ErrorStreamReader.MAX_LINES; i++) {
+			output.append("Warning: ").append(i).append(BR);
+		}
+
+		ByteArrayInputStream stream = toStream(output.toString());
+		ErrorStreamReader reader = ErrorStreamReader.start(stream);
+		ErrorLines handler = new ErrorLines();
+
+		// Wait for the whole stream to be read before draining anything.
+		await().atMost(5, TimeUnit.SECONDS).until(() -> stream.available() == 0);
+		reader.drain(handler, "{err1}");
+
+		assertThat(handler.lines).hasSize(ErrorStreamReader.MAX_LINES);
+		assertThat(handler.lines.get(0)).isEqualTo("Warning: 1");
+		assertThat(handler.lines.get(ErrorStreamReader.MAX_LINES - 1)).isEqualTo("Warning: " + ErrorStreamReader.MAX_LINES);
+	}
+
+	private static ByteArrayInputStream toStream(String output) {
+		return new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void write(PipedOutputStream err, String... lines) throws Exception {
+		for (String line : lines) {
+			err.write((line + BR).getBytes(StandardCharsets.UTF_8));
+		}
+
+		err.flush();
+	}
+
+	private static final class ErrorLines implements OutputHandler {
+		private final List<String> lines = new CopyOnWriteArrayList<>();
+
+		@Override
+		public boolean readLine(String line) {
+			return true;
+		}
+
+		@Override
+		public void readErrorLine(String line) {
+			lines.add(line);
+		}
+	}
+}